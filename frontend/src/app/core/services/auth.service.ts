@@ -87,6 +87,9 @@ export class AuthService {
       }
       
       this._isInitializing.set(false);
+      
+      // Open the notification stream once construction is done (the ticket request goes through the auth interceptor)
+      setTimeout(() => this.sseService.connect(), 0);
     } else if (token) {
       // Token expired, try refresh (delay to avoid circular dependency)
       setTimeout(() => this.attemptTokenRefresh(), 100);
@@ -296,8 +299,8 @@ export class AuthService {
     this._currentUser.set(user);
     this._isAuthenticated.set(true);
     
-    // SSE disabled - causing 401 errors
-    // this.sseService.connect(token);
+    // Unread count and new notifications are pushed over SSE from here on
+    this.sseService.connect();
     
     // Load initial notification count
     this.inAppNotificationService.getUnreadCount().subscribe();
@@ -316,8 +319,7 @@ export class AuthService {
     localStorage.removeItem(environment.auth.refreshTokenKey);
     localStorage.removeItem('user_display_name');
     
-    // SSE disabled
-    // this.sseService.disconnect();
+    this.sseService.disconnect();
     
     // Clear notification state
     this.inAppNotificationService.clear();
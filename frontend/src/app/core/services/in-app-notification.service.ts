@@ -188,15 +188,19 @@ export class InAppNotificationService {
 
   /**
    * Add new notification (for SSE)
+   * A digest the server merged into is pushed again with the same id and replaces the old entry.
+   * The unread badge is driven by the separate 'unread-count' event.
    */
   addNotification(notification: InAppNotification): void {
-    const currentNotifications = this.notificationsSignal();
-    this.notificationsSignal.set([notification, ...currentNotifications]);
-    
-    if (!notification.isRead) {
-      const currentCount = this.unreadCountSignal();
-      this.unreadCountSignal.set(currentCount + 1);
-    }
+    const others = this.notificationsSignal().filter(existing => existing.id !== notification.id);
+    this.notificationsSignal.set([notification, ...others]);
+  }
+
+  /**
+   * Set unread count pushed by the server (for SSE)
+   */
+  setUnreadCount(count: number): void {
+    this.unreadCountSignal.set(count);
   }
 
   /**
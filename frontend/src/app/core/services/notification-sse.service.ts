@@ -1,4 +1,6 @@
 import { Injectable, NgZone } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Subscription } from 'rxjs';
 import { environment } from '../../../environments/environment';
 import { InAppNotification } from '../models/in-app-notification.model';
 import { InAppNotificationService } from './in-app-notification.service';
@@ -9,29 +11,45 @@ import { InAppNotificationService } from './in-app-notification.service';
 export class NotificationSseService {
   private eventSource: EventSource | null = null;
   private readonly SSE_URL = `${environment.apiUrl}/notifications/stream`;
+  private readonly TICKET_URL = `${environment.apiUrl}/notifications/stream-ticket`;
   private reconnectAttempts = 0;
   private readonly MAX_RECONNECT_ATTEMPTS = 5;
   private reconnectTimeout: any;
+  private ticketRequest: Subscription | null = null;
 
   constructor(
+    private http: HttpClient,
     private notificationService: InAppNotificationService,
     private ngZone: NgZone
   ) {}
 
   /**
    * Connect to SSE stream
+   * EventSource cannot send the Authorization header, so a single-use ticket is fetched first
+   * and passed in the URL instead of the JWT.
    */
-  connect(token: string): void {
-    if (this.eventSource) {
+  connect(): void {
+    if (this.eventSource || this.ticketRequest) {
       console.log('SSE already connected');
       return;
     }
 
     console.log('Connecting to SSE stream...');
 
-    // Add token to URL
-    const url = `${this.SSE_URL}?token=${token}`;
+    this.ticketRequest = this.http.post<{ ticket: string }>(this.TICKET_URL, {}).subscribe({
+      next: response => {
+        this.ticketRequest = null;
+        this.open(`${this.SSE_URL}?ticket=${encodeURIComponent(response.ticket)}`);
+      },
+      error: error => {
+        this.ticketRequest = null;
+        console.error('Failed to get SSE stream ticket:', error);
+        this.handleConnectionError();
+      }
+    });
+  }
 
+  private open(url: string): void {
     this.ngZone.runOutsideAngular(() => {
       this.eventSource = new EventSource(url);
 
@@ -42,7 +60,19 @@ export class NotificationSseService {
         });
       };
 
-      this.eventSource.onmessage = (event) => {
+      // Server sends named events: 'notification' for new items, 'unread-count' for badge updates
+      this.eventSource.addEventListener('unread-count', (event: MessageEvent) => {
+        this.ngZone.run(() => {
+          try {
+            const payload: { count: number } = JSON.parse(event.data);
+            this.notificationService.setUnreadCount(payload.count);
+          } catch (error) {
+            console.error('Failed to parse unread count event:', error);
+          }
+        });
+      });
+
+      this.eventSource.addEventListener('notification', (event: MessageEvent) => {
         this.ngZone.run(() => {
           try {
             const notification: InAppNotification = JSON.parse(event.data);
@@ -60,7 +90,7 @@ export class NotificationSseService {
             console.error('Failed to parse SSE message:', error);
           }
         });
-      };
+      });
 
       this.eventSource.onerror = (error) => {
         this.ngZone.run(() => {
@@ -86,6 +116,9 @@ export class NotificationSseService {
       this.reconnectTimeout = null;
     }
 
+    this.ticketRequest?.unsubscribe();
+    this.ticketRequest = null;
+
     this.reconnectAttempts = 0;
   }
 
@@ -103,9 +136,9 @@ export class NotificationSseService {
       console.log(`Attempting to reconnect in ${delay}ms (attempt ${this.reconnectAttempts}/${this.MAX_RECONNECT_ATTEMPTS})`);
       
       this.reconnectTimeout = setTimeout(() => {
-        const token = localStorage.getItem('token');
-        if (token) {
-          this.connect(token);
+        this.reconnectTimeout = null;
+        if (localStorage.getItem(environment.auth.tokenKey)) {
+          this.connect();
         }
       }, delay);
     } else {
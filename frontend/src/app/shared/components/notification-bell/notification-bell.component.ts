@@ -2,6 +2,7 @@ import { Component, OnInit, OnDestroy, signal } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { RouterModule } from '@angular/router';
 import { InAppNotificationService } from '../../../core/services/in-app-notification.service';
+import { NotificationSseService } from '../../../core/services/notification-sse.service';
 import { InAppNotification, NOTIFICATION_CONFIGS } from '../../../core/models/in-app-notification.model';
 
 @Component({
@@ -27,15 +28,18 @@ export class NotificationBellComponent implements OnInit, OnDestroy {
 
   private refreshInterval: any;
 
-  constructor(public notificationService: InAppNotificationService) {}
+  constructor(
+    public notificationService: InAppNotificationService,
+    private sseService: NotificationSseService
+  ) {}
 
   ngOnInit(): void {
     // Initial load
     this.loadNotifications();
 
-    // Refresh every 30 seconds
+    // The badge is pushed over SSE; poll every 30 seconds only while the stream is down
     this.refreshInterval = setInterval(() => {
-      if (!this.showDropdown()) {
+      if (!this.showDropdown() && !this.sseService.isConnected()) {
         this.loadNotifications();
       }
     }, 30000);
@@ -0,0 +1,33 @@
+package com.tss.loan.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.tss.loan.service.impl.LocalFileSystemDocumentStorage;
+
+/**
+ * Serves local storage objects at storage.local.public-base-url, so the URLs handed out by
+ * LocalFileSystemDocumentStorage.publicUrl resolve (profile photos, renditions). Spring's
+ * resource handler streams the file and answers Range requests. Uploaded document content
+ * and staged uploads are refused in SecurityConfig; those are read through the document proxy.
+ */
+@Configuration
+@ConditionalOnProperty(name = "storage.provider", havingValue = "local")
+public class LocalStorageWebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private LocalFileSystemDocumentStorage localStorage;
+
+    @Value("${storage.local.public-base-url:/storage/}")
+    private String publicBaseUrl;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(publicBaseUrl + "**")
+            .addResourceLocations(localStorage.getRoot().toUri().toString());
+    }
+}
@@ -3,6 +3,7 @@ package com.tss.loan.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -20,6 +21,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import com.tss.loan.security.JwtAuthenticationEntryPoint;
 import com.tss.loan.security.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 import java.util.Arrays;
 
 @Configuration
@@ -50,6 +53,9 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(jwtAuthenticationEntryPoint))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Async dispatches resume a request that was authorized when it arrived (uploads, streams)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
@@ -57,6 +63,14 @@ public class SecurityConfig {
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 
+                // Document content and rendition links are signed; DocumentContentController checks unsigned requests itself
+                .requestMatchers(HttpMethod.GET,
+                    "/api/documents/*/content", "/api/documents/*/thumbnail", "/api/documents/*/preview").permitAll()
+                
+                // Local storage objects; document content and renditions are only read through the document proxy
+                .requestMatchers("/storage/blobs/**", "/storage/uploads/**", "/storage/renditions/**").denyAll()
+                .requestMatchers("/storage/**").permitAll()
+                
                 // Admin endpoints
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 
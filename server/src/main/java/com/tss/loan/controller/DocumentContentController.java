@@ -0,0 +1,190 @@
+package com.tss.loan.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.tss.loan.entity.loan.LoanDocument;
+import com.tss.loan.entity.user.User;
+import com.tss.loan.exception.LoanApiException;
+import com.tss.loan.service.DocumentAccessService;
+import com.tss.loan.service.UserService;
+
+/**
+ * Streams document content through the application for clients that cannot use
+ * signed storage URLs. Supports single byte ranges so PDF viewers can fetch pages
+ * on demand, and ETags so unchanged documents are not downloaded again.
+ * Thumbnails and previews are served the same way so their storage objects can stay private.
+ * Links handed out by DocumentAccessService are signed and need no Authorization
+ * header; unsigned requests are checked against the caller's access.
+ */
+@RestController
+@RequestMapping("/api/documents")
+public class DocumentContentController {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    // Stored content never changes for a given ETag
+    private static final CacheControl CONTENT_CACHE = CacheControl.maxAge(Duration.ofHours(1)).cachePrivate();
+
+    @Autowired
+    private DocumentAccessService documentAccessService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/{documentId}/content")
+    public ResponseEntity<StreamingResponseBody> getContent(@PathVariable Long documentId,
+                                                            @RequestParam(required = false) Long expires,
+                                                            @RequestParam(required = false) String signature,
+                                                            @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        LoanDocument document = expires != null && signature != null
+            ? documentAccessService.getSignedDocument(documentId, expires, signature)
+            : documentAccessService.getReadableDocument(documentId, getCurrentUser());
+        String etag = etag(document);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl(CONTENT_CACHE);
+
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (ifNoneMatch.contains(etag) || ifNoneMatch.contains("*")) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(contentType(document));
+        headers.setContentDisposition(ContentDisposition.inline()
+            .filename(document.getFileName() != null ? document.getFileName() : "document", StandardCharsets.UTF_8)
+            .build());
+
+        Long size = document.getFileSize();
+        String rangeHeader = requestHeaders.getFirst(HttpHeaders.RANGE);
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        // A range is only honoured for the representation the client already has part of
+        if (size != null && rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                return rangeNotSatisfiable(headers, size);
+            }
+
+            // Multi-range requests are answered with the whole document, which the spec allows
+            if (ranges.size() == 1) {
+                long start;
+                long end;
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                } catch (IllegalArgumentException e) {
+                    return rangeNotSatisfiable(headers, size);
+                }
+                long count = end - start + 1;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+                headers.setContentLength(count);
+                return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers)
+                    .body(copy(documentAccessService.openContent(document, start, count), count));
+            }
+        }
+
+        long count = size != null ? size : Long.MAX_VALUE;
+        if (size != null) {
+            headers.setContentLength(size);
+        }
+        return ResponseEntity.ok().headers(headers)
+            .body(copy(documentAccessService.openContent(document, 0, count), count));
+    }
+
+    @GetMapping("/{documentId}/{rendition:thumbnail|preview}")
+    public ResponseEntity<StreamingResponseBody> getRendition(@PathVariable Long documentId,
+                                                              @PathVariable String rendition,
+                                                              @RequestParam(required = false) Long expires,
+                                                              @RequestParam(required = false) String signature,
+                                                              @RequestHeader HttpHeaders requestHeaders) throws IOException {
+        LoanDocument document = expires != null && signature != null
+            ? documentAccessService.getSignedRendition(documentId, rendition, expires, signature)
+            : documentAccessService.getReadableDocument(documentId, getCurrentUser());
+        // Renditions are stored per content hash, like the content itself
+        String etag = "\"" + document.getContentSha256() + "-" + rendition + "\"";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl(CONTENT_CACHE);
+
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (ifNoneMatch.contains(etag) || ifNoneMatch.contains("*")) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        headers.setContentType(MediaType.IMAGE_JPEG);
+        return ResponseEntity.ok().headers(headers)
+            .body(copy(documentAccessService.openRendition(document, rendition), Long.MAX_VALUE));
+    }
+
+    private ResponseEntity<StreamingResponseBody> rangeNotSatisfiable(HttpHeaders headers, long size) {
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+    }
+
+    /**
+     * Copies at most count bytes; storage may hand back a stream that runs past the range
+     */
+    private StreamingResponseBody copy(InputStream content, long count) {
+        return out -> {
+            try (InputStream in = content) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                long remaining = count;
+                int read;
+                while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        };
+    }
+
+    private String etag(LoanDocument document) {
+        // Content-addressed documents are identified by their hash; older ones by id and size
+        return document.getContentSha256() != null
+            ? "\"" + document.getContentSha256() + "\""
+            : "\"" + document.getId() + "-" + document.getFileSize() + "\"";
+    }
+
+    private MediaType contentType(LoanDocument document) {
+        try {
+            return document.getFileType() != null
+                ? MediaType.parseMediaType(document.getFileType()) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (IllegalArgumentException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            throw new LoanApiException(HttpStatus.UNAUTHORIZED, "Sign in or use a signed document link");
+        }
+        return userService.findByEmail(authentication.getName());
+    }
+}
@@ -4,23 +4,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.tss.loan.dto.response.NotificationResponse;
 import com.tss.loan.entity.user.User;
+import com.tss.loan.security.StreamTicketProvider;
 import com.tss.loan.service.NotificationService;
+import com.tss.loan.service.NotificationStreamService;
 import com.tss.loan.service.UserService;
 import com.tss.loan.entity.enums.NotificationType;
 import org.springframework.web.bind.annotation.RequestBody;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -29,9 +35,15 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private StreamTicketProvider streamTicketProvider;
+
     @GetMapping
     public Page<NotificationResponse> list(@RequestParam(defaultValue = "0") int page,
                                            @RequestParam(defaultValue = "20") int size,
@@ -54,6 +66,24 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getUnreadCount(user));
     }
 
+    /**
+     * Single-use ticket for opening /stream, which EventSource cannot send a Bearer header to
+     */
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<Map<String, String>> streamTicket() {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(Map.of("ticket", streamTicketProvider.issue(user.getId())));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        User user = getCurrentUser();
+        SseEmitter emitter = notificationStreamService.register(user.getId());
+        // Seed the client's badge; later changes arrive as unread-count events
+        notificationStreamService.publishUnreadCount(user.getId(), notificationService.getUnreadCount(user));
+        return emitter;
+    }
+
     @GetMapping("/unread")
     public Page<NotificationResponse> getUnread(@RequestParam(defaultValue = "0") int page,
                                                  @RequestParam(defaultValue = "20") int size) {
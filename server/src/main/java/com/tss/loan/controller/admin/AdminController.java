@@ -1,11 +1,13 @@
 package com.tss.loan.controller.admin;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -19,9 +21,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.tss.loan.dto.request.OfficerCreationRequest;
+import com.tss.loan.dto.response.ApplicationEventResponse;
+import com.tss.loan.dto.response.ApplicationStateResponse;
 import com.tss.loan.dto.response.AuditLogResponse;
 import com.tss.loan.dto.response.LoanApplicationResponse;
 import com.tss.loan.dto.response.OfficerDetailsResponse;
+import com.tss.loan.dto.response.SlaStageSummaryResponse;
 import com.tss.loan.dto.response.UserResponse;
 import com.tss.loan.entity.loan.LoanApplication;
 import com.tss.loan.entity.officer.OfficerPersonalDetails;
@@ -31,8 +36,13 @@ import com.tss.loan.mapper.OfficerMapper;
 import com.tss.loan.mapper.UserMapper;
 import com.tss.loan.repository.LoanApplicationRepository;
 import com.tss.loan.repository.OfficerPersonalDetailsRepository;
+import com.tss.loan.service.ApplicationTimelineService;
+import com.tss.loan.service.EligibilityPreScreenService;
+import com.tss.loan.service.SlaTimerService;
 import com.tss.loan.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -63,6 +73,15 @@ public class AdminController {
     @Autowired
     private com.tss.loan.service.AdminService adminService;
     
+    @Autowired
+    private ApplicationTimelineService timelineService;
+    
+    @Autowired
+    private SlaTimerService slaTimerService;
+    
+    @Autowired
+    private EligibilityPreScreenService preScreenService;
+    
     /**
      * Get Admin Dashboard Statistics
      */
@@ -150,6 +169,59 @@ public class AdminController {
         return ResponseEntity.ok(auditTrail);
     }
     
+    /**
+     * Get event timeline for an application (admin view - no restrictions)
+     */
+    @GetMapping("/applications/{applicationId}/timeline")
+    public ResponseEntity<List<ApplicationEventResponse>> getTimeline(
+            @PathVariable UUID applicationId) {
+        
+        log.info("Admin requesting timeline for application: {}", applicationId);
+        
+        return ResponseEntity.ok(timelineService.getTimeline(applicationId));
+    }
+    
+    /**
+     * Get current state of an application from its event timeline
+     */
+    @GetMapping("/applications/{applicationId}/state")
+    public ResponseEntity<ApplicationStateResponse> getState(
+            @PathVariable UUID applicationId) {
+        return ResponseEntity.ok(timelineService.getCurrentState(applicationId));
+    }
+    
+    /**
+     * Get SLA position per application stage: open and breached applications, escalations and breaches
+     */
+    @GetMapping("/sla/summary")
+    public ResponseEntity<List<SlaStageSummaryResponse>> getSlaSummary() {
+        return ResponseEntity.ok(slaTimerService.getStageSummary());
+    }
+    
+    /**
+     * Bulk eligibility pre-screening of prospects for campaigns and partner channels.
+     * Accepts a JSON array or newline-delimited JSON and streams one JSON result per line.
+     * Written straight to the response rather than asynchronously, so long uploads are not
+     * cut off by the async request timeout.
+     */
+    @PostMapping(value = "/eligibility/pre-screen",
+                 consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public void preScreenJson(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Admin bulk pre-screening (JSON)");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        preScreenService.preScreenJson(request.getInputStream(), response.getOutputStream());
+    }
+    
+    /**
+     * Bulk eligibility pre-screening from CSV with a header row; streams CSV results
+     */
+    @PostMapping(value = "/eligibility/pre-screen", consumes = "text/csv")
+    public void preScreenCsv(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Admin bulk pre-screening (CSV)");
+        response.setContentType("text/csv;charset=UTF-8");
+        preScreenService.preScreenCsv(request.getInputStream(), response.getOutputStream());
+    }
+    
     /**
      * Create Officer Account
      */
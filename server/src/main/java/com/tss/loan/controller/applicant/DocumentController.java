@@ -22,8 +22,10 @@ import org.springframework.web.multipart.MultipartFile;
 import com.tss.loan.entity.loan.LoanDocument;
 import com.tss.loan.entity.enums.DocumentType;
 import com.tss.loan.entity.user.User;
+import com.tss.loan.dto.response.BatchDocumentUploadResponse;
 import com.tss.loan.dto.response.LoanDocumentResponse;
 import com.tss.loan.mapper.LoanDocumentMapper;
+import com.tss.loan.service.DocumentAccessService;
 import com.tss.loan.service.DocumentUploadService;
 import com.tss.loan.service.UserService;
 
@@ -38,6 +40,9 @@ public class DocumentController {
     @Autowired
     private DocumentUploadService documentUploadService;
     
+    @Autowired
+    private DocumentAccessService documentAccessService;
+    
     @Autowired
     private UserService userService;
     
@@ -48,7 +53,7 @@ public class DocumentController {
      * Upload multiple documents
      */
     @PostMapping("/upload-multiple")
-    public ResponseEntity<List<LoanDocumentResponse>> uploadMultipleDocuments(
+    public ResponseEntity<BatchDocumentUploadResponse> uploadMultipleDocuments(
             @RequestParam("files") List<MultipartFile> files,
             @RequestParam("documentTypes") List<DocumentType> documentTypes,
             @RequestParam("loanApplicationId") UUID loanApplicationId,
@@ -57,33 +62,39 @@ public class DocumentController {
         log.info("Uploading {} documents for application: {}", files.size(), loanApplicationId);
         
         User user = getCurrentUser(authentication);
-        List<LoanDocument> documents = documentUploadService.uploadMultipleDocuments(
+        BatchDocumentUploadResponse response = documentUploadService.uploadMultipleDocuments(
             files, documentTypes, loanApplicationId, user);
-        List<LoanDocumentResponse> documentResponses = loanDocumentMapper.toResponseList(documents);
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(documentResponses);
+        // Nothing stored means the whole request failed; the body still lists each file's error
+        HttpStatus status = response.getUploadedCount() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
     }
     
     /**
      * Get document by ID
      */
     @GetMapping("/{documentId}")
-    public ResponseEntity<LoanDocumentResponse> getDocument(@PathVariable Long documentId) {
+    public ResponseEntity<LoanDocumentResponse> getDocument(
+            @PathVariable Long documentId,
+            Authentication authentication) {
         log.info("Fetching document: {}", documentId);
         
-        LoanDocument document = documentUploadService.getDocumentById(documentId);
-        LoanDocumentResponse documentResponse = loanDocumentMapper.toResponse(document);
-        return ResponseEntity.ok(documentResponse);
+        User user = getCurrentUser(authentication);
+        LoanDocument document = documentAccessService.getReadableDocument(documentId, user);
+        return ResponseEntity.ok(loanDocumentMapper.toResponse(document));
     }
     
     /**
      * Get document URL for viewing/downloading
      */
     @GetMapping("/{documentId}/url")
-    public ResponseEntity<String> getDocumentUrl(@PathVariable Long documentId) {
+    public ResponseEntity<String> getDocumentUrl(
+            @PathVariable Long documentId,
+            Authentication authentication) {
         log.info("Fetching URL for document: {}", documentId);
         
-        String url = documentUploadService.getDocumentUrl(documentId);
+        User user = getCurrentUser(authentication);
+        String url = documentUploadService.getDocumentUrl(documentId, user);
         return ResponseEntity.ok(url);
     }
     
@@ -3,6 +3,7 @@ package com.tss.loan.controller.applicant;
 import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -116,21 +117,20 @@ public class LoanApplicationController {
     }
     
     /**
-     * Upload document
+     * Upload document; answered asynchronously once the content reaches storage
      */
     @PostMapping("/{applicationId}/documents/upload")
-    public ResponseEntity<DocumentUploadResponse> uploadDocument(
+    public CompletableFuture<ResponseEntity<DocumentUploadResponse>> uploadDocument(
             @PathVariable UUID applicationId,
             @RequestParam("file") MultipartFile file,
             @RequestParam("documentType") DocumentType documentType,
-            Authentication authentication) throws IOException {
+            Authentication authentication) {
         
         log.info("Uploading document for application: {} - Type: {}", applicationId, documentType);
         
         User user = getCurrentUser(authentication);
-        DocumentUploadResponse response = documentUploadService.uploadDocumentWithResponse(file, documentType, applicationId, user);
-        
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return documentUploadService.uploadDocumentAsync(file, documentType, applicationId, user)
+            .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
     }
     
     /**
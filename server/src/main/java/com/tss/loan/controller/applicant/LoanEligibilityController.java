@@ -31,14 +31,13 @@ public class LoanEligibilityController {
         
         log.info("Getting eligible employment types for loan type: {}", loanType);
         
-        List<EmploymentType> eligibleTypes = eligibilityService.getEligibleEmploymentTypes(loanType);
         double minIncome = eligibilityService.getMinimumIncomeRequirement(loanType);
         
         // Build response with eligibility info for ALL employment types
         List<LoanEligibilityResponse.EmploymentTypeEligibility> employmentEligibility = new ArrayList<>();
         
         for (EmploymentType empType : EmploymentType.values()) {
-            boolean eligible = eligibleTypes.contains(empType);
+            boolean eligible = eligibilityService.isEmploymentTypeEligible(loanType, empType);
             String reason = eligibilityService.getEligibilityReason(loanType, empType);
             Integer minDuration = eligibilityService.getMinimumEmploymentDuration(loanType, empType);
             
@@ -5,9 +5,6 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -20,8 +17,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import com.tss.loan.exception.LoanApiException;
 
@@ -38,6 +33,7 @@ import com.tss.loan.dto.response.OfficerProfileResponse;
 import com.tss.loan.entity.user.User;
 import com.tss.loan.entity.officer.OfficerPersonalDetails;
 import com.tss.loan.service.ComplianceOfficerService;
+import com.tss.loan.service.DocumentStorage;
 import com.tss.loan.service.UserService;
 import com.tss.loan.service.OfficerProfileService;
 import com.tss.loan.repository.OfficerPersonalDetailsRepository;
@@ -68,16 +64,7 @@ public class ComplianceOfficerController {
     private OfficerMapper officerMapper;
     
     @Autowired
-    private WebClient webClient;
-    
-    @Value("${supabase.url}")
-    private String supabaseUrl;
-    
-    @Value("${supabase.service.key}")
-    private String serviceKey;
-    
-    @Value("${supabase.bucket.name}")
-    private String bucketName;
+    private DocumentStorage documentStorage;
     
     /**
      * Get compliance officer dashboard with statistics
@@ -183,20 +170,13 @@ public class ComplianceOfficerController {
                 ? originalFileName.substring(originalFileName.lastIndexOf(".")) : ".jpg";
             String uniqueFileName = "profile_" + officer.getId().toString().replace("-", "") + "_" + System.currentTimeMillis() + fileExtension;
             
-            // Upload to Supabase Storage
-            String uploadUrl = supabaseUrl + "/storage/v1/object/" + bucketName + "/" + uniqueFileName;
-            
-            webClient.post()
-                .uri(uploadUrl)
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
-                .header(HttpHeaders.CONTENT_TYPE, file.getContentType())
-                .body(BodyInserters.fromResource(new ByteArrayResource(file.getBytes())))
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+            // Upload to storage
+            try (java.io.InputStream content = file.getInputStream()) {
+                documentStorage.store(uniqueFileName, content, file.getSize(), file.getContentType());
+            }
             
             // Generate public URL
-            String fileUrl = supabaseUrl + "/storage/v1/object/public/" + bucketName + "/" + uniqueFileName;
+            String fileUrl = documentStorage.publicUrl(uniqueFileName);
             
             // Update officer personal details
             OfficerPersonalDetails personal = officerPersonalDetailsRepository
@@ -19,6 +19,8 @@ import com.tss.loan.dto.request.ComplianceFlagRequest;
 import com.tss.loan.dto.request.DocumentResubmissionRequest;
 import com.tss.loan.dto.request.DocumentVerificationRequest;
 import com.tss.loan.dto.request.LoanDecisionRequest;
+import com.tss.loan.dto.response.ApplicationEventResponse;
+import com.tss.loan.dto.response.ApplicationStateResponse;
 import com.tss.loan.dto.response.AuditLogResponse;
 import com.tss.loan.dto.response.CompleteApplicationDetailsResponse;
 import com.tss.loan.dto.response.DocumentResubmissionResponse;
@@ -278,6 +280,32 @@ public class LoanOfficerController {
         return ResponseEntity.ok(auditTrail);
     }
     
+    /**
+     * Get event timeline for an application
+     */
+    @GetMapping("/applications/{applicationId}/timeline")
+    public ResponseEntity<List<ApplicationEventResponse>> getTimeline(
+            @PathVariable UUID applicationId,
+            Authentication authentication) {
+        
+        log.info("Officer {} requesting timeline for application: {}", authentication.getName(), applicationId);
+        
+        User officer = getCurrentUser(authentication);
+        return ResponseEntity.ok(loanOfficerService.getApplicationTimeline(applicationId, officer));
+    }
+    
+    /**
+     * Get current state of an application from its event timeline
+     */
+    @GetMapping("/applications/{applicationId}/state")
+    public ResponseEntity<ApplicationStateResponse> getState(
+            @PathVariable UUID applicationId,
+            Authentication authentication) {
+        
+        User officer = getCurrentUser(authentication);
+        return ResponseEntity.ok(loanOfficerService.getApplicationStateForOfficer(applicationId, officer));
+    }
+    
     /**
      * Get all post-compliance applications for loan officer
      * Returns applications that went through compliance process (all statuses)
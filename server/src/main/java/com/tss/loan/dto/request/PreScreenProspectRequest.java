@@ -0,0 +1,45 @@
+package com.tss.loan.dto.request;
+
+import com.tss.loan.entity.enums.EmploymentType;
+import com.tss.loan.entity.enums.LoanType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One prospect in a bulk eligibility pre-screening; also the CSV column names
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PreScreenProspectRequest {
+    
+    /**
+     * Caller's own identifier, echoed back so results can be matched up
+     */
+    private String reference;
+    
+    private LoanType loanType;
+    
+    private EmploymentType employmentType;
+    
+    private Double monthlyIncome;
+    
+    /**
+     * Months in the current employment or business; skipped when not given
+     */
+    private Integer employmentMonths;
+    
+    private Double existingEmi;
+    
+    /**
+     * Desired loan; without it FOIR is computed on existing obligations only
+     */
+    private Double requestedAmount;
+    
+    /**
+     * Desired loan tenure; the configured default when not given
+     */
+    private Integer tenureMonths;
+}
@@ -0,0 +1,32 @@
+package com.tss.loan.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.tss.loan.entity.enums.ApplicationEventType;
+import com.tss.loan.entity.enums.ApplicationStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of an application's timeline
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationEventResponse {
+    
+    private Long id;
+    private ApplicationEventType eventType;
+    private ApplicationStatus fromStatus;
+    private ApplicationStatus toStatus;
+    private UUID officerId;
+    private UUID actorId;
+    private String actorEmail;
+    private String comments;
+    private LocalDateTime occurredAt;
+}
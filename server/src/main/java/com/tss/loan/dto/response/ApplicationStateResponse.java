@@ -0,0 +1,31 @@
+package com.tss.loan.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.tss.loan.entity.enums.ApplicationStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Application state folded from its event log; also the form snapshots are stored in
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationStateResponse {
+    
+    private UUID applicationId;
+    private ApplicationStatus status;
+    private UUID assignedOfficerId;
+    private UUID assignedComplianceOfficerId;
+    private LocalDateTime createdAt;
+    private LocalDateTime submittedAt;
+    private LocalDateTime lastChangedAt;
+    private Long lastEventId;
+    private long eventCount;
+}
@@ -0,0 +1,39 @@
+package com.tss.loan.dto.response;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.tss.loan.entity.enums.DocumentType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a multi-document upload: the documents that were stored and,
+ * per file, the reason any other file was rejected or failed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDocumentUploadResponse {
+    private UUID applicationId;
+    private int totalFiles;
+    private int uploadedCount;
+    private int failedCount;
+    private List<LoanDocumentResponse> uploadedDocuments;
+    private List<FileFailure> failures;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FileFailure {
+        private int index; // Position of the file in the request (0-based)
+        private String fileName;
+        private DocumentType documentType;
+        private String error;
+    }
+}
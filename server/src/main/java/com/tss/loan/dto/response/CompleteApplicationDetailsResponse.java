@@ -3,6 +3,7 @@ package com.tss.loan.dto.response;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import lombok.AllArgsConstructor;
@@ -187,6 +188,8 @@ public class CompleteApplicationDetailsResponse {
         private String documentType;
         private String fileName;
         private String fileUrl;
+        private String thumbnailUrl; // Null until the rendition is generated; fall back to fileUrl
+        private String previewUrl;
         private LocalDateTime uploadDate;
         private String verificationStatus;
         private String verificationNotes;
@@ -198,6 +201,11 @@ public class CompleteApplicationDetailsResponse {
         private String verifiedByName;
         private Long fileSizeBytes;
         private String fileType;
+        private String ocrStatus;
+        private Map<String, String> extractedFields; // Key fields read from the document, e.g. panNumber, name
+        private LocalDateTime ocrCompletedAt;
+        private Double autoVerificationScore;
+        private String autoVerificationSummary;
     }
     
     @Data
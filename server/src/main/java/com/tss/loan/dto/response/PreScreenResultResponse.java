@@ -0,0 +1,28 @@
+package com.tss.loan.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-screening outcome of one prospect
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PreScreenResultResponse {
+    private long line; // Position of the prospect in the input, from 1
+    private String reference;
+    private boolean eligible;
+    private Double foirPercentage;
+    private Boolean foirAcceptable;
+    private Double requestedEmi;
+    private Double maxEmi; // Largest EMI that keeps FOIR acceptable
+    private Double maxAffordableAmount;
+    private List<String> reasons; // Why the prospect is not eligible
+    private String error; // Set instead of the outcome when the prospect could not be read
+}
@@ -0,0 +1,25 @@
+package com.tss.loan.dto.response;
+
+import com.tss.loan.entity.enums.ApplicationStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SLA position of one application stage
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlaStageSummaryResponse {
+    private ApplicationStatus stage;
+    private Long escalateAfterHours; // Null when the stage has no escalation
+    private long dueAfterHours;
+    private long openCount; // Applications currently in the stage
+    private long breachedCount; // Of those, how many are past the deadline
+    private long escalationsSinceStartup;
+    private long breachesSinceStartup;
+}
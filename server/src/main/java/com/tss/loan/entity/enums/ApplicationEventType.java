@@ -0,0 +1,9 @@
+package com.tss.loan.entity.enums;
+
+public enum ApplicationEventType {
+    APPLICATION_CREATED,
+    STATUS_CHANGED,
+    OFFICER_ASSIGNED,
+    COMPLIANCE_OFFICER_ASSIGNED,
+    SNAPSHOT // Folded state of the events before it; not part of the timeline
+}
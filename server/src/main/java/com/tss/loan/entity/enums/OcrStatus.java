@@ -0,0 +1,9 @@
+package com.tss.loan.entity.enums;
+
+public enum OcrStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED,
+    SKIPPED
+}
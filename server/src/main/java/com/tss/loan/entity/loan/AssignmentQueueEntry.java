@@ -0,0 +1,64 @@
+package com.tss.loan.entity.loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.tss.loan.entity.enums.LoanType;
+import com.tss.loan.entity.enums.Priority;
+import com.tss.loan.entity.enums.RoleType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Application waiting for an officer because none had capacity when it needed one.
+ * The sweeper takes entries highest priority first, then largest amount, then oldest.
+ */
+@Entity
+@Table(name = "assignment_queue", indexes = {
+        @Index(name = "idx_assignment_queue_order", columnList = "officerRole, priorityLevel, requestedAmount, enqueuedAt")
+})
+@RequiredArgsConstructor
+@Data
+public class AssignmentQueueEntry {
+    @Id
+    private UUID applicationId; // An application waits for one kind of officer at a time
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private RoleType officerRole; // LOAN_OFFICER or COMPLIANCE_OFFICER
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private RoleType preferredRole; // Senior role tried first, if any
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Priority priority;
+    
+    @Column(nullable = false)
+    private Integer priorityLevel; // Priority.getLevel(), so the queue can be ordered in SQL
+    
+    @Column(precision = 15, scale = 2)
+    private BigDecimal requestedAmount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private LoanType loanType; // Lets the assignment strategy match officer specialization
+    
+    @Column(nullable = false)
+    private LocalDateTime enqueuedAt;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0; // Sweeps that reached the entry but found no capacity
+    
+    private LocalDateTime lastAttemptAt;
+}
@@ -0,0 +1,65 @@
+package com.tss.loan.entity.loan;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A stored file object keyed by the SHA-256 of its content. Documents with identical
+ * content share one blob; referenceCount tracks how many LoanDocument rows point at it.
+ */
+@Entity
+@Table(name = "document_blobs", indexes = {
+        @Index(name = "idx_blob_sha256", columnList = "contentSha256", unique = true),
+        @Index(name = "idx_blob_references", columnList = "referenceCount, lastReferencedAt")
+})
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Data
+public class DocumentBlob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 64)
+    private String contentSha256;
+    
+    @Column(nullable = false, length = 255)
+    private String objectName; // Storage object key
+    
+    @Column(length = 100)
+    private String contentType; // Type the object was first stored with; documents keep their own in fileType
+    
+    @Column(nullable = false)
+    private Long fileSize;
+    
+    @Column(nullable = false)
+    private Integer referenceCount;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime lastReferencedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (lastReferencedAt == null) {
+            lastReferencedAt = now;
+        }
+    }
+}
@@ -10,10 +10,12 @@ import com.tss.loan.entity.enums.LoanType;
 import com.tss.loan.entity.enums.Priority;
 import com.tss.loan.entity.enums.RiskLevel;
 import com.tss.loan.entity.user.User;
+import com.tss.loan.events.LoanApplicationWorkloadListener;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -27,6 +29,7 @@ import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -41,6 +44,7 @@ import lombok.RequiredArgsConstructor;
         @Index(name = "idx_loan_app_priority", columnList = "priority"),
         @Index(name = "idx_loan_app_created", columnList = "createdAt")
 })
+@EntityListeners(LoanApplicationWorkloadListener.class)
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Data
@@ -111,6 +115,13 @@ public class LoanApplication {
     @JoinColumn(name = "assigned_compliance_officer_id")
     private User assignedComplianceOfficer;
     
+    // Officers this application currently counts towards in the workload index, kept by LoanApplicationWorkloadListener
+    @Transient
+    private transient UUID countedOfficerId;
+    
+    @Transient
+    private transient UUID countedComplianceOfficerId;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
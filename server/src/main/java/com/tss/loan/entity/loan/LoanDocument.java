@@ -3,6 +3,7 @@ package com.tss.loan.entity.loan;
 import java.time.LocalDateTime;
 
 import com.tss.loan.entity.enums.DocumentType;
+import com.tss.loan.entity.enums.OcrStatus;
 import com.tss.loan.entity.enums.VerificationStatus;
 
 import jakarta.persistence.Column;
@@ -63,6 +64,9 @@ public class LoanDocument {
     @Column
     private Long fileSize; // File size in bytes
     
+    @Column(length = 64)
+    private String contentSha256; // Hex SHA-256 of the stored content, computed during upload
+    
     @Column(nullable = false)
     private LocalDateTime uploadedAt;
     
@@ -86,6 +90,40 @@ public class LoanDocument {
     @Column
     private LocalDateTime viewedByComplianceAt; // Track when compliance viewed this document
     
+    // Text extraction results, written by the OCR pipeline after upload
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private OcrStatus ocrStatus;
+    
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String extractedText;
+    
+    @Column(columnDefinition = "TEXT")
+    private String extractedFieldsJson; // Key fields such as panNumber, name, netSalary
+    
+    @Column
+    private Integer ocrPageCount;
+    
+    @Column
+    private LocalDateTime ocrStartedAt; // Start of the current PROCESSING lease
+    
+    @Column
+    private LocalDateTime ocrCompletedAt;
+    
+    // Match score against the applicant's personal details (0-1), set by auto-verification
+    @Column
+    private Double autoVerificationScore;
+    
+    @Column(length = 500)
+    private String autoVerificationSummary; // Which checks matched, shown to officers
+    
+    // Downscaled JPEG renditions stored next to the original (storage object names)
+    @Column(length = 255)
+    private String thumbnailObjectName;
+    
+    @Column(length = 255)
+    private String previewObjectName;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
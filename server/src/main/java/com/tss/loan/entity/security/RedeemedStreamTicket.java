@@ -0,0 +1,30 @@
+package com.tss.loan.entity.security;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Nonce of a notification stream ticket that has been used. Kept until the ticket would have
+ * expired anyway, so a ticket can be redeemed once on any node.
+ */
+@Entity
+@Table(name = "redeemed_stream_tickets", indexes = {
+        @Index(name = "idx_redeemed_ticket_expires", columnList = "expiresAt")
+})
+@RequiredArgsConstructor
+@Data
+public class RedeemedStreamTicket {
+    @Id
+    @Column(length = 32)
+    private String nonce;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
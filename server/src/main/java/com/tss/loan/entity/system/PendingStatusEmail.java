@@ -0,0 +1,68 @@
+package com.tss.loan.entity.system;
+
+import java.time.LocalDateTime;
+
+import com.tss.loan.entity.user.User;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A status email held back for the recipient's digest. Rows are removed once the digest
+ * they belong to has been sent, so nothing deferred is lost across a restart.
+ */
+@Entity
+@Table(name = "pending_status_emails", indexes = {
+        @Index(name = "idx_pending_email_send_after", columnList = "sendAfter")
+})
+@RequiredArgsConstructor
+@Data
+public class PendingStatusEmail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String toEmail;
+    
+    @Column(nullable = false, length = 50)
+    private String status;
+    
+    @Column(nullable = false, length = 100)
+    private String applicationId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+    
+    // End of the digest window the email was deferred into
+    @Column(nullable = false)
+    private LocalDateTime sendAfter;
+    
+    // Set while a node is sending the digest; a claim older than the claim timeout is taken over
+    private LocalDateTime sendingAt;
+    
+    @Column(length = 36)
+    private String claimToken;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
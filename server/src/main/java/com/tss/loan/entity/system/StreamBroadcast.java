@@ -0,0 +1,50 @@
+package com.tss.loan.entity.system;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One batch of SSE stream messages published by a node for the other nodes to pick up.
+ */
+@Entity
+@Table(name = "stream_broadcasts", indexes = {
+        @Index(name = "idx_broadcast_created", columnList = "createdAt")
+})
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Data
+public class StreamBroadcast {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 64)
+    private String originNode;
+    
+    @Column(nullable = false)
+    private Integer messageCount;
+    
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String messagesJson;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.tss.loan.entity.user;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Active case counter per officer. Assignments reserve capacity with a conditional
+ * increment on this row, so concurrent assignments, including those on other nodes,
+ * cannot push an officer past capacity.
+ */
+@Entity
+@Table(name = "officer_workloads")
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Data
+public class OfficerWorkload {
+    @Id
+    private UUID officerId;
+    
+    @Column(nullable = false)
+    private Integer activeCases;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt; // Last reservation, release or correction
+}
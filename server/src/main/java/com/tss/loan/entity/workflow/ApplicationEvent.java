@@ -0,0 +1,70 @@
+package com.tss.loan.entity.workflow;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.tss.loan.entity.enums.ApplicationEventType;
+import com.tss.loan.entity.enums.ApplicationStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Append-only record of something that happened to a loan application. Rows are never
+ * updated; ids increase in insert order, so an application's events are read back in
+ * order with one range scan of idx_app_event_application.
+ */
+@Entity
+@Table(name = "application_events", indexes = {
+        @Index(name = "idx_app_event_application", columnList = "applicationId, id"),
+        @Index(name = "idx_app_event_type", columnList = "applicationId, eventType, id")
+})
+@RequiredArgsConstructor
+@Data
+public class ApplicationEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private UUID applicationId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private ApplicationEventType eventType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private ApplicationStatus fromStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private ApplicationStatus toStatus;
+    
+    private UUID officerId; // Officer the event concerns, e.g. the one assigned
+    
+    private UUID actorId; // Null for system actions
+    
+    @Column(length = 150)
+    private String actorEmail;
+    
+    @Column(columnDefinition = "TEXT")
+    private String comments;
+    
+    @Column(columnDefinition = "TEXT")
+    private String state; // SNAPSHOT only: folded state as JSON
+    
+    private Long coveredThroughId; // SNAPSHOT only: last event folded into state
+    
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
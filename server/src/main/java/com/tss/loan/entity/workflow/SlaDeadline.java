@@ -0,0 +1,58 @@
+package com.tss.loan.entity.workflow;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.tss.loan.entity.enums.ApplicationStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * SLA deadline of the stage an application is in. The timers that act on it live in
+ * memory; these rows let them be rebuilt after a restart. The row goes away when the
+ * application leaves the stage.
+ */
+@Entity
+@Table(name = "sla_deadlines", indexes = {
+        @Index(name = "idx_sla_stage", columnList = "stage, breachedAt")
+})
+@RequiredArgsConstructor
+@Data
+public class SlaDeadline {
+    @Id
+    private UUID applicationId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private ApplicationStatus stage;
+    
+    @Column(nullable = false)
+    private LocalDateTime enteredAt;
+    
+    private LocalDateTime escalateAt; // Null when the stage has no escalation
+    
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+    
+    private LocalDateTime escalatedAt;
+    
+    private LocalDateTime breachedAt;
+    
+    /**
+     * When the next timer should fire, or null once the deadline has been breached
+     */
+    public LocalDateTime nextFireAt() {
+        if (breachedAt != null) {
+            return null;
+        }
+        return escalateAt != null && escalatedAt == null ? escalateAt : dueAt;
+    }
+}
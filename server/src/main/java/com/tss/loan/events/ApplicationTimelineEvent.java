@@ -0,0 +1,20 @@
+package com.tss.loan.events;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published for every event appended to an application's timeline, so projections
+ * such as dashboards and SLA timers can follow the stream. Listen with
+ * @TransactionalEventListener to see only events that committed.
+ */
+@SuppressWarnings("serial")
+public class ApplicationTimelineEvent extends ApplicationEvent {
+    private final com.tss.loan.entity.workflow.ApplicationEvent event;
+
+    public ApplicationTimelineEvent(Object source, com.tss.loan.entity.workflow.ApplicationEvent event) {
+        super(source);
+        this.event = event;
+    }
+
+    public com.tss.loan.entity.workflow.ApplicationEvent getEvent() { return event; }
+}
@@ -0,0 +1,81 @@
+package com.tss.loan.events;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.loan.LoanApplication;
+import com.tss.loan.entity.user.User;
+import com.tss.loan.service.OfficerWorkloadIndex;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener that turns status and officer changes on a LoanApplication into workload
+ * deltas. Each application remembers what it last counted towards, so every write path
+ * is covered without the services that change status having to report it.
+ */
+@Component
+public class LoanApplicationWorkloadListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void onLoad(LoanApplication application) {
+        remember(application);
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(LoanApplication application) {
+        publishChanges(application,
+            application.getCountedOfficerId(), officerId(application.getAssignedOfficer(), application.getStatus(),
+                OfficerWorkloadIndex.LOAN_OFFICER_ACTIVE_STATUSES));
+        publishChanges(application,
+            application.getCountedComplianceOfficerId(), officerId(application.getAssignedComplianceOfficer(),
+                application.getStatus(), OfficerWorkloadIndex.COMPLIANCE_OFFICER_ACTIVE_STATUSES));
+        remember(application);
+    }
+
+    @PostRemove
+    public void onRemove(LoanApplication application) {
+        publishChanges(application, application.getCountedOfficerId(), null);
+        publishChanges(application, application.getCountedComplianceOfficerId(), null);
+    }
+
+    private void remember(LoanApplication application) {
+        application.setCountedOfficerId(officerId(application.getAssignedOfficer(), application.getStatus(),
+            OfficerWorkloadIndex.LOAN_OFFICER_ACTIVE_STATUSES));
+        application.setCountedComplianceOfficerId(officerId(application.getAssignedComplianceOfficer(),
+            application.getStatus(), OfficerWorkloadIndex.COMPLIANCE_OFFICER_ACTIVE_STATUSES));
+    }
+
+    private void publishChanges(LoanApplication application, UUID before, UUID after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            eventPublisher.publishEvent(new OfficerWorkloadChangedEvent(application, before, -1));
+        }
+        if (after != null) {
+            eventPublisher.publishEvent(new OfficerWorkloadChangedEvent(application, after, 1));
+        }
+    }
+
+    /**
+     * The officer the application counts towards, or null when its status is not active for that role
+     */
+    private UUID officerId(User officer, ApplicationStatus status, Set<ApplicationStatus> activeStatuses) {
+        // getId() on a lazy proxy does not initialise it
+        return officer != null && status != null && activeStatuses.contains(status) ? officer.getId() : null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.tss.loan.events;
+
+import java.util.UUID;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Raised when an application starts or stops counting towards an officer's active workload
+ */
+@SuppressWarnings("serial")
+public class OfficerWorkloadChangedEvent extends ApplicationEvent {
+    private final UUID officerId;
+    private final int delta;
+
+    public OfficerWorkloadChangedEvent(Object source, UUID officerId, int delta) {
+        super(source);
+        this.officerId = officerId;
+        this.delta = delta;
+    }
+
+    public UUID getOfficerId() { return officerId; }
+    public int getDelta() { return delta; }
+}
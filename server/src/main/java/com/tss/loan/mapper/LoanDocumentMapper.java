@@ -2,6 +2,8 @@ package com.tss.loan.mapper;
 
 import com.tss.loan.dto.response.LoanDocumentResponse;
 import com.tss.loan.entity.loan.LoanDocument;
+import com.tss.loan.service.DocumentAccessService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -14,9 +16,13 @@ import java.util.stream.Collectors;
 @Component
 public class LoanDocumentMapper {
 
+    @Autowired
+    private DocumentAccessService documentAccessService;
+
     /**
      * Convert LoanDocument entity to LoanDocumentResponse DTO
      * NO circular references - uses IDs and basic data only
+     * filePath is a readable URL (signed or proxied), never the raw storage URL
      */
     public LoanDocumentResponse toResponse(LoanDocument document) {
         if (document == null) {
@@ -28,7 +34,7 @@ public class LoanDocumentMapper {
                 .applicationId(document.getLoanApplication().getId()) // ID only, not full entity
                 .documentType(document.getDocumentType())
                 .fileName(document.getFileName())
-                .filePath(document.getFilePath())
+                .filePath(documentAccessService.getAccessUrl(document))
                 .publicId(document.getPublicId())
                 .fileType(document.getFileType())
                 .fileSize(document.getFileSize())
@@ -1,5 +1,7 @@
 package com.tss.loan.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,6 +16,8 @@ public interface ApplicantPersonalDetailsRepository extends JpaRepository<Applic
     
     Optional<ApplicantPersonalDetails> findByUserId(UUID userId);
     
+    List<ApplicantPersonalDetails> findByUserIdIn(Collection<UUID> userIds);
+    
     Optional<ApplicantPersonalDetails> findByUser(User user);
     
     boolean existsByUserId(UUID userId);
@@ -0,0 +1,34 @@
+package com.tss.loan.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tss.loan.entity.enums.ApplicationEventType;
+import com.tss.loan.entity.workflow.ApplicationEvent;
+
+@Repository
+public interface ApplicationEventRepository extends JpaRepository<ApplicationEvent, Long> {
+    
+    /**
+     * Full timeline in order, without snapshots
+     */
+    @Query("SELECT e FROM ApplicationEvent e WHERE e.applicationId = :applicationId " +
+           "AND e.eventType <> com.tss.loan.entity.enums.ApplicationEventType.SNAPSHOT ORDER BY e.id")
+    List<ApplicationEvent> findTimeline(@Param("applicationId") UUID applicationId);
+    
+    /**
+     * Everything after what the latest snapshot covers, the snapshot included, in order.
+     * Folding these rows gives the current state.
+     */
+    @Query("SELECT e FROM ApplicationEvent e WHERE e.applicationId = :applicationId AND e.id > COALESCE(" +
+           "(SELECT MAX(s.coveredThroughId) FROM ApplicationEvent s WHERE s.applicationId = :applicationId " +
+           "AND s.eventType = com.tss.loan.entity.enums.ApplicationEventType.SNAPSHOT), 0) ORDER BY e.id")
+    List<ApplicationEvent> findSinceLatestSnapshot(@Param("applicationId") UUID applicationId);
+    
+    boolean existsByApplicationIdAndEventType(UUID applicationId, ApplicationEventType eventType);
+}
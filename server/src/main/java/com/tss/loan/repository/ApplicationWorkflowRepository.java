@@ -1,10 +1,15 @@
 package com.tss.loan.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.tss.loan.entity.enums.ApplicationStatus;
 import com.tss.loan.entity.workflow.ApplicationWorkflow;
 
 @Repository
@@ -13,4 +18,15 @@ public interface ApplicationWorkflowRepository extends JpaRepository<Application
     List<ApplicationWorkflow> findByLoanApplicationOrderByProcessedAtDesc(com.tss.loan.entity.loan.LoanApplication loanApplication);
     
     List<ApplicationWorkflow> findByProcessedBy(com.tss.loan.entity.user.User processedBy);
+    
+    /**
+     * Cases each officer moved out of the given stage since a point in time, per loan type,
+     * as rows of (officer id, loan type, count)
+     */
+    @Query("SELECT w.processedBy.id, la.loanType, COUNT(w) FROM ApplicationWorkflow w JOIN w.loanApplication la " +
+           "WHERE w.processedBy IS NOT NULL AND w.processedAt >= :since " +
+           "AND w.fromStatus IN :stage AND w.toStatus NOT IN :stage " +
+           "GROUP BY w.processedBy.id, la.loanType")
+    List<Object[]> countCompletedByOfficerAndLoanType(@Param("stage") Collection<ApplicationStatus> stage,
+                                                      @Param("since") LocalDateTime since);
 }
@@ -0,0 +1,62 @@
+package com.tss.loan.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.enums.RoleType;
+import com.tss.loan.entity.loan.AssignmentQueueEntry;
+
+@Repository
+public interface AssignmentQueueRepository extends JpaRepository<AssignmentQueueEntry, UUID> {
+    
+    /**
+     * Next entries for the officer role: highest priority, then largest amount, then oldest
+     */
+    @Query("SELECT q FROM AssignmentQueueEntry q WHERE q.officerRole = :officerRole " +
+           "ORDER BY q.priorityLevel DESC, q.requestedAmount DESC, q.enqueuedAt ASC")
+    List<AssignmentQueueEntry> findNextBatch(@Param("officerRole") RoleType officerRole, Pageable pageable);
+    
+    long countByOfficerRole(RoleType officerRole);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AssignmentQueueEntry q WHERE q.applicationId IN :applicationIds")
+    int deleteByApplicationIds(@Param("applicationIds") Collection<UUID> applicationIds);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE AssignmentQueueEntry q SET q.attempts = q.attempts + 1, q.lastAttemptAt = :now " +
+           "WHERE q.applicationId IN :applicationIds")
+    int recordAttempt(@Param("applicationIds") Collection<UUID> applicationIds, @Param("now") LocalDateTime now);
+    
+    /**
+     * Loan officer entries whose application was assigned, withdrawn or moved on some other way
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AssignmentQueueEntry q WHERE q.officerRole = com.tss.loan.entity.enums.RoleType.LOAN_OFFICER " +
+           "AND NOT EXISTS (SELECT la.id FROM LoanApplication la WHERE la.id = q.applicationId " +
+           "AND la.status = com.tss.loan.entity.enums.ApplicationStatus.SUBMITTED AND la.assignedOfficer IS NULL)")
+    int deleteStaleLoanOfficerEntries();
+    
+    /**
+     * Compliance entries whose application was assigned or left compliance review
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AssignmentQueueEntry q WHERE q.officerRole = com.tss.loan.entity.enums.RoleType.COMPLIANCE_OFFICER " +
+           "AND NOT EXISTS (SELECT la.id FROM LoanApplication la WHERE la.id = q.applicationId " +
+           "AND la.status IN :statuses AND la.assignedComplianceOfficer IS NULL)")
+    int deleteStaleComplianceEntries(@Param("statuses") Collection<ApplicationStatus> statuses);
+}
@@ -0,0 +1,65 @@
+package com.tss.loan.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tss.loan.entity.loan.DocumentBlob;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface DocumentBlobRepository extends JpaRepository<DocumentBlob, Long> {
+    
+    Optional<DocumentBlob> findByContentSha256(String contentSha256);
+    
+    /**
+     * Takes one reference to the content, inserting the blob row on first use. One statement,
+     * so concurrent uploads of the same content cannot race on the unique hash. It waits on
+     * the row lock the purge holds while deleting the object, so a reference taken here is
+     * either seen by the purge or taken after the row and object are gone.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO document_blobs " +
+           "(contentSha256, objectName, contentType, fileSize, referenceCount, createdAt, lastReferencedAt) " +
+           "VALUES (:sha256, :objectName, :contentType, :fileSize, 1, :now, :now) " +
+           "ON DUPLICATE KEY UPDATE referenceCount = referenceCount + 1, lastReferencedAt = :now",
+           nativeQuery = true)
+    int addReference(@Param("sha256") String contentSha256, @Param("objectName") String objectName,
+                     @Param("contentType") String contentType, @Param("fileSize") long fileSize,
+                     @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentBlob b SET b.referenceCount = b.referenceCount - 1, b.lastReferencedAt = :now " +
+           "WHERE b.contentSha256 = :sha256 AND b.referenceCount > 0")
+    int releaseReference(@Param("sha256") String contentSha256, @Param("now") LocalDateTime now);
+    
+    // Blobs nobody has referenced since the cutoff
+    @Query("SELECT b FROM DocumentBlob b WHERE b.referenceCount <= 0 AND b.lastReferencedAt < :cutoff")
+    List<DocumentBlob> findUnreferencedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    /**
+     * Locks a blob that is still unreferenced, so the purge can delete its object before
+     * any upload takes a new reference
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM DocumentBlob b WHERE b.id = :id AND b.referenceCount <= 0")
+    Optional<DocumentBlob> findUnreferencedForUpdate(@Param("id") Long id);
+    
+    // Conditional so a blob re-referenced after it was selected survives
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DocumentBlob b WHERE b.id = :id AND b.referenceCount <= 0")
+    int deleteIfUnreferenced(@Param("id") Long id);
+}
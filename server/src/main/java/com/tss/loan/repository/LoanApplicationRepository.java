@@ -2,20 +2,32 @@ package com.tss.loan.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.enums.DocumentType;
 import com.tss.loan.entity.enums.Priority;
+import com.tss.loan.entity.enums.VerificationStatus;
 import com.tss.loan.entity.loan.LoanApplication;
 import com.tss.loan.entity.user.User;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface LoanApplicationRepository extends JpaRepository<LoanApplication, UUID> {
     
@@ -25,6 +37,9 @@ public interface LoanApplicationRepository extends JpaRepository<LoanApplication
     
     List<LoanApplication> findByAssignedOfficerIdOrderByCreatedAtDesc(UUID officerId);
     
+    // Ownership check by key, without loading the application
+    boolean existsByIdAndAssignedOfficerId(UUID id, UUID officerId);
+    
     @Query("SELECT la FROM LoanApplication la WHERE la.applicant.id = :applicantId")
     List<LoanApplication> findByApplicantIdWithDetails(@Param("applicantId") UUID applicantId);
     
@@ -161,4 +176,117 @@ public interface LoanApplicationRepository extends JpaRepository<LoanApplication
      */
     @Query("SELECT la FROM LoanApplication la ORDER BY la.createdAt DESC")
     org.springframework.data.domain.Page<LoanApplication> findAllByOrderByCreatedAtDesc(org.springframework.data.domain.Pageable pageable);
+    
+    // ========== WORKLOAD INDEX METHODS ==========
+    
+    /**
+     * Active case count per loan officer as [officerId, count] rows, for workload reconciliation
+     */
+    @Query("SELECT la.assignedOfficer.id, COUNT(la) FROM LoanApplication la " +
+           "WHERE la.assignedOfficer IS NOT NULL AND la.status IN :statuses " +
+           "GROUP BY la.assignedOfficer.id")
+    List<Object[]> countByAssignedOfficerGrouped(@Param("statuses") Collection<ApplicationStatus> statuses);
+    
+    /**
+     * Active case count per compliance officer as [officerId, count] rows, for workload reconciliation
+     */
+    @Query("SELECT la.assignedComplianceOfficer.id, COUNT(la) FROM LoanApplication la " +
+           "WHERE la.assignedComplianceOfficer IS NOT NULL AND la.status IN :statuses " +
+           "GROUP BY la.assignedComplianceOfficer.id")
+    List<Object[]> countByAssignedComplianceOfficerGrouped(@Param("statuses") Collection<ApplicationStatus> statuses);
+    
+    // ========== DOCUMENT UPLOAD METHODS ==========
+    
+    /**
+     * One row per document of the application (a single row with null document columns when
+     * there are none) carrying everything the upload path checks: ownership, status and
+     * per-type verification state. Empty when the application does not exist.
+     */
+    @Query("SELECT la.applicant.id AS applicantId, la.status AS status, " +
+           "d.documentType AS documentType, d.verificationStatus AS verificationStatus " +
+           "FROM LoanApplication la LEFT JOIN la.documents d " +
+           "WHERE la.id = :id")
+    List<DocumentUploadRow> findDocumentUploadRows(@Param("id") UUID id);
+    
+    /**
+     * Bumps updatedAt without loading the application, so the compliance alert reflects new uploads
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE LoanApplication la SET la.updatedAt = :now WHERE la.id = :id")
+    int touchUpdatedAt(@Param("id") UUID id, @Param("now") LocalDateTime now);
+    
+    /**
+     * Read-only copies for checking transition guards ahead of a bulk assignment; changes
+     * made to them are never flushed, so the bulk update stays the only write.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT la FROM LoanApplication la WHERE la.id IN :ids")
+    List<LoanApplication> findReadOnlyByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Assigns queued applications to one loan officer in a single statement. Only applications
+     * still submitted and unassigned are taken; the version is bumped so stale copies fail to save.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE LoanApplication la SET la.assignedOfficer = :officer, " +
+           "la.status = com.tss.loan.entity.enums.ApplicationStatus.UNDER_REVIEW, " +
+           "la.updatedAt = :now, la.version = la.version + 1 " +
+           "WHERE la.id IN :ids AND la.assignedOfficer IS NULL " +
+           "AND la.status = com.tss.loan.entity.enums.ApplicationStatus.SUBMITTED")
+    int assignQueuedToLoanOfficer(@Param("ids") Collection<UUID> ids, @Param("officer") User officer,
+                                  @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE LoanApplication la SET la.assignedComplianceOfficer = :officer, " +
+           "la.updatedAt = :now, la.version = la.version + 1 " +
+           "WHERE la.id IN :ids AND la.assignedComplianceOfficer IS NULL AND la.status IN :statuses")
+    int assignQueuedToComplianceOfficer(@Param("ids") Collection<UUID> ids, @Param("officer") User officer,
+                                        @Param("statuses") Collection<ApplicationStatus> statuses,
+                                        @Param("now") LocalDateTime now);
+    
+    @Query("SELECT la.id FROM LoanApplication la WHERE la.id IN :ids " +
+           "AND (la.assignedOfficer.id = :officerId OR la.assignedComplianceOfficer.id = :officerId)")
+    List<UUID> findIdsAssignedTo(@Param("ids") Collection<UUID> ids, @Param("officerId") UUID officerId);
+    
+    /**
+     * Submitted applications left without a loan officer and not queued, e.g. submitted before the queue existed
+     */
+    @Query("SELECT la FROM LoanApplication la WHERE la.status = com.tss.loan.entity.enums.ApplicationStatus.SUBMITTED " +
+           "AND la.assignedOfficer IS NULL AND la.submittedAt IS NOT NULL " +
+           "AND NOT EXISTS (SELECT q.applicationId FROM AssignmentQueueEntry q WHERE q.applicationId = la.id)")
+    List<LoanApplication> findUnqueuedWithoutLoanOfficer(Pageable pageable);
+    
+    @Query("SELECT la FROM LoanApplication la WHERE la.status IN :statuses AND la.assignedComplianceOfficer IS NULL " +
+           "AND NOT EXISTS (SELECT q.applicationId FROM AssignmentQueueEntry q WHERE q.applicationId = la.id)")
+    List<LoanApplication> findUnqueuedWithoutComplianceOfficer(@Param("statuses") Collection<ApplicationStatus> statuses,
+                                                               Pageable pageable);
+    
+    /**
+     * Applications whose history predates the event log
+     */
+    @Query("SELECT la.id FROM LoanApplication la WHERE NOT EXISTS " +
+           "(SELECT e.id FROM ApplicationEvent e WHERE e.applicationId = la.id)")
+    List<UUID> findIdsWithoutEvents(Pageable pageable);
+    
+    /**
+     * Applications in a stage with an SLA that have no deadline yet, e.g. ones that entered it before SLA tracking
+     */
+    @Query("SELECT la FROM LoanApplication la WHERE la.status IN :statuses AND NOT EXISTS " +
+           "(SELECT d.applicationId FROM SlaDeadline d WHERE d.applicationId = la.id)")
+    List<LoanApplication> findWithoutSlaDeadline(@Param("statuses") Collection<ApplicationStatus> statuses,
+                                                 Pageable pageable);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT la FROM LoanApplication la WHERE la.id = :id")
+    Optional<LoanApplication> findByIdForUpdate(@Param("id") UUID id);
+    
+    interface DocumentUploadRow {
+        UUID getApplicantId();
+        ApplicationStatus getStatus();
+        DocumentType getDocumentType();
+        VerificationStatus getVerificationStatus();
+    }
 }
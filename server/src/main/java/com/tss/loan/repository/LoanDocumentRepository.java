@@ -1,13 +1,20 @@
 package com.tss.loan.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.tss.loan.entity.enums.OcrStatus;
+import com.tss.loan.entity.enums.VerificationStatus;
 import com.tss.loan.entity.loan.LoanDocument;
 
 @Repository
@@ -41,4 +48,97 @@ public interface LoanDocumentRepository extends JpaRepository<LoanDocument, Long
            "WHERE d.loanApplication.id = :applicationId " +
            "ORDER BY d.uploadedAt DESC")
     List<LoanDocument> findByLoanApplicationIdWithDetailsOrderByUploadedAtDesc(@Param("applicationId") UUID applicationId);
+    
+    /**
+     * Get document with its application, for ownership checks before serving content
+     */
+    @Query("SELECT d FROM LoanDocument d JOIN FETCH d.loanApplication WHERE d.id = :id")
+    Optional<LoanDocument> findByIdWithApplication(@Param("id") Long id);
+    
+    // ========== TEXT EXTRACTION ==========
+    
+    // Bulk updates so extraction never conflicts with an officer editing the same row
+    @Modifying
+    @Transactional
+    @Query("UPDATE LoanDocument d SET d.ocrStatus = :status WHERE d.id = :id")
+    int updateOcrStatus(@Param("id") Long id, @Param("status") OcrStatus status);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE LoanDocument d SET d.ocrStatus = :status, d.extractedText = :text, " +
+           "d.extractedFieldsJson = :fieldsJson, d.ocrPageCount = :pageCount, d.ocrCompletedAt = :completedAt " +
+           "WHERE d.id = :id")
+    int updateOcrResult(@Param("id") Long id,
+                        @Param("status") OcrStatus status,
+                        @Param("text") String text,
+                        @Param("fieldsJson") String fieldsJson,
+                        @Param("pageCount") Integer pageCount,
+                        @Param("completedAt") LocalDateTime completedAt);
+    
+    @Query("SELECT d.id FROM LoanDocument d WHERE d.ocrStatus = :status AND d.uploadedAt < :before ORDER BY d.uploadedAt ASC")
+    List<Long> findIdsByOcrStatusUploadedBefore(@Param("status") OcrStatus status,
+                                                @Param("before") LocalDateTime before,
+                                                Pageable pageable);
+    
+    // Documents whose extraction lease ran out, e.g. the worker's node stopped mid-document
+    @Query("SELECT d.id FROM LoanDocument d WHERE d.ocrStatus = :status " +
+           "AND (d.ocrStartedAt IS NULL OR d.ocrStartedAt < :before) ORDER BY d.uploadedAt ASC")
+    List<Long> findIdsByOcrStatusStartedBefore(@Param("status") OcrStatus status,
+                                               @Param("before") LocalDateTime before,
+                                               Pageable pageable);
+    
+    /**
+     * Moves the document to PROCESSING with a fresh lease, if it is pending or its lease has
+     * expired. Returns 0 when another worker holds it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE LoanDocument d SET d.ocrStatus = :processing, d.ocrStartedAt = :now WHERE d.id = :id " +
+           "AND (d.ocrStatus = :pending OR (d.ocrStatus = :processing " +
+           "AND (d.ocrStartedAt IS NULL OR d.ocrStartedAt < :leaseExpiredBefore)))")
+    int claimForExtraction(@Param("id") Long id,
+                           @Param("pending") OcrStatus pending,
+                           @Param("processing") OcrStatus processing,
+                           @Param("now") LocalDateTime now,
+                           @Param("leaseExpiredBefore") LocalDateTime leaseExpiredBefore);
+    
+    // Earlier extraction of identical content, reused instead of running OCR again
+    Optional<LoanDocument> findFirstByContentSha256AndOcrStatusAndIdNot(String contentSha256, OcrStatus ocrStatus, Long id);
+    
+    // ========== AUTO-VERIFICATION ==========
+    
+    // Extracted documents still waiting for a decision; compliance-requested ones are left to compliance
+    @Query("SELECT d FROM LoanDocument d JOIN FETCH d.loanApplication " +
+           "WHERE d.ocrStatus = :ocrStatus AND d.verificationStatus = :verificationStatus " +
+           "AND d.autoVerificationScore IS NULL " +
+           "AND (d.verificationNotes IS NULL OR d.verificationNotes NOT LIKE '[COMPLIANCE_ONLY]%') " +
+           "ORDER BY d.id ASC")
+    List<LoanDocument> findAutoVerificationCandidates(@Param("ocrStatus") OcrStatus ocrStatus,
+                                                      @Param("verificationStatus") VerificationStatus verificationStatus,
+                                                      Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE LoanDocument d SET d.autoVerificationScore = :score, d.autoVerificationSummary = :summary " +
+           "WHERE d.id = :id")
+    int recordAutoVerificationScore(@Param("id") Long id, @Param("score") Double score, @Param("summary") String summary);
+    
+    // Only applies while the document is still PENDING, so an officer's decision always wins
+    @Modifying
+    @Transactional
+    @Query("UPDATE LoanDocument d SET d.verificationStatus = com.tss.loan.entity.enums.VerificationStatus.VERIFIED, " +
+           "d.verificationNotes = :notes, d.verifiedAt = :verifiedAt " +
+           "WHERE d.id = :id AND d.verificationStatus = com.tss.loan.entity.enums.VerificationStatus.PENDING")
+    int markAutoVerified(@Param("id") Long id, @Param("notes") String notes, @Param("verifiedAt") LocalDateTime verifiedAt);
+    
+    // ========== RENDITIONS ==========
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE LoanDocument d SET d.thumbnailObjectName = :thumbnail, d.previewObjectName = :preview WHERE d.id = :id")
+    int updateRenditions(@Param("id") Long id, @Param("thumbnail") String thumbnailObjectName,
+                         @Param("preview") String previewObjectName);
+    
+    // Renditions already generated for identical content
+    Optional<LoanDocument> findFirstByContentSha256AndPreviewObjectNameIsNotNull(String contentSha256);
 }
@@ -1,6 +1,7 @@
 package com.tss.loan.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -57,6 +58,24 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.user = :user AND n.isRead = false")
     int markAllAsReadForUser(@Param("user") User user, @Param("readAt") LocalDateTime readAt);
     
+    // Mark selected notifications as read for user in a single statement
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id IN :ids AND n.user = :user AND n.isRead = false")
+    int markSelectedAsReadForUser(@Param("user") User user, @Param("ids") Collection<Long> ids, @Param("readAt") LocalDateTime readAt);
+    
+    // Rewrite an unread digest row with a snapshot; 0 when the row was read, removed or already holds a later snapshot
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.title = :title, n.message = :message, n.metadataJson = :metadataJson, " +
+           "n.relatedEntityType = COALESCE(:relatedEntityType, n.relatedEntityType), " +
+           "n.relatedEntityId = COALESCE(:relatedEntityId, n.relatedEntityId), " +
+           "n.updatedAt = :mergedAt, n.version = n.version + 1 " +
+           "WHERE n.id = :id AND n.isRead = false AND n.updatedAt <= :mergedAt")
+    int updateDigest(@Param("id") Long id, @Param("title") String title, @Param("message") String message,
+                     @Param("metadataJson") String metadataJson, @Param("relatedEntityType") String relatedEntityType,
+                     @Param("relatedEntityId") Long relatedEntityId, @Param("mergedAt") LocalDateTime mergedAt);
+    
     // Delete old read notifications (cleanup)
     @Modifying
     @Transactional
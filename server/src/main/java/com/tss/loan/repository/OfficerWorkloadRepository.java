@@ -0,0 +1,38 @@
+package com.tss.loan.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tss.loan.entity.user.OfficerWorkload;
+
+@Repository
+public interface OfficerWorkloadRepository extends JpaRepository<OfficerWorkload, UUID> {
+    
+    // Takes one slot only while the officer is below capacity; the row stays locked until the caller commits
+    @Modifying
+    @Transactional
+    @Query("UPDATE OfficerWorkload w SET w.activeCases = w.activeCases + 1, w.updatedAt = :now " +
+           "WHERE w.officerId = :officerId AND w.activeCases < :capacity")
+    int reserve(@Param("officerId") UUID officerId, @Param("capacity") int capacity, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OfficerWorkload w SET w.activeCases = CASE WHEN w.activeCases + :delta < 0 THEN 0 " +
+           "ELSE w.activeCases + :delta END, w.updatedAt = :now WHERE w.officerId = :officerId")
+    int adjust(@Param("officerId") UUID officerId, @Param("delta") int delta, @Param("now") LocalDateTime now);
+    
+    // Corrects drift only on counters untouched since quietSince, so in-flight reservations are never overwritten
+    @Modifying
+    @Transactional
+    @Query("UPDATE OfficerWorkload w SET w.activeCases = :activeCases, w.updatedAt = :now " +
+           "WHERE w.officerId = :officerId AND w.activeCases <> :activeCases AND w.updatedAt < :quietSince")
+    int correct(@Param("officerId") UUID officerId, @Param("activeCases") int activeCases,
+                @Param("now") LocalDateTime now, @Param("quietSince") LocalDateTime quietSince);
+}
@@ -0,0 +1,43 @@
+package com.tss.loan.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tss.loan.entity.system.PendingStatusEmail;
+
+@Repository
+public interface PendingStatusEmailRepository extends JpaRepository<PendingStatusEmail, Long> {
+    
+    // Unclaimed or stale emails whose digest window has closed, grouped together by recipient and status
+    @Query("SELECT p FROM PendingStatusEmail p LEFT JOIN FETCH p.user WHERE p.sendAfter <= :now " +
+           "AND (p.sendingAt IS NULL OR p.sendingAt < :staleBefore) ORDER BY p.toEmail, p.status, p.id")
+    List<PendingStatusEmail> findDue(@Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore,
+                                     Pageable pageable);
+    
+    /**
+     * Claims the rows about to be sent under the token. Rows another node is sending are skipped
+     * unless that claim is older than staleBefore; a node that gets 0 back lost the race.
+     */
+    @Modifying
+    @Query("UPDATE PendingStatusEmail p SET p.sendingAt = :now, p.claimToken = :token WHERE p.id IN :ids " +
+           "AND (p.sendingAt IS NULL OR p.sendingAt < :staleBefore)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+    
+    @Modifying
+    @Query("UPDATE PendingStatusEmail p SET p.sendingAt = NULL, p.claimToken = NULL WHERE p.claimToken = :token")
+    int release(@Param("token") String token);
+    
+    // Removes the rows of a digest once it has been sent
+    @Modifying
+    @Query("DELETE FROM PendingStatusEmail p WHERE p.claimToken = :token")
+    int deleteClaimed(@Param("token") String token);
+}
@@ -0,0 +1,32 @@
+package com.tss.loan.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tss.loan.entity.security.RedeemedStreamTicket;
+
+@Repository
+public interface RedeemedStreamTicketRepository extends JpaRepository<RedeemedStreamTicket, String> {
+    
+    /**
+     * Records the nonce as used; returns 0 when it already was. One statement, so two nodes
+     * redeeming the same ticket cannot both succeed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO redeemed_stream_tickets (nonce, expiresAt) VALUES (:nonce, :expiresAt)",
+           nativeQuery = true)
+    int markRedeemed(@Param("nonce") String nonce, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    // Delete nonces of tickets that have expired (cleanup)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RedeemedStreamTicket t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,40 @@
+package com.tss.loan.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tss.loan.entity.workflow.SlaDeadline;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface SlaDeadlineRepository extends JpaRepository<SlaDeadline, UUID> {
+    
+    /**
+     * Deadlines still to fire, in key order so recovery can page through them with keyset pagination
+     */
+    @Query("SELECT d FROM SlaDeadline d WHERE d.breachedAt IS NULL AND d.applicationId > :after ORDER BY d.applicationId")
+    List<SlaDeadline> findPendingAfter(@Param("after") UUID after, Pageable pageable);
+    
+    /**
+     * Locks the row, so when several instances fire the same timer only the first acts on it
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM SlaDeadline d WHERE d.applicationId = :applicationId")
+    Optional<SlaDeadline> findByIdForUpdate(@Param("applicationId") UUID applicationId);
+    
+    /**
+     * Per stage: open deadlines, and how many of them are already breached
+     */
+    @Query("SELECT d.stage, COUNT(d), SUM(CASE WHEN d.breachedAt IS NOT NULL THEN 1 ELSE 0 END) " +
+           "FROM SlaDeadline d GROUP BY d.stage")
+    List<Object[]> countOpenByStage();
+}
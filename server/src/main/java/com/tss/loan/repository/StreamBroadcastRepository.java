@@ -0,0 +1,35 @@
+package com.tss.loan.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tss.loan.entity.system.StreamBroadcast;
+
+@Repository
+public interface StreamBroadcastRepository extends JpaRepository<StreamBroadcast, Long> {
+    
+    // Batches from every node since the last one seen, so a node's own rows close id gaps too
+    @Query("SELECT b FROM StreamBroadcast b WHERE b.id > :afterId ORDER BY b.id ASC")
+    List<StreamBroadcast> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Ids skipped by an earlier poll, in case their rows have committed since
+    @Query("SELECT b FROM StreamBroadcast b WHERE b.id IN :ids ORDER BY b.id ASC")
+    List<StreamBroadcast> findByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT COALESCE(MAX(b.id), 0L) FROM StreamBroadcast b")
+    Long findMaxId();
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StreamBroadcast b WHERE b.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,169 @@
+package com.tss.loan.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel keyed by K. Scheduling, rescheduling and cancelling are O(1);
+ * advancing the clock costs one bucket per elapsed tick plus the timers that fall due,
+ * however many timers are pending.
+ *
+ * Level 0 has wheelSize buckets of one tick each; every higher level has wheelSize buckets
+ * each spanning the whole level below. Timers sit in the lowest level whose span covers
+ * them and move down a level each time the clock reaches their bucket, so a timer due in
+ * months is touched only a handful of times before it fires. Levels are added as far-off
+ * timers need them.
+ *
+ * Timestamps are in milliseconds and are only compared with each other. Thread safe.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+
+    // levels.get(i).get(slot): timers at level i whose bucket is slot
+    private final List<List<Set<Timer<K>>>> levels = new ArrayList<>();
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+
+    // Ticks completed since the epoch; the wheel has fired everything due before (currentTick + 1) * tickMillis
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be positive and the wheel must have at least two buckets");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = startMillis / tickMillis;
+        addLevel();
+    }
+
+    /**
+     * Schedules the key to fire at dueMillis, replacing any timer it already has
+     * @return false when dueMillis is already past, in which case nothing is scheduled
+     */
+    public synchronized boolean schedule(K key, long dueMillis) {
+        cancel(key);
+        long dueTick = dueMillis / tickMillis;
+        if (dueTick <= currentTick) {
+            return false;
+        }
+        Timer<K> timer = new Timer<>(key, dueTick);
+        timers.put(key, timer);
+        place(timer);
+        return true;
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        timer.bucket.remove(timer);
+        return true;
+    }
+
+    public synchronized boolean isScheduled(K key) {
+        return timers.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    /**
+     * Moves the clock to nowMillis and removes every timer that fell due on the way
+     * @return keys that are due, in the order they fell due
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> due = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            Set<Timer<K>> bucket = levels.get(0).get(slot(currentTick, 0));
+            for (Timer<K> timer : bucket) {
+                timers.remove(timer.key);
+                due.add(timer.key);
+            }
+            bucket.clear();
+            if (timers.isEmpty()) {
+                // Nothing left to move through the buckets, so skip the remaining ticks
+                currentTick = targetTick;
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Empties the current bucket of each level from level upwards whose bucket boundary the
+     * clock just reached, placing its timers again one or more levels lower
+     */
+    private void cascade(int level) {
+        if (level >= levels.size() || currentTick % span(level) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        Set<Timer<K>> bucket = levels.get(level).get(slot(currentTick, level));
+        List<Timer<K>> moving = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Timer<K> timer : moving) {
+            place(timer);
+        }
+    }
+
+    private void place(Timer<K> timer) {
+        long ticksAway = timer.dueTick - currentTick;
+        int level = 0;
+        while (ticksAway >= span(level + 1)) {
+            level++;
+        }
+        while (level >= levels.size()) {
+            addLevel();
+        }
+        Set<Timer<K>> bucket = levels.get(level).get(slot(timer.dueTick, level));
+        bucket.add(timer);
+        timer.bucket = bucket;
+    }
+
+    private int slot(long tick, int level) {
+        return (int) ((tick / span(level)) % wheelSize);
+    }
+
+    /**
+     * Ticks covered by one bucket of the level
+     */
+    private long span(int level) {
+        long span = 1;
+        for (int i = 0; i < level; i++) {
+            if (span > Long.MAX_VALUE / wheelSize) {
+                return Long.MAX_VALUE;
+            }
+            span *= wheelSize;
+        }
+        return span;
+    }
+
+    private void addLevel() {
+        List<Set<Timer<K>>> buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashSet<>());
+        }
+        levels.add(buckets);
+    }
+
+    private static final class Timer<K> {
+        private final K key;
+        private final long dueTick;
+        private Set<Timer<K>> bucket;
+
+        private Timer(K key, long dueTick) {
+            this.key = key;
+            this.dueTick = dueTick;
+        }
+    }
+}
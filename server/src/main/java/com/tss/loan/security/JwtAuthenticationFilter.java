@@ -1,6 +1,7 @@
 package com.tss.loan.security;
 
 import java.io.IOException;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
@@ -22,21 +23,33 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    private static final String SSE_STREAM_PATH = "/api/notifications/stream";
+    
     @Autowired
     private JwtTokenProvider tokenProvider;
     
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private StreamTicketProvider streamTicketProvider;
+    
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, 
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            String userId = null;
             
             if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String userId = tokenProvider.getUserIdFromToken(jwt).toString();
-                
+                userId = tokenProvider.getUserIdFromToken(jwt).toString();
+            } else if (jwt == null && SSE_STREAM_PATH.equals(request.getRequestURI())) {
+                // EventSource cannot set headers, so the notification stream is opened with a single-use ticket
+                UUID ticketHolder = streamTicketProvider.redeem(request.getParameter("ticket"));
+                userId = ticketHolder != null ? ticketHolder.toString() : null;
+            }
+            
+            if (userId != null) {
                 // Load user details using UserDetailsService
                 UserDetails userDetails = userDetailsService.loadUserById(userId);
                 
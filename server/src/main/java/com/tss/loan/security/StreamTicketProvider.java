@@ -0,0 +1,117 @@
+package com.tss.loan.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.tss.loan.repository.RedeemedStreamTicketRepository;
+
+/**
+ * Single-use tickets for opening the notification stream.
+ *
+ * EventSource cannot send an Authorization header, so the client first asks for a ticket
+ * with its JWT and then opens the stream with ?ticket=. A ticket carries the user id, an
+ * expiry a few seconds out and a random nonce, signed with HMAC-SHA256, so any node can
+ * check it without shared memory. The nonce is recorded in redeemed_stream_tickets when the
+ * ticket is used, which keeps the value that ends up in access logs and browser history
+ * from opening a second stream.
+ */
+@Component
+public class StreamTicketProvider {
+
+    private static final String SIGNING_ALGORITHM = "HmacSHA256";
+    private static final int NONCE_BYTES = 16;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RedeemedStreamTicketRepository redeemedTicketRepository;
+
+    @Value("${notification.stream.ticket-ttl-seconds:30}")
+    private long ticketTtlSeconds;
+
+    @Value("${notification.stream.ticket-signing-key:${app.jwt.secret}}")
+    private String signingKey;
+
+    public String issue(UUID userId) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        long expires = System.currentTimeMillis() / 1000 + ticketTtlSeconds;
+        String payload = userId + ":" + expires + ":" + HexFormat.of().formatHex(nonce);
+        return encode(payload.getBytes(StandardCharsets.UTF_8)) + "." + sign(payload);
+    }
+
+    /**
+     * Consumes the ticket
+     * @return the user it was issued to, or null when it is forged, used or expired
+     */
+    public UUID redeem(String ticket) {
+        if (ticket == null) {
+            return null;
+        }
+        int separator = ticket.indexOf('.');
+        if (separator < 0) {
+            return null;
+        }
+
+        String payload;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(ticket.substring(0, separator)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(payload).getBytes(StandardCharsets.US_ASCII),
+                ticket.substring(separator + 1).getBytes(StandardCharsets.US_ASCII))) {
+            return null;
+        }
+
+        // userId:expires:nonce, as written by issue
+        String[] parts = payload.split(":");
+        if (parts.length != 3) {
+            return null;
+        }
+        long expires = Long.parseLong(parts[1]);
+        if (expires < System.currentTimeMillis() / 1000) {
+            return null;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochSecond(expires), ZoneId.systemDefault());
+        if (redeemedTicketRepository.markRedeemed(parts[2], expiresAt) == 0) {
+            return null;
+        }
+        return UUID.fromString(parts[0]);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        redeemedTicketRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(SIGNING_ALGORITHM);
+            mac.init(new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), SIGNING_ALGORITHM));
+            return encode(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign stream tickets", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
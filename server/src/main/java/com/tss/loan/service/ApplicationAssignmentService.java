@@ -10,10 +10,13 @@ import com.tss.loan.entity.user.User;
  */
 public interface ApplicationAssignmentService {
     
+    // High value loan threshold (requires senior officer)
+    BigDecimal HIGH_VALUE_THRESHOLD = new BigDecimal("1000000.0"); // 10 Lakhs
+    
     /**
-     * Auto-assign application to available loan officer
+     * Auto-assign application to available loan officer, or queue it when none has capacity
      * @param application The loan application to assign
-     * @return The assigned loan officer
+     * @return The assigned loan officer, or null if the application was queued
      */
     User assignToLoanOfficer(LoanApplication application);
     
@@ -39,14 +42,30 @@ public interface ApplicationAssignmentService {
     int getCurrentWorkload(User officer);
     
     /**
-     * Auto-assign application to available compliance officer when flagged
+     * Get the most active cases the officer may hold, configured per role
+     * @param officer The loan or compliance officer
+     * @return Maximum number of active cases
+     */
+    int getMaxCapacity(User officer);
+    
+    /**
+     * Auto-assign application to available compliance officer when flagged, or queue it when none has capacity
      * @param application The loan application flagged for compliance
      * @param flagReason The reason for flagging
      * @param priorityLevel The priority level (HIGH, MEDIUM, LOW)
-     * @return The assigned compliance officer
+     * @return The assigned compliance officer, or null if the application was queued
      */
     User assignToComplianceOfficer(LoanApplication application, String flagReason, String priorityLevel);
     
+    /**
+     * Reassign a case under compliance review to a senior compliance officer, reserving capacity
+     * the same way as assignToComplianceOfficer
+     * @param application The loan application being escalated
+     * @param escalationReason The reason for escalating
+     * @return The senior compliance officer, or null if none has capacity
+     */
+    User escalateToSeniorComplianceOfficer(LoanApplication application, String escalationReason);
+    
     /**
      * Get the best available compliance officer based on workload and priority
      * @param priorityLevel The priority level for assignment preference
@@ -0,0 +1,157 @@
+package com.tss.loan.service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.tss.loan.entity.enums.ApplicationStatus;
+
+/**
+ * Every allowed loan application status transition, declared once and compiled into an
+ * EnumMap of EnumSets when the class loads. Lookups are a bit test with no allocation.
+ *
+ * Statuses without outgoing transitions are terminal. Add a transition here before
+ * writing code that performs it; ApplicationWorkflowService.transition rejects anything else.
+ */
+public final class ApplicationStatusTransitions {
+
+    /**
+     * Compliance handling; a compliance officer may move a case between any of these as the case requires
+     */
+    public static final Set<ApplicationStatus> COMPLIANCE_STAGE = Collections.unmodifiableSet(EnumSet.of(
+        ApplicationStatus.FLAGGED_FOR_COMPLIANCE,
+        ApplicationStatus.COMPLIANCE_REVIEW,
+        ApplicationStatus.PENDING_COMPLIANCE_DOCS,
+        ApplicationStatus.UNDER_INVESTIGATION,
+        ApplicationStatus.AWAITING_COMPLIANCE_DECISION,
+        ApplicationStatus.COMPLIANCE_TIMEOUT));
+
+    /**
+     * Loan officer review steps from which a case can be flagged for compliance
+     */
+    private static final Set<ApplicationStatus> FLAGGABLE = EnumSet.of(
+        ApplicationStatus.UNDER_REVIEW,
+        ApplicationStatus.DOCUMENT_VERIFICATION,
+        ApplicationStatus.FINANCIAL_REVIEW,
+        ApplicationStatus.RISK_ASSESSMENT,
+        ApplicationStatus.FRAUD_CHECK,
+        ApplicationStatus.READY_FOR_DECISION);
+
+    private static final Map<ApplicationStatus, Set<ApplicationStatus>> TRANSITIONS = compile();
+
+    private ApplicationStatusTransitions() {
+    }
+
+    public static boolean isAllowed(ApplicationStatus from, ApplicationStatus to) {
+        return from != null && to != null && TRANSITIONS.get(from).contains(to);
+    }
+
+    /**
+     * Statuses reachable in one step; empty for terminal statuses
+     */
+    public static Set<ApplicationStatus> next(ApplicationStatus from) {
+        return TRANSITIONS.get(from);
+    }
+
+    public static boolean isTerminal(ApplicationStatus status) {
+        return TRANSITIONS.get(status).isEmpty();
+    }
+
+    /**
+     * The transition graph in Graphviz DOT, for documentation and for tests that check reachability
+     */
+    public static String toDot() {
+        StringBuilder dot = new StringBuilder("digraph ApplicationStatus {\n");
+        for (Map.Entry<ApplicationStatus, Set<ApplicationStatus>> entry : TRANSITIONS.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                dot.append("  ").append(entry.getKey()).append(" [shape=doublecircle];\n");
+            }
+            for (ApplicationStatus to : entry.getValue()) {
+                dot.append("  ").append(entry.getKey()).append(" -> ").append(to).append(";\n");
+            }
+        }
+        return dot.append("}\n").toString();
+    }
+
+    private static Map<ApplicationStatus, Set<ApplicationStatus>> compile() {
+        Map<ApplicationStatus, EnumSet<ApplicationStatus>> table = new EnumMap<>(ApplicationStatus.class);
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            table.put(status, EnumSet.noneOf(ApplicationStatus.class));
+        }
+
+        // Applicant
+        allow(table, ApplicationStatus.DRAFT, ApplicationStatus.SUBMITTED, ApplicationStatus.CANCELLED);
+        allow(table, ApplicationStatus.SUBMITTED,
+            ApplicationStatus.UNDER_REVIEW, ApplicationStatus.REJECTED, ApplicationStatus.CANCELLED);
+        allow(table, ApplicationStatus.DOCUMENT_INCOMPLETE,
+            ApplicationStatus.DOCUMENT_REVERIFICATION, ApplicationStatus.UNDER_REVIEW,
+            ApplicationStatus.REJECTED, ApplicationStatus.CANCELLED, ApplicationStatus.EXPIRED);
+
+        // Loan officer review
+        allow(table, ApplicationStatus.UNDER_REVIEW,
+            ApplicationStatus.DOCUMENT_VERIFICATION, ApplicationStatus.DOCUMENT_INCOMPLETE,
+            ApplicationStatus.PENDING_EXTERNAL_VERIFICATION, ApplicationStatus.READY_FOR_DECISION,
+            ApplicationStatus.APPROVED, ApplicationStatus.REJECTED, ApplicationStatus.ON_HOLD);
+        allow(table, ApplicationStatus.DOCUMENT_VERIFICATION,
+            ApplicationStatus.PENDING_EXTERNAL_VERIFICATION, ApplicationStatus.DOCUMENT_INCOMPLETE,
+            ApplicationStatus.REJECTED, ApplicationStatus.ON_HOLD);
+        allow(table, ApplicationStatus.DOCUMENT_REVERIFICATION,
+            ApplicationStatus.DOCUMENT_VERIFICATION, ApplicationStatus.PENDING_EXTERNAL_VERIFICATION,
+            ApplicationStatus.DOCUMENT_INCOMPLETE, ApplicationStatus.UNDER_REVIEW,
+            ApplicationStatus.REJECTED, ApplicationStatus.ON_HOLD);
+        allow(table, ApplicationStatus.PENDING_EXTERNAL_VERIFICATION,
+            ApplicationStatus.FRAUD_CHECK, ApplicationStatus.READY_FOR_DECISION,
+            ApplicationStatus.DOCUMENT_INCOMPLETE, ApplicationStatus.REJECTED, ApplicationStatus.ON_HOLD);
+        for (ApplicationStatus check : EnumSet.of(ApplicationStatus.FINANCIAL_REVIEW, ApplicationStatus.CREDIT_CHECK,
+                ApplicationStatus.EMPLOYMENT_VERIFICATION, ApplicationStatus.RISK_ASSESSMENT,
+                ApplicationStatus.FRAUD_CHECK, ApplicationStatus.COLLATERAL_VERIFICATION)) {
+            allow(table, check,
+                ApplicationStatus.READY_FOR_DECISION, ApplicationStatus.DOCUMENT_INCOMPLETE,
+                ApplicationStatus.REJECTED, ApplicationStatus.ON_HOLD);
+        }
+        allow(table, ApplicationStatus.READY_FOR_DECISION,
+            ApplicationStatus.APPROVED, ApplicationStatus.REJECTED, ApplicationStatus.DOCUMENT_INCOMPLETE,
+            ApplicationStatus.MANAGER_APPROVAL, ApplicationStatus.PRE_APPROVED, ApplicationStatus.ON_HOLD);
+        for (ApplicationStatus status : FLAGGABLE) {
+            allow(table, status, ApplicationStatus.FLAGGED_FOR_COMPLIANCE);
+        }
+        allow(table, ApplicationStatus.ON_HOLD,
+            ApplicationStatus.UNDER_REVIEW, ApplicationStatus.READY_FOR_DECISION,
+            ApplicationStatus.REJECTED, ApplicationStatus.CANCELLED);
+
+        // Compliance: back to the loan officer for the decision, or rejected outright
+        for (ApplicationStatus status : COMPLIANCE_STAGE) {
+            EnumSet<ApplicationStatus> targets = table.get(status);
+            targets.addAll(COMPLIANCE_STAGE);
+            targets.remove(status);
+            targets.remove(ApplicationStatus.FLAGGED_FOR_COMPLIANCE);
+            targets.add(ApplicationStatus.READY_FOR_DECISION);
+            targets.add(ApplicationStatus.REJECTED);
+        }
+
+        // Decision and disbursement
+        allow(table, ApplicationStatus.MANAGER_APPROVAL, ApplicationStatus.APPROVED, ApplicationStatus.REJECTED);
+        allow(table, ApplicationStatus.PRE_APPROVED,
+            ApplicationStatus.APPROVED, ApplicationStatus.REJECTED, ApplicationStatus.DOCUMENTATION);
+        allow(table, ApplicationStatus.APPROVED,
+            ApplicationStatus.DOCUMENTATION, ApplicationStatus.DISBURSEMENT_PENDING,
+            ApplicationStatus.DISBURSED, ApplicationStatus.CANCELLED);
+        allow(table, ApplicationStatus.DOCUMENTATION,
+            ApplicationStatus.DISBURSEMENT_PENDING, ApplicationStatus.CANCELLED);
+        allow(table, ApplicationStatus.DISBURSEMENT_PENDING, ApplicationStatus.DISBURSED, ApplicationStatus.CANCELLED);
+
+        // REJECTED, DISBURSED, CANCELLED and EXPIRED are terminal
+        Map<ApplicationStatus, Set<ApplicationStatus>> compiled = new EnumMap<>(ApplicationStatus.class);
+        for (Map.Entry<ApplicationStatus, EnumSet<ApplicationStatus>> entry : table.entrySet()) {
+            compiled.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(compiled);
+    }
+
+    private static void allow(Map<ApplicationStatus, EnumSet<ApplicationStatus>> table,
+                              ApplicationStatus from, ApplicationStatus... to) {
+        Collections.addAll(table.get(from), to);
+    }
+}
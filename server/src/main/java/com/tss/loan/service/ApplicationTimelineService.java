@@ -0,0 +1,46 @@
+package com.tss.loan.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.tss.loan.dto.response.ApplicationEventResponse;
+import com.tss.loan.dto.response.ApplicationStateResponse;
+import com.tss.loan.entity.enums.ApplicationEventType;
+import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.loan.LoanApplication;
+import com.tss.loan.entity.user.User;
+
+/**
+ * Append-only event log per loan application. The timeline and the current state are
+ * each served by one indexed range read; the state is folded from the latest snapshot
+ * and the events after it.
+ */
+public interface ApplicationTimelineService {
+    
+    /**
+     * Record a newly created application; call once it has an id
+     */
+    void recordCreated(LoanApplication application, User actor);
+    
+    /**
+     * Record a status change, in the transaction that makes it
+     */
+    void recordStatusChange(UUID applicationId, ApplicationStatus fromStatus, ApplicationStatus toStatus,
+                            User actor, String comments);
+    
+    /**
+     * Record an officer taking the application
+     * @param eventType OFFICER_ASSIGNED or COMPLIANCE_OFFICER_ASSIGNED
+     */
+    void recordAssignment(UUID applicationId, ApplicationEventType eventType, UUID officerId, String comments);
+    
+    /**
+     * Every event of the application, oldest first
+     */
+    List<ApplicationEventResponse> getTimeline(UUID applicationId);
+    
+    /**
+     * Current state folded from the event log
+     */
+    ApplicationStateResponse getCurrentState(UUID applicationId);
+}
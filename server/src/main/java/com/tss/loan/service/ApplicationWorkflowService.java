@@ -4,11 +4,26 @@ import java.util.List;
 import java.util.UUID;
 
 import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.loan.LoanApplication;
 import com.tss.loan.entity.user.User;
 import com.tss.loan.entity.workflow.ApplicationWorkflow;
 
 public interface ApplicationWorkflowService {
     
+    /**
+     * Move the application to a new status, checked against ApplicationStatusTransitions and
+     * the guards registered for the target status. Does not save; the caller saves the
+     * application together with its other changes. Re-entering the current status is a no-op,
+     * so retried requests do not fail.
+     * @return The status the application had before
+     */
+    ApplicationStatus transition(LoanApplication application, ApplicationStatus toStatus);
+    
+    /**
+     * Add a check that runs before any transition into the status
+     */
+    void registerGuard(ApplicationStatus toStatus, TransitionGuard guard);
+    
     /**
      * Create workflow entry for status change
      */
@@ -37,4 +52,12 @@ public interface ApplicationWorkflowService {
      * Get next possible statuses from current status
      */
     List<ApplicationStatus> getNextPossibleStatuses(ApplicationStatus currentStatus);
+    
+    /**
+     * Precondition on entering a status; throws LoanApiException to refuse the transition
+     */
+    @FunctionalInterface
+    interface TransitionGuard {
+        void check(LoanApplication application, ApplicationStatus fromStatus, ApplicationStatus toStatus);
+    }
 }
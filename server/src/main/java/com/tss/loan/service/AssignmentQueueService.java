@@ -0,0 +1,25 @@
+package com.tss.loan.service;
+
+import com.tss.loan.entity.enums.RoleType;
+import com.tss.loan.entity.loan.LoanApplication;
+
+/**
+ * Holds applications that could not be assigned because every officer was at capacity,
+ * and assigns them in priority order as capacity frees up.
+ */
+public interface AssignmentQueueService {
+    
+    /**
+     * Queue the application for the next officer of the role with capacity. Runs in the
+     * caller's transaction, so the entry only exists if the application change commits.
+     * @param application The application waiting for an officer
+     * @param officerRole LOAN_OFFICER or COMPLIANCE_OFFICER
+     */
+    void enqueue(LoanApplication application, RoleType officerRole);
+    
+    /**
+     * Assign queued applications in batches until the queue is empty or capacity runs out
+     * @return Number of applications assigned
+     */
+    int sweep();
+}
@@ -0,0 +1,66 @@
+package com.tss.loan.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.tss.loan.entity.enums.LoanType;
+import com.tss.loan.entity.enums.Priority;
+import com.tss.loan.entity.enums.RoleType;
+
+/**
+ * Decides which officer a case should go to. Selected with assignment.strategy;
+ * capacity is enforced by the workload index, so a strategy only orders candidates.
+ */
+public interface AssignmentStrategy {
+    
+    /**
+     * Order candidate officers for the work, best first
+     * @param work The case being assigned
+     * @param candidates Officers of the work's role below capacity, with their active case counts
+     * @return Officer ids in the order reservation should be tried
+     */
+    List<UUID> rank(Work work, Map<UUID, Integer> candidates);
+    
+    /**
+     * What the strategy may take into account about a case
+     */
+    final class Work {
+        private final RoleType role;
+        private final LoanType loanType;
+        private final Priority priority;
+        private final BigDecimal requestedAmount;
+        private final LocalDateTime waitingSince;
+        
+        public Work(RoleType role, LoanType loanType, Priority priority, BigDecimal requestedAmount,
+                    LocalDateTime waitingSince) {
+            this.role = role;
+            this.loanType = loanType;
+            this.priority = priority != null ? priority : Priority.LOW;
+            this.requestedAmount = requestedAmount;
+            this.waitingSince = waitingSince != null ? waitingSince : LocalDateTime.now();
+        }
+        
+        public RoleType getRole() {
+            return role;
+        }
+        
+        public LoanType getLoanType() {
+            return loanType;
+        }
+        
+        public Priority getPriority() {
+            return priority;
+        }
+        
+        public BigDecimal getRequestedAmount() {
+            return requestedAmount;
+        }
+        
+        public LocalDateTime getWaitingSince() {
+            return waitingSince;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.tss.loan.service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -21,40 +22,54 @@ public class AuditLogService {
 
     public void logAction(User user, String action, String entityType, Long entityId, String additionalInfo) {
         try {
-            AuditLog auditLog = new AuditLog();
-            auditLog.setUser(user);
-            auditLog.setAction(action);
-            auditLog.setEntityType(entityType);
+            auditLogRepository.save(prepare(user, action, entityType, entityId, additionalInfo));
+        } catch (Exception e) {
+            // Don't throw exception for audit logging failures
+            // Silent fail - could add debug logging if needed
+        }
+    }
 
-            // Handle null entityId - use user ID if available, otherwise use 0
-            if (entityId == null) {
-                if (user != null && "User".equals(entityType)) {
-                    // For User-related actions, use the user's ID converted to Long
-                    auditLog.setEntityId(user.getId().getMostSignificantBits());
-                } else {
-                    // For other cases, use 0 as default
-                    auditLog.setEntityId(0L);
-                }
+    /**
+     * Builds an entry with the current request's client details without saving it, so several
+     * can be written in one call with logAll
+     */
+    public AuditLog prepare(User user, String action, String entityType, Long entityId, String additionalInfo) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setUser(user);
+        auditLog.setAction(action);
+        auditLog.setEntityType(entityType);
+
+        // Handle null entityId - use user ID if available, otherwise use 0
+        if (entityId == null) {
+            if (user != null && "User".equals(entityType)) {
+                // For User-related actions, use the user's ID converted to Long
+                auditLog.setEntityId(user.getId().getMostSignificantBits());
             } else {
-                auditLog.setEntityId(entityId);
+                // For other cases, use 0 as default
+                auditLog.setEntityId(0L);
             }
+        } else {
+            auditLog.setEntityId(entityId);
+        }
 
-            auditLog.setAdditionalInfo(additionalInfo);
-            auditLog.setTimestamp(LocalDateTime.now());
-
-            // Get IP address and user agent from request
-            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (attributes != null) {
-                HttpServletRequest request = attributes.getRequest();
-                auditLog.setIpAddress(getClientIpAddress(request));
-                auditLog.setUserAgent(request.getHeader("User-Agent"));
-            }
+        auditLog.setAdditionalInfo(additionalInfo);
+        auditLog.setTimestamp(LocalDateTime.now());
 
-            auditLogRepository.save(auditLog);
+        // Get IP address and user agent from request
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            HttpServletRequest request = attributes.getRequest();
+            auditLog.setIpAddress(getClientIpAddress(request));
+            auditLog.setUserAgent(request.getHeader("User-Agent"));
+        }
+        return auditLog;
+    }
 
+    public void logAll(List<AuditLog> auditLogs) {
+        try {
+            auditLogRepository.saveAll(auditLogs);
         } catch (Exception e) {
             // Don't throw exception for audit logging failures
-            // Silent fail - could add debug logging if needed
         }
     }
 
@@ -107,6 +107,12 @@ public interface ComplianceOfficerService {
      */
     void processComplianceTimeout(UUID applicationId, User complianceOfficer);
     
+    /**
+     * Time out a PENDING_COMPLIANCE_DOCS application whose document deadline has passed,
+     * on behalf of its compliance officer; called by the SLA timers
+     */
+    void expireComplianceDocumentRequest(UUID applicationId);
+    
     /**
      * Perform comprehensive compliance investigation using stored procedure
      * Returns the exact JSON response from SP_ComprehensiveComplianceInvestigation
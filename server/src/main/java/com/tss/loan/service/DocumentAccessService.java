@@ -0,0 +1,60 @@
+package com.tss.loan.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.tss.loan.entity.loan.LoanDocument;
+import com.tss.loan.entity.user.User;
+
+/**
+ * Hands out URLs for reading stored documents and serves their content through
+ * the application when clients should not reach storage directly.
+ */
+public interface DocumentAccessService {
+
+    String THUMBNAIL = "thumbnail";
+    String PREVIEW = "preview";
+
+    /**
+     * Short-lived URL for the document; reused until shortly before it expires
+     */
+    String getAccessUrl(LoanDocument document);
+
+    /**
+     * Short-lived URL for a rendition of the document (THUMBNAIL or PREVIEW), or null while
+     * none has been generated
+     */
+    String getRenditionUrl(LoanDocument document, String rendition);
+
+    /**
+     * Loads the document if the user may read it: the owning applicant or any staff role
+     */
+    LoanDocument getReadableDocument(Long documentId, User user);
+
+    /**
+     * Loads the document named by a signed content URL; fails when the signature does not
+     * match or the URL has expired
+     */
+    LoanDocument getSignedDocument(Long documentId, long expires, String signature);
+
+    /**
+     * Loads the document named by a signed rendition URL; a signature for one rendition or
+     * for the content is not accepted for another
+     */
+    LoanDocument getSignedRendition(Long documentId, String rendition, long expires, String signature);
+
+    /**
+     * Opens length bytes of the document starting at offset; the caller closes the stream
+     */
+    InputStream openContent(LoanDocument document, long offset, long length) throws IOException;
+
+    /**
+     * Opens a rendition of the document; the caller closes the stream
+     */
+    InputStream openRendition(LoanDocument document, String rendition) throws IOException;
+
+    /**
+     * Forget cached URLs for an object that was removed
+     */
+    void evict(String objectName);
+}
@@ -0,0 +1,13 @@
+package com.tss.loan.service;
+
+/**
+ * Scores extracted documents against the applicant's personal details and marks
+ * confident matches VERIFIED, leaving officers only the exceptions.
+ */
+public interface DocumentAutoVerificationService {
+    
+    /**
+     * Score the next batch of extracted, still-pending documents; returns how many were auto-verified
+     */
+    int verifyPendingBatch();
+}
@@ -0,0 +1,22 @@
+package com.tss.loan.service;
+
+import java.util.Map;
+
+import com.tss.loan.entity.loan.LoanDocument;
+
+/**
+ * Extracts text and key fields (PAN number, name, salary figures) from uploaded
+ * documents in the background and stores them on the document.
+ */
+public interface DocumentExtractionService {
+    
+    /**
+     * Queue a saved document for extraction; returns immediately
+     */
+    void enqueue(Long documentId);
+    
+    /**
+     * Key fields extracted from the document, empty when none are available
+     */
+    Map<String, String> getExtractedFields(LoanDocument document);
+}
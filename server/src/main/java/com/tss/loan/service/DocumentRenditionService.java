@@ -0,0 +1,30 @@
+package com.tss.loan.service;
+
+import com.tss.loan.entity.loan.LoanDocument;
+
+/**
+ * Generates downscaled thumbnail and first-page preview images for uploaded
+ * documents so review screens do not have to load the original file.
+ */
+public interface DocumentRenditionService {
+    
+    /**
+     * Queue a saved document for rendition; returns immediately
+     */
+    void enqueue(Long documentId);
+    
+    /**
+     * Remove the renditions stored for a content hash once no document uses it
+     */
+    void deleteRenditions(String contentSha256);
+    
+    /**
+     * Thumbnail URL, or null while none has been generated
+     */
+    String getThumbnailUrl(LoanDocument document);
+    
+    /**
+     * First-page preview URL, or null while none has been generated
+     */
+    String getPreviewUrl(LoanDocument document);
+}
@@ -0,0 +1,59 @@
+package com.tss.loan.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Object storage for uploaded files. Object names are relative keys such as
+ * blobs/{sha256}. Selected with storage.provider (supabase or local).
+ */
+public interface DocumentStorage {
+    
+    /**
+     * Writes the stream to the named object, replacing any existing content.
+     * Returns the number of bytes written.
+     */
+    long store(String objectName, InputStream content, long contentLength, String contentType) throws IOException;
+    
+    /**
+     * Opens the object's content for reading; the caller closes the stream.
+     */
+    InputStream open(String objectName) throws IOException;
+    
+    /**
+     * Opens the object positioned at offset for a read of up to length bytes. The stream
+     * may run past the range, so callers stop after length bytes. The default reads
+     * and discards everything before offset.
+     */
+    default InputStream open(String objectName, long offset, long length) throws IOException {
+        InputStream content = open(objectName);
+        content.skipNBytes(offset);
+        return content;
+    }
+    
+    void delete(String objectName) throws IOException;
+    
+    /**
+     * Whether the object is stored
+     */
+    boolean exists(String objectName) throws IOException;
+    
+    /**
+     * Renames source to target unless target already exists, in which case source is
+     * deleted. Returns true when the object was moved.
+     */
+    boolean moveIfAbsent(String source, String target) throws IOException;
+    
+    /**
+     * URL under which the object can be fetched by clients
+     */
+    String publicUrl(String objectName);
+    
+    /**
+     * Time-limited URL for reading a private object, or null when the backend cannot sign URLs
+     */
+    default String signedUrl(String objectName, Duration expiresIn) throws IOException {
+        return null;
+    }
+}
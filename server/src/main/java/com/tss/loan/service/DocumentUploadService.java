@@ -3,12 +3,14 @@ package com.tss.loan.service;
 import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.web.multipart.MultipartFile;
 
 import com.tss.loan.entity.loan.LoanDocument;
 import com.tss.loan.entity.enums.DocumentType;
 import com.tss.loan.entity.user.User;
+import com.tss.loan.dto.response.BatchDocumentUploadResponse;
 import com.tss.loan.dto.response.DocumentUploadResponse;
 
 public interface DocumentUploadService {
@@ -20,9 +22,9 @@ public interface DocumentUploadService {
                                UUID loanApplicationId, User uploadedBy) throws IOException;
     
     /**
-     * Upload multiple documents for loan application
+     * Upload multiple documents for loan application, reporting failures per file
      */
-    List<LoanDocument> uploadMultipleDocuments(List<MultipartFile> files, 
+    BatchDocumentUploadResponse uploadMultipleDocuments(List<MultipartFile> files, 
                                               List<DocumentType> documentTypes,
                                               UUID loanApplicationId, User uploadedBy) throws IOException;
     
@@ -42,9 +44,9 @@ public interface DocumentUploadService {
     List<LoanDocument> getDocumentsByLoanApplication(UUID loanApplicationId);
     
     /**
-     * Get document URL for viewing/downloading
+     * Get document URL for viewing/downloading, if the user may read the document
      */
-    String getDocumentUrl(Long documentId);
+    String getDocumentUrl(Long documentId, User user);
     
     /**
      * Validate document type and size
@@ -56,4 +58,11 @@ public interface DocumentUploadService {
      */
     DocumentUploadResponse uploadDocumentWithResponse(MultipartFile file, DocumentType documentType, 
                                                      UUID loanApplicationId, User uploadedBy) throws IOException;
+    
+    /**
+     * Same as uploadDocumentWithResponse, run on the upload pool so the request thread is
+     * released while the content is transferred to storage
+     */
+    CompletableFuture<DocumentUploadResponse> uploadDocumentAsync(MultipartFile file, DocumentType documentType,
+                                                                  UUID loanApplicationId, User uploadedBy);
 }
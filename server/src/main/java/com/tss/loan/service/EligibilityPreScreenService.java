@@ -0,0 +1,22 @@
+package com.tss.loan.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Bulk eligibility pre-screening for prospects without accounts. Input is read and results
+ * are written a chunk at a time, so memory use does not grow with the size of the list.
+ */
+public interface EligibilityPreScreenService {
+    
+    /**
+     * Reads a JSON array or newline-delimited JSON objects and writes one JSON result per line
+     */
+    void preScreenJson(InputStream in, OutputStream out) throws IOException;
+    
+    /**
+     * Reads CSV with a header row naming PreScreenProspectRequest fields and writes CSV results
+     */
+    void preScreenCsv(InputStream in, OutputStream out) throws IOException;
+}
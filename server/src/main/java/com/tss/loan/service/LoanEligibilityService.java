@@ -14,7 +14,7 @@ public interface LoanEligibilityService {
     /**
      * Get eligible employment types for a given loan type
      * @param loanType The type of loan
-     * @return List of eligible employment types
+     * @return Unmodifiable list of eligible employment types, shared between callers
      */
     List<EmploymentType> getEligibleEmploymentTypes(LoanType loanType);
     
@@ -68,7 +68,8 @@ public interface LoanEligibilityService {
     /**
      * Get all eligibility criteria for a loan type
      * @param loanType The type of loan
-     * @return Map of criteria names to values
+     * @return Unmodifiable map of criteria names to values, built once and shared between callers;
+     *         copy it before adding entries
      */
     Map<String, Object> getLoanEligibilityCriteria(LoanType loanType);
 }
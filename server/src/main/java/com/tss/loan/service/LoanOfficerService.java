@@ -5,6 +5,8 @@ import java.util.UUID;
 
 import com.tss.loan.dto.request.DocumentResubmissionRequest;
 import com.tss.loan.dto.request.DocumentVerificationRequest;
+import com.tss.loan.dto.response.ApplicationEventResponse;
+import com.tss.loan.dto.response.ApplicationStateResponse;
 import com.tss.loan.dto.response.AuditLogResponse;
 import com.tss.loan.dto.response.CompleteApplicationDetailsResponse;
 import com.tss.loan.dto.response.DocumentResubmissionResponse;
@@ -108,6 +110,20 @@ public interface LoanOfficerService {
      */
     List<AuditLogResponse> getApplicationAuditTrail(UUID applicationId, User officer);
 
+    /**
+     * Get the application's event timeline, oldest first
+     * @param applicationId The application ID
+     * @param officer The loan officer
+     */
+    List<ApplicationEventResponse> getApplicationTimeline(UUID applicationId, User officer);
+
+    /**
+     * Get the application's current state folded from its event timeline
+     * @param applicationId The application ID
+     * @param officer The loan officer
+     */
+    ApplicationStateResponse getApplicationStateForOfficer(UUID applicationId, User officer);
+
     /**
      * Get all post-compliance applications for loan officer
      * Returns applications that went through compliance process (all statuses)
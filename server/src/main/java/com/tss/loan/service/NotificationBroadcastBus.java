@@ -0,0 +1,39 @@
+package com.tss.loan.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Carries SSE stream messages between application nodes so a user connected to one
+ * node receives events raised on any other. Selected with notification.stream.bus.
+ */
+public interface NotificationBroadcastBus {
+    void publish(StreamMessage message);
+    void subscribe(Consumer<List<StreamMessage>> handler);
+
+    /**
+     * Receives only messages published on other nodes, for state a node caches about what
+     * happens elsewhere. Single-node buses never call it.
+     */
+    default void subscribeRemote(Consumer<List<StreamMessage>> handler) {
+    }
+
+    class StreamMessage {
+        public final UUID userId;
+        public final String eventName;
+        public final String payload;
+
+        @JsonCreator
+        public StreamMessage(@JsonProperty("userId") UUID userId,
+                             @JsonProperty("eventName") String eventName,
+                             @JsonProperty("payload") String payload) {
+            this.userId = userId;
+            this.eventName = eventName;
+            this.payload = payload;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.tss.loan.dto.response.NotificationResponse;
 public interface NotificationStreamService {
     SseEmitter register(UUID userId);
     void publish(UUID userId, NotificationResponse notification);
+    void publishUnreadCount(UUID userId, long unreadCount);
     void remove(UUID userId, SseEmitter emitter);
 }
 
@@ -0,0 +1,84 @@
+package com.tss.loan.service;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.enums.RoleType;
+import com.tss.loan.entity.user.User;
+
+/**
+ * Live count of active cases per officer, ordered per role so the least-loaded
+ * officer can be found without querying the database.
+ */
+public interface OfficerWorkloadIndex {
+    
+    /**
+     * Statuses in which an application counts towards its loan officer's workload
+     */
+    Set<ApplicationStatus> LOAN_OFFICER_ACTIVE_STATUSES = Collections.unmodifiableSet(EnumSet.of(
+        ApplicationStatus.UNDER_REVIEW,
+        ApplicationStatus.PENDING_EXTERNAL_VERIFICATION,
+        ApplicationStatus.READY_FOR_DECISION));
+    
+    /**
+     * Statuses in which an application counts towards its compliance officer's workload
+     */
+    Set<ApplicationStatus> COMPLIANCE_OFFICER_ACTIVE_STATUSES = Collections.unmodifiableSet(EnumSet.of(
+        ApplicationStatus.FLAGGED_FOR_COMPLIANCE,
+        ApplicationStatus.COMPLIANCE_REVIEW,
+        ApplicationStatus.PENDING_COMPLIANCE_DOCS));
+    
+    /**
+     * Most active cases an officer of the role may hold, from workload.capacity.*
+     */
+    int getCapacity(RoleType role);
+    
+    /**
+     * Active officer of the role with the fewest cases, if any is below capacity
+     */
+    Optional<UUID> findLeastLoaded(RoleType role);
+    
+    /**
+     * Active officers of the role below capacity with their case counts, least loaded first
+     */
+    Map<UUID, Integer> findAvailable(RoleType role);
+    
+    /**
+     * Atomically takes one unit of capacity from the first of the officers, in order, that
+     * still has some. Must run inside the transaction that assigns the application: the
+     * reservation commits or rolls back with it, and the application must be marked as
+     * already counted.
+     */
+    Optional<UUID> reserve(List<UUID> officerIds);
+    
+    /**
+     * Gives back a reservation made earlier in the current transaction that ended up unused
+     */
+    void release(UUID officerId);
+    
+    /**
+     * Active case count, or -1 when the officer is not indexed
+     */
+    int getWorkload(UUID officerId);
+    
+    /**
+     * Add an officer the index has not seen yet, e.g. one created since the last reconciliation
+     */
+    void register(User officer, int activeCases);
+    
+    /**
+     * Apply a committed change in active cases to memory and the officer's counter
+     */
+    void adjust(UUID officerId, int delta);
+    
+    /**
+     * Rebuild all counts from the database
+     */
+    void reconcile();
+}
@@ -0,0 +1,18 @@
+package com.tss.loan.service;
+
+import java.util.List;
+
+import com.tss.loan.dto.response.SlaStageSummaryResponse;
+
+/**
+ * Tracks how long applications stay in stages with a service level: escalates to the
+ * responsible officer when a stage runs long and acts on the breach when it runs out.
+ * Follows status changes on the application timeline, so callers need not notify it.
+ */
+public interface SlaTimerService {
+    
+    /**
+     * Current SLA position of every tracked stage
+     */
+    List<SlaStageSummaryResponse> getStageSummary();
+}
@@ -1,22 +1,31 @@
 package com.tss.loan.service.impl;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.tss.loan.entity.enums.ApplicationEventType;
 import com.tss.loan.entity.enums.ApplicationStatus;
 import com.tss.loan.entity.enums.RoleType;
-import com.tss.loan.entity.enums.UserStatus;
 import com.tss.loan.entity.loan.LoanApplication;
 import com.tss.loan.entity.user.User;
+import com.tss.loan.events.OfficerWorkloadChangedEvent;
 import com.tss.loan.repository.LoanApplicationRepository;
 import com.tss.loan.repository.UserRepository;
 import com.tss.loan.service.ApplicationAssignmentService;
+import com.tss.loan.service.ApplicationTimelineService;
+import com.tss.loan.service.ApplicationWorkflowService;
+import com.tss.loan.service.AssignmentQueueService;
+import com.tss.loan.service.AssignmentStrategy;
+import com.tss.loan.service.OfficerWorkloadIndex;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,27 +40,46 @@ public class ApplicationAssignmentServiceImpl implements ApplicationAssignmentSe
     @Autowired
     private LoanApplicationRepository loanApplicationRepository;
     
-    // Maximum applications per officer
-    private static final int MAX_WORKLOAD_PER_OFFICER = 10;
+    @Autowired
+    private OfficerWorkloadIndex workloadIndex;
+    
+    @Autowired
+    private AssignmentQueueService assignmentQueueService;
+    
+    @Autowired
+    private AssignmentStrategy assignmentStrategy;
+    
+    @Autowired
+    private ApplicationWorkflowService applicationWorkflowService;
     
-    // High value loan threshold (requires senior officer)
-    private static final BigDecimal HIGH_VALUE_THRESHOLD = new BigDecimal("1000000.0"); // 10 Lakhs
+    @Autowired
+    private ApplicationTimelineService timelineService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @Override
     public User assignToLoanOfficer(LoanApplication application) {
         log.info("Auto-assigning application {} to loan officer", application.getId());
         
-        User assignedOfficer = getBestAvailableOfficer(application.getRequestedAmount());
+        // Capacity is reserved atomically, so concurrent submissions cannot overfill an officer
+        Optional<UUID> officerId = reserveLoanOfficer(application);
         
-        if (assignedOfficer == null) {
-            log.error("No available loan officer found for application {}", application.getId());
-            throw new RuntimeException("No available loan officer found");
+        if (officerId.isEmpty()) {
+            // Every officer is at capacity; the sweeper assigns it once one frees up
+            log.warn("No available loan officer for application {}, queued for assignment", application.getId());
+            assignmentQueueService.enqueue(application, RoleType.LOAN_OFFICER);
+            return null;
         }
+        User assignedOfficer = userRepository.getReferenceById(officerId.get());
         
-        // Update application with assigned officer
+        // Update application with assigned officer; the reservation already counts it
         application.setAssignedOfficer(assignedOfficer);
-        application.setStatus(ApplicationStatus.UNDER_REVIEW);
+        applicationWorkflowService.transition(application, ApplicationStatus.UNDER_REVIEW);
+        application.setCountedOfficerId(officerId.get());
         loanApplicationRepository.save(application);
+        timelineService.recordAssignment(application.getId(), ApplicationEventType.OFFICER_ASSIGNED,
+            officerId.get(), null);
         
         log.info("Application {} assigned to officer {} ({})", 
             application.getId(), assignedOfficer.getId(), assignedOfficer.getEmail());
@@ -59,13 +87,16 @@ public class ApplicationAssignmentServiceImpl implements ApplicationAssignmentSe
         return assignedOfficer;
     }
     
+    /**
+     * Picks from the workload index, so choosing an officer issues no queries
+     */
     @Override
     public User getBestAvailableOfficer(BigDecimal requestedAmount) {
         log.debug("Finding best available officer for amount: {}", requestedAmount);
         
         // For high-value loans, prefer senior loan officers
         if (requestedAmount != null && requestedAmount.compareTo(HIGH_VALUE_THRESHOLD) > 0) {
-            Optional<User> seniorOfficer = findAvailableSeniorOfficer();
+            Optional<User> seniorOfficer = findLeastLoaded(RoleType.SENIOR_LOAN_OFFICER);
             if (seniorOfficer.isPresent()) {
                 log.debug("Assigned senior officer for high-value loan");
                 return seniorOfficer.get();
@@ -73,48 +104,87 @@ public class ApplicationAssignmentServiceImpl implements ApplicationAssignmentSe
         }
         
         // Find regular loan officer with least workload
-        List<User> availableOfficers = userRepository.findByRoleAndStatus(
-            RoleType.LOAN_OFFICER, UserStatus.ACTIVE);
-        
-        return availableOfficers.stream()
-            .filter(this::hasCapacity)
-            .min(Comparator.comparing(this::getCurrentWorkload))
-            .orElse(null);
+        return findLeastLoaded(RoleType.LOAN_OFFICER).orElse(null);
     }
     
     @Override
     public boolean hasCapacity(User officer) {
         int currentWorkload = getCurrentWorkload(officer);
-        boolean hasCapacity = currentWorkload < MAX_WORKLOAD_PER_OFFICER;
+        int maxCapacity = getMaxCapacity(officer);
+        boolean hasCapacity = currentWorkload < maxCapacity;
         
         log.debug("Officer {} has workload: {}/{}, hasCapacity: {}", 
-            officer.getEmail(), currentWorkload, MAX_WORKLOAD_PER_OFFICER, hasCapacity);
+            officer.getEmail(), currentWorkload, maxCapacity, hasCapacity);
         
         return hasCapacity;
     }
     
     @Override
     public int getCurrentWorkload(User officer) {
-        // Count applications in UNDER_REVIEW and PENDING_EXTERNAL_VERIFICATION status
-        List<ApplicationStatus> activeStatuses = List.of(
-            ApplicationStatus.UNDER_REVIEW,
-            ApplicationStatus.PENDING_EXTERNAL_VERIFICATION,
-            ApplicationStatus.READY_FOR_DECISION
-        );
-        
-        return (int) loanApplicationRepository.countByAssignedOfficerAndStatusIn(officer, activeStatuses);
+        // Count applications in UNDER_REVIEW, PENDING_EXTERNAL_VERIFICATION and READY_FOR_DECISION status
+        int indexed = workloadIndex.getWorkload(officer.getId());
+        if (indexed >= 0) {
+            return indexed;
+        }
+        
+        // Officer created since the index was last reconciled
+        int currentWorkload = (int) loanApplicationRepository.countByAssignedOfficerAndStatusIn(
+            officer, List.copyOf(OfficerWorkloadIndex.LOAN_OFFICER_ACTIVE_STATUSES));
+        workloadIndex.register(officer, currentWorkload);
+        return currentWorkload;
+    }
+    
+    @Override
+    public int getMaxCapacity(User officer) {
+        return workloadIndex.getCapacity(officer.getRole());
     }
     
     /**
-     * Find available senior loan officer for high-value loans
+     * Senior officers take high-value loans while they have capacity, then regular officers
      */
-    private Optional<User> findAvailableSeniorOfficer() {
-        List<User> seniorOfficers = userRepository.findByRoleAndStatus(
-            RoleType.SENIOR_LOAN_OFFICER, UserStatus.ACTIVE);
-        
-        return seniorOfficers.stream()
-            .filter(this::hasCapacity)
-            .min(Comparator.comparing(this::getCurrentWorkload));
+    private Optional<UUID> reserveLoanOfficer(LoanApplication application) {
+        BigDecimal requestedAmount = application.getRequestedAmount();
+        if (requestedAmount != null && requestedAmount.compareTo(HIGH_VALUE_THRESHOLD) > 0) {
+            Optional<UUID> seniorOfficer = reserve(RoleType.SENIOR_LOAN_OFFICER, application);
+            if (seniorOfficer.isPresent()) {
+                return seniorOfficer;
+            }
+        }
+        return reserve(RoleType.LOAN_OFFICER, application);
+    }
+    
+    private Optional<UUID> reserveComplianceOfficer(LoanApplication application, String priorityLevel) {
+        if ("HIGH".equals(priorityLevel)) {
+            Optional<UUID> seniorOfficer = reserve(RoleType.SENIOR_COMPLIANCE_OFFICER, application);
+            if (seniorOfficer.isPresent()) {
+                return seniorOfficer;
+            }
+        }
+        return reserve(RoleType.COMPLIANCE_OFFICER, application);
+    }
+    
+    /**
+     * Reserves the strategy's best candidate of the role, falling back down its ranking
+     * when a better one fills up first
+     */
+    private Optional<UUID> reserve(RoleType role, LoanApplication application) {
+        Map<UUID, Integer> candidates = workloadIndex.findAvailable(role);
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        // Assigned as the case arrives, so it has not waited yet
+        AssignmentStrategy.Work work = new AssignmentStrategy.Work(role, application.getLoanType(),
+            application.getPriority(), application.getRequestedAmount(), LocalDateTime.now());
+        return workloadIndex.reserve(assignmentStrategy.rank(work, candidates));
+    }
+    
+    /**
+     * Least-loaded active officer of the role with capacity. Returns a reference
+     * without loading the user; callers that read its fields load it lazily.
+     */
+    private Optional<User> findLeastLoaded(RoleType role) {
+        return workloadIndex.findLeastLoaded(role)
+            .map(userRepository::getReferenceById);
     }
     
     // =====================================================
@@ -126,16 +196,21 @@ public class ApplicationAssignmentServiceImpl implements ApplicationAssignmentSe
         log.info("Auto-assigning application {} to compliance officer. Priority: {}, Reason: {}", 
             application.getId(), priorityLevel, flagReason);
         
-        User assignedComplianceOfficer = getBestAvailableComplianceOfficer(priorityLevel);
+        Optional<UUID> officerId = reserveComplianceOfficer(application, priorityLevel);
         
-        if (assignedComplianceOfficer == null) {
-            log.error("No available compliance officer found for application {}", application.getId());
-            throw new RuntimeException("No available compliance officer found");
+        if (officerId.isEmpty()) {
+            log.warn("No available compliance officer for application {}, queued for assignment", application.getId());
+            assignmentQueueService.enqueue(application, RoleType.COMPLIANCE_OFFICER);
+            return null;
         }
+        User assignedComplianceOfficer = userRepository.getReferenceById(officerId.get());
         
-        // Update application with assigned compliance officer
+        // Update application with assigned compliance officer; the reservation already counts it
         application.setAssignedComplianceOfficer(assignedComplianceOfficer);
+        application.setCountedComplianceOfficerId(officerId.get());
         loanApplicationRepository.save(application);
+        timelineService.recordAssignment(application.getId(), ApplicationEventType.COMPLIANCE_OFFICER_ASSIGNED,
+            officerId.get(), flagReason);
         
         log.info("Application {} assigned to compliance officer {} ({})", 
             application.getId(), assignedComplianceOfficer.getId(), assignedComplianceOfficer.getEmail());
@@ -143,6 +218,32 @@ public class ApplicationAssignmentServiceImpl implements ApplicationAssignmentSe
         return assignedComplianceOfficer;
     }
     
+    @Override
+    public User escalateToSeniorComplianceOfficer(LoanApplication application, String escalationReason) {
+        Optional<UUID> officerId = reserve(RoleType.SENIOR_COMPLIANCE_OFFICER, application);
+        if (officerId.isEmpty()) {
+            return null;
+        }
+        
+        // The reservation counts the case for the senior officer; it stops counting for the officer it leaves
+        UUID previousOfficerId = application.getCountedComplianceOfficerId();
+        if (officerId.get().equals(previousOfficerId)) {
+            workloadIndex.release(officerId.get());
+        } else if (previousOfficerId != null) {
+            eventPublisher.publishEvent(new OfficerWorkloadChangedEvent(application, previousOfficerId, -1));
+        }
+        
+        User seniorOfficer = userRepository.getReferenceById(officerId.get());
+        application.setAssignedComplianceOfficer(seniorOfficer);
+        application.setCountedComplianceOfficerId(officerId.get());
+        loanApplicationRepository.save(application);
+        timelineService.recordAssignment(application.getId(), ApplicationEventType.COMPLIANCE_OFFICER_ASSIGNED,
+            officerId.get(), "Escalated: " + escalationReason);
+        
+        log.info("Application {} escalated to senior compliance officer {}", application.getId(), officerId.get());
+        return seniorOfficer;
+    }
+    
     @Override
     public User getBestAvailableComplianceOfficer(String priorityLevel) {
         log.debug("Finding best available compliance officer for priority: {}", priorityLevel);
@@ -157,49 +258,27 @@ public class ApplicationAssignmentServiceImpl implements ApplicationAssignmentSe
         }
         
         // Find regular compliance officer with least workload
-        List<User> availableComplianceOfficers = userRepository.findByRoleAndStatus(
-            RoleType.COMPLIANCE_OFFICER, UserStatus.ACTIVE);
-        
-        return availableComplianceOfficers.stream()
-            .filter(this::hasComplianceCapacity)
-            .min(Comparator.comparing(this::getCurrentComplianceWorkload))
-            .orElse(null);
+        return findLeastLoaded(RoleType.COMPLIANCE_OFFICER).orElse(null);
     }
     
     @Override
     public int getCurrentComplianceWorkload(User complianceOfficer) {
         // Count applications in compliance-related statuses
-        List<ApplicationStatus> complianceStatuses = List.of(
-            ApplicationStatus.FLAGGED_FOR_COMPLIANCE,
-            ApplicationStatus.COMPLIANCE_REVIEW,
-            ApplicationStatus.PENDING_COMPLIANCE_DOCS
-        );
-        
-        return (int) loanApplicationRepository.countByAssignedComplianceOfficerAndStatusIn(complianceOfficer, complianceStatuses);
-    }
-    
-    /**
-     * Check if compliance officer has capacity for new cases
-     */
-    private boolean hasComplianceCapacity(User complianceOfficer) {
-        int currentWorkload = getCurrentComplianceWorkload(complianceOfficer);
-        boolean hasCapacity = currentWorkload < MAX_WORKLOAD_PER_OFFICER; // Same limit as loan officers
-        
-        log.debug("Compliance Officer {} has workload: {}/{}, hasCapacity: {}", 
-            complianceOfficer.getEmail(), currentWorkload, MAX_WORKLOAD_PER_OFFICER, hasCapacity);
+        int indexed = workloadIndex.getWorkload(complianceOfficer.getId());
+        if (indexed >= 0) {
+            return indexed;
+        }
         
-        return hasCapacity;
+        int currentWorkload = loanApplicationRepository.countByAssignedComplianceOfficerAndStatusIn(
+            complianceOfficer, List.copyOf(OfficerWorkloadIndex.COMPLIANCE_OFFICER_ACTIVE_STATUSES));
+        workloadIndex.register(complianceOfficer, currentWorkload);
+        return currentWorkload;
     }
     
     /**
      * Find available senior compliance officer for high-priority cases
      */
     private Optional<User> findAvailableSeniorComplianceOfficer() {
-        List<User> seniorComplianceOfficers = userRepository.findByRoleAndStatus(
-            RoleType.SENIOR_COMPLIANCE_OFFICER, UserStatus.ACTIVE);
-        
-        return seniorComplianceOfficers.stream()
-            .filter(this::hasComplianceCapacity)
-            .min(Comparator.comparing(this::getCurrentComplianceWorkload));
+        return findLeastLoaded(RoleType.SENIOR_COMPLIANCE_OFFICER);
     }
 }
@@ -0,0 +1,356 @@
+package com.tss.loan.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tss.loan.dto.response.ApplicationEventResponse;
+import com.tss.loan.dto.response.ApplicationStateResponse;
+import com.tss.loan.entity.enums.ApplicationEventType;
+import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.loan.LoanApplication;
+import com.tss.loan.entity.user.User;
+import com.tss.loan.entity.workflow.ApplicationEvent;
+import com.tss.loan.entity.workflow.ApplicationWorkflow;
+import com.tss.loan.events.ApplicationTimelineEvent;
+import com.tss.loan.exception.LoanApiException;
+import com.tss.loan.repository.ApplicationEventRepository;
+import com.tss.loan.repository.ApplicationWorkflowRepository;
+import com.tss.loan.repository.LoanApplicationRepository;
+import com.tss.loan.service.ApplicationTimelineService;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Event log backed by application_events.
+ *
+ * Snapshots are written on read: when folding the current state passes more than
+ * snapshot-every events, the folded state is appended as a SNAPSHOT event so later reads
+ * start from there. A snapshot only covers events older than the settle window, because
+ * identity ids are handed out at insert and an older id may still be uncommitted.
+ *
+ * Applications created before the log existed are seeded from application_workflow and
+ * their current assignment by a background backfill. Until the backfill has found
+ * nothing left to seed, appends seed the application first if needed, so the seeded
+ * history always precedes live events.
+ */
+@Service
+public class ApplicationTimelineServiceImpl implements ApplicationTimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationTimelineServiceImpl.class);
+
+    @Autowired
+    private ApplicationEventRepository eventRepository;
+
+    @Autowired
+    private ApplicationWorkflowRepository workflowRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${timeline.snapshot-every:20}")
+    private int snapshotEvery;
+
+    @Value("${timeline.snapshot-settle-seconds:60}")
+    private long snapshotSettleSeconds;
+
+    @Value("${timeline.backfill-batch-size:100}")
+    private int backfillBatchSize;
+
+    // The application ObjectMapper reads a different date format than it writes, so snapshots use their own
+    private final ObjectMapper stateMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private TransactionTemplate independentTransaction;
+    private volatile boolean backfillComplete;
+
+    @PostConstruct
+    public void init() {
+        independentTransaction = new TransactionTemplate(transactionManager);
+        independentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional
+    public void recordCreated(LoanApplication application, User actor) {
+        append(event(application.getId(), ApplicationEventType.APPLICATION_CREATED, null,
+            application.getStatus(), null, actor, null), false);
+    }
+
+    @Override
+    @Transactional
+    public void recordStatusChange(UUID applicationId, ApplicationStatus fromStatus, ApplicationStatus toStatus,
+                                   User actor, String comments) {
+        append(event(applicationId, ApplicationEventType.STATUS_CHANGED, fromStatus, toStatus, null, actor, comments),
+            true);
+    }
+
+    @Override
+    @Transactional
+    public void recordAssignment(UUID applicationId, ApplicationEventType eventType, UUID officerId, String comments) {
+        append(event(applicationId, eventType, null, null, officerId, null, comments), true);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ApplicationEventResponse> getTimeline(UUID applicationId) {
+        List<ApplicationEventResponse> timeline = new ArrayList<>();
+        for (ApplicationEvent event : eventRepository.findTimeline(applicationId)) {
+            timeline.add(ApplicationEventResponse.builder()
+                .id(event.getId())
+                .eventType(event.getEventType())
+                .fromStatus(event.getFromStatus())
+                .toStatus(event.getToStatus())
+                .officerId(event.getOfficerId())
+                .actorId(event.getActorId())
+                .actorEmail(event.getActorEmail())
+                .comments(event.getComments())
+                .occurredAt(event.getOccurredAt())
+                .build());
+        }
+        return timeline;
+    }
+
+    @Override
+    public ApplicationStateResponse getCurrentState(UUID applicationId) {
+        List<ApplicationEvent> events = eventRepository.findSinceLatestSnapshot(applicationId);
+        if (events.isEmpty()) {
+            throw new LoanApiException(HttpStatus.NOT_FOUND, "No timeline recorded for application: " + applicationId);
+        }
+
+        ApplicationEvent snapshot = null;
+        for (ApplicationEvent event : events) {
+            if (event.getEventType() == ApplicationEventType.SNAPSHOT
+                    && (snapshot == null || event.getCoveredThroughId() > snapshot.getCoveredThroughId())) {
+                snapshot = event;
+            }
+        }
+        ApplicationStateResponse state = snapshot != null ? readState(snapshot) : null;
+        if (state == null) {
+            state = ApplicationStateResponse.builder().applicationId(applicationId).build();
+        }
+
+        // Fold; remember the state at the end of the settled prefix in case it is worth a snapshot
+        LocalDateTime settledBefore = LocalDateTime.now().minusSeconds(snapshotSettleSeconds);
+        boolean settled = true;
+        int foldedSettled = 0;
+        String settledState = null;
+        Long settledThroughId = null;
+        for (ApplicationEvent event : events) {
+            if (event.getEventType() == ApplicationEventType.SNAPSHOT) {
+                continue;
+            }
+            apply(state, event);
+            if (settled && event.getOccurredAt().isBefore(settledBefore)) {
+                foldedSettled++;
+                settledThroughId = event.getId();
+                if (foldedSettled >= snapshotEvery) {
+                    settledState = writeState(state);
+                }
+            } else {
+                settled = false;
+            }
+        }
+
+        if (settledState != null) {
+            writeSnapshot(applicationId, settledState, settledThroughId);
+        }
+        return state;
+    }
+
+    /**
+     * Seeds applications that have no events yet, a batch per transaction
+     */
+    @Scheduled(initialDelayString = "${timeline.backfill-initial-delay-ms:60000}",
+               fixedDelayString = "${timeline.backfill-ms:600000}")
+    public void backfill() {
+        if (backfillComplete) {
+            return;
+        }
+        int seeded = 0;
+        List<UUID> applicationIds;
+        do {
+            applicationIds = loanApplicationRepository.findIdsWithoutEvents(PageRequest.of(0, backfillBatchSize));
+            int progress = 0;
+            for (UUID applicationId : applicationIds) {
+                try {
+                    independentTransaction.executeWithoutResult(status -> seed(applicationId));
+                    progress++;
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to seed timeline for application {}: {}", applicationId, e.getMessage());
+                }
+            }
+            seeded += progress;
+            if (progress == 0) {
+                break;
+            }
+        } while (applicationIds.size() == backfillBatchSize);
+
+        if (applicationIds.isEmpty()) {
+            backfillComplete = true;
+        }
+        if (seeded > 0) {
+            logger.info("Seeded timelines for {} applications", seeded);
+        }
+    }
+
+    private void append(ApplicationEvent event, boolean seedIfMissing) {
+        if (seedIfMissing && !backfillComplete
+                && !eventRepository.existsByApplicationIdAndEventType(event.getApplicationId(),
+                    ApplicationEventType.APPLICATION_CREATED)) {
+            seed(event.getApplicationId());
+        }
+        ApplicationEvent saved = eventRepository.save(event);
+        eventPublisher.publishEvent(new ApplicationTimelineEvent(this, saved));
+    }
+
+    /**
+     * Rebuilds history for an application created before the event log. Holds the application
+     * row lock so a concurrent seed of the same application waits and then finds it done.
+     */
+    private void seed(UUID applicationId) {
+        LoanApplication application = loanApplicationRepository.findByIdForUpdate(applicationId).orElse(null);
+        if (application == null || eventRepository.existsByApplicationIdAndEventType(applicationId,
+                ApplicationEventType.APPLICATION_CREATED)) {
+            return;
+        }
+
+        List<ApplicationWorkflow> history = new ArrayList<>(
+            workflowRepository.findByLoanApplicationOrderByProcessedAtDesc(application));
+        Collections.reverse(history);
+
+        ApplicationStatus initialStatus = history.isEmpty() ? application.getStatus() : history.get(0).getFromStatus();
+        ApplicationEvent created = event(applicationId, ApplicationEventType.APPLICATION_CREATED, null,
+            initialStatus, null, null, "Recorded from application history");
+        created.setActorId(application.getApplicant() != null ? application.getApplicant().getId() : null);
+        created.setActorEmail(application.getApplicantEmail());
+        created.setOccurredAt(application.getCreatedAt() != null ? application.getCreatedAt() : LocalDateTime.now());
+        eventRepository.save(created);
+
+        for (ApplicationWorkflow workflow : history) {
+            ApplicationEvent changed = event(applicationId, ApplicationEventType.STATUS_CHANGED,
+                workflow.getFromStatus(), workflow.getToStatus(), null, workflow.getProcessedBy(), workflow.getComments());
+            changed.setOccurredAt(workflow.getProcessedAt());
+            eventRepository.save(changed);
+        }
+
+        // Assignment times were never recorded; the latest update is the closest known
+        LocalDateTime assignedAt = application.getUpdatedAt() != null ? application.getUpdatedAt() : LocalDateTime.now();
+        if (application.getAssignedOfficer() != null) {
+            ApplicationEvent assigned = event(applicationId, ApplicationEventType.OFFICER_ASSIGNED, null, null,
+                application.getAssignedOfficer().getId(), null, "Recorded from application history");
+            assigned.setOccurredAt(assignedAt);
+            eventRepository.save(assigned);
+        }
+        if (application.getAssignedComplianceOfficer() != null) {
+            ApplicationEvent assigned = event(applicationId, ApplicationEventType.COMPLIANCE_OFFICER_ASSIGNED, null, null,
+                application.getAssignedComplianceOfficer().getId(), null, "Recorded from application history");
+            assigned.setOccurredAt(assignedAt);
+            eventRepository.save(assigned);
+        }
+    }
+
+    private void writeSnapshot(UUID applicationId, String state, Long coveredThroughId) {
+        try {
+            independentTransaction.executeWithoutResult(status -> {
+                ApplicationEvent snapshot = event(applicationId, ApplicationEventType.SNAPSHOT, null, null, null, null, null);
+                snapshot.setState(state);
+                snapshot.setCoveredThroughId(coveredThroughId);
+                eventRepository.save(snapshot);
+            });
+            logger.debug("Snapshot of application {} written through event {}", applicationId, coveredThroughId);
+        } catch (RuntimeException e) {
+            // The next read folds the same events and tries again
+            logger.warn("Failed to write snapshot for application {}: {}", applicationId, e.getMessage());
+        }
+    }
+
+    private void apply(ApplicationStateResponse state, ApplicationEvent event) {
+        switch (event.getEventType()) {
+            case APPLICATION_CREATED:
+                state.setStatus(event.getToStatus());
+                state.setCreatedAt(event.getOccurredAt());
+                break;
+            case STATUS_CHANGED:
+                state.setStatus(event.getToStatus());
+                if (event.getToStatus() == ApplicationStatus.SUBMITTED) {
+                    state.setSubmittedAt(event.getOccurredAt());
+                }
+                break;
+            case OFFICER_ASSIGNED:
+                state.setAssignedOfficerId(event.getOfficerId());
+                break;
+            case COMPLIANCE_OFFICER_ASSIGNED:
+                state.setAssignedComplianceOfficerId(event.getOfficerId());
+                break;
+            default:
+                return;
+        }
+        state.setLastChangedAt(event.getOccurredAt());
+        state.setLastEventId(event.getId());
+        state.setEventCount(state.getEventCount() + 1);
+    }
+
+    private ApplicationEvent event(UUID applicationId, ApplicationEventType eventType, ApplicationStatus fromStatus,
+                                   ApplicationStatus toStatus, UUID officerId, User actor, String comments) {
+        ApplicationEvent event = new ApplicationEvent();
+        event.setApplicationId(applicationId);
+        event.setEventType(eventType);
+        event.setFromStatus(fromStatus);
+        event.setToStatus(toStatus);
+        event.setOfficerId(officerId);
+        if (actor != null) {
+            event.setActorId(actor.getId());
+            event.setActorEmail(actor.getEmail());
+        }
+        event.setComments(comments);
+        event.setOccurredAt(LocalDateTime.now());
+        return event;
+    }
+
+    private String writeState(ApplicationStateResponse state) {
+        try {
+            return stateMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize state of application {}: {}", state.getApplicationId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private ApplicationStateResponse readState(ApplicationEvent snapshot) {
+        try {
+            return stateMapper.readValue(snapshot.getState(), ApplicationStateResponse.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            // An unreadable snapshot cannot be skipped safely, since the events it covers are not in this read
+            throw new LoanApiException(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Timeline snapshot " + snapshot.getId() + " is unreadable");
+        }
+    }
+}
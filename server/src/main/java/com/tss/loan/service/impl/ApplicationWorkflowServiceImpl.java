@@ -1,9 +1,12 @@
 package com.tss.loan.service.impl;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -12,11 +15,15 @@ import com.tss.loan.entity.enums.ApplicationStatus;
 import com.tss.loan.entity.loan.LoanApplication;
 import com.tss.loan.entity.workflow.ApplicationWorkflow;
 import com.tss.loan.entity.user.User;
+import com.tss.loan.exception.LoanApiException;
 import com.tss.loan.repository.ApplicationWorkflowRepository;
 import com.tss.loan.repository.LoanApplicationRepository;
+import com.tss.loan.service.ApplicationStatusTransitions;
+import com.tss.loan.service.ApplicationTimelineService;
 import com.tss.loan.service.ApplicationWorkflowService;
 import com.tss.loan.service.AuditLogService;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -32,6 +39,18 @@ public class ApplicationWorkflowServiceImpl implements ApplicationWorkflowServic
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private ApplicationTimelineService timelineService;
+    
+    // Guards per target status; registered at startup, read on every transition
+    private final Map<ApplicationStatus, List<TransitionGuard>> guards = new EnumMap<>(ApplicationStatus.class);
+    
+    public ApplicationWorkflowServiceImpl() {
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            guards.put(status, new CopyOnWriteArrayList<>());
+        }
+    }
+
     @Override
     public ApplicationWorkflow createWorkflowEntry(UUID loanApplicationId, 
                                                  ApplicationStatus fromStatus, 
@@ -54,6 +73,9 @@ public class ApplicationWorkflowServiceImpl implements ApplicationWorkflowServic
         workflow.setComments(comments);
         workflow.setProcessedAt(LocalDateTime.now());
         
+        // Before the workflow row, so seeding a legacy timeline does not pick this change up twice
+        timelineService.recordStatusChange(loanApplicationId, fromStatus, toStatus, actionBy, comments);
+        
         ApplicationWorkflow savedWorkflow = workflowRepository.save(workflow);
         
         // Audit log
@@ -81,74 +103,51 @@ public class ApplicationWorkflowServiceImpl implements ApplicationWorkflowServic
 
     @Override
     public boolean isValidStatusTransition(ApplicationStatus fromStatus, ApplicationStatus toStatus) {
-        // Define valid status transitions
-        switch (fromStatus) {
-            case DRAFT:
-                return toStatus == ApplicationStatus.SUBMITTED;
-                
-            case SUBMITTED:
-                return Arrays.asList(
-                    ApplicationStatus.UNDER_REVIEW,
-                    ApplicationStatus.REJECTED
-                ).contains(toStatus);
-                
-            case UNDER_REVIEW:
-                return Arrays.asList(
-                    ApplicationStatus.APPROVED,
-                    ApplicationStatus.REJECTED,
-                    ApplicationStatus.DOCUMENT_INCOMPLETE
-                ).contains(toStatus);
-                
-            case DOCUMENT_INCOMPLETE:
-                return Arrays.asList(
-                    ApplicationStatus.UNDER_REVIEW,
-                    ApplicationStatus.REJECTED
-                ).contains(toStatus);
-                
-            case APPROVED:
-                return toStatus == ApplicationStatus.DISBURSED;
-                
-            case REJECTED:
-            case DISBURSED:
-                return false; // Terminal states
-                
-            default:
-                return false;
-        }
+        return ApplicationStatusTransitions.isAllowed(fromStatus, toStatus);
     }
 
     @Override
     public List<ApplicationStatus> getNextPossibleStatuses(ApplicationStatus currentStatus) {
-        switch (currentStatus) {
-            case DRAFT:
-                return Arrays.asList(ApplicationStatus.SUBMITTED);
-                
-            case SUBMITTED:
-                return Arrays.asList(
-                    ApplicationStatus.UNDER_REVIEW,
-                    ApplicationStatus.REJECTED
-                );
-                
-            case UNDER_REVIEW:
-                return Arrays.asList(
-                    ApplicationStatus.APPROVED,
-                    ApplicationStatus.REJECTED,
-                    ApplicationStatus.DOCUMENT_INCOMPLETE
-                );
-                
-            case DOCUMENT_INCOMPLETE:
-                return Arrays.asList(
-                    ApplicationStatus.UNDER_REVIEW,
-                    ApplicationStatus.REJECTED
-                );
-                
-            case APPROVED:
-                return Arrays.asList(ApplicationStatus.DISBURSED);
-                
-            case REJECTED:
-            case DISBURSED:
-            default:
-                return Arrays.asList(); // No further transitions
+        return new ArrayList<>(ApplicationStatusTransitions.next(currentStatus));
+    }
+    
+    @Override
+    public ApplicationStatus transition(LoanApplication application, ApplicationStatus toStatus) {
+        ApplicationStatus fromStatus = application.getStatus();
+        if (fromStatus == toStatus) {
+            return fromStatus;
+        }
+        if (!ApplicationStatusTransitions.isAllowed(fromStatus, toStatus)) {
+            throw new LoanApiException("Application cannot move from " + fromStatus + " to " + toStatus);
+        }
+        for (TransitionGuard guard : guards.get(toStatus)) {
+            guard.check(application, fromStatus, toStatus);
         }
+        
+        application.setStatus(toStatus);
+        log.debug("Application {} moved from {} to {}", application.getId(), fromStatus, toStatus);
+        return fromStatus;
+    }
+    
+    @Override
+    public void registerGuard(ApplicationStatus toStatus, TransitionGuard guard) {
+        guards.get(toStatus).add(guard);
+    }
+    
+    /**
+     * Facts every path into a status relies on, whichever service performs the transition
+     */
+    @PostConstruct
+    public void registerBuiltInGuards() {
+        registerGuard(ApplicationStatus.UNDER_REVIEW, (application, fromStatus, toStatus) -> {
+            if (application.getAssignedOfficer() == null) {
+                throw new LoanApiException("Application must be assigned to a loan officer before review");
+            }
+        });
+        registerGuard(ApplicationStatus.APPROVED, (application, fromStatus, toStatus) -> {
+            if (application.getApprovedAmount() == null) {
+                throw new LoanApiException("Approved amount is required to approve an application");
+            }
+        });
     }
 }
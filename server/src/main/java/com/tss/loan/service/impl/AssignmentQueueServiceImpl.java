@@ -0,0 +1,394 @@
+package com.tss.loan.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tss.loan.entity.enums.ApplicationEventType;
+import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.enums.NotificationType;
+import com.tss.loan.entity.enums.Priority;
+import com.tss.loan.entity.enums.RoleType;
+import com.tss.loan.entity.loan.AssignmentQueueEntry;
+import com.tss.loan.entity.loan.LoanApplication;
+import com.tss.loan.entity.user.User;
+import com.tss.loan.exception.LoanApiException;
+import com.tss.loan.repository.AssignmentQueueRepository;
+import com.tss.loan.repository.LoanApplicationRepository;
+import com.tss.loan.repository.UserRepository;
+import com.tss.loan.service.ApplicationAssignmentService;
+import com.tss.loan.service.ApplicationTimelineService;
+import com.tss.loan.service.ApplicationWorkflowService;
+import com.tss.loan.service.AssignmentQueueService;
+import com.tss.loan.service.AssignmentStrategy;
+import com.tss.loan.service.EmailService;
+import com.tss.loan.service.NotificationService;
+import com.tss.loan.service.OfficerWorkloadIndex;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Persistent assignment queue and the sweeper that drains it.
+ *
+ * Each batch runs in one transaction: capacity is reserved through the workload index
+ * for as many entries as it allows, the status change of every loan officer share is
+ * checked against the workflow's transition table and guards on read-only copies, and the
+ * share is assigned with one bulk update instead of saving each application. Workflow and
+ * timeline entries, which start the SLA clock, are written in the same transaction;
+ * reservations for applications that moved on in the meantime are given back before the
+ * batch commits. Only notifications follow once the batch has committed.
+ */
+@Service
+public class AssignmentQueueServiceImpl implements AssignmentQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentQueueServiceImpl.class);
+
+    private static final List<RoleType> QUEUED_ROLES = List.of(RoleType.LOAN_OFFICER, RoleType.COMPLIANCE_OFFICER);
+
+    @Autowired
+    private AssignmentQueueRepository queueRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OfficerWorkloadIndex workloadIndex;
+
+    @Autowired
+    private AssignmentStrategy assignmentStrategy;
+
+    @Autowired
+    private ApplicationWorkflowService applicationWorkflowService;
+
+    @Autowired
+    private ApplicationTimelineService timelineService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${assignment.queue.batch-size:50}")
+    private int batchSize;
+
+    // Bounds one sweep so a long queue cannot hold the scheduler thread
+    @Value("${assignment.queue.max-batches-per-sweep:20}")
+    private int maxBatchesPerSweep;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(LoanApplication application, RoleType officerRole) {
+        AssignmentQueueEntry entry = queueRepository.findById(application.getId()).orElse(null);
+        if (entry == null || entry.getOfficerRole() != officerRole) {
+            entry = new AssignmentQueueEntry();
+            entry.setApplicationId(application.getId());
+            entry.setOfficerRole(officerRole);
+            entry.setEnqueuedAt(LocalDateTime.now());
+        }
+
+        // Priority and amount may have changed since the application was first queued
+        Priority priority = application.getPriority() != null ? application.getPriority() : Priority.LOW;
+        entry.setPreferredRole(preferredRole(officerRole, application, priority));
+        entry.setPriority(priority);
+        entry.setPriorityLevel(priority.getLevel());
+        entry.setRequestedAmount(application.getRequestedAmount());
+        entry.setLoanType(application.getLoanType());
+        queueRepository.save(entry);
+
+        logger.info("Application {} queued for {} assignment with {} priority",
+            application.getId(), officerRole, priority);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${assignment.queue.sweep-ms:30000}")
+    public synchronized int sweep() {
+        transactionTemplate.executeWithoutResult(status -> refreshQueue());
+
+        int assigned = 0;
+        for (RoleType officerRole : QUEUED_ROLES) {
+            for (int batch = 0; batch < maxBatchesPerSweep; batch++) {
+                Batch result;
+                try {
+                    result = transactionTemplate.execute(status -> assignBatch(officerRole));
+                } catch (RuntimeException e) {
+                    // The whole batch rolled back, reservations included; it is retried on the next sweep
+                    logger.error("Failed to assign queued {} batch: {}", officerRole, e.getMessage());
+                    break;
+                }
+                assigned += notifyAssigned(officerRole, result.assigned);
+                if (!result.more) {
+                    break;
+                }
+            }
+        }
+
+        if (assigned > 0) {
+            logger.info("Assigned {} queued applications", assigned);
+        }
+        return assigned;
+    }
+
+    /**
+     * Drops entries whose application no longer needs an officer, and queues applications
+     * left unassigned without an entry, e.g. ones submitted before the queue existed
+     */
+    private void refreshQueue() {
+        int stale = queueRepository.deleteStaleLoanOfficerEntries()
+            + queueRepository.deleteStaleComplianceEntries(OfficerWorkloadIndex.COMPLIANCE_OFFICER_ACTIVE_STATUSES);
+        if (stale > 0) {
+            logger.debug("Removed {} stale assignment queue entries", stale);
+        }
+
+        PageRequest backfill = PageRequest.of(0, batchSize);
+        for (LoanApplication application : loanApplicationRepository.findUnqueuedWithoutLoanOfficer(backfill)) {
+            enqueue(application, RoleType.LOAN_OFFICER);
+        }
+        for (LoanApplication application : loanApplicationRepository.findUnqueuedWithoutComplianceOfficer(
+                OfficerWorkloadIndex.COMPLIANCE_OFFICER_ACTIVE_STATUSES, backfill)) {
+            enqueue(application, RoleType.COMPLIANCE_OFFICER);
+        }
+    }
+
+    private Batch assignBatch(RoleType officerRole) {
+        List<AssignmentQueueEntry> entries = queueRepository.findNextBatch(officerRole, PageRequest.of(0, batchSize));
+        if (entries.isEmpty()) {
+            return Batch.EMPTY;
+        }
+
+        // Reserve in queue order; a role that refuses once is full for the rest of the batch
+        Map<UUID, List<UUID>> byOfficer = new LinkedHashMap<>();
+        List<UUID> waiting = new ArrayList<>();
+        Set<RoleType> fullRoles = EnumSet.noneOf(RoleType.class);
+        for (AssignmentQueueEntry entry : entries) {
+            Optional<UUID> officerId = reserve(entry, fullRoles);
+            if (officerId.isPresent()) {
+                byOfficer.computeIfAbsent(officerId.get(), id -> new ArrayList<>()).add(entry.getApplicationId());
+            } else {
+                waiting.add(entry.getApplicationId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, List<UUID>> assigned = new LinkedHashMap<>();
+        List<UUID> taken = new ArrayList<>();
+        for (Map.Entry<UUID, List<UUID>> share : byOfficer.entrySet()) {
+            UUID officerId = share.getKey();
+            User officer = userRepository.getReferenceById(officerId);
+            taken.addAll(share.getValue());
+
+            List<UUID> applicationIds = officerRole == RoleType.LOAN_OFFICER
+                ? allowedIntoReview(share.getValue(), officer)
+                : share.getValue();
+            for (int i = applicationIds.size(); i < share.getValue().size(); i++) {
+                workloadIndex.release(officerId);
+            }
+            if (applicationIds.isEmpty()) {
+                continue;
+            }
+
+            int updated = officerRole == RoleType.LOAN_OFFICER
+                ? loanApplicationRepository.assignQueuedToLoanOfficer(applicationIds, officer, now)
+                : loanApplicationRepository.assignQueuedToComplianceOfficer(applicationIds, officer,
+                    OfficerWorkloadIndex.COMPLIANCE_OFFICER_ACTIVE_STATUSES, now);
+
+            if (updated != applicationIds.size()) {
+                // Some applications were withdrawn or assigned elsewhere since they were read
+                for (int i = updated; i < applicationIds.size(); i++) {
+                    workloadIndex.release(officerId);
+                }
+                applicationIds = updated > 0
+                    ? loanApplicationRepository.findIdsAssignedTo(applicationIds, officerId)
+                    : List.of();
+            }
+            if (!applicationIds.isEmpty()) {
+                recordAssigned(officerRole, officer, applicationIds);
+                assigned.put(officerId, applicationIds);
+            }
+        }
+
+        if (!taken.isEmpty()) {
+            queueRepository.deleteByApplicationIds(taken);
+        }
+        if (!waiting.isEmpty()) {
+            queueRepository.recordAttempt(waiting, now);
+        }
+
+        // Another batch only helps while capacity lasted through this one
+        return new Batch(assigned, waiting.isEmpty() && entries.size() == batchSize);
+    }
+
+    /**
+     * Runs the SUBMITTED to UNDER_REVIEW transition on read-only copies with the officer in
+     * place, so the bulk update is held to the same table and guards as a single transition
+     * @return the applications the bulk update may take
+     */
+    private List<UUID> allowedIntoReview(List<UUID> applicationIds, User officer) {
+        List<UUID> allowed = new ArrayList<>();
+        for (LoanApplication application : loanApplicationRepository.findReadOnlyByIdIn(applicationIds)) {
+            if (application.getStatus() != ApplicationStatus.SUBMITTED || application.getAssignedOfficer() != null) {
+                continue;
+            }
+            application.setAssignedOfficer(officer);
+            try {
+                applicationWorkflowService.transition(application, ApplicationStatus.UNDER_REVIEW);
+                allowed.add(application.getId());
+            } catch (LoanApiException e) {
+                logger.warn("Queued application {} cannot move into review: {}", application.getId(), e.getMessage());
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * Workflow and timeline entries of a batch's assignments, inside the batch transaction
+     */
+    private void recordAssigned(RoleType officerRole, User officer, List<UUID> applicationIds) {
+        ApplicationEventType eventType = officerRole == RoleType.LOAN_OFFICER
+            ? ApplicationEventType.OFFICER_ASSIGNED : ApplicationEventType.COMPLIANCE_OFFICER_ASSIGNED;
+        for (UUID applicationId : applicationIds) {
+            timelineService.recordAssignment(applicationId, eventType, officer.getId(), "Assigned from queue");
+            if (officerRole == RoleType.LOAN_OFFICER) {
+                applicationWorkflowService.createWorkflowEntry(
+                    applicationId,
+                    ApplicationStatus.SUBMITTED,
+                    ApplicationStatus.UNDER_REVIEW,
+                    officer,
+                    "Application assigned from queue to loan officer: " + officer.getEmail()
+                );
+            }
+        }
+    }
+
+    private Optional<UUID> reserve(AssignmentQueueEntry entry, Set<RoleType> fullRoles) {
+        List<RoleType> roles = entry.getPreferredRole() != null
+            ? List.of(entry.getPreferredRole(), entry.getOfficerRole())
+            : List.of(entry.getOfficerRole());
+        for (RoleType role : roles) {
+            if (fullRoles.contains(role)) {
+                continue;
+            }
+            Map<UUID, Integer> candidates = workloadIndex.findAvailable(role);
+            if (!candidates.isEmpty()) {
+                // Time in the queue raises urgency, steering long waits to the fastest officers
+                AssignmentStrategy.Work work = new AssignmentStrategy.Work(role, entry.getLoanType(),
+                    entry.getPriority(), entry.getRequestedAmount(), entry.getEnqueuedAt());
+                Optional<UUID> officerId = workloadIndex.reserve(assignmentStrategy.rank(work, candidates));
+                if (officerId.isPresent()) {
+                    return officerId;
+                }
+            }
+            fullRoles.add(role);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Same senior preference as immediate assignment: high-value loans and high-priority compliance cases
+     */
+    private RoleType preferredRole(RoleType officerRole, LoanApplication application, Priority priority) {
+        if (officerRole == RoleType.LOAN_OFFICER) {
+            return application.getRequestedAmount() != null
+                && application.getRequestedAmount().compareTo(ApplicationAssignmentService.HIGH_VALUE_THRESHOLD) > 0
+                ? RoleType.SENIOR_LOAN_OFFICER : null;
+        }
+        return priority.isHigherThan(Priority.MEDIUM) ? RoleType.SENIOR_COMPLIANCE_OFFICER : null;
+    }
+
+    /**
+     * Notifications for a committed batch; failures here never undo an assignment
+     */
+    private int notifyAssigned(RoleType officerRole, Map<UUID, List<UUID>> assigned) {
+        int count = 0;
+        for (Map.Entry<UUID, List<UUID>> share : assigned.entrySet()) {
+            Optional<User> officer = userRepository.findById(share.getKey());
+            count += share.getValue().size();
+            if (officer.isEmpty()) {
+                continue;
+            }
+            for (UUID applicationId : share.getValue()) {
+                try {
+                    if (officerRole == RoleType.LOAN_OFFICER) {
+                        notifyLoanOfficer(officer.get(), applicationId);
+                    } else {
+                        notifyComplianceOfficer(officer.get(), applicationId);
+                    }
+                } catch (Exception e) {
+                    logger.error("Failed to notify queued assignment of application {}: {}", applicationId, e.getMessage());
+                }
+            }
+        }
+        return count;
+    }
+
+    private void notifyLoanOfficer(User officer, UUID applicationId) {
+        notificationService.createNotification(
+            officer,
+            NotificationType.IN_APP,
+            "New Loan Application Assigned",
+            "A new loan application has been assigned to you for review. Application ID: " + applicationId
+        );
+
+        try {
+            emailService.sendLoanStatusEmail(officer.getEmail(), "NEW_ASSIGNMENT", applicationId.toString(), officer);
+        } catch (Exception e) {
+            logger.error("Failed to send assignment email to officer", e);
+        }
+
+        logger.info("Queued application {} assigned to officer: {}", applicationId, officer.getEmail());
+    }
+
+    private void notifyComplianceOfficer(User officer, UUID applicationId) {
+        notificationService.createNotification(
+            officer,
+            NotificationType.IN_APP,
+            "Application Flagged for Compliance Review",
+            "A flagged application has been assigned to you for compliance review. Application ID: " + applicationId
+        );
+
+        logger.info("Queued application {} assigned to compliance officer: {}", applicationId, officer.getEmail());
+    }
+
+    private static final class Batch {
+        private static final Batch EMPTY = new Batch(Collections.emptyMap(), false);
+
+        private final Map<UUID, List<UUID>> assigned; // officer -> applications
+        private final boolean more;
+
+        private Batch(Map<UUID, List<UUID>> assigned, boolean more) {
+            this.assigned = assigned;
+            this.more = more;
+        }
+    }
+}
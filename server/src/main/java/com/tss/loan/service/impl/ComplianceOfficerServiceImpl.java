@@ -18,6 +18,7 @@ import com.tss.loan.dto.response.ComplianceDecisionResponse;
 import com.tss.loan.dto.response.ComplianceInvestigationResponse;
 import com.tss.loan.dto.response.CompleteApplicationDetailsResponse;
 import com.tss.loan.dto.response.LoanApplicationResponse;
+import com.tss.loan.entity.enums.ApplicationEventType;
 import com.tss.loan.entity.enums.ApplicationStatus;
 import com.tss.loan.entity.enums.RoleType;
 import com.tss.loan.entity.loan.LoanApplication;
@@ -30,6 +31,7 @@ import com.tss.loan.repository.LoanApplicationRepository;
 import com.tss.loan.repository.LoanDocumentRepository;
 import com.tss.loan.entity.enums.NotificationType;
 import com.tss.loan.service.ApplicationAssignmentService;
+import com.tss.loan.service.ApplicationTimelineService;
 import com.tss.loan.service.ApplicationWorkflowService;
 import com.tss.loan.service.AuditLogService;
 import com.tss.loan.service.ComplianceOfficerService;
@@ -96,6 +98,9 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private ApplicationTimelineService timelineService;
+    
     @Override
     public ComplianceDashboardResponse getDashboard(User complianceOfficer) {
         log.info("Building compliance dashboard for officer: {}", complianceOfficer.getEmail());
@@ -185,7 +190,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
             .applicationsClearedToday((int) applicationsClearedToday)
             .complianceViolationsFound((int) complianceViolationsFound)
             .recentActivities(recentActivities)
-            .hasCapacityForNewCases(assignmentService.getCurrentComplianceWorkload(complianceOfficer) < getMaxCapacity(complianceOfficer))
+            .hasCapacityForNewCases(assignmentService.getCurrentComplianceWorkload(complianceOfficer) < assignmentService.getMaxCapacity(complianceOfficer))
             .lastUpdated(LocalDateTime.now())
             .dashboardVersion("1.0")
             .build();
@@ -299,7 +304,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         
         // Update status
         ApplicationStatus previousStatus = application.getStatus();
-        application.setStatus(ApplicationStatus.COMPLIANCE_REVIEW);
+        workflowService.transition(application, ApplicationStatus.COMPLIANCE_REVIEW);
         application.setUpdatedAt(LocalDateTime.now());
         
         loanApplicationRepository.save(application);
@@ -344,7 +349,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         
         // Update status
         ApplicationStatus previousStatus = application.getStatus();
-        application.setStatus(ApplicationStatus.PENDING_COMPLIANCE_DOCS);
+        workflowService.transition(application, ApplicationStatus.PENDING_COMPLIANCE_DOCS);
         application.setComplianceNotes(application.getComplianceNotes() + " | Document Request: " + request.getRequestReason());
         application.setUpdatedAt(LocalDateTime.now());
         
@@ -407,7 +412,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         // Update status back to ready for decision
         ApplicationStatus previousStatus = application.getStatus();
         ApplicationStatus newStatus = ApplicationStatus.READY_FOR_DECISION;
-        application.setStatus(newStatus);
+        workflowService.transition(application, newStatus);
         application.setComplianceNotes(application.getComplianceNotes() + " | CLEARED: " + request.getDecisionNotes());
         application.setUpdatedAt(LocalDateTime.now());
         
@@ -415,6 +420,8 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         application.setAssignedComplianceOfficer(null);
         
         loanApplicationRepository.save(application);
+        timelineService.recordAssignment(applicationId, ApplicationEventType.COMPLIANCE_OFFICER_ASSIGNED, null,
+            "Compliance cleared");
         
         // Log workflow transition
         workflowService.createWorkflowEntry(applicationId, previousStatus, newStatus, complianceOfficer, 
@@ -495,7 +502,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         // Update status to rejected
         ApplicationStatus previousStatus = application.getStatus();
         ApplicationStatus newStatus = ApplicationStatus.REJECTED;
-        application.setStatus(newStatus);
+        workflowService.transition(application, newStatus);
         application.setRejectionReason("Compliance Violation: " + request.getComplianceViolationType());
         application.setComplianceNotes(application.getComplianceNotes() + " | REJECTED: " + request.getDecisionNotes());
         application.setFinalDecisionAt(LocalDateTime.now());
@@ -560,23 +567,14 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
             throw new LoanApiException("Only compliance officers can escalate to senior officers");
         }
         
-        // Find and assign senior compliance officer (use HIGH priority for escalations)
-        User seniorOfficer = assignmentService.getBestAvailableComplianceOfficer("HIGH");
-        if (seniorOfficer == null) {
-            throw new LoanApiException("No senior compliance officer available for escalation");
-        }
-        
-        // Verify the assigned officer is actually a senior compliance officer
-        if (seniorOfficer.getRole() != RoleType.SENIOR_COMPLIANCE_OFFICER) {
-            throw new LoanApiException("Escalation requires a senior compliance officer but none are available");
-        }
-        
-        // Update assignment
-        application.setAssignedComplianceOfficer(seniorOfficer);
         application.setComplianceNotes(application.getComplianceNotes() + " | ESCALATED: " + request.getEscalationReason());
         application.setUpdatedAt(LocalDateTime.now());
         
-        loanApplicationRepository.save(application);
+        // Reserve a senior compliance officer with capacity and reassign the case to them
+        User seniorOfficer = assignmentService.escalateToSeniorComplianceOfficer(application, request.getEscalationReason());
+        if (seniorOfficer == null) {
+            throw new LoanApiException("No senior compliance officer available for escalation");
+        }
         
         // Log audit event
         auditLogService.logAction(complianceOfficer, "COMPLIANCE_ESCALATED", "LoanApplication", null,
@@ -663,7 +661,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         try {
             // Update application status to UNDER_INVESTIGATION
             ApplicationStatus previousStatus = application.getStatus();
-            application.setStatus(ApplicationStatus.UNDER_INVESTIGATION);
+            workflowService.transition(application, ApplicationStatus.UNDER_INVESTIGATION);
             application.setUpdatedAt(LocalDateTime.now());
             loanApplicationRepository.save(application);
             
@@ -718,10 +716,6 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         }
     }
     
-    private int getMaxCapacity(User complianceOfficer) {
-        return complianceOfficer.getRole() == RoleType.SENIOR_COMPLIANCE_OFFICER ? 15 : 10;
-    }
-    
     @Override
     public ComplianceDecisionResponse quickClearCompliance(UUID applicationId, ComplianceDecisionRequest request, User complianceOfficer) {
         log.info("Quick clearing compliance for application: {} by officer: {}", applicationId, complianceOfficer.getEmail());
@@ -742,7 +736,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         
         // Update application status to READY_FOR_DECISION
         ApplicationStatus oldStatus = application.getStatus();
-        application.setStatus(ApplicationStatus.READY_FOR_DECISION);
+        workflowService.transition(application, ApplicationStatus.READY_FOR_DECISION);
         application.setComplianceNotes(request.getDecisionNotes());
         application.setUpdatedAt(LocalDateTime.now());
         
@@ -789,7 +783,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         
         // Update application status to REJECTED
         ApplicationStatus oldStatus = application.getStatus();
-        application.setStatus(ApplicationStatus.REJECTED);
+        workflowService.transition(application, ApplicationStatus.REJECTED);
         application.setComplianceNotes(request.getDecisionNotes());
         application.setRejectionReason("Compliance violation: " + request.getDecisionNotes());
         application.setFinalDecisionAt(LocalDateTime.now());
@@ -838,7 +832,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         
         // Update application status to UNDER_INVESTIGATION when compliance receives documents
         ApplicationStatus oldStatus = application.getStatus();
-        application.setStatus(ApplicationStatus.UNDER_INVESTIGATION);
+        workflowService.transition(application, ApplicationStatus.UNDER_INVESTIGATION);
         application.setUpdatedAt(LocalDateTime.now());
         
         LoanApplication savedApplication = loanApplicationRepository.save(application);
@@ -872,15 +866,41 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
             throw new LoanApiException("Application must be in PENDING_COMPLIANCE_DOCS status. Current status: " + application.getStatus());
         }
         
-        // Check if 7 days have passed (this would typically be called by a scheduled job)
+        // Check if 7 days have passed (the SLA timers also time these out on their own)
         LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
         if (application.getUpdatedAt().isAfter(sevenDaysAgo)) {
             throw new LoanApiException("Cannot process timeout - 7 days have not passed since document request");
         }
         
+        applyComplianceTimeout(application, complianceOfficer, "Compliance document request timeout - 7 days no response");
+        
+        log.info("Compliance timeout processed for application {} by officer: {}", applicationId, complianceOfficer.getEmail());
+    }
+    
+    @Override
+    public void expireComplianceDocumentRequest(UUID applicationId) {
+        LoanApplication application = loanApplicationRepository.findById(applicationId)
+            .orElseThrow(() -> new LoanApiException("Application not found: " + applicationId));
+        
+        if (application.getStatus() != ApplicationStatus.PENDING_COMPLIANCE_DOCS) {
+            throw new LoanApiException("Application must be in PENDING_COMPLIANCE_DOCS status. Current status: " + application.getStatus());
+        }
+        User complianceOfficer = application.getAssignedComplianceOfficer();
+        if (complianceOfficer == null) {
+            throw new LoanApiException("Application has no compliance officer to process the timeout: " + applicationId);
+        }
+        
+        applyComplianceTimeout(application, complianceOfficer, "Compliance document request deadline passed - timed out automatically");
+        
+        log.info("Compliance document request of application {} timed out automatically", applicationId);
+    }
+    
+    private void applyComplianceTimeout(LoanApplication application, User complianceOfficer, String comments) {
+        UUID applicationId = application.getId();
+        
         // Update application status to COMPLIANCE_TIMEOUT
         ApplicationStatus oldStatus = application.getStatus();
-        application.setStatus(ApplicationStatus.COMPLIANCE_TIMEOUT);
+        workflowService.transition(application, ApplicationStatus.COMPLIANCE_TIMEOUT);
         application.setComplianceNotes("Timeout: No response to compliance document request within 7 days");
         application.setUpdatedAt(LocalDateTime.now());
         
@@ -888,13 +908,11 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         
         // Record workflow transition
         workflowService.createWorkflowEntry(savedApplication.getId(), oldStatus, ApplicationStatus.COMPLIANCE_TIMEOUT, 
-            complianceOfficer, "Compliance document request timeout - 7 days no response");
+            complianceOfficer, comments);
         
         // Audit log
         auditLogService.logAction(complianceOfficer, "COMPLIANCE_TIMEOUT_PROCESSED", "LoanApplication", savedApplication.getId().hashCode() & 0x7FFFFFFFL,
             String.format("Compliance timeout processed for application %s - no response within 7 days", applicationId));
-        
-        log.info("Compliance timeout processed for application {} by officer: {}", applicationId, complianceOfficer.getEmail());
     }
     
     @Override
@@ -1029,7 +1047,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
             // This allows compliance to request the same document again or different documents
             if (application.getStatus() == ApplicationStatus.UNDER_INVESTIGATION) {
                 ApplicationStatus oldStatus = application.getStatus();
-                application.setStatus(ApplicationStatus.PENDING_COMPLIANCE_DOCS);
+                workflowService.transition(application, ApplicationStatus.PENDING_COMPLIANCE_DOCS);
                 application.setUpdatedAt(LocalDateTime.now());
                 loanApplicationRepository.save(application);
                 
@@ -1084,7 +1102,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
                 // Use the application variable already defined above
                 if (application.getStatus() == ApplicationStatus.PENDING_COMPLIANCE_DOCS) {
                     ApplicationStatus oldStatusForTransition = application.getStatus();
-                    application.setStatus(ApplicationStatus.UNDER_INVESTIGATION);
+                    workflowService.transition(application, ApplicationStatus.UNDER_INVESTIGATION);
                     application.setUpdatedAt(LocalDateTime.now());
                     loanApplicationRepository.save(application);
                     
@@ -1236,7 +1254,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         
         // Update status to AWAITING_COMPLIANCE_DECISION
         ApplicationStatus oldStatus = application.getStatus();
-        application.setStatus(ApplicationStatus.AWAITING_COMPLIANCE_DECISION);
+        workflowService.transition(application, ApplicationStatus.AWAITING_COMPLIANCE_DECISION);
         application.setComplianceNotes((application.getComplianceNotes() != null ? application.getComplianceNotes() + " | " : "") + 
             "Decision Triggered: " + request.getSummaryNotes());
         application.setUpdatedAt(LocalDateTime.now());
@@ -1301,7 +1319,7 @@ public class ComplianceOfficerServiceImpl implements ComplianceOfficerService {
         loanApplicationRepository.save(application);
         
         // Status changes to READY_FOR_DECISION so loan officer can make final decision
-        application.setStatus(ApplicationStatus.READY_FOR_DECISION);
+        workflowService.transition(application, ApplicationStatus.READY_FOR_DECISION);
         loanApplicationRepository.save(application);
         
         // Log workflow
@@ -0,0 +1,212 @@
+package com.tss.loan.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tss.loan.entity.system.StreamBroadcast;
+import com.tss.loan.repository.StreamBroadcastRepository;
+import com.tss.loan.service.NotificationBroadcastBus;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Multi-node bus backed by the stream_broadcasts table.
+ *
+ * Messages are delivered to local subscribers immediately and buffered for the other
+ * nodes; the buffer is flushed as one row per interval so each hop carries a batch.
+ * Every node polls for rows written by other nodes and hands them to its subscribers,
+ * which deliver only to users connected locally. Works against H2 as well as MySQL.
+ *
+ * Identity values can commit out of order, so an id skipped by a poll is remembered as a
+ * gap and looked up again on later polls until its row shows up. A gap still open after
+ * notification.stream.bus.gap-timeout-seconds is dropped with a warning; by then the id
+ * was rolled back or its row committed too late to be worth delivering.
+ */
+@Service
+@ConditionalOnProperty(name = "notification.stream.bus", havingValue = "database")
+public class DatabaseNotificationBroadcastBus implements NotificationBroadcastBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseNotificationBroadcastBus.class);
+
+    private static final TypeReference<List<StreamMessage>> MESSAGE_LIST = new TypeReference<>() {};
+    private static final int POLL_BATCH_SIZE = 200;
+    // Bounds the ids remembered when the high-water mark jumps far ahead at once
+    private static final int MAX_OPEN_GAPS = 10_000;
+    private static final int MAX_MESSAGES_PER_ROW = 500;
+
+    @Autowired
+    private StreamBroadcastRepository streamBroadcastRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notification.stream.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${notification.stream.bus.retention-minutes:10}")
+    private long retentionMinutes;
+
+    @Value("${notification.stream.bus.gap-timeout-seconds:60}")
+    private long gapTimeoutSeconds;
+
+    private final List<Consumer<List<StreamMessage>>> handlers = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<StreamMessage>>> remoteHandlers = new CopyOnWriteArrayList<>();
+    private final Queue<StreamMessage> outbox = new ConcurrentLinkedQueue<>();
+    // Only touched by the poll job: ids below the high-water mark not seen yet, with when they were first missed
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+    private long highWaterMark;
+    private String nodeId;
+
+    @PostConstruct
+    public void init() {
+        nodeId = StringUtils.hasText(configuredNodeId) ? configuredNodeId : UUID.randomUUID().toString();
+        highWaterMark = streamBroadcastRepository.findMaxId();
+        logger.info("Database notification bus started as node {}", nodeId);
+    }
+
+    @Override
+    public void publish(StreamMessage message) {
+        deliver(List.of(message));
+        outbox.add(message);
+    }
+
+    @Override
+    public void subscribe(Consumer<List<StreamMessage>> handler) {
+        handlers.add(handler);
+    }
+
+    @Override
+    public void subscribeRemote(Consumer<List<StreamMessage>> handler) {
+        remoteHandlers.add(handler);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream.bus.flush-ms:200}")
+    public void flush() {
+        while (!outbox.isEmpty()) {
+            List<StreamMessage> batch = new ArrayList<>();
+            StreamMessage message;
+            while (batch.size() < MAX_MESSAGES_PER_ROW && (message = outbox.poll()) != null) {
+                batch.add(message);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                StreamBroadcast broadcast = new StreamBroadcast();
+                broadcast.setOriginNode(nodeId);
+                broadcast.setMessageCount(batch.size());
+                broadcast.setMessagesJson(objectMapper.writeValueAsString(batch));
+                streamBroadcastRepository.save(broadcast);
+            } catch (Exception e) {
+                logger.warn("Failed to publish {} stream messages to other nodes: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream.bus.poll-ms:500}")
+    public void poll() {
+        poll(System.currentTimeMillis());
+    }
+
+    /**
+     * Reads the rows above the high-water mark, then looks up the open gaps below it.
+     * Rows from this node only close gaps; rows from other nodes are delivered once.
+     */
+    void poll(long now) {
+        List<StreamBroadcast> broadcasts;
+        try {
+            broadcasts = new ArrayList<>(streamBroadcastRepository.findAfter(highWaterMark, PageRequest.of(0, POLL_BATCH_SIZE)));
+            if (!gaps.isEmpty()) {
+                broadcasts.addAll(streamBroadcastRepository.findByIds(
+                    gaps.keySet().stream().limit(POLL_BATCH_SIZE).toList()));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to poll stream broadcasts: {}", e.getMessage());
+            return;
+        }
+
+        for (StreamBroadcast broadcast : broadcasts) {
+            long id = broadcast.getId();
+            if (id > highWaterMark) {
+                for (long missing = highWaterMark + 1; missing < id && gaps.size() < MAX_OPEN_GAPS; missing++) {
+                    gaps.put(missing, now);
+                }
+                highWaterMark = id;
+            } else if (gaps.remove(id) == null) {
+                continue;
+            }
+            if (!nodeId.equals(broadcast.getOriginNode())) {
+                deliverRemote(broadcast);
+            }
+        }
+        expireGaps(now);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream.bus.cleanup-ms:60000}")
+    public void cleanup() {
+        streamBroadcastRepository.deleteOlderThan(LocalDateTime.now().minusMinutes(retentionMinutes));
+    }
+
+    private void deliverRemote(StreamBroadcast broadcast) {
+        try {
+            List<StreamMessage> messages = objectMapper.readValue(broadcast.getMessagesJson(), MESSAGE_LIST);
+            deliver(messages);
+            for (Consumer<List<StreamMessage>> handler : remoteHandlers) {
+                handler.accept(messages);
+            }
+        } catch (Exception e) {
+            logger.warn("Skipping unreadable stream broadcast {}: {}", broadcast.getId(), e.getMessage());
+        }
+    }
+
+    private void expireGaps(long now) {
+        long missedBefore = now - gapTimeoutSeconds * 1000;
+        int expired = 0;
+        long first = 0;
+        long last = 0;
+        Iterator<Map.Entry<Long, Long>> iterator = gaps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Long> gap = iterator.next();
+            if (gap.getValue() >= missedBefore) {
+                continue;
+            }
+            iterator.remove();
+            if (expired++ == 0) {
+                first = gap.getKey();
+            }
+            last = gap.getKey();
+        }
+        if (expired > 0) {
+            logger.warn("Gave up on {} stream broadcast ids between {} and {} after {}s; "
+                + "any of them committed later is not delivered on this node", expired, first, last, gapTimeoutSeconds);
+        }
+    }
+
+    private void deliver(List<StreamMessage> messages) {
+        for (Consumer<List<StreamMessage>> handler : handlers) {
+            handler.accept(messages);
+        }
+    }
+}
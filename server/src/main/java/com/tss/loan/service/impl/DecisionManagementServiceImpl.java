@@ -86,7 +86,7 @@ public class DecisionManagementServiceImpl implements DecisionManagementService
         // Update workflow status
         ApplicationStatus previousStatus = application.getStatus();
         ApplicationStatus newStatus = ApplicationStatus.APPROVED;
-        application.setStatus(newStatus);
+        workflowService.transition(application, newStatus);
         
         // Save application
         LoanApplication savedApplication = loanApplicationRepository.save(application);
@@ -162,7 +162,7 @@ public class DecisionManagementServiceImpl implements DecisionManagementService
         // Update workflow status
         ApplicationStatus previousStatus = application.getStatus();
         ApplicationStatus newStatus = ApplicationStatus.REJECTED;
-        application.setStatus(newStatus);
+        workflowService.transition(application, newStatus);
         
         // Save application
         LoanApplication savedApplication = loanApplicationRepository.save(application);
@@ -231,7 +231,7 @@ public class DecisionManagementServiceImpl implements DecisionManagementService
         // Update application status and priority
         ApplicationStatus previousStatus = application.getStatus();
         ApplicationStatus newStatus = ApplicationStatus.FLAGGED_FOR_COMPLIANCE;
-        application.setStatus(newStatus);
+        workflowService.transition(application, newStatus);
         
         // ✅ FIXED: Set priority using enum instead of string matching
         Priority priority = Priority.fromString(request.getPriorityLevel());
@@ -401,12 +401,7 @@ public class DecisionManagementServiceImpl implements DecisionManagementService
     }
     
     private boolean canBeFlaggedForCompliance(ApplicationStatus status) {
-        return status == ApplicationStatus.UNDER_REVIEW ||
-               status == ApplicationStatus.DOCUMENT_VERIFICATION ||
-               status == ApplicationStatus.FINANCIAL_REVIEW ||
-               status == ApplicationStatus.RISK_ASSESSMENT ||
-               status == ApplicationStatus.FRAUD_CHECK ||
-               status == ApplicationStatus.READY_FOR_DECISION;
+        return workflowService.isValidStatusTransition(status, ApplicationStatus.FLAGGED_FOR_COMPLIANCE);
     }
     
     private LoanDecisionResponse buildDecisionResponse(LoanApplication application, User decisionMaker, String previousStatus) {
@@ -0,0 +1,236 @@
+package com.tss.loan.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tss.loan.entity.enums.RoleType;
+import com.tss.loan.entity.loan.LoanDocument;
+import com.tss.loan.entity.user.User;
+import com.tss.loan.exception.LoanApiException;
+import com.tss.loan.repository.LoanDocumentRepository;
+import com.tss.loan.service.DocumentAccessService;
+import com.tss.loan.service.DocumentStorage;
+
+/**
+ * Issues signed storage URLs so the bucket can stay private.
+ *
+ * Signed URLs are cached per object name until shortly before they expire, so a
+ * document list does not cost one signing call per document on every load. Content
+ * is keyed by hash, which lets documents sharing a blob share one cached URL.
+ * When the backend cannot sign (local storage) or access.mode is proxy, documents
+ * are served through /api/documents/{id}/content instead, which supports Range requests.
+ * Those links are absolute and carry an expiry and an HMAC signature, so a browser can
+ * open them without an Authorization header. Renditions follow the same rule through
+ * /api/documents/{id}/thumbnail and /preview; their storage objects are never public.
+ */
+@Service
+public class DocumentAccessServiceImpl implements DocumentAccessService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentAccessServiceImpl.class);
+
+    private static final String MODE_SIGNED = "signed";
+    private static final String MODE_PROXY = "proxy";
+    private static final String SIGNING_ALGORITHM = "HmacSHA256";
+
+    @Autowired
+    private DocumentStorage documentStorage;
+
+    @Autowired
+    private LoanDocumentRepository documentRepository;
+
+    // signed, proxy, or public (the stored public URL, for public buckets)
+    @Value("${document.access.mode:signed}")
+    private String accessMode;
+
+    @Value("${document.access.signed-url-ttl-seconds:900}")
+    private long signedUrlTtlSeconds;
+
+    // Cached URLs are replaced this long before they expire so clients never get one about to lapse
+    @Value("${document.access.refresh-before-expiry-seconds:120}")
+    private long refreshBeforeExpirySeconds;
+
+    @Value("${document.access.proxy-base-url:http://localhost:8080/api/documents/}")
+    private String proxyBaseUrl;
+
+    @Value("${document.access.signing-key:${app.jwt.secret}}")
+    private String signingKey;
+
+    // object name -> signed URL
+    private final Map<String, CachedUrl> signedUrls = new ConcurrentHashMap<>();
+
+    @Override
+    public String getAccessUrl(LoanDocument document) {
+        String objectName = document.getPublicId();
+        if (objectName == null || objectName.isEmpty()) {
+            return document.getFilePath();
+        }
+        if (MODE_PROXY.equals(accessMode)) {
+            return proxyUrl(document);
+        }
+        if (!MODE_SIGNED.equals(accessMode)) {
+            return document.getFilePath();
+        }
+
+        String signedUrl = signedUrl(objectName);
+        return signedUrl != null ? signedUrl : proxyUrl(document);
+    }
+
+    @Override
+    public String getRenditionUrl(LoanDocument document, String rendition) {
+        String objectName = renditionObjectName(document, rendition);
+        if (objectName == null) {
+            return null;
+        }
+        String signedUrl = MODE_SIGNED.equals(accessMode) ? signedUrl(objectName) : null;
+        return signedUrl != null ? signedUrl : proxyUrl(document, rendition);
+    }
+
+    @Override
+    public LoanDocument getReadableDocument(Long documentId, User user) {
+        LoanDocument document = documentRepository.findByIdWithApplication(documentId)
+            .orElseThrow(() -> new LoanApiException(HttpStatus.NOT_FOUND, "Document not found with ID: " + documentId));
+
+        if (user.getRole() == RoleType.APPLICANT
+                && !document.getLoanApplication().getApplicant().getId().equals(user.getId())) {
+            throw new LoanApiException(HttpStatus.FORBIDDEN, "You can only view documents of your own applications");
+        }
+        return document;
+    }
+
+    @Override
+    public LoanDocument getSignedDocument(Long documentId, long expires, String signature) {
+        return getSigned(documentId, null, expires, signature);
+    }
+
+    @Override
+    public LoanDocument getSignedRendition(Long documentId, String rendition, long expires, String signature) {
+        return getSigned(documentId, rendition, expires, signature);
+    }
+
+    @Override
+    public InputStream openContent(LoanDocument document, long offset, long length) throws IOException {
+        if (document.getPublicId() == null || document.getPublicId().isEmpty()) {
+            throw new LoanApiException(HttpStatus.NOT_FOUND, "Document content is not stored");
+        }
+        return documentStorage.open(document.getPublicId(), offset, length);
+    }
+
+    @Override
+    public InputStream openRendition(LoanDocument document, String rendition) throws IOException {
+        String objectName = renditionObjectName(document, rendition);
+        if (objectName == null) {
+            throw new LoanApiException(HttpStatus.NOT_FOUND, "Document " + rendition + " has not been generated");
+        }
+        return documentStorage.open(objectName);
+    }
+
+    @Override
+    public void evict(String objectName) {
+        signedUrls.remove(objectName);
+    }
+
+    @Scheduled(fixedDelayString = "${document.access.cache-sweep-ms:300000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        signedUrls.values().removeIf(cached -> cached.refreshAt <= now);
+    }
+
+    /**
+     * Cached signed URL, signing a new one when missing or close to expiry.
+     * Returns null when the backend cannot sign or signing failed.
+     */
+    private String signedUrl(String objectName) {
+        long now = System.currentTimeMillis();
+        CachedUrl cached = signedUrls.get(objectName);
+        if (cached != null && cached.refreshAt > now) {
+            return cached.url;
+        }
+
+        String url;
+        try {
+            url = documentStorage.signedUrl(objectName, Duration.ofSeconds(signedUrlTtlSeconds));
+        } catch (IOException e) {
+            logger.warn("Failed to sign URL for {}: {}", objectName, e.getMessage());
+            return null;
+        }
+        if (url != null) {
+            long refreshAt = now + Math.max(0, signedUrlTtlSeconds - refreshBeforeExpirySeconds) * 1000;
+            signedUrls.put(objectName, new CachedUrl(url, refreshAt));
+        }
+        return url;
+    }
+
+    private LoanDocument getSigned(Long documentId, String rendition, long expires, String signature) {
+        if (expires < System.currentTimeMillis() / 1000
+                || !MessageDigest.isEqual(sign(documentId, rendition, expires).getBytes(StandardCharsets.US_ASCII),
+                    signature.getBytes(StandardCharsets.US_ASCII))) {
+            throw new LoanApiException(HttpStatus.FORBIDDEN, "Document link is invalid or has expired");
+        }
+        return documentRepository.findById(documentId)
+            .orElseThrow(() -> new LoanApiException(HttpStatus.NOT_FOUND, "Document not found with ID: " + documentId));
+    }
+
+    private String renditionObjectName(LoanDocument document, String rendition) {
+        if (THUMBNAIL.equals(rendition)) {
+            return document.getThumbnailObjectName();
+        }
+        if (PREVIEW.equals(rendition)) {
+            return document.getPreviewObjectName();
+        }
+        throw new LoanApiException(HttpStatus.NOT_FOUND, "Unknown document rendition: " + rendition);
+    }
+
+    private String proxyUrl(LoanDocument document) {
+        return proxyUrl(document, null);
+    }
+
+    /**
+     * Signed proxy link to the content, or to a rendition when one is named
+     */
+    private String proxyUrl(LoanDocument document, String rendition) {
+        long expires = System.currentTimeMillis() / 1000 + signedUrlTtlSeconds;
+        return proxyBaseUrl + document.getId() + "/" + (rendition != null ? rendition : "content")
+            + "?expires=" + expires + "&signature=" + sign(document.getId(), rendition, expires);
+    }
+
+    private String sign(Long documentId, String rendition, long expires) {
+        // Content links sign id:expires; rendition links also sign the rendition so one cannot stand in for another
+        String payload = rendition != null ? documentId + ":" + rendition + ":" + expires : documentId + ":" + expires;
+        try {
+            Mac mac = Mac.getInstance(SIGNING_ALGORITHM);
+            mac.init(new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), SIGNING_ALGORITHM));
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign document links", e);
+        }
+    }
+
+    private static final class CachedUrl {
+        private final String url;
+        private final long refreshAt;
+
+        private CachedUrl(String url, long refreshAt) {
+            this.url = url;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.tss.loan.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tss.loan.entity.applicant.ApplicantPersonalDetails;
+import com.tss.loan.entity.enums.DocumentType;
+import com.tss.loan.entity.enums.OcrStatus;
+import com.tss.loan.entity.enums.VerificationStatus;
+import com.tss.loan.entity.loan.LoanDocument;
+import com.tss.loan.repository.ApplicantPersonalDetailsRepository;
+import com.tss.loan.repository.LoanDocumentRepository;
+import com.tss.loan.service.AuditLogService;
+import com.tss.loan.service.DocumentAutoVerificationService;
+import com.tss.loan.service.DocumentExtractionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Rule-based document auto-verification.
+ *
+ * Each document type has weighted checks comparing extracted fields with the applicant's
+ * personal details; the score is the sum of the weights of the checks that matched.
+ * Documents at or above the threshold are marked VERIFIED; the rest keep their PENDING
+ * status with the score and summary recorded for the officer. Nothing is ever rejected
+ * automatically. Candidates are processed in batches with one personal-details query per batch.
+ */
+@Service
+public class DocumentAutoVerificationServiceImpl implements DocumentAutoVerificationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DocumentAutoVerificationServiceImpl.class);
+    
+    private static final List<DateTimeFormatter> DATE_FORMATS = Arrays.asList(
+        DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+        DateTimeFormatter.ofPattern("dd-MM-yyyy")
+    );
+    
+    private static final Map<DocumentType, List<Rule>> RULES = new EnumMap<>(DocumentType.class);
+    
+    static {
+        Rule pan = new Rule("PAN", 0.5, DocumentAutoVerificationServiceImpl::panMatches);
+        Rule aadhaar = new Rule("Aadhaar", 0.5, DocumentAutoVerificationServiceImpl::aadhaarMatches);
+        
+        RULES.put(DocumentType.PAN_CARD, List.of(pan,
+            new Rule("name", 0.3, DocumentAutoVerificationServiceImpl::nameScore),
+            new Rule("date of birth", 0.2, DocumentAutoVerificationServiceImpl::dateOfBirthMatches)));
+        RULES.put(DocumentType.AADHAAR_CARD, List.of(aadhaar,
+            new Rule("name", 0.3, DocumentAutoVerificationServiceImpl::nameScore),
+            new Rule("date of birth", 0.2, DocumentAutoVerificationServiceImpl::dateOfBirthMatches)));
+        
+        List<Rule> photoId = List.of(
+            new Rule("name", 0.6, DocumentAutoVerificationServiceImpl::nameScore),
+            new Rule("date of birth", 0.4, DocumentAutoVerificationServiceImpl::dateOfBirthMatches));
+        RULES.put(DocumentType.PASSPORT, photoId);
+        RULES.put(DocumentType.DRIVING_LICENSE, photoId);
+        RULES.put(DocumentType.VOTER_ID, photoId);
+        
+        List<Rule> income = List.of(
+            new Rule("name", 0.6, DocumentAutoVerificationServiceImpl::nameScore),
+            new Rule("PAN", 0.4, DocumentAutoVerificationServiceImpl::panMatches));
+        RULES.put(DocumentType.SALARY_SLIP, income);
+        RULES.put(DocumentType.FORM_16, income);
+    }
+    
+    @Autowired
+    private LoanDocumentRepository documentRepository;
+    
+    @Autowired
+    private ApplicantPersonalDetailsRepository personalDetailsRepository;
+    
+    @Autowired
+    private DocumentExtractionService documentExtractionService;
+    
+    @Autowired
+    private AuditLogService auditLogService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${document.auto-verification.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${document.auto-verification.threshold:0.85}")
+    private double threshold;
+    
+    @Value("${document.auto-verification.batch-size:100}")
+    private int batchSize;
+    
+    private Counter autoVerified;
+    private Counter referredToOfficer;
+    
+    @PostConstruct
+    public void init() {
+        autoVerified = outcomeCounter("verified");
+        referredToOfficer = outcomeCounter("manual");
+    }
+    
+    @Scheduled(fixedDelayString = "${document.auto-verification.batch-ms:60000}")
+    public void runBatches() {
+        if (!enabled) {
+            return;
+        }
+        // Keep going while full batches come back
+        List<LoanDocument> batch;
+        do {
+            batch = loadCandidates();
+            verify(batch);
+        } while (batch.size() == batchSize);
+    }
+    
+    @Override
+    public int verifyPendingBatch() {
+        return verify(loadCandidates());
+    }
+    
+    private List<LoanDocument> loadCandidates() {
+        return documentRepository.findAutoVerificationCandidates(
+            OcrStatus.COMPLETED, VerificationStatus.PENDING, PageRequest.of(0, batchSize));
+    }
+    
+    private int verify(List<LoanDocument> candidates) {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        
+        Set<UUID> applicantIds = new HashSet<>();
+        for (LoanDocument document : candidates) {
+            applicantIds.add(document.getLoanApplication().getApplicant().getId());
+        }
+        Map<UUID, ApplicantPersonalDetails> detailsByUser = personalDetailsRepository.findByUserIdIn(applicantIds)
+            .stream()
+            .collect(Collectors.toMap(details -> details.getUser().getId(), Function.identity()));
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> verifiedIds = new ArrayList<>();
+        for (LoanDocument document : candidates) {
+            ApplicantPersonalDetails details = detailsByUser.get(document.getLoanApplication().getApplicant().getId());
+            List<Rule> rules = RULES.getOrDefault(document.getDocumentType(), List.of());
+            Map<String, String> fields = documentExtractionService.getExtractedFields(document);
+            
+            double score = 0;
+            List<String> matched = new ArrayList<>();
+            List<String> unmatched = new ArrayList<>();
+            for (Rule rule : rules) {
+                double ruleScore = details != null ? rule.check.apply(new Match(fields, details)) : 0;
+                score += rule.weight * ruleScore;
+                if (ruleScore >= 1) {
+                    matched.add(rule.name);
+                } else {
+                    unmatched.add(rule.name);
+                }
+            }
+            score = Math.round(score * 100) / 100.0;
+            
+            String summary = summarize(rules, details, matched, unmatched);
+            documentRepository.recordAutoVerificationScore(document.getId(), score, summary);
+            
+            if (!rules.isEmpty() && score >= threshold
+                    && documentRepository.markAutoVerified(document.getId(),
+                        "Auto-verified (score " + score + "): " + summary, now) == 1) {
+                verifiedIds.add(document.getId());
+                autoVerified.increment();
+            } else {
+                referredToOfficer.increment();
+            }
+        }
+        
+        if (!verifiedIds.isEmpty()) {
+            auditLogService.logAction(null, "DOCUMENTS_AUTO_VERIFIED", "LoanDocument", null,
+                verifiedIds.size() + " documents auto-verified: " + verifiedIds);
+        }
+        logger.info("Auto-verification scored {} documents, {} verified", candidates.size(), verifiedIds.size());
+        return verifiedIds.size();
+    }
+    
+    private String summarize(List<Rule> rules, ApplicantPersonalDetails details, List<String> matched,
+                             List<String> unmatched) {
+        if (rules.isEmpty()) {
+            return "No automatic checks for this document type";
+        }
+        if (details == null) {
+            return "Applicant personal details not available";
+        }
+        return "matched: " + (matched.isEmpty() ? "none" : String.join(", ", matched))
+            + (unmatched.isEmpty() ? "" : "; not matched: " + String.join(", ", unmatched));
+    }
+    
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("document.auto_verification")
+            .description("Documents scored by auto-verification")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+    
+    // ========== CHECKS (each returns 0-1) ==========
+    
+    private static double panMatches(Match match) {
+        String extracted = match.fields.get("panNumber");
+        String declared = match.details.getPanNumber();
+        return extracted != null && declared != null && extracted.equalsIgnoreCase(declared.trim()) ? 1 : 0;
+    }
+    
+    private static double aadhaarMatches(Match match) {
+        String last4 = match.fields.get("aadhaarLast4");
+        String declared = match.details.getAadhaarNumber();
+        if (last4 == null || declared == null) {
+            return 0;
+        }
+        String digits = declared.replaceAll("\\D", "");
+        return digits.length() >= 4 && digits.endsWith(last4) ? 1 : 0;
+    }
+    
+    /**
+     * Both first and last name found scores 1, one of them 0.5
+     */
+    private static double nameScore(Match match) {
+        String extracted = match.fields.get("name");
+        if (extracted == null) {
+            return 0;
+        }
+        Set<String> tokens = nameTokens(extracted);
+        boolean first = containsAll(tokens, match.details.getFirstName());
+        boolean last = containsAll(tokens, match.details.getLastName());
+        return first && last ? 1 : (first || last ? 0.5 : 0);
+    }
+    
+    private static double dateOfBirthMatches(Match match) {
+        String extracted = match.fields.get("dateOfBirth");
+        LocalDate declared = match.details.getDateOfBirth();
+        if (extracted == null || declared == null) {
+            return 0;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(extracted, format).equals(declared) ? 1 : 0;
+            } catch (DateTimeParseException ignored) { }
+        }
+        return 0;
+    }
+    
+    private static boolean containsAll(Set<String> tokens, String namePart) {
+        Set<String> required = nameTokens(namePart);
+        return !required.isEmpty() && tokens.containsAll(required);
+    }
+    
+    private static Set<String> nameTokens(String name) {
+        if (name == null) {
+            return Set.of();
+        }
+        return Arrays.stream(name.toUpperCase(Locale.ROOT).replaceAll("[^A-Z ]", " ").trim().split("\\s+"))
+            .filter(token -> !token.isEmpty())
+            .collect(Collectors.toSet());
+    }
+    
+    private static final class Match {
+        private final Map<String, String> fields;
+        private final ApplicantPersonalDetails details;
+        
+        private Match(Map<String, String> fields, ApplicantPersonalDetails details) {
+            this.fields = fields;
+            this.details = details;
+        }
+    }
+    
+    private static final class Rule {
+        private final String name;
+        private final double weight;
+        private final Function<Match, Double> check;
+        
+        private Rule(String name, double weight, Function<Match, Double> check) {
+            this.name = name;
+            this.weight = weight;
+            this.check = check;
+        }
+    }
+}
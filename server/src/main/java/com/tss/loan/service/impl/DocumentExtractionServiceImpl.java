@@ -0,0 +1,503 @@
+package com.tss.loan.service.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tss.loan.entity.enums.DocumentType;
+import com.tss.loan.entity.enums.OcrStatus;
+import com.tss.loan.entity.loan.LoanDocument;
+import com.tss.loan.repository.LoanDocumentRepository;
+import com.tss.loan.service.DocumentExtractionService;
+import com.tss.loan.service.DocumentStorage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+
+/**
+ * Background OCR for uploaded documents.
+ *
+ * Uploads hand over the document id; a bounded worker pool reads the file from storage and
+ * walks its pages. PDF pages with a usable text layer are read directly with PDFBox; only
+ * pages without one are rasterized and handed to the OCR page pool, so pages of one document
+ * are recognised in parallel while the worker renders the next. Tesseract is not thread-safe,
+ * so every OCR thread keeps its own instance. When the queue is full the document stays
+ * PENDING and is picked up by the requeue job. Identical content that was already extracted
+ * is copied instead of being processed again.
+ *
+ * A worker holds a document with a PROCESSING lease; documents whose lease expired (the
+ * node stopped mid-document) are requeued like pending ones. The stored text has PAN and
+ * Aadhaar numbers masked; the extracted fields keep what auto-verification compares.
+ */
+@Service
+public class DocumentExtractionServiceImpl implements DocumentExtractionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DocumentExtractionServiceImpl.class);
+    
+    private static final TypeReference<Map<String, String>> FIELD_MAP = new TypeReference<>() {};
+    private static final String PDF_TYPE = "application/pdf";
+    private static final float RENDER_DPI = 300f;
+    private static final int MAX_STORED_TEXT = 60_000;
+    // Letters or digits a text layer needs before the page is trusted without OCR
+    private static final int MIN_TEXT_LAYER_CHARS = 20;
+    
+    private static final Pattern PAN_PATTERN = Pattern.compile("\\b([A-Z]{5}[0-9]{4}[A-Z])\\b");
+    private static final Pattern AADHAAR_PATTERN = Pattern.compile("\\b\\d{4}\\s?\\d{4}\\s?(\\d{4})\\b");
+    // Identifiers masked in the stored text, keeping the last four characters
+    private static final Pattern PAN_MASK_PATTERN = Pattern.compile("(?i)\\b[A-Z]{5}[0-9]([0-9]{3}[A-Z])\\b");
+    private static final Pattern AADHAAR_MASK_PATTERN = Pattern.compile("\\b\\d{4}(\\s?)\\d{4}(\\s?)(\\d{4})\\b");
+    private static final Pattern NAME_LABEL_PATTERN = Pattern.compile("(?i)^\\s*name\\s*[:\\-]?\\s*(.*)$");
+    private static final Pattern PERSON_NAME_PATTERN = Pattern.compile("^[A-Za-z][A-Za-z .]{2,60}$");
+    private static final Pattern DATE_OF_BIRTH_PATTERN = Pattern.compile("\\b(\\d{2}[/-]\\d{2}[/-]\\d{4})\\b");
+    private static final Pattern NET_SALARY_PATTERN =
+        Pattern.compile("(?i)net\\s*(?:pay|salary|amount)[^0-9\\n]{0,20}([0-9][0-9,]*(?:\\.\\d{1,2})?)");
+    private static final Pattern GROSS_SALARY_PATTERN =
+        Pattern.compile("(?i)gross\\s*(?:pay|salary|earnings)[^0-9\\n]{0,20}([0-9][0-9,]*(?:\\.\\d{1,2})?)");
+    
+    @Autowired
+    private LoanDocumentRepository documentRepository;
+    
+    @Autowired
+    private DocumentStorage documentStorage;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${ocr.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${ocr.worker-threads:2}")
+    private int workerThreads;
+    
+    @Value("${ocr.page-threads:2}")
+    private int pageThreads;
+    
+    @Value("${ocr.queue-capacity:200}")
+    private int queueCapacity;
+    
+    @Value("${ocr.tessdata-path:}")
+    private String tessdataPath;
+    
+    @Value("${ocr.language:eng}")
+    private String language;
+    
+    @Value("${ocr.max-pages:5}")
+    private int maxPages;
+    
+    @Value("${ocr.processing-lease-minutes:15}")
+    private long processingLeaseMinutes;
+    
+    private ThreadPoolExecutor workers;
+    private ExecutorService ocrPagePool;
+    // Documents queued or running on this node
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<ITesseract> tesseracts = ThreadLocal.withInitial(this::newTesseract);
+    
+    private Timer ocrPageTimer;
+    private Timer textLayerPageTimer;
+    private Counter completedDocuments;
+    private Counter reusedDocuments;
+    private Counter skippedDocuments;
+    private Counter failedDocuments;
+    
+    @PostConstruct
+    public void init() {
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("ocr-worker-"));
+        // Bounded in practice by worker-threads x max-pages rendered pages
+        ocrPagePool = Executors.newFixedThreadPool(pageThreads, new CustomizableThreadFactory("ocr-page-"));
+        
+        Gauge.builder("document.ocr.queue.depth", workers, executor -> executor.getQueue().size())
+            .description("Documents waiting for text extraction")
+            .register(meterRegistry);
+        ocrPageTimer = Timer.builder("document.ocr.page")
+            .description("Time to extract text from one page")
+            .tag("method", "ocr")
+            .register(meterRegistry);
+        textLayerPageTimer = Timer.builder("document.ocr.page")
+            .description("Time to extract text from one page")
+            .tag("method", "text-layer")
+            .register(meterRegistry);
+        completedDocuments = outcomeCounter("completed");
+        reusedDocuments = outcomeCounter("reused");
+        skippedDocuments = outcomeCounter("skipped");
+        failedDocuments = outcomeCounter("failed");
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        ocrPagePool.shutdownNow();
+    }
+    
+    @Override
+    public void enqueue(Long documentId) {
+        if (!enabled) {
+            documentRepository.updateOcrStatus(documentId, OcrStatus.SKIPPED);
+            return;
+        }
+        submit(documentId);
+    }
+    
+    @Override
+    public Map<String, String> getExtractedFields(LoanDocument document) {
+        if (!StringUtils.hasText(document.getExtractedFieldsJson())) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(document.getExtractedFieldsJson(), FIELD_MAP);
+        } catch (Exception e) {
+            logger.warn("Unreadable extracted fields on document {}: {}", document.getId(), e.getMessage());
+            return Map.of();
+        }
+    }
+    
+    /**
+     * Picks up documents that could not be queued at upload time, were left pending by a
+     * restart, or were left PROCESSING past their lease.
+     */
+    @Scheduled(fixedDelayString = "${ocr.requeue-ms:120000}")
+    public void requeuePending() {
+        int capacity = workers.getQueue().remainingCapacity();
+        if (!enabled || capacity == 0) {
+            return;
+        }
+        List<Long> pending = documentRepository.findIdsByOcrStatusUploadedBefore(
+            OcrStatus.PENDING, LocalDateTime.now().minusMinutes(1), PageRequest.of(0, capacity));
+        for (Long documentId : pending) {
+            submit(documentId);
+        }
+        
+        capacity = workers.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<Long> expired = documentRepository.findIdsByOcrStatusStartedBefore(
+            OcrStatus.PROCESSING, leaseExpiredBefore(), PageRequest.of(0, capacity));
+        for (Long documentId : expired) {
+            logger.info("Extraction lease expired for document {}, requeueing", documentId);
+            submit(documentId);
+        }
+    }
+    
+    private void submit(Long documentId) {
+        if (!inFlight.add(documentId)) {
+            return;
+        }
+        try {
+            workers.execute(() -> process(documentId));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(documentId);
+            logger.debug("Extraction queue full, document {} stays pending", documentId);
+        }
+    }
+    
+    private void process(Long documentId) {
+        try {
+            LoanDocument document = documentRepository.findById(documentId).orElse(null);
+            if (document == null || (document.getOcrStatus() != OcrStatus.PENDING
+                    && document.getOcrStatus() != OcrStatus.PROCESSING)) {
+                return;
+            }
+            if (!isExtractable(document.getFileType())) {
+                documentRepository.updateOcrStatus(documentId, OcrStatus.SKIPPED);
+                skippedDocuments.increment();
+                return;
+            }
+            if (documentRepository.claimForExtraction(documentId, OcrStatus.PENDING, OcrStatus.PROCESSING,
+                    LocalDateTime.now(), leaseExpiredBefore()) == 0) {
+                // Another worker holds a live lease
+                return;
+            }
+            
+            if (document.getContentSha256() != null) {
+                Optional<LoanDocument> previous = documentRepository.findFirstByContentSha256AndOcrStatusAndIdNot(
+                    document.getContentSha256(), OcrStatus.COMPLETED, documentId);
+                if (previous.isPresent()) {
+                    documentRepository.updateOcrResult(documentId, OcrStatus.COMPLETED,
+                        maskIdentifiers(previous.get().getExtractedText()), previous.get().getExtractedFieldsJson(),
+                        previous.get().getOcrPageCount(), LocalDateTime.now());
+                    reusedDocuments.increment();
+                    return;
+                }
+            }
+            
+            ExtractedText extracted = extractText(document);
+            Map<String, String> fields = extractFields(document.getDocumentType(), extracted.text);
+            documentRepository.updateOcrResult(documentId, OcrStatus.COMPLETED, truncate(maskIdentifiers(extracted.text)),
+                objectMapper.writeValueAsString(fields), extracted.pageCount, LocalDateTime.now());
+            completedDocuments.increment();
+            logger.info("Extracted {} fields from document {} ({} pages, {} OCR'd)",
+                fields.size(), documentId, extracted.pageCount, extracted.ocrPageCount);
+            
+        } catch (Exception | LinkageError e) {
+            // LinkageError covers a missing native Tesseract library
+            logger.warn("Text extraction failed for document {}: {}", documentId, e.getMessage());
+            documentRepository.updateOcrStatus(documentId, OcrStatus.FAILED);
+            failedDocuments.increment();
+        } finally {
+            inFlight.remove(documentId);
+        }
+    }
+    
+    private ExtractedText extractText(LoanDocument document) throws IOException {
+        try (InputStream content = documentStorage.open(document.getPublicId())) {
+            if (PDF_TYPE.equals(document.getFileType())) {
+                return extractPdf(content);
+            }
+            
+            BufferedImage image = ImageIO.read(content);
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + document.getFileType());
+            }
+            return new ExtractedText(ocrAsync(image).join(), 1, 1);
+        }
+    }
+    
+    /**
+     * Reads up to max-pages pages in order. Text-layer pages complete immediately; scanned
+     * pages are rendered here, since a PDDocument must not be shared between threads, and
+     * recognised on the page pool while the next page is processed.
+     */
+    private ExtractedText extractPdf(InputStream content) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(new RandomAccessReadBuffer(content))) {
+            int pageCount = Math.min(pdf.getNumberOfPages(), maxPages);
+            PDFTextStripper stripper = new PDFTextStripper();
+            PDFRenderer renderer = null;
+            List<CompletableFuture<String>> pages = new ArrayList<>(pageCount);
+            int ocrPages = 0;
+            
+            for (int page = 0; page < pageCount; page++) {
+                String layerText = textLayer(stripper, pdf, page);
+                if (hasUsableText(layerText)) {
+                    pages.add(CompletableFuture.completedFuture(layerText));
+                    continue;
+                }
+                if (renderer == null) {
+                    renderer = new PDFRenderer(pdf);
+                }
+                BufferedImage image = renderer.renderImageWithDPI(page, RENDER_DPI, ImageType.GRAY);
+                pages.add(ocrAsync(image));
+                ocrPages++;
+            }
+            
+            StringBuilder text = new StringBuilder();
+            for (CompletableFuture<String> page : pages) {
+                text.append(page.join()).append('\n');
+            }
+            return new ExtractedText(text.toString(), pageCount, ocrPages);
+        }
+    }
+    
+    private String textLayer(PDFTextStripper stripper, PDDocument pdf, int page) throws IOException {
+        long start = System.nanoTime();
+        try {
+            stripper.setStartPage(page + 1);
+            stripper.setEndPage(page + 1);
+            return stripper.getText(pdf);
+        } finally {
+            textLayerPageTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+    
+    private boolean hasUsableText(String text) {
+        int significant = 0;
+        for (int i = 0; i < text.length() && significant < MIN_TEXT_LAYER_CHARS; i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                significant++;
+            }
+        }
+        return significant >= MIN_TEXT_LAYER_CHARS;
+    }
+    
+    private CompletableFuture<String> ocrAsync(BufferedImage image) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ocrPage(image);
+            } catch (TesseractException e) {
+                throw new CompletionException(e);
+            }
+        }, ocrPagePool);
+    }
+    
+    private String ocrPage(BufferedImage image) throws TesseractException {
+        long start = System.nanoTime();
+        try {
+            return tesseracts.get().doOCR(image);
+        } finally {
+            ocrPageTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+    
+    private Map<String, String> extractFields(DocumentType documentType, String text) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (!StringUtils.hasText(text)) {
+            return fields;
+        }
+        
+        // PAN appears on salary slips and Form 16 as well as the card itself
+        Matcher pan = PAN_PATTERN.matcher(text.toUpperCase());
+        if (pan.find()) {
+            fields.put("panNumber", pan.group(1));
+        }
+        
+        if (documentType == DocumentType.AADHAAR_CARD) {
+            Matcher aadhaar = AADHAAR_PATTERN.matcher(text);
+            if (aadhaar.find()) {
+                // Only the last four digits are kept
+                fields.put("aadhaarLast4", aadhaar.group(1));
+            }
+        }
+        
+        String name = findName(text);
+        if (name != null) {
+            fields.put("name", name);
+        }
+        
+        Matcher dateOfBirth = DATE_OF_BIRTH_PATTERN.matcher(text);
+        if (isIdentityDocument(documentType) && dateOfBirth.find()) {
+            fields.put("dateOfBirth", dateOfBirth.group(1));
+        }
+        
+        if (documentType == DocumentType.SALARY_SLIP || documentType == DocumentType.FORM_16) {
+            putAmount(fields, "netSalary", NET_SALARY_PATTERN.matcher(text));
+            putAmount(fields, "grossSalary", GROSS_SALARY_PATTERN.matcher(text));
+        }
+        return fields;
+    }
+    
+    /**
+     * Name printed after a "Name" label, either on the same line or the next non-blank one
+     */
+    private String findName(String text) {
+        String[] lines = text.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            Matcher label = NAME_LABEL_PATTERN.matcher(lines[i]);
+            if (!label.matches()) {
+                continue;
+            }
+            String candidate = label.group(1).trim();
+            for (int next = i + 1; candidate.isEmpty() && next < lines.length; next++) {
+                candidate = lines[next].trim();
+            }
+            if (PERSON_NAME_PATTERN.matcher(candidate).matches()) {
+                return candidate.replaceAll("\\s+", " ");
+            }
+        }
+        return null;
+    }
+    
+    private void putAmount(Map<String, String> fields, String key, Matcher matcher) {
+        if (matcher.find()) {
+            fields.put(key, matcher.group(1).replace(",", ""));
+        }
+    }
+    
+    private boolean isIdentityDocument(DocumentType documentType) {
+        return documentType == DocumentType.PAN_CARD || documentType == DocumentType.AADHAAR_CARD
+            || documentType == DocumentType.PASSPORT || documentType == DocumentType.DRIVING_LICENSE
+            || documentType == DocumentType.VOTER_ID;
+    }
+    
+    private boolean isExtractable(String fileType) {
+        return fileType != null && (PDF_TYPE.equals(fileType) || fileType.startsWith("image/"));
+    }
+    
+    /**
+     * Replaces all but the last four characters of PAN and Aadhaar numbers with X,
+     * keeping the spacing of Aadhaar numbers
+     */
+    private static String maskIdentifiers(String text) {
+        if (text == null) {
+            return null;
+        }
+        String masked = PAN_MASK_PATTERN.matcher(text).replaceAll("XXXXXX$1");
+        return AADHAAR_MASK_PATTERN.matcher(masked).replaceAll("XXXX$1XXXX$2$3");
+    }
+    
+    private LocalDateTime leaseExpiredBefore() {
+        return LocalDateTime.now().minusMinutes(processingLeaseMinutes);
+    }
+    
+    private String truncate(String text) {
+        return text.length() > MAX_STORED_TEXT ? text.substring(0, MAX_STORED_TEXT) : text;
+    }
+    
+    private ITesseract newTesseract() {
+        Tesseract tesseract = new Tesseract();
+        if (StringUtils.hasText(tessdataPath)) {
+            tesseract.setDatapath(tessdataPath);
+        }
+        tesseract.setLanguage(language);
+        tesseract.setVariable("user_defined_dpi", String.valueOf((int) RENDER_DPI));
+        return tesseract;
+    }
+    
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("document.ocr.documents")
+            .description("Documents processed by text extraction")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+    
+    private static final class ExtractedText {
+        private final String text;
+        private final int pageCount;
+        private final int ocrPageCount; // Pages that had no text layer
+        
+        private ExtractedText(String text, int pageCount, int ocrPageCount) {
+            this.text = text;
+            this.pageCount = pageCount;
+            this.ocrPageCount = ocrPageCount;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.tss.loan.service.impl;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.tss.loan.entity.loan.LoanDocument;
+import com.tss.loan.repository.LoanDocumentRepository;
+import com.tss.loan.service.DocumentAccessService;
+import com.tss.loan.service.DocumentRenditionService;
+import com.tss.loan.service.DocumentStorage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background thumbnail and preview generation.
+ *
+ * The first page of a PDF is rendered with PDFBox at preview width; images are decoded
+ * with source subsampling so a phone-camera JPEG is never expanded to full resolution.
+ * The preview is then downscaled again for the thumbnail and both are stored as JPEG
+ * under renditions/{sha256}/, so identical content shares one set of renditions.
+ * Renditions are optional: when the queue is full the document simply has none and
+ * clients fall back to the original file.
+ */
+@Service
+public class DocumentRenditionServiceImpl implements DocumentRenditionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DocumentRenditionServiceImpl.class);
+    
+    private static final String PDF_TYPE = "application/pdf";
+    private static final String JPEG_TYPE = "image/jpeg";
+    private static final String RENDITION_PREFIX = "renditions/";
+    private static final float JPEG_QUALITY = 0.8f;
+    
+    @Autowired
+    private LoanDocumentRepository documentRepository;
+    
+    @Autowired
+    private DocumentStorage documentStorage;
+    
+    @Autowired
+    private DocumentAccessService documentAccessService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${rendition.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${rendition.worker-threads:2}")
+    private int workerThreads;
+    
+    @Value("${rendition.queue-capacity:200}")
+    private int queueCapacity;
+    
+    @Value("${rendition.preview-width:1024}")
+    private int previewWidth;
+    
+    @Value("${rendition.thumbnail-width:240}")
+    private int thumbnailWidth;
+    
+    private ThreadPoolExecutor workers;
+    private Timer renditionTimer;
+    private Counter skippedRenditions;
+    
+    @PostConstruct
+    public void init() {
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("rendition-"));
+        renditionTimer = Timer.builder("document.rendition")
+            .description("Time to generate a document's thumbnail and preview")
+            .register(meterRegistry);
+        skippedRenditions = Counter.builder("document.rendition.skipped")
+            .description("Documents left without renditions because the queue was full or generation failed")
+            .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+    
+    @Override
+    public void enqueue(Long documentId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            workers.execute(() -> generate(documentId));
+        } catch (RejectedExecutionException e) {
+            skippedRenditions.increment();
+            logger.debug("Rendition queue full, document {} has no preview", documentId);
+        }
+    }
+    
+    @Override
+    public void deleteRenditions(String contentSha256) {
+        for (String objectName : new String[] { thumbnailName(contentSha256), previewName(contentSha256) }) {
+            try {
+                documentStorage.delete(objectName);
+            } catch (IOException e) {
+                logger.warn("Failed to remove rendition {}: {}", objectName, e.getMessage());
+            }
+        }
+    }
+    
+    @Override
+    public String getThumbnailUrl(LoanDocument document) {
+        return documentAccessService.getRenditionUrl(document, DocumentAccessService.THUMBNAIL);
+    }
+    
+    @Override
+    public String getPreviewUrl(LoanDocument document) {
+        return documentAccessService.getRenditionUrl(document, DocumentAccessService.PREVIEW);
+    }
+    
+    private void generate(Long documentId) {
+        long start = System.nanoTime();
+        try {
+            LoanDocument document = documentRepository.findById(documentId).orElse(null);
+            if (document == null || document.getContentSha256() == null || !isRenderable(document.getFileType())) {
+                return;
+            }
+            
+            Optional<LoanDocument> existing =
+                documentRepository.findFirstByContentSha256AndPreviewObjectNameIsNotNull(document.getContentSha256());
+            if (existing.isPresent()) {
+                documentRepository.updateRenditions(documentId,
+                    existing.get().getThumbnailObjectName(), existing.get().getPreviewObjectName());
+                return;
+            }
+            
+            BufferedImage preview;
+            try (InputStream content = documentStorage.open(document.getPublicId())) {
+                preview = PDF_TYPE.equals(document.getFileType()) ? renderFirstPage(content) : decodeImage(content);
+            }
+            preview = scaleToWidth(preview, previewWidth);
+            BufferedImage thumbnail = scaleToWidth(preview, thumbnailWidth);
+            
+            String previewName = previewName(document.getContentSha256());
+            String thumbnailName = thumbnailName(document.getContentSha256());
+            storeJpeg(previewName, preview);
+            storeJpeg(thumbnailName, thumbnail);
+            documentRepository.updateRenditions(documentId, thumbnailName, previewName);
+            renditionTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            
+        } catch (Exception e) {
+            skippedRenditions.increment();
+            logger.warn("Rendition failed for document {}: {}", documentId, e.getMessage());
+        }
+    }
+    
+    private BufferedImage renderFirstPage(InputStream content) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(new RandomAccessReadBuffer(content))) {
+            if (pdf.getNumberOfPages() == 0) {
+                throw new IOException("PDF has no pages");
+            }
+            float pageWidth = pdf.getPage(0).getMediaBox().getWidth();
+            float scale = pageWidth > 0 ? previewWidth / pageWidth : 1f;
+            return new PDFRenderer(pdf).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+    
+    /**
+     * Decodes at roughly preview resolution by skipping source pixels instead of
+     * decoding the full image and scaling it down afterwards.
+     */
+    private BufferedImage decodeImage(InputStream content) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int step = Math.max(1, reader.getWidth(0) / previewWidth);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+    
+    /**
+     * Scales down to the target width (never up) and flattens to RGB for JPEG output
+     */
+    private BufferedImage scaleToWidth(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, Math.round(source.getHeight() * (targetWidth / (float) source.getWidth())));
+        if (targetWidth == source.getWidth() && source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(java.awt.Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+    
+    private void storeJpeg(String objectName, BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * 1024);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        
+        byte[] jpeg = bytes.toByteArray();
+        documentStorage.store(objectName, new ByteArrayInputStream(jpeg), jpeg.length, JPEG_TYPE);
+    }
+    
+    private boolean isRenderable(String fileType) {
+        return fileType != null && (PDF_TYPE.equals(fileType) || fileType.startsWith("image/"));
+    }
+    
+    private String previewName(String contentSha256) {
+        return RENDITION_PREFIX + contentSha256 + "/preview.jpg";
+    }
+    
+    private String thumbnailName(String contentSha256) {
+        return RENDITION_PREFIX + contentSha256 + "/thumbnail.jpg";
+    }
+}
@@ -1,64 +1,115 @@
 package com.tss.loan.service.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+import com.tss.loan.entity.loan.DocumentBlob;
 import com.tss.loan.entity.loan.LoanApplication;
 import com.tss.loan.entity.loan.LoanDocument;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
 
+import com.tss.loan.entity.enums.ApplicationStatus;
 import com.tss.loan.entity.enums.DocumentType;
+import com.tss.loan.entity.enums.VerificationStatus;
 import com.tss.loan.entity.user.User;
 import com.tss.loan.exception.LoanApiException;
+import com.tss.loan.mapper.LoanDocumentMapper;
+import com.tss.loan.repository.DocumentBlobRepository;
 import com.tss.loan.repository.LoanApplicationRepository;
 import com.tss.loan.repository.LoanDocumentRepository;
 import com.tss.loan.entity.enums.NotificationType;
 import com.tss.loan.service.AuditLogService;
+import com.tss.loan.service.DocumentAccessService;
+import com.tss.loan.service.DocumentExtractionService;
+import com.tss.loan.service.DocumentRenditionService;
+import com.tss.loan.service.DocumentStorage;
 import com.tss.loan.service.DocumentUploadService;
 import com.tss.loan.service.NotificationService;
+import com.tss.loan.dto.response.BatchDocumentUploadResponse;
 import com.tss.loan.dto.response.DocumentUploadResponse;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 public class DocumentUploadServiceImpl implements DocumentUploadService {
 
-    private final WebClient webClient;
+    private final DocumentStorage documentStorage;
     private final LoanApplicationRepository loanApplicationRepository;
     private final LoanDocumentRepository documentRepository;
+    private final DocumentBlobRepository documentBlobRepository;
     private final AuditLogService auditLogService;
     private final NotificationService notificationService;
+    private final DocumentExtractionService documentExtractionService;
+    private final DocumentRenditionService documentRenditionService;
+    private final DocumentAccessService documentAccessService;
+    private final LoanDocumentMapper loanDocumentMapper;
+    private final ExecutorService uploadExecutor;
+    private final TransactionTemplate transactionTemplate;
     
-    @Value("${supabase.url}")
-    private String supabaseUrl;
+    @Value("${storage.blob-grace-minutes:60}")
+    private long blobGraceMinutes;
     
-    @Value("${supabase.service.key}")
-    private String serviceKey;
-    
-    @Value("${supabase.bucket.name}")
-    private String bucketName;
-    
-    public DocumentUploadServiceImpl(WebClient webClient, 
+    public DocumentUploadServiceImpl(DocumentStorage documentStorage, 
                                    LoanApplicationRepository loanApplicationRepository,
                                    LoanDocumentRepository documentRepository,
+                                   DocumentBlobRepository documentBlobRepository,
                                    AuditLogService auditLogService,
-                                   NotificationService notificationService) {
-        this.webClient = webClient;
+                                   NotificationService notificationService,
+                                   DocumentExtractionService documentExtractionService,
+                                   DocumentRenditionService documentRenditionService,
+                                   DocumentAccessService documentAccessService,
+                                   LoanDocumentMapper loanDocumentMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${storage.upload-parallelism:4}") int uploadParallelism) {
+        this.documentStorage = documentStorage;
         this.loanApplicationRepository = loanApplicationRepository;
         this.documentRepository = documentRepository;
+        this.documentBlobRepository = documentBlobRepository;
         this.auditLogService = auditLogService;
         this.notificationService = notificationService;
+        this.documentExtractionService = documentExtractionService;
+        this.documentRenditionService = documentRenditionService;
+        this.documentAccessService = documentAccessService;
+        this.loanDocumentMapper = loanDocumentMapper;
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadParallelism,
+            new CustomizableThreadFactory("document-upload-"));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
     }
     
     // Allowed file types for different document types
@@ -72,10 +123,29 @@ public class DocumentUploadServiceImpl implements DocumentUploadService {
     
     // Maximum file size: 5MB
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
+    
+    // Documents that must be uploaded before the application can be submitted
+    private static final List<DocumentType> REQUIRED_DOCUMENT_TYPES = Arrays.asList(
+        DocumentType.PAN_CARD,
+        DocumentType.AADHAAR_CARD,
+        DocumentType.SALARY_SLIP,
+        DocumentType.BANK_STATEMENT,
+        DocumentType.EMPLOYMENT_CERTIFICATE
+    );
+    
+    // Content-addressed objects are stored as blobs/{sha256}; uploads are staged under uploads/ until hashed
+    private static final String BLOB_PREFIX = "blobs/";
+    private static final String STAGING_PREFIX = "uploads/";
 
     @Override
     public LoanDocument uploadDocument(MultipartFile file, DocumentType documentType,
                                        UUID loanApplicationId, User uploadedBy) throws IOException {
+        return uploadDocument(file, documentType, loanApplicationId, uploadedBy,
+            loadUploadContext(loanApplicationId, uploadedBy));
+    }
+    
+    private LoanDocument uploadDocument(MultipartFile file, DocumentType documentType, UUID loanApplicationId,
+                                        User uploadedBy, UploadContext context) throws IOException {
         
         log.info("Uploading document: {} for loan application: {}", file.getOriginalFilename(), loanApplicationId);
         
@@ -85,82 +155,10 @@ public class DocumentUploadServiceImpl implements DocumentUploadService {
         }
         
         try {
-            // Create unique filename
-            String originalFileName = file.getOriginalFilename();
-            String fileExtension = originalFileName != null && originalFileName.contains(".") 
-                ? originalFileName.substring(originalFileName.lastIndexOf(".")) : "";
-            String uniqueFileName = generatePublicId(documentType, uploadedBy.getId()) + fileExtension;
-            
-            // Upload to Supabase Storage
-            String uploadUrl = supabaseUrl + "/storage/v1/object/" + bucketName + "/" + uniqueFileName;
-            
-            webClient.post()
-                .uri(uploadUrl)
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
-                .header(HttpHeaders.CONTENT_TYPE, file.getContentType())
-                .body(BodyInserters.fromResource(new ByteArrayResource(file.getBytes())))
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-            
-            // Generate public URL
-            String fileUrl = supabaseUrl + "/storage/v1/object/public/" + bucketName + "/" + uniqueFileName;
-            
-            // Get the loan application
-            LoanApplication loanApplication = loanApplicationRepository.findById(loanApplicationId)
-                .orElseThrow(() -> new LoanApiException("Loan application not found"));
-            
             // Check if document can be uploaded (prevent overwriting verified documents)
-            validateDocumentUpload(loanApplicationId, documentType, uploadedBy);
-            
-            // Create document entity
-            LoanDocument document = new LoanDocument();
-            document.setLoanApplication(loanApplication);
-            document.setDocumentType(documentType);
-            document.setFileName(file.getOriginalFilename());
-            document.setFilePath(fileUrl);
-            document.setPublicId(uniqueFileName);
-            document.setFileType(file.getContentType());
-            document.setFileSize(file.getSize());
-            document.setUploadedBy(uploadedBy);
-            document.setVerificationStatus(com.tss.loan.entity.enums.VerificationStatus.PENDING);
-            
-            // Tag as compliance-only if application is in PENDING_COMPLIANCE_DOCS status
-            if (loanApplication.getStatus() == com.tss.loan.entity.enums.ApplicationStatus.PENDING_COMPLIANCE_DOCS) {
-                document.setVerificationNotes("[COMPLIANCE_ONLY] Document requested by compliance officer");
-            }
-            
-            // Save to database
-            LoanDocument savedDocument = documentRepository.save(document);
-            
-            // If this is a compliance document upload, update application status if needed
-            if (loanApplication.getStatus() == com.tss.loan.entity.enums.ApplicationStatus.PENDING_COMPLIANCE_DOCS) {
-                // Status will remain PENDING_COMPLIANCE_DOCS until compliance officer reviews
-                // This ensures alert stays until documents are reviewed
-                loanApplication.setUpdatedAt(java.time.LocalDateTime.now());
-                loanApplicationRepository.save(loanApplication);
-            }
+            context.checkNotVerified(documentType);
             
-            // Audit log
-            auditLogService.logAction(uploadedBy, "DOCUMENT_UPLOADED", "LoanDocument", null,
-                "Document uploaded: " + documentType + " for loan application: " + loanApplicationId);
-            
-            // Send notification
-            try {
-                notificationService.createNotification(
-                    uploadedBy,
-                    NotificationType.IN_APP,
-                    "Document Uploaded Successfully",
-                    "Your " + documentType + " document has been uploaded successfully and is pending verification."
-                );
-            } catch (Exception e) {
-                log.error("Failed to create notification", e);
-            }
-            
-            log.info("Document uploaded successfully: {} | URL: {}", 
-                savedDocument.getFileName(), savedDocument.getFilePath());
-            
-            return savedDocument;
+            return storeDocument(file, documentType, loanApplicationId, uploadedBy, context);
             
         } catch (LoanApiException e) {
             // Re-throw business logic exceptions without wrapping
@@ -172,9 +170,62 @@ public class DocumentUploadServiceImpl implements DocumentUploadService {
             throw new IOException("Failed to upload document: " + e.getMessage());
         }
     }
+    
+    /**
+     * Stores one validated file and records it in the context, so callers can report
+     * document counts without reading the document list back.
+     */
+    private LoanDocument storeDocument(MultipartFile file, DocumentType documentType, UUID loanApplicationId,
+                                       User uploadedBy, UploadContext context) throws IOException {
+        // Store the content, or reuse an identical blob that is already stored
+        String contentSha256 = storeContent(file);
+        
+        // Create document entity; the application is only referenced by id
+        LoanDocument document = buildDocument(loanApplicationRepository.getReferenceById(loanApplicationId),
+            file, documentType, contentSha256, uploadedBy, context.isCompliancePending());
+        
+        // The document row, its audit entry and the notification commit together
+        LoanDocument savedDocument;
+        try {
+            savedDocument = transactionTemplate.execute(status -> {
+                LoanDocument saved = documentRepository.save(document);
+                
+                // If this is a compliance document upload, update application status if needed
+                if (context.isCompliancePending()) {
+                    // Status will remain PENDING_COMPLIANCE_DOCS until compliance officer reviews
+                    // This ensures alert stays until documents are reviewed
+                    loanApplicationRepository.touchUpdatedAt(loanApplicationId, LocalDateTime.now());
+                }
+                
+                auditLogService.logAction(uploadedBy, "DOCUMENT_UPLOADED", "LoanDocument", null,
+                    "Document uploaded: " + documentType + " for loan application: " + loanApplicationId);
+                notifyUploaded(uploadedBy, List.of(documentType));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            releaseContent(contentSha256);
+            throw e;
+        }
+        context.recordUpload(documentType);
+        
+        // Workers read the row, so they start once it is committed
+        documentExtractionService.enqueue(savedDocument.getId());
+        documentRenditionService.enqueue(savedDocument.getId());
+        
+        log.info("Document uploaded successfully: {} | URL: {}", 
+            savedDocument.getFileName(), savedDocument.getFilePath());
+        
+        return savedDocument;
+    }
 
+    /**
+     * Validates every file against a single upload-context query,
+     * streams the accepted files to storage in parallel (bounded by the upload pool),
+     * then saves all rows, one audit entry per document and one notification in one transaction.
+     * Files that are rejected or fail to store are reported individually.
+     */
     @Override
-    public List<LoanDocument> uploadMultipleDocuments(List<MultipartFile> files, 
+    public BatchDocumentUploadResponse uploadMultipleDocuments(List<MultipartFile> files, 
                                                     List<DocumentType> documentTypes,
                                                     UUID loanApplicationId, User uploadedBy) throws IOException {
         
@@ -182,36 +233,117 @@ public class DocumentUploadServiceImpl implements DocumentUploadService {
             throw new LoanApiException("Number of files must match number of document types");
         }
         
-        List<LoanDocument> uploadedDocuments = new ArrayList<>();
-        StringBuilder errorMessages = new StringBuilder();
+        UploadContext context = loadUploadContext(loanApplicationId, uploadedBy);
         
+        // Validate everything before any bytes leave the server
+        List<BatchDocumentUploadResponse.FileFailure> failures = new ArrayList<>();
+        List<Integer> accepted = new ArrayList<>();
         for (int i = 0; i < files.size(); i++) {
-            try {
-                LoanDocument document = uploadDocument(files.get(i), documentTypes.get(i), 
-                                                     loanApplicationId, uploadedBy);
-                uploadedDocuments.add(document);
-            } catch (LoanApiException e) {
-                // For business logic errors (like verified document protection), throw immediately
-                log.error("Failed to upload document {}: {}", i, e.getMessage());
-                throw e; // Re-throw to provide proper error response
-            } catch (Exception e) {
-                log.error("Failed to upload document {}: {}", i, e.getMessage());
-                if (errorMessages.length() > 0) {
-                    errorMessages.append("; ");
+            MultipartFile file = files.get(i);
+            DocumentType documentType = documentTypes.get(i);
+            if (!validateDocument(file, documentType)) {
+                failures.add(failure(i, file, documentType, "Invalid document type or size"));
+            } else if (context.isVerified(documentType)) {
+                failures.add(failure(i, file, documentType,
+                    "A verified " + documentType.toString().replace("_", " ") + " document already exists"));
+            } else {
+                accepted.add(i);
+            }
+        }
+        
+        LoanApplication loanApplication = loanApplicationRepository.getReferenceById(loanApplicationId);
+        
+        // Store accepted files concurrently; content that is already stored is only referenced
+        Map<Integer, CompletableFuture<String>> uploads = new LinkedHashMap<>();
+        for (int i : accepted) {
+            MultipartFile file = files.get(i);
+            uploads.put(i, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return storeContent(file);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
                 }
-                errorMessages.append(String.format("Document %d (%s): %s", 
-                    i + 1, documentTypes.get(i), e.getMessage()));
+            }, uploadExecutor));
+        }
+        
+        List<LoanDocument> documents = new ArrayList<>();
+        for (Map.Entry<Integer, CompletableFuture<String>> upload : uploads.entrySet()) {
+            int i = upload.getKey();
+            MultipartFile file = files.get(i);
+            DocumentType documentType = documentTypes.get(i);
+            try {
+                String contentSha256 = upload.getValue().join();
+                documents.add(buildDocument(loanApplication, file, documentType, contentSha256, uploadedBy,
+                    context.isCompliancePending()));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("Failed to upload document {}: {}", i, cause.getMessage());
+                failures.add(failure(i, file, documentType, cause.getMessage()));
             }
         }
         
-        // If there were any technical errors (not business logic errors), throw with details
-        if (errorMessages.length() > 0 && uploadedDocuments.isEmpty()) {
-            throw new IOException("Failed to upload documents: " + errorMessages.toString());
+        List<LoanDocument> savedDocuments = new ArrayList<>();
+        if (!documents.isEmpty()) {
+            try {
+                savedDocuments = transactionTemplate.execute(status -> {
+                    List<LoanDocument> saved = documentRepository.saveAll(documents);
+                    if (context.isCompliancePending()) {
+                        loanApplicationRepository.touchUpdatedAt(loanApplicationId, LocalDateTime.now());
+                    }
+                    
+                    auditLogService.logAll(saved.stream()
+                        .map(doc -> auditLogService.prepare(uploadedBy, "DOCUMENT_UPLOADED", "LoanDocument", null,
+                            "Document uploaded: " + doc.getDocumentType() + " for loan application: " + loanApplicationId))
+                        .collect(Collectors.toList()));
+                    notifyUploaded(uploadedBy,
+                        saved.stream().map(LoanDocument::getDocumentType).collect(Collectors.toList()));
+                    return saved;
+                });
+            } catch (Exception e) {
+                // Rows were not written, so give back the blob references taken for them
+                documents.forEach(doc -> releaseContent(doc.getContentSha256()));
+                throw new IOException("Failed to save uploaded documents: " + e.getMessage());
+            }
+            for (LoanDocument doc : savedDocuments) {
+                documentExtractionService.enqueue(doc.getId());
+                documentRenditionService.enqueue(doc.getId());
+            }
         }
         
-        return uploadedDocuments;
+        failures.sort(Comparator.comparingInt(BatchDocumentUploadResponse.FileFailure::getIndex));
+        log.info("Batch upload for application {}: {} stored, {} failed", 
+            loanApplicationId, savedDocuments.size(), failures.size());
+        
+        return BatchDocumentUploadResponse.builder()
+            .applicationId(loanApplicationId)
+            .totalFiles(files.size())
+            .uploadedCount(savedDocuments.size())
+            .failedCount(failures.size())
+            .uploadedDocuments(loanDocumentMapper.toResponseList(savedDocuments))
+            .failures(failures)
+            .build();
     }
 
+    /**
+     * Tells the uploader their documents were received; a failed notification does not fail the upload
+     */
+    private void notifyUploaded(User uploadedBy, List<DocumentType> documentTypes) {
+        String uploadedTypes = documentTypes.stream().map(DocumentType::toString).collect(Collectors.joining(", "));
+        boolean single = documentTypes.size() == 1;
+        try {
+            notificationService.createNotification(
+                uploadedBy,
+                NotificationType.IN_APP,
+                single ? "Document Uploaded Successfully" : "Documents Uploaded Successfully",
+                single
+                    ? "Your " + uploadedTypes + " document has been uploaded successfully and is pending verification."
+                    : "Your " + uploadedTypes + " documents have been uploaded successfully and are pending verification."
+            );
+        } catch (Exception e) {
+            log.error("Failed to create notification", e);
+        }
+    }
+    
     @Override
     public boolean deleteDocument(Long documentId, User user) throws IOException {
         log.info("Deleting document: {}", documentId);
@@ -220,22 +352,20 @@ public class DocumentUploadServiceImpl implements DocumentUploadService {
             .orElseThrow(() -> new LoanApiException("Document not found"));
         
         try {
-            // Delete from Supabase Storage if publicId exists
-            if (document.getPublicId() != null && !document.getPublicId().isEmpty()) {
-                String deleteUrl = supabaseUrl + "/storage/v1/object/" + bucketName + "/" + document.getPublicId();
-                
-                webClient.delete()
-                    .uri(deleteUrl)
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-                    
-                log.info("File deleted from Supabase: {}", document.getPublicId());
+            boolean sharedBlob = document.getContentSha256() != null && document.getPublicId() != null
+                && document.getPublicId().startsWith(BLOB_PREFIX);
+            
+            // Delete from storage if publicId exists; shared blobs are purged once unreferenced
+            if (!sharedBlob && document.getPublicId() != null && !document.getPublicId().isEmpty()) {
+                documentStorage.delete(document.getPublicId());
+                log.info("File deleted from storage: {}", document.getPublicId());
             }
             
             // Delete from database
             documentRepository.delete(document);
+            if (sharedBlob) {
+                releaseContent(document.getContentSha256());
+            }
             
             // Audit log
             auditLogService.logAction(user, "DOCUMENT_DELETED", "LoanDocument", null,
@@ -262,9 +392,9 @@ public class DocumentUploadServiceImpl implements DocumentUploadService {
     }
 
     @Override
-    public String getDocumentUrl(Long documentId) {
-        LoanDocument document = getDocumentById(documentId);
-        return document.getFilePath();
+    public String getDocumentUrl(Long documentId, User user) {
+        LoanDocument document = documentAccessService.getReadableDocument(documentId, user);
+        return documentAccessService.getAccessUrl(document);
     }
 
     @Override
@@ -309,42 +439,181 @@ public class DocumentUploadServiceImpl implements DocumentUploadService {
     }
     
     /**
-     * Generate unique public ID for Supabase Storage
+     * Stores the file content once per SHA-256. The multipart temp file is hashed first and
+     * the reference taken before storage is checked, so the purge cannot delete the object
+     * in between; content already stored costs no transfer. New content is streamed to a
+     * staging object and moved to blobs/{sha256}, so concurrent uploads of it never expose a
+     * partial object. Returns the hash; the caller holds a reference to it.
+     */
+    private String storeContent(MultipartFile file) throws IOException {
+        String contentSha256 = hashContent(file);
+        String objectName = blobObjectName(contentSha256);
+        documentBlobRepository.addReference(contentSha256, objectName, file.getContentType(), file.getSize(),
+            LocalDateTime.now());
+        
+        try {
+            if (documentStorage.exists(objectName)) {
+                log.info("Reusing stored blob {} for {}", objectName, file.getOriginalFilename());
+                return contentSha256;
+            }
+            String stagingName = STAGING_PREFIX + UUID.randomUUID();
+            try {
+                String storedSha256 = streamToStorage(file, stagingName);
+                if (!storedSha256.equals(contentSha256)) {
+                    throw new IOException("Content of " + file.getOriginalFilename() + " changed while uploading");
+                }
+                documentStorage.moveIfAbsent(stagingName, objectName);
+            } catch (IOException e) {
+                deleteFromStorageQuietly(stagingName);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            releaseContent(contentSha256);
+            throw e;
+        }
+        return contentSha256;
+    }
+    
+    private String hashContent(MultipartFile file) throws IOException {
+        MessageDigest sha256 = newSha256();
+        try (InputStream content = new DigestInputStream(file.getInputStream(), sha256)) {
+            content.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+    
+    private void releaseContent(String contentSha256) {
+        if (contentSha256 != null) {
+            documentBlobRepository.releaseReference(contentSha256, LocalDateTime.now());
+        }
+    }
+    
+    /**
+     * Removes blobs that have had no references for the grace period. The grace period lets a
+     * re-upload of recently deleted content reuse the blob instead of storing it again.
+     *
+     * Each blob is purged in its own transaction holding the row lock: the objects are deleted
+     * first and the row last, so an upload taking a reference meanwhile waits, then finds the
+     * object gone and stores it again. A failed delete rolls back and is retried next sweep.
+     */
+    @Scheduled(fixedDelayString = "${storage.blob-sweep-ms:3600000}")
+    public void purgeUnreferencedBlobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(blobGraceMinutes);
+        for (DocumentBlob candidate : documentBlobRepository.findUnreferencedBefore(cutoff, PageRequest.of(0, 100))) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> documentBlobRepository
+                    .findUnreferencedForUpdate(candidate.getId())
+                    .ifPresent(this::purgeBlob));
+            } catch (RuntimeException e) {
+                log.warn("Failed to purge blob {}: {}", candidate.getObjectName(), e.getMessage());
+            }
+        }
+    }
+    
+    private void purgeBlob(DocumentBlob blob) {
+        try {
+            documentStorage.delete(blob.getObjectName());
+            // Blobs first stored with a file extension are also held under the plain name
+            String objectName = blobObjectName(blob.getContentSha256());
+            if (!objectName.equals(blob.getObjectName())) {
+                documentStorage.delete(objectName);
+                documentAccessService.evict(objectName);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        documentAccessService.evict(blob.getObjectName());
+        documentRenditionService.deleteRenditions(blob.getContentSha256());
+        documentBlobRepository.deleteIfUnreferenced(blob.getId());
+        log.info("Purged unreferenced blob {}", blob.getObjectName());
+    }
+    
+    /**
+     * Streams the multipart content to storage without copying the whole file onto
+     * the heap. The SHA-256 is computed as the bytes pass through; returns the hex digest.
+     */
+    private String streamToStorage(MultipartFile file, String objectName) throws IOException {
+        MessageDigest sha256 = newSha256();
+        long written;
+        try (InputStream content = new DigestInputStream(file.getInputStream(), sha256)) {
+            written = documentStorage.store(objectName, content, file.getSize(), file.getContentType());
+        }
+        
+        if (written != file.getSize()) {
+            throw new IOException("Uploaded " + written + " bytes but expected " + file.getSize());
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+    
+    private void deleteFromStorageQuietly(String objectName) {
+        try {
+            documentStorage.delete(objectName);
+        } catch (Exception e) {
+            log.warn("Failed to remove orphaned object {}: {}", objectName, e.getMessage());
+        }
+    }
+    
+    /**
+     * The content type is the uploader's, kept per document, since identical bytes may be
+     * uploaded under different names and types
      */
-    private String generatePublicId(DocumentType documentType, UUID userId) {
-        return String.format("%s_%s_%d", 
-            documentType.toString().toLowerCase(),
-            userId.toString().substring(0, 8),
-            System.currentTimeMillis()
-        );
+    private LoanDocument buildDocument(LoanApplication loanApplication, MultipartFile file, DocumentType documentType,
+                                       String contentSha256, User uploadedBy, boolean complianceOnly) {
+        LoanDocument document = new LoanDocument();
+        document.setLoanApplication(loanApplication);
+        document.setDocumentType(documentType);
+        document.setFileName(file.getOriginalFilename());
+        document.setFilePath(documentStorage.publicUrl(blobObjectName(contentSha256)));
+        document.setPublicId(blobObjectName(contentSha256));
+        document.setFileType(file.getContentType());
+        document.setFileSize(file.getSize());
+        document.setContentSha256(contentSha256);
+        document.setUploadedBy(uploadedBy);
+        document.setVerificationStatus(com.tss.loan.entity.enums.VerificationStatus.PENDING);
+        document.setOcrStatus(com.tss.loan.entity.enums.OcrStatus.PENDING);
+        
+        // Tag as compliance-only if application is in PENDING_COMPLIANCE_DOCS status
+        if (complianceOnly) {
+            document.setVerificationNotes("[COMPLIANCE_ONLY] Document requested by compliance officer");
+        }
+        return document;
+    }
+    
+    private static String blobObjectName(String contentSha256) {
+        return BLOB_PREFIX + contentSha256;
+    }
+    
+    private BatchDocumentUploadResponse.FileFailure failure(int index, MultipartFile file, DocumentType documentType,
+                                                            String error) {
+        return BatchDocumentUploadResponse.FileFailure.builder()
+            .index(index)
+            .fileName(file.getOriginalFilename())
+            .documentType(documentType)
+            .error(error)
+            .build();
+    }
+    
+    private MessageDigest newSha256() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 not available", e);
+        }
     }
     
     @Override
     public DocumentUploadResponse uploadDocumentWithResponse(MultipartFile file, DocumentType documentType, 
                                                            UUID loanApplicationId, User uploadedBy) throws IOException {
         
-        // Upload the document first
-        LoanDocument document = uploadDocument(file, documentType, loanApplicationId, uploadedBy);
+        // Upload the document first; the context then reflects it without re-reading the documents
+        UploadContext context = loadUploadContext(loanApplicationId, uploadedBy);
+        LoanDocument document = uploadDocument(file, documentType, loanApplicationId, uploadedBy, context);
+        int totalUploaded = context.getDocumentCount();
         
-        // Get current document count for this application
-        List<LoanDocument> existingDocuments = documentRepository.findByLoanApplicationId(loanApplicationId);
-        int totalUploaded = existingDocuments.size();
-        
-        // Define required document types
-        List<DocumentType> requiredTypes = Arrays.asList(
-            DocumentType.PAN_CARD,
-            DocumentType.AADHAAR_CARD,
-            DocumentType.SALARY_SLIP,
-            DocumentType.BANK_STATEMENT,
-            DocumentType.EMPLOYMENT_CERTIFICATE
-        );
-        int requiredCount = requiredTypes.size();
+        int requiredCount = REQUIRED_DOCUMENT_TYPES.size();
         
         // Check if all required documents are uploaded
-        boolean canSubmit = existingDocuments.stream()
-            .map(LoanDocument::getDocumentType)
-            .collect(java.util.stream.Collectors.toSet())
-            .containsAll(requiredTypes);
+        boolean canSubmit = context.hasUploadedAll(REQUIRED_DOCUMENT_TYPES);
         
         // Build response
         DocumentUploadResponse.DocumentUploadResponseBuilder responseBuilder = DocumentUploadResponse.builder()
@@ -373,39 +642,109 @@ public class DocumentUploadServiceImpl implements DocumentUploadService {
     }
     
     /**
-     * Validate if a document can be uploaded (prevent overwriting verified documents)
+     * The transfer to storage is a blocking call (the storage SPI takes an InputStream), so it
+     * runs on the upload pool rather than on the servlet thread. The future is completed with
+     * the original exception, so LoanApiException still reaches the exception handler unwrapped.
      */
-    private void validateDocumentUpload(UUID loanApplicationId, DocumentType documentType, User uploadedBy) {
-        // Find existing documents of this type for the application
-        List<LoanDocument> existingDocs = documentRepository.findByLoanApplicationId(loanApplicationId)
-            .stream()
-            .filter(doc -> doc.getDocumentType() == documentType)
-            .collect(Collectors.toList());
-        
-        // Check if any existing document is verified
-        boolean hasVerifiedDocument = existingDocs.stream()
-            .anyMatch(doc -> doc.getVerificationStatus() == com.tss.loan.entity.enums.VerificationStatus.VERIFIED);
-        
-        if (hasVerifiedDocument) {
-            throw new LoanApiException(
-                org.springframework.http.HttpStatus.CONFLICT,
-                String.format(
-                    "Cannot upload %s document. A verified document of this type already exists. " +
-                    "Verified documents cannot be replaced. Please contact support if you need to update a verified document.",
-                    documentType.toString().replace("_", " ")
-                )
-            );
+    @Override
+    public CompletableFuture<DocumentUploadResponse> uploadDocumentAsync(MultipartFile file, DocumentType documentType,
+                                                                         UUID loanApplicationId, User uploadedBy) {
+        CompletableFuture<DocumentUploadResponse> result = new CompletableFuture<>();
+        // The request stays open until the future completes, so its details remain readable
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        uploadExecutor.execute(() -> {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                result.complete(uploadDocumentWithResponse(file, documentType, loanApplicationId, uploadedBy));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Loads ownership, status and the per-type state of existing documents with one
+     * projection query and checks that the user owns the application.
+     */
+    private UploadContext loadUploadContext(UUID loanApplicationId, User uploadedBy) {
+        List<LoanApplicationRepository.DocumentUploadRow> rows =
+            loanApplicationRepository.findDocumentUploadRows(loanApplicationId);
+        if (rows.isEmpty()) {
+            throw new LoanApiException("Loan application not found");
         }
         
-        // Additional validation: Check if user owns the application
-        LoanApplication application = loanApplicationRepository.findById(loanApplicationId)
-            .orElseThrow(() -> new LoanApiException("Application not found"));
-        
-        if (!application.getApplicant().getId().equals(uploadedBy.getId())) {
+        LoanApplicationRepository.DocumentUploadRow first = rows.get(0);
+        if (!first.getApplicantId().equals(uploadedBy.getId())) {
             throw new LoanApiException("You can only upload documents to your own applications");
         }
         
-        log.info("Document upload validation passed for {} document type {} by user {}", 
-            loanApplicationId, documentType, uploadedBy.getEmail());
+        UploadContext context = new UploadContext(first.getStatus());
+        for (LoanApplicationRepository.DocumentUploadRow row : rows) {
+            if (row.getDocumentType() != null) {
+                context.addExisting(row.getDocumentType(), row.getVerificationStatus());
+            }
+        }
+        return context;
+    }
+    
+    /**
+     * Upload state of one application, kept current as documents are added in this request
+     */
+    private static final class UploadContext {
+        private final ApplicationStatus status;
+        private final Set<DocumentType> uploadedTypes = EnumSet.noneOf(DocumentType.class);
+        private final Set<DocumentType> verifiedTypes = EnumSet.noneOf(DocumentType.class);
+        private int documentCount;
+        
+        private UploadContext(ApplicationStatus status) {
+            this.status = status;
+        }
+        
+        private void addExisting(DocumentType documentType, VerificationStatus verificationStatus) {
+            recordUpload(documentType);
+            if (verificationStatus == VerificationStatus.VERIFIED) {
+                verifiedTypes.add(documentType);
+            }
+        }
+        
+        private void recordUpload(DocumentType documentType) {
+            uploadedTypes.add(documentType);
+            documentCount++;
+        }
+        
+        private boolean isCompliancePending() {
+            return status == ApplicationStatus.PENDING_COMPLIANCE_DOCS;
+        }
+        
+        private boolean isVerified(DocumentType documentType) {
+            return verifiedTypes.contains(documentType);
+        }
+        
+        private boolean hasUploadedAll(List<DocumentType> documentTypes) {
+            return uploadedTypes.containsAll(documentTypes);
+        }
+        
+        private int getDocumentCount() {
+            return documentCount;
+        }
+        
+        /**
+         * Prevents overwriting verified documents
+         */
+        private void checkNotVerified(DocumentType documentType) {
+            if (isVerified(documentType)) {
+                throw new LoanApiException(
+                    org.springframework.http.HttpStatus.CONFLICT,
+                    String.format(
+                        "Cannot upload %s document. A verified document of this type already exists. " +
+                        "Verified documents cannot be replaced. Please contact support if you need to update a verified document.",
+                        documentType.toString().replace("_", " ")
+                    )
+                );
+            }
+        }
     }
 }
@@ -0,0 +1,445 @@
+package com.tss.loan.service.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tss.loan.dto.request.PreScreenProspectRequest;
+import com.tss.loan.dto.response.PreScreenResultResponse;
+import com.tss.loan.entity.enums.EmploymentType;
+import com.tss.loan.entity.enums.LoanType;
+import com.tss.loan.service.EligibilityPreScreenService;
+import com.tss.loan.service.LoanEligibilityService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pre-screens in chunks: while one chunk is evaluated, split across all cores, the next is
+ * read and the previous one's results are written in input order. At most two chunks are
+ * held at a time.
+ *
+ * The maximum affordable amount is the principal whose EMI at the configured rate and
+ * tenure uses up the FOIR headroom left after existing EMIs.
+ */
+@Service
+public class EligibilityPreScreenServiceImpl implements EligibilityPreScreenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EligibilityPreScreenServiceImpl.class);
+
+    private static final String[] CSV_RESULT_HEADER = {
+        "line", "reference", "eligible", "foirPercentage", "foirAcceptable", "requestedEmi",
+        "maxEmi", "maxAffordableAmount", "reasons", "error" };
+
+    @Autowired
+    private LoanEligibilityService eligibilityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${pre-screen.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${pre-screen.annual-interest-rate:12.0}")
+    private double annualInterestRate;
+
+    @Value("${pre-screen.default-tenure-months:60}")
+    private int defaultTenureMonths;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public void preScreenJson(InputStream in, OutputStream out) throws IOException {
+        MappingIterator<PreScreenProspectRequest> prospects =
+            objectMapper.readerFor(PreScreenProspectRequest.class).readValues(in);
+        long[] line = {0};
+        ChunkReader reader = () -> {
+            List<Item> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize) {
+                long next = line[0] + 1;
+                try {
+                    if (!prospects.hasNextValue()) {
+                        break;
+                    }
+                    chunk.add(new Item(next, prospects.nextValue(), null));
+                } catch (JsonParseException e) {
+                    // Malformed JSON cannot be resynchronised; report it and stop reading
+                    chunk.add(new Item(next, null, "Malformed JSON: " + e.getOriginalMessage()));
+                    chunk.add(Item.END);
+                    break;
+                } catch (JsonMappingException e) {
+                    // The iterator skips the rest of the bad object on the next read
+                    chunk.add(new Item(next, null, "Invalid prospect: " + e.getOriginalMessage()));
+                }
+                line[0] = next;
+            }
+            return chunk;
+        };
+
+        ResultWriter writer = results -> {
+            for (PreScreenResultResponse result : results) {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        };
+
+        run(reader, writer);
+    }
+
+    @Override
+    public void preScreenCsv(InputStream in, OutputStream out) throws IOException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRow(csv, CSV_RESULT_HEADER);
+
+        String headerLine = lines.readLine();
+        if (headerLine == null) {
+            csv.flush();
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = parseCsvLine(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        long[] line = {0};
+        ChunkReader reader = () -> {
+            List<Item> chunk = new ArrayList<>(chunkSize);
+            String text;
+            while (chunk.size() < chunkSize && (text = lines.readLine()) != null) {
+                if (text.isBlank()) {
+                    continue;
+                }
+                line[0]++;
+                List<String> values = parseCsvLine(text);
+                try {
+                    chunk.add(new Item(line[0], toProspect(values, columns), null));
+                } catch (IllegalArgumentException e) {
+                    // Keep the reference so the caller can still match the row up
+                    PreScreenProspectRequest unreadable = new PreScreenProspectRequest();
+                    unreadable.setReference(column(values, columns, "reference"));
+                    chunk.add(new Item(line[0], unreadable, "Invalid prospect: " + e.getMessage()));
+                }
+            }
+            return chunk;
+        };
+
+        ResultWriter writer = results -> {
+            for (PreScreenResultResponse result : results) {
+                writeCsvRow(csv, new String[] {
+                    String.valueOf(result.getLine()), result.getReference(),
+                    String.valueOf(result.isEligible()), format(result.getFoirPercentage()),
+                    result.getFoirAcceptable() != null ? result.getFoirAcceptable().toString() : null,
+                    format(result.getRequestedEmi()), format(result.getMaxEmi()),
+                    format(result.getMaxAffordableAmount()),
+                    result.getReasons() != null ? String.join("; ", result.getReasons()) : null,
+                    result.getError() });
+            }
+            csv.flush();
+        };
+
+        run(reader, writer);
+    }
+
+    private void run(ChunkReader reader, ResultWriter writer) throws IOException {
+        long started = System.currentTimeMillis();
+        long count = 0;
+        CompletableFuture<List<PreScreenResultResponse>> pending = null;
+        boolean more = true;
+        while (more) {
+            List<Item> chunk = reader.next();
+            more = chunk.size() == chunkSize;
+            if (!chunk.isEmpty() && chunk.get(chunk.size() - 1) == Item.END) {
+                chunk.remove(chunk.size() - 1);
+                more = false;
+            }
+            if (chunk.isEmpty()) {
+                break;
+            }
+            CompletableFuture<List<PreScreenResultResponse>> evaluating = evaluate(chunk);
+            if (pending != null) {
+                writer.write(join(pending));
+            }
+            pending = evaluating;
+            count += chunk.size();
+        }
+        if (pending != null) {
+            writer.write(join(pending));
+        }
+        logger.info("Pre-screened {} prospects in {} ms", count, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Splits the chunk into one slice per core; the results keep the chunk's order
+     */
+    private CompletableFuture<List<PreScreenResultResponse>> evaluate(List<Item> chunk) {
+        int slices = Math.min(pool.getParallelism(), chunk.size());
+        int sliceSize = (chunk.size() + slices - 1) / slices;
+        List<CompletableFuture<List<PreScreenResultResponse>>> parts = new ArrayList<>(slices);
+        for (int start = 0; start < chunk.size(); start += sliceSize) {
+            List<Item> slice = chunk.subList(start, Math.min(chunk.size(), start + sliceSize));
+            parts.add(CompletableFuture.supplyAsync(() -> {
+                List<PreScreenResultResponse> results = new ArrayList<>(slice.size());
+                for (Item item : slice) {
+                    results.add(evaluate(item));
+                }
+                return results;
+            }, pool));
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<PreScreenResultResponse> results = new ArrayList<>(chunk.size());
+            for (CompletableFuture<List<PreScreenResultResponse>> part : parts) {
+                results.addAll(part.join());
+            }
+            return results;
+        });
+    }
+
+    private PreScreenResultResponse evaluate(Item item) {
+        PreScreenProspectRequest prospect = item.prospect;
+        String error = item.error != null ? item.error : validate(prospect);
+        if (error != null) {
+            return PreScreenResultResponse.builder()
+                .line(item.line)
+                .reference(prospect != null ? prospect.getReference() : null)
+                .error(error)
+                .build();
+        }
+
+        LoanType loanType = prospect.getLoanType();
+        EmploymentType employmentType = prospect.getEmploymentType();
+        double income = prospect.getMonthlyIncome();
+        double existingEmi = prospect.getExistingEmi() != null ? prospect.getExistingEmi() : 0.0;
+        List<String> reasons = new ArrayList<>();
+
+        if (!eligibilityService.isEmploymentTypeEligible(loanType, employmentType)) {
+            reasons.add(eligibilityService.getEligibilityReason(loanType, employmentType));
+        }
+        double minIncome = eligibilityService.getMinimumIncomeRequirement(loanType);
+        if (income < minIncome) {
+            reasons.add(String.format("Monthly income below the minimum of %.0f", minIncome));
+        }
+        int minMonths = eligibilityService.getMinimumEmploymentDuration(loanType, employmentType);
+        if (prospect.getEmploymentMonths() != null && prospect.getEmploymentMonths() < minMonths) {
+            reasons.add(String.format("At least %d months of employment required", minMonths));
+        }
+
+        int tenure = prospect.getTenureMonths() != null ? prospect.getTenureMonths() : defaultTenureMonths;
+        double monthlyRate = annualInterestRate / 100 / 12;
+        Double requestedEmi = prospect.getRequestedAmount() != null
+            ? emi(prospect.getRequestedAmount(), monthlyRate, tenure) : null;
+        double foir = eligibilityService.calculateFOIR(income, existingEmi, requestedEmi != null ? requestedEmi : 0.0);
+        boolean foirAcceptable = eligibilityService.isFOIRAcceptable(foir);
+        if (!foirAcceptable) {
+            reasons.add(requestedEmi != null
+                ? "Requested amount exceeds repayment capacity"
+                : "Existing obligations exceed repayment capacity");
+        }
+
+        Object maxFoir = eligibilityService.getLoanEligibilityCriteria(loanType).get("maxFOIR");
+        double maxEmi = Math.max(0.0, income * ((Number) maxFoir).doubleValue() / 100 - existingEmi);
+        double maxAmount = monthlyRate > 0
+            ? maxEmi * (1 - Math.pow(1 + monthlyRate, -tenure)) / monthlyRate
+            : maxEmi * tenure;
+
+        return PreScreenResultResponse.builder()
+            .line(item.line)
+            .reference(prospect.getReference())
+            .eligible(reasons.isEmpty())
+            .foirPercentage(round(foir))
+            .foirAcceptable(foirAcceptable)
+            .requestedEmi(requestedEmi != null ? round(requestedEmi) : null)
+            .maxEmi(round(maxEmi))
+            .maxAffordableAmount(round(maxAmount))
+            .reasons(reasons.isEmpty() ? null : reasons)
+            .build();
+    }
+
+    private String validate(PreScreenProspectRequest prospect) {
+        if (prospect == null) {
+            return "Empty prospect";
+        }
+        if (prospect.getLoanType() == null || prospect.getEmploymentType() == null) {
+            return "loanType and employmentType are required";
+        }
+        if (prospect.getMonthlyIncome() == null || prospect.getMonthlyIncome() < 0) {
+            return "monthlyIncome is required and cannot be negative";
+        }
+        if (prospect.getTenureMonths() != null && prospect.getTenureMonths() <= 0) {
+            return "tenureMonths must be positive";
+        }
+        return null;
+    }
+
+    private static double emi(double principal, double monthlyRate, int tenureMonths) {
+        if (monthlyRate <= 0) {
+            return principal / tenureMonths;
+        }
+        double growth = Math.pow(1 + monthlyRate, tenureMonths);
+        return principal * monthlyRate * growth / (growth - 1);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static String format(Double value) {
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    private static PreScreenProspectRequest toProspect(List<String> values, Map<String, Integer> columns) {
+        PreScreenProspectRequest prospect = new PreScreenProspectRequest();
+        prospect.setReference(column(values, columns, "reference"));
+        String loanType = column(values, columns, "loantype");
+        prospect.setLoanType(loanType != null ? LoanType.valueOf(loanType.toUpperCase(Locale.ROOT)) : null);
+        String employmentType = column(values, columns, "employmenttype");
+        prospect.setEmploymentType(employmentType != null
+            ? EmploymentType.valueOf(employmentType.toUpperCase(Locale.ROOT)) : null);
+        prospect.setMonthlyIncome(toDouble(column(values, columns, "monthlyincome")));
+        prospect.setEmploymentMonths(toInteger(column(values, columns, "employmentmonths")));
+        prospect.setExistingEmi(toDouble(column(values, columns, "existingemi")));
+        prospect.setRequestedAmount(toDouble(column(values, columns, "requestedamount")));
+        prospect.setTenureMonths(toInteger(column(values, columns, "tenuremonths")));
+        return prospect;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Double toDouble(String value) {
+        return value != null ? Double.valueOf(value) : null;
+    }
+
+    private static Integer toInteger(String value) {
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    /**
+     * Splits one CSV line; quoted fields may contain commas and doubled quotes
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static void writeCsvRow(Writer csv, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                csv.write('"');
+                csv.write(value.replace("\"", "\"\""));
+                csv.write('"');
+            } else {
+                csv.write(value);
+            }
+        }
+        csv.write('\n');
+    }
+
+    private static List<PreScreenResultResponse> join(CompletableFuture<List<PreScreenResultResponse>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader {
+        /**
+         * Up to chunk-size items; fewer only at the end of the input
+         */
+        List<Item> next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ResultWriter {
+        void write(List<PreScreenResultResponse> results) throws IOException;
+    }
+
+    private static final class Item {
+        // Marks that reading stopped early
+        private static final Item END = new Item(0, null, null);
+
+        private final long line;
+        private final PreScreenProspectRequest prospect;
+        private final String error;
+
+        private Item(long line, PreScreenProspectRequest prospect, String error) {
+            this.line = line;
+            this.prospect = prospect;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.tss.loan.service.impl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.tss.loan.service.NotificationBroadcastBus;
+
+/**
+ * Single-node bus: messages are handed straight to local subscribers.
+ */
+@Service
+@ConditionalOnProperty(name = "notification.stream.bus", havingValue = "in-jvm", matchIfMissing = true)
+public class InJvmNotificationBroadcastBus implements NotificationBroadcastBus {
+
+    private final List<Consumer<List<StreamMessage>>> handlers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(StreamMessage message) {
+        List<StreamMessage> batch = List.of(message);
+        for (Consumer<List<StreamMessage>> handler : handlers) {
+            handler.accept(batch);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<StreamMessage>> handler) {
+        handlers.add(handler);
+    }
+}
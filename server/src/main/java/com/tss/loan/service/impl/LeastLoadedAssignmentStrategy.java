@@ -0,0 +1,25 @@
+package com.tss.loan.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.tss.loan.service.AssignmentStrategy;
+
+/**
+ * Plain load balancing: the officer with the fewest active cases first.
+ */
+@Service
+@ConditionalOnProperty(name = "assignment.strategy", havingValue = "least-loaded")
+public class LeastLoadedAssignmentStrategy implements AssignmentStrategy {
+
+    @Override
+    public List<UUID> rank(Work work, Map<UUID, Integer> candidates) {
+        // The workload index already lists candidates least loaded first
+        return new ArrayList<>(candidates.keySet());
+    }
+}
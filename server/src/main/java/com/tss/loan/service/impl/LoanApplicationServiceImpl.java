@@ -48,6 +48,7 @@ import com.tss.loan.dto.response.CompleteApplicationDetailsResponse;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tss.loan.service.ApplicationAssignmentService;
+import com.tss.loan.service.ApplicationTimelineService;
 import com.tss.loan.service.ApplicationWorkflowService;
 import com.tss.loan.service.AuditLogService;
 import com.tss.loan.service.EmailService;
@@ -116,6 +117,9 @@ public class LoanApplicationServiceImpl implements LoanApplicationService {
     
     @Autowired
     private EmailService emailService;
+    
+    @Autowired
+    private ApplicationTimelineService timelineService;
 
     @Override
     public LoanApplicationResponse createLoanApplication(LoanApplicationRequest request, User applicant) {
@@ -144,6 +148,7 @@ public class LoanApplicationServiceImpl implements LoanApplicationService {
         application.setPriority(calculatePriorityByAmount(request.getLoanAmount()));
         
         LoanApplication savedApplication = loanApplicationRepository.save(application);
+        timelineService.recordCreated(savedApplication, applicant);
         
         // Create in-app notification
         notificationService.createNotification(
@@ -314,7 +319,7 @@ public class LoanApplicationServiceImpl implements LoanApplicationService {
         }
         
         // Update status to SUBMITTED
-        application.setStatus(ApplicationStatus.SUBMITTED);
+        applicationWorkflowService.transition(application, ApplicationStatus.SUBMITTED);
         application.setSubmittedAt(LocalDateTime.now());
         application.setUpdatedAt(LocalDateTime.now());
         
@@ -333,39 +338,46 @@ public class LoanApplicationServiceImpl implements LoanApplicationService {
         );
         
         // AUTO-ASSIGN TO LOAN OFFICER (Your requested workflow)
+        boolean queued = false;
         try {
             User assignedOfficer = applicationAssignmentService.assignToLoanOfficer(submittedApplication);
             
-            // Create workflow entry for SUBMITTED → UNDER_REVIEW transition
-            applicationWorkflowService.createWorkflowEntry(
-                applicationId,
-                ApplicationStatus.SUBMITTED,
-                ApplicationStatus.UNDER_REVIEW,
-                assignedOfficer,
-                "Application auto-assigned to loan officer: " + assignedOfficer.getEmail()
-            );
-            
-            // Notify the assigned loan officer (In-App)
-            notificationService.createNotification(
-                assignedOfficer,
-                NotificationType.IN_APP,
-                "New Loan Application Assigned",
-                "A new loan application has been assigned to you for review. Application ID: " + applicationId
-            );
+            if (assignedOfficer == null) {
+                // No officer has capacity; the assignment queue assigns it as soon as one does
+                queued = true;
+                log.info("Application {} queued for loan officer assignment", applicationId);
+            } else {
+                // Create workflow entry for SUBMITTED → UNDER_REVIEW transition
+                applicationWorkflowService.createWorkflowEntry(
+                    applicationId,
+                    ApplicationStatus.SUBMITTED,
+                    ApplicationStatus.UNDER_REVIEW,
+                    assignedOfficer,
+                    "Application auto-assigned to loan officer: " + assignedOfficer.getEmail()
+                );
             
-            // Send email notification to assigned loan officer
-            try {
-                emailService.sendLoanStatusEmail(
-                    assignedOfficer.getEmail(),
-                    "NEW_ASSIGNMENT",
-                    applicationId.toString(),
-                    assignedOfficer
+                // Notify the assigned loan officer (In-App)
+                notificationService.createNotification(
+                    assignedOfficer,
+                    NotificationType.IN_APP,
+                    "New Loan Application Assigned",
+                    "A new loan application has been assigned to you for review. Application ID: " + applicationId
                 );
-            } catch (Exception emailEx) {
-                log.error("Failed to send assignment email to officer", emailEx);
-            }
             
-            log.info("Application {} auto-assigned to officer: {}", applicationId, assignedOfficer.getEmail());
+                // Send email notification to assigned loan officer
+                try {
+                    emailService.sendLoanStatusEmail(
+                        assignedOfficer.getEmail(),
+                        "NEW_ASSIGNMENT",
+                        applicationId.toString(),
+                        assignedOfficer
+                    );
+                } catch (Exception emailEx) {
+                    log.error("Failed to send assignment email to officer", emailEx);
+                }
+            
+                log.info("Application {} auto-assigned to officer: {}", applicationId, assignedOfficer.getEmail());
+            }
             
         } catch (Exception e) {
             log.error("Failed to auto-assign application {}: {}", applicationId, e.getMessage());
@@ -377,7 +389,9 @@ public class LoanApplicationServiceImpl implements LoanApplicationService {
             user,
             NotificationType.IN_APP,
             "Loan Application Submitted",
-            "Your loan application has been submitted successfully and assigned to a loan officer for review."
+            queued
+                ? "Your loan application has been submitted successfully and will be assigned to a loan officer shortly."
+                : "Your loan application has been submitted successfully and assigned to a loan officer for review."
         );
         
         // Send email notification to applicant
@@ -520,6 +534,7 @@ public class LoanApplicationServiceImpl implements LoanApplicationService {
         
         // Save application
         LoanApplication savedApplication = loanApplicationRepository.save(application);
+        timelineService.recordCreated(savedApplication, applicant);
         
         // Create notification
         notificationService.createNotification(
@@ -1420,7 +1435,7 @@ public class LoanApplicationServiceImpl implements LoanApplicationService {
         
         // Change status to DOCUMENT_REVERIFICATION
         ApplicationStatus oldStatus = application.getStatus();
-        application.setStatus(ApplicationStatus.DOCUMENT_REVERIFICATION);
+        applicationWorkflowService.transition(application, ApplicationStatus.DOCUMENT_REVERIFICATION);
         application.setUpdatedAt(LocalDateTime.now());
         loanApplicationRepository.save(application);
         
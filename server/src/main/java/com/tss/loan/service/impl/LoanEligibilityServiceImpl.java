@@ -11,6 +11,11 @@ import java.util.*;
 /**
  * Implementation of loan eligibility service
  * Based on real-world banking requirements from major banks
+ *
+ * The rules below are compiled once into a LoanType x EmploymentType decision table:
+ * eligibility is an EnumSet (a bit mask), minimum durations and reasons are arrays
+ * indexed by ordinal, and criteria responses are built up front. Every lookup is an
+ * EnumMap read plus a bit test or array index, with no allocation.
  */
 @Service
 @Slf4j
@@ -19,19 +24,33 @@ public class LoanEligibilityServiceImpl implements LoanEligibilityService {
     // Maximum acceptable FOIR (Fixed Obligation to Income Ratio)
     private static final double MAX_FOIR_PERCENTAGE = 70.0;
     
-    // Loan Type → Employment Type Eligibility Matrix
-    private static final Map<LoanType, List<EmploymentType>> ELIGIBILITY_MATRIX = new HashMap<>();
+    // Defaults for a loan type without rules
+    private static final double DEFAULT_MIN_INCOME = 25000.0;
+    
+    // Loan Type → Employment Type Eligibility Matrix (rule declarations; read through RULES)
+    private static final Map<LoanType, List<EmploymentType>> ELIGIBILITY_MATRIX = new EnumMap<>(LoanType.class);
     
     // Minimum Income Requirements (in INR)
-    private static final Map<LoanType, Double> MIN_INCOME_REQUIREMENTS = new HashMap<>();
+    private static final Map<LoanType, Double> MIN_INCOME_REQUIREMENTS = new EnumMap<>(LoanType.class);
     
     // Minimum Employment Duration (in months)
-    private static final Map<LoanType, Map<EmploymentType, Integer>> MIN_EMPLOYMENT_DURATION = new HashMap<>();
+    private static final Map<LoanType, Map<EmploymentType, Integer>> MIN_EMPLOYMENT_DURATION = new EnumMap<>(LoanType.class);
+    
+    // Compiled decision table
+    private static final Map<LoanType, Rule> RULES;
+    private static final Rule DEFAULT_RULE;
     
     static {
         initializeEligibilityMatrix();
         initializeIncomeRequirements();
         initializeEmploymentDuration();
+        
+        Map<LoanType, Rule> rules = new EnumMap<>(LoanType.class);
+        for (LoanType loanType : LoanType.values()) {
+            rules.put(loanType, compileRule(loanType));
+        }
+        RULES = Collections.unmodifiableMap(rules);
+        DEFAULT_RULE = compileRule(null);
     }
     
     private static void initializeEligibilityMatrix() {
@@ -190,7 +209,7 @@ public class LoanEligibilityServiceImpl implements LoanEligibilityService {
     
     private static void initializeEmploymentDuration() {
         // Personal Loan
-        Map<EmploymentType, Integer> personalLoan = new HashMap<>();
+        Map<EmploymentType, Integer> personalLoan = new EnumMap<>(EmploymentType.class);
         personalLoan.put(EmploymentType.SALARIED, 12); // 1 year
         personalLoan.put(EmploymentType.SELF_EMPLOYED, 24); // 2 years
         personalLoan.put(EmploymentType.BUSINESS_OWNER, 24);
@@ -199,7 +218,7 @@ public class LoanEligibilityServiceImpl implements LoanEligibilityService {
         MIN_EMPLOYMENT_DURATION.put(LoanType.PERSONAL_LOAN, personalLoan);
         
         // Home Loan
-        Map<EmploymentType, Integer> homeLoan = new HashMap<>();
+        Map<EmploymentType, Integer> homeLoan = new EnumMap<>(EmploymentType.class);
         homeLoan.put(EmploymentType.SALARIED, 24); // 2 years
         homeLoan.put(EmploymentType.SELF_EMPLOYED, 36); // 3 years
         homeLoan.put(EmploymentType.BUSINESS_OWNER, 36);
@@ -207,47 +226,98 @@ public class LoanEligibilityServiceImpl implements LoanEligibilityService {
         MIN_EMPLOYMENT_DURATION.put(LoanType.HOME_LOAN, homeLoan);
         
         // Business Loan
-        Map<EmploymentType, Integer> businessLoan = new HashMap<>();
+        Map<EmploymentType, Integer> businessLoan = new EnumMap<>(EmploymentType.class);
         businessLoan.put(EmploymentType.SELF_EMPLOYED, 24); // 2 years
         businessLoan.put(EmploymentType.BUSINESS_OWNER, 24);
         businessLoan.put(EmploymentType.PROFESSIONAL, 24);
         MIN_EMPLOYMENT_DURATION.put(LoanType.BUSINESS_LOAN, businessLoan);
         
         // Education Loan - N/A (co-applicant employment checked)
-        MIN_EMPLOYMENT_DURATION.put(LoanType.EDUCATION_LOAN, new HashMap<>());
+        MIN_EMPLOYMENT_DURATION.put(LoanType.EDUCATION_LOAN, new EnumMap<>(EmploymentType.class));
         
         // Gold Loan - N/A (no employment duration required)
-        MIN_EMPLOYMENT_DURATION.put(LoanType.GOLD_LOAN, new HashMap<>());
+        MIN_EMPLOYMENT_DURATION.put(LoanType.GOLD_LOAN, new EnumMap<>(EmploymentType.class));
+    }
+    
+    /**
+     * Compiles the declared rules of one loan type; a null loan type gives the defaults
+     */
+    private static Rule compileRule(LoanType loanType) {
+        List<EmploymentType> declared = loanType != null ? ELIGIBILITY_MATRIX.get(loanType) : null;
+        if (declared == null) {
+            if (loanType != null) {
+                log.warn("No eligibility matrix found for loan type: {}, allowing all types", loanType);
+            }
+            declared = Arrays.asList(EmploymentType.values());
+        }
+        List<EmploymentType> eligibleList = Collections.unmodifiableList(new ArrayList<>(declared));
+        Set<EmploymentType> eligible = Collections.unmodifiableSet(EnumSet.copyOf(eligibleList));
+        
+        double minIncome = loanType != null
+            ? MIN_INCOME_REQUIREMENTS.getOrDefault(loanType, DEFAULT_MIN_INCOME) : DEFAULT_MIN_INCOME;
+        
+        EmploymentType[] employmentTypes = EmploymentType.values();
+        int[] minDurations = new int[employmentTypes.length];
+        String[] reasons = new String[employmentTypes.length];
+        Map<EmploymentType, Integer> durations = loanType != null ? MIN_EMPLOYMENT_DURATION.get(loanType) : null;
+        for (EmploymentType employmentType : employmentTypes) {
+            int i = employmentType.ordinal();
+            minDurations[i] = durations != null ? durations.getOrDefault(employmentType, 0) : 0;
+            if (loanType == null) {
+                reasons[i] = "Eligible for this loan type";
+            } else if (eligible.contains(employmentType)) {
+                reasons[i] = getEligibleReason(loanType, employmentType);
+            } else {
+                reasons[i] = getIneligibleReason(loanType, employmentType);
+            }
+        }
+        
+        Map<String, Object> criteria = new HashMap<>();
+        criteria.put("loanType", loanType);
+        criteria.put("eligibleEmploymentTypes", eligibleList);
+        criteria.put("minimumIncome", minIncome);
+        criteria.put("maxFOIR", MAX_FOIR_PERCENTAGE);
+        
+        // Add employment duration for each eligible type
+        Map<EmploymentType, Integer> eligibleDurations = new EnumMap<>(EmploymentType.class);
+        for (EmploymentType empType : eligibleList) {
+            if (minDurations[empType.ordinal()] > 0) {
+                eligibleDurations.put(empType, minDurations[empType.ordinal()]);
+            }
+        }
+        if (!eligibleDurations.isEmpty()) {
+            criteria.put("minimumEmploymentDuration", Collections.unmodifiableMap(eligibleDurations));
+        }
+        
+        return new Rule(eligibleList, eligible, minIncome, minDurations, reasons, Collections.unmodifiableMap(criteria));
+    }
+    
+    private static Rule rule(LoanType loanType) {
+        Rule rule = loanType != null ? RULES.get(loanType) : null;
+        return rule != null ? rule : DEFAULT_RULE;
     }
     
     @Override
     public List<EmploymentType> getEligibleEmploymentTypes(LoanType loanType) {
-        List<EmploymentType> eligible = ELIGIBILITY_MATRIX.get(loanType);
-        if (eligible == null) {
-            log.warn("No eligibility matrix found for loan type: {}, returning all types", loanType);
-            return Arrays.asList(EmploymentType.values());
-        }
-        return eligible;
+        return rule(loanType).eligibleList;
     }
     
     @Override
     public boolean isEmploymentTypeEligible(LoanType loanType, EmploymentType employmentType) {
-        List<EmploymentType> eligible = getEligibleEmploymentTypes(loanType);
-        return eligible.contains(employmentType);
+        return employmentType != null && rule(loanType).eligible.contains(employmentType);
     }
     
     @Override
     public double getMinimumIncomeRequirement(LoanType loanType) {
-        return MIN_INCOME_REQUIREMENTS.getOrDefault(loanType, 25000.0);
+        return rule(loanType).minIncome;
     }
     
     @Override
     public int getMinimumEmploymentDuration(LoanType loanType, EmploymentType employmentType) {
-        Map<EmploymentType, Integer> durations = MIN_EMPLOYMENT_DURATION.get(loanType);
-        if (durations == null) {
+        if (employmentType == null) {
             return 0;
         }
-        return durations.getOrDefault(employmentType, 0);
+        return rule(loanType).minDurations[employmentType.ordinal()];
     }
     
     @Override
@@ -266,16 +336,13 @@ public class LoanEligibilityServiceImpl implements LoanEligibilityService {
     
     @Override
     public String getEligibilityReason(LoanType loanType, EmploymentType employmentType) {
-        boolean eligible = isEmploymentTypeEligible(loanType, employmentType);
-        
-        if (eligible) {
-            return getEligibleReason(loanType, employmentType);
-        } else {
-            return getIneligibleReason(loanType, employmentType);
+        if (employmentType == null) {
+            return "Not eligible for this loan type";
         }
+        return rule(loanType).reasons[employmentType.ordinal()];
     }
     
-    private String getEligibleReason(LoanType loanType, EmploymentType employmentType) {
+    private static String getEligibleReason(LoanType loanType, EmploymentType employmentType) {
         switch (loanType) {
             case EDUCATION_LOAN:
                 return "Eligible with mandatory co-applicant (parent/guardian)";
@@ -294,7 +361,7 @@ public class LoanEligibilityServiceImpl implements LoanEligibilityService {
         }
     }
     
-    private String getIneligibleReason(LoanType loanType, EmploymentType employmentType) {
+    private static String getIneligibleReason(LoanType loanType, EmploymentType employmentType) {
         switch (loanType) {
             case SALARY_ADVANCE:
                 return "Only available for salaried employees";
@@ -320,24 +387,28 @@ public class LoanEligibilityServiceImpl implements LoanEligibilityService {
     
     @Override
     public Map<String, Object> getLoanEligibilityCriteria(LoanType loanType) {
-        Map<String, Object> criteria = new HashMap<>();
-        criteria.put("loanType", loanType);
-        criteria.put("eligibleEmploymentTypes", getEligibleEmploymentTypes(loanType));
-        criteria.put("minimumIncome", getMinimumIncomeRequirement(loanType));
-        criteria.put("maxFOIR", MAX_FOIR_PERCENTAGE);
+        return rule(loanType).criteria;
+    }
+    
+    /**
+     * One row of the decision table; arrays are indexed by EmploymentType ordinal
+     */
+    private static final class Rule {
+        private final List<EmploymentType> eligibleList;
+        private final Set<EmploymentType> eligible;
+        private final double minIncome;
+        private final int[] minDurations;
+        private final String[] reasons;
+        private final Map<String, Object> criteria;
         
-        // Add employment duration for each eligible type
-        Map<EmploymentType, Integer> durations = new HashMap<>();
-        for (EmploymentType empType : getEligibleEmploymentTypes(loanType)) {
-            int duration = getMinimumEmploymentDuration(loanType, empType);
-            if (duration > 0) {
-                durations.put(empType, duration);
-            }
+        private Rule(List<EmploymentType> eligibleList, Set<EmploymentType> eligible, double minIncome,
+                     int[] minDurations, String[] reasons, Map<String, Object> criteria) {
+            this.eligibleList = eligibleList;
+            this.eligible = eligible;
+            this.minIncome = minIncome;
+            this.minDurations = minDurations;
+            this.reasons = reasons;
+            this.criteria = criteria;
         }
-        if (!durations.isEmpty()) {
-            criteria.put("minimumEmploymentDuration", durations);
-        }
-        
-        return criteria;
     }
 }
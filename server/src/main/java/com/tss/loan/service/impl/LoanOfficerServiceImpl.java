@@ -13,6 +13,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.tss.loan.dto.request.DocumentResubmissionRequest;
 import com.tss.loan.dto.request.DocumentVerificationRequest;
+import com.tss.loan.dto.response.ApplicationEventResponse;
+import com.tss.loan.dto.response.ApplicationStateResponse;
 import com.tss.loan.dto.response.AuditLogResponse;
 import com.tss.loan.dto.response.CompleteApplicationDetailsResponse;
 import com.tss.loan.dto.response.DocumentResubmissionResponse;
@@ -36,8 +38,12 @@ import com.tss.loan.repository.ApplicantPersonalDetailsRepository;
 import com.tss.loan.repository.LoanApplicationRepository;
 import com.tss.loan.repository.LoanDocumentRepository;
 import com.tss.loan.repository.external.CreditScoreHistoryRepository;
+import com.tss.loan.service.ApplicationTimelineService;
 import com.tss.loan.service.ApplicationWorkflowService;
 import com.tss.loan.service.AuditLogService;
+import com.tss.loan.service.DocumentAccessService;
+import com.tss.loan.service.DocumentExtractionService;
+import com.tss.loan.service.DocumentRenditionService;
 import com.tss.loan.service.EmailService;
 import com.tss.loan.service.LoanOfficerService;
 import com.tss.loan.service.NotificationService;
@@ -93,6 +99,18 @@ public class LoanOfficerServiceImpl implements LoanOfficerService {
     @Autowired
     private com.tss.loan.repository.ComplianceInvestigationRepository complianceInvestigationRepository;
     
+    @Autowired
+    private DocumentExtractionService documentExtractionService;
+    
+    @Autowired
+    private DocumentRenditionService documentRenditionService;
+    
+    @Autowired
+    private DocumentAccessService documentAccessService;
+    
+    @Autowired
+    private ApplicationTimelineService timelineService;
+    
     
     @Override
     public OfficerDashboardResponse getDashboard(User officer) {
@@ -303,7 +321,7 @@ public class LoanOfficerServiceImpl implements LoanOfficerService {
         LoanApplication application = getApplicationAndValidateOfficer(applicationId, officer);
         
         // Update status to document verification
-        application.setStatus(ApplicationStatus.DOCUMENT_VERIFICATION);
+        applicationWorkflowService.transition(application, ApplicationStatus.DOCUMENT_VERIFICATION);
         application.setUpdatedAt(LocalDateTime.now());
         loanApplicationRepository.save(application);
         
@@ -428,7 +446,7 @@ public class LoanOfficerServiceImpl implements LoanOfficerService {
             notificationMessage = "Some of your documents need to be resubmitted. Please check your application and upload the required documents.";
         }
         
-        application.setStatus(newStatus);
+        applicationWorkflowService.transition(application, newStatus);
         application.setUpdatedAt(LocalDateTime.now());
         loanApplicationRepository.saveAndFlush(application);  // ✅ Immediate flush
         
@@ -501,7 +519,7 @@ public class LoanOfficerServiceImpl implements LoanOfficerService {
         }
         
         // Update status to indicate external verification is in progress
-        application.setStatus(ApplicationStatus.FRAUD_CHECK);
+        applicationWorkflowService.transition(application, ApplicationStatus.FRAUD_CHECK);
         application.setUpdatedAt(LocalDateTime.now());
         loanApplicationRepository.save(application);
         
@@ -701,7 +719,7 @@ public class LoanOfficerServiceImpl implements LoanOfficerService {
         // Update status directly to READY_FOR_DECISION (skip PENDING_EXTERNAL_VERIFICATION)
         ApplicationStatus previousStatus = application.getStatus();
         ApplicationStatus newStatus = ApplicationStatus.READY_FOR_DECISION;
-        application.setStatus(newStatus);
+        applicationWorkflowService.transition(application, newStatus);
         application.setUpdatedAt(LocalDateTime.now());
         loanApplicationRepository.save(application);
         
@@ -824,7 +842,7 @@ public class LoanOfficerServiceImpl implements LoanOfficerService {
         LoanApplication application = getApplicationAndValidateOfficer(applicationId, officer);
         
         // Update application status to DOCUMENT_INCOMPLETE
-        application.setStatus(ApplicationStatus.DOCUMENT_INCOMPLETE);
+        applicationWorkflowService.transition(application, ApplicationStatus.DOCUMENT_INCOMPLETE);
         application.setUpdatedAt(LocalDateTime.now());
         loanApplicationRepository.save(application);
         
@@ -1102,7 +1120,9 @@ public class LoanOfficerServiceImpl implements LoanOfficerService {
                     .documentId(doc.getId())
                     .documentType(doc.getDocumentType().toString())
                     .fileName(doc.getFileName())
-                    .fileUrl(doc.getFilePath())
+                    .fileUrl(documentAccessService.getAccessUrl(doc))
+                    .thumbnailUrl(documentRenditionService.getThumbnailUrl(doc))
+                    .previewUrl(documentRenditionService.getPreviewUrl(doc))
                     .uploadDate(doc.getUploadedAt())
                     .verificationStatus(doc.getVerificationStatus().toString())
                     .verificationNotes(doc.getVerificationNotes())
@@ -1116,6 +1136,11 @@ public class LoanOfficerServiceImpl implements LoanOfficerService {
                         userDisplayService.getDisplayName(doc.getVerifiedBy()) : null)
                     .fileSizeBytes(doc.getFileSize())
                     .fileType(doc.getFileType())
+                    .ocrStatus(doc.getOcrStatus() != null ? doc.getOcrStatus().toString() : null)
+                    .extractedFields(documentExtractionService.getExtractedFields(doc))
+                    .ocrCompletedAt(doc.getOcrCompletedAt())
+                    .autoVerificationScore(doc.getAutoVerificationScore())
+                    .autoVerificationSummary(doc.getAutoVerificationSummary())
                     .build();
             })
             .collect(Collectors.toList());
@@ -1601,6 +1626,26 @@ public class LoanOfficerServiceImpl implements LoanOfficerService {
         return auditTrail;
     }
     
+    @Override
+    public List<ApplicationEventResponse> getApplicationTimeline(UUID applicationId, User officer) {
+        // Checked against the assignment column, so the timeline stays a single range read
+        if (!loanApplicationRepository.existsByIdAndAssignedOfficerId(applicationId, officer.getId())) {
+            throw new LoanApiException("You are not authorized to perform this action on this application");
+        }
+        return timelineService.getTimeline(applicationId);
+    }
+    
+    @Override
+    public ApplicationStateResponse getApplicationStateForOfficer(UUID applicationId, User officer) {
+        ApplicationStateResponse state = timelineService.getCurrentState(applicationId);
+        
+        // Security check against the folded state, so no application row is loaded
+        if (!officer.getId().equals(state.getAssignedOfficerId())) {
+            throw new LoanApiException("You are not authorized to perform this action on this application");
+        }
+        return state;
+    }
+    
     @Override
     public List<LoanApplicationResponse> getPostComplianceApplications(User officer) {
         log.info("Fetching post-compliance applications for officer: {}", officer.getEmail());
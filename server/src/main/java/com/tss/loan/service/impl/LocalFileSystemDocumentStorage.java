@@ -0,0 +1,233 @@
+package com.tss.loan.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.tss.loan.service.DocumentStorage;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Stores objects as files under storage.local.root, for on-prem deployments and
+ * offline runs. Writes go through FileChannel transfers into a temp file that is
+ * atomically moved into place. Whole-object reads stream from a FileChannel; ranged
+ * reads are served from read-only memory mappings of the requested region. Public URLs
+ * are served by LocalStorageWebConfig.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.provider", havingValue = "local")
+public class LocalFileSystemDocumentStorage implements DocumentStorage {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocalFileSystemDocumentStorage.class);
+    
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+    // Largest region mapped at once; a mapping is only released when its buffer is collected
+    private static final long MAP_WINDOW_SIZE = 4 * 1024 * 1024;
+    
+    @Value("${storage.local.root:./document-storage}")
+    private String rootDirectory;
+    
+    @Value("${storage.local.public-base-url:/storage/}")
+    private String publicBaseUrl;
+    
+    private Path root;
+    
+    public Path getRoot() {
+        return root;
+    }
+    
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(rootDirectory).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        logger.info("Local document storage at {}", root);
+    }
+    
+    @Override
+    public long store(String objectName, InputStream content, long contentLength, String contentType) throws IOException {
+        Path target = resolve(objectName);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        
+        long written = 0;
+        try {
+            try (ReadableByteChannel source = Channels.newChannel(content);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = out.transferFrom(source, written, TRANSFER_CHUNK_SIZE)) > 0) {
+                    written += transferred;
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return written;
+    }
+    
+    /**
+     * Streams from a FileChannel, so a full download never maps the whole file
+     */
+    @Override
+    public InputStream open(String objectName) throws IOException {
+        // Closing the stream closes the channel
+        return Channels.newInputStream(openChannel(objectName));
+    }
+    
+    /**
+     * Maps only the requested region, one bounded window at a time
+     */
+    @Override
+    public InputStream open(String objectName, long offset, long length) throws IOException {
+        FileChannel channel = openChannel(objectName);
+        try {
+            long start = Math.min(offset, channel.size());
+            long end = start + Math.min(length, channel.size() - start);
+            return new MappedRangeInputStream(channel, start, end);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    @Override
+    public void delete(String objectName) throws IOException {
+        Files.deleteIfExists(resolve(objectName));
+    }
+    
+    @Override
+    public boolean exists(String objectName) throws IOException {
+        return Files.exists(resolve(objectName));
+    }
+    
+    /**
+     * Content-addressed targets hold identical bytes, so losing a race to another
+     * writer between the check and the rename is harmless
+     */
+    @Override
+    public boolean moveIfAbsent(String source, String target) throws IOException {
+        Path from = resolve(source);
+        Path to = resolve(target);
+        if (Files.exists(to)) {
+            Files.deleteIfExists(from);
+            return false;
+        }
+        Files.createDirectories(to.getParent());
+        Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+    
+    @Override
+    public String publicUrl(String objectName) {
+        return publicBaseUrl + objectName;
+    }
+    
+    private FileChannel openChannel(String objectName) throws IOException {
+        try {
+            return FileChannel.open(resolve(objectName), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new IOException("Object not found: " + objectName, e);
+        }
+    }
+    
+    private Path resolve(String objectName) throws IOException {
+        Path path = root.resolve(objectName).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IOException("Invalid object name: " + objectName);
+        }
+        return path;
+    }
+    
+    /**
+     * Reads [position, end) of the channel through read-only mappings of at most
+     * MAP_WINDOW_SIZE bytes. Only the current window is referenced, so mappings already
+     * read can be released while the stream is still open.
+     */
+    private static final class MappedRangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+        private MappedByteBuffer window;
+        
+        private MappedRangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            return nextWindow() ? window.get() & 0xFF : -1;
+        }
+        
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextWindow()) {
+                return -1;
+            }
+            int count = Math.min(length, window.remaining());
+            window.get(bytes, offset, count);
+            return count;
+        }
+        
+        @Override
+        public long skip(long n) {
+            long count = Math.max(0, Math.min(n, remaining()));
+            if (window != null && count <= window.remaining()) {
+                window.position(window.position() + (int) count);
+            } else {
+                // Skipped past the current window; the next read maps from the new position
+                position = position - (window != null ? window.remaining() : 0) + count;
+                window = null;
+            }
+            return count;
+        }
+        
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, remaining());
+        }
+        
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+        
+        private long remaining() {
+            return (window != null ? window.remaining() : 0) + end - position;
+        }
+        
+        private boolean nextWindow() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            if (position >= end) {
+                return false;
+            }
+            long size = Math.min(MAP_WINDOW_SIZE, end - position);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            position += size;
+            return true;
+        }
+    }
+}
@@ -1,30 +1,93 @@
 package com.tss.loan.service.impl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tss.loan.dto.response.NotificationResponse;
 import com.tss.loan.entity.enums.NotificationType;
 import com.tss.loan.entity.system.Notification;
 import com.tss.loan.entity.user.User;
 import com.tss.loan.exception.LoanApiException;
 import com.tss.loan.repository.NotificationRepository;
 import com.tss.loan.service.AuditLogService;
+import com.tss.loan.service.NotificationBroadcastBus;
 import com.tss.loan.service.NotificationService;
+import com.tss.loan.service.NotificationStreamService;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
     
+    private static final Logger logger = LoggerFactory.getLogger(NotificationServiceImpl.class);
+    
+    // Cached counters are reloaded from the database once they are older than this
+    private static final long UNREAD_COUNT_RECONCILE_MILLIS = 5 * 60 * 1000L;
+    
+    // Digest limits: lines shown in the message and items kept in metadata
+    private static final int MAX_DIGEST_LINES = 10;
+    private static final int MAX_DIGEST_ITEMS = 50;
+    private static final int MAX_TITLE_LENGTH = 200;
+    
     @Autowired
     private NotificationRepository notificationRepository;
     
     @Autowired
     private AuditLogService auditLogService;
     
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    
+    @Autowired
+    private NotificationBroadcastBus broadcastBus;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${notification.digest.enabled:true}")
+    private boolean digestEnabled;
+    
+    @Value("${notification.digest.window-seconds:600}")
+    private long digestWindowSeconds;
+    
+    // Open digest per recipient and title; later notifications inside the window are merged into its row
+    private final Map<String, OpenDigest> openDigests = new ConcurrentHashMap<>();
+    
+    // Per-user unread counters, loaded on first read and kept current by create/read operations
+    private final Map<UUID, UnreadCounter> unreadCounters = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        // Another node changed these users' notifications; their cached counts are reloaded on next use
+        broadcastBus.subscribeRemote(messages -> {
+            for (NotificationBroadcastBus.StreamMessage message : messages) {
+                UnreadCounter counter = unreadCounters.get(message.userId);
+                if (counter != null) {
+                    counter.invalidate();
+                }
+            }
+        });
+    }
+    
     @Override
     public Notification createNotification(User user, NotificationType type, String title, String message) {
         return createNotification(user, type, title, message, null, null);
@@ -33,6 +96,14 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public Notification createNotification(User user, NotificationType type, String title, String message, 
                                          String relatedEntityType, Long relatedEntityId) {
+        boolean digestible = digestEnabled && digestWindowSeconds > 0 && type == NotificationType.IN_APP;
+        if (digestible) {
+            Notification merged = mergeIntoDigest(user, title, message, relatedEntityType, relatedEntityId);
+            if (merged != null) {
+                return merged;
+            }
+        }
+        
         Notification notification = new Notification();
         notification.setUser(user);
         notification.setType(type);
@@ -49,6 +120,22 @@ public class NotificationServiceImpl implements NotificationService {
         auditLogService.logAction(user, "NOTIFICATION_CREATED", "Notification", saved.getId(), 
             "Notification created: " + title);
         
+        NotificationResponse pushed = type == NotificationType.IN_APP ? NotificationResponse.fromEntity(saved) : null;
+        afterCommit(() -> {
+            if (pushed != null) {
+                notificationStreamService.publish(user.getId(), pushed);
+            }
+            adjustUnreadCount(user, 1);
+        });
+        
+        if (digestible) {
+            // Only a committed row can collect later notifications
+            OpenDigest digest = new OpenDigest(saved.getId(), title,
+                new DigestItem(message, relatedEntityType, relatedEntityId),
+                System.currentTimeMillis() + digestWindowSeconds * 1000);
+            afterCommit(() -> openDigests.put(digestKey(user, title), digest));
+        }
+        
         return saved;
     }
     
@@ -59,7 +146,11 @@ public class NotificationServiceImpl implements NotificationService {
     
     @Override
     public long getUnreadCount(User user) {
-        return notificationRepository.countUnreadByUser(user);
+        UnreadCounter counter = unreadCounters.get(user.getId());
+        if (counter == null || counter.isStale()) {
+            counter = reloadUnreadCounter(user);
+        }
+        return counter.count.get();
     }
     
     @Override
@@ -79,6 +170,8 @@ public class NotificationServiceImpl implements NotificationService {
             
             auditLogService.logAction(user, "NOTIFICATION_READ", "Notification", notificationId, 
                 "Notification marked as read");
+            
+            afterCommit(() -> adjustUnreadCount(user, -1));
         }
     }
     
@@ -88,6 +181,11 @@ public class NotificationServiceImpl implements NotificationService {
         
         auditLogService.logAction(user, "NOTIFICATIONS_READ_ALL", "Notification", null, 
             "Marked " + updatedCount + " notifications as read");
+        
+        afterCommit(() -> {
+            unreadCounters.put(user.getId(), new UnreadCounter(0));
+            notificationStreamService.publishUnreadCount(user.getId(), 0);
+        });
     }
     
     @Override
@@ -96,19 +194,16 @@ public class NotificationServiceImpl implements NotificationService {
             return 0;
         }
         
-        int updatedCount = 0;
-        for (Long id : ids) {
-            try {
-                markAsRead(id, user);
-                updatedCount++;
-            } catch (Exception e) {
-                // Skip notifications that don't exist or don't belong to user
-            }
-        }
+        // Single UPDATE; ids that don't exist, belong to another user or are already read are skipped
+        int updatedCount = notificationRepository.markSelectedAsReadForUser(user, new HashSet<>(ids), LocalDateTime.now());
         
         auditLogService.logAction(user, "NOTIFICATIONS_READ_SELECTED", "Notification", null, 
             "Marked " + updatedCount + " selected notifications as read");
         
+        if (updatedCount > 0) {
+            afterCommit(() -> adjustUnreadCount(user, -updatedCount));
+        }
+        
         return updatedCount;
     }
     
@@ -135,4 +230,223 @@ public class NotificationServiceImpl implements NotificationService {
         // In a real implementation, you would retry sending these notifications
         // Could add logging if needed
     }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void pruneExpiredDigests() {
+        openDigests.values().removeIf(OpenDigest::isExpired);
+    }
+    
+    /**
+     * Folds a notification into the recipient's open digest row for the same title, if there
+     * is one that is still inside its window and unread. Returns null when a new row is needed.
+     *
+     * The digest is updated in memory under its lock and the resulting snapshot is written
+     * with one conditional UPDATE outside it. Each snapshot carries a later merge time than
+     * the one before, so when concurrent merges commit out of order the older snapshot
+     * updates nothing. A merge adds no audit row and does not change the unread count.
+     */
+    private Notification mergeIntoDigest(User user, String title, String message,
+                                         String relatedEntityType, Long relatedEntityId) {
+        OpenDigest digest = openDigests.get(digestKey(user, title));
+        if (digest == null) {
+            return null;
+        }
+        
+        DigestSnapshot snapshot;
+        synchronized (digest) {
+            if (digest.closed || digest.isExpired()) {
+                return null;
+            }
+            digest.add(new DigestItem(message, relatedEntityType, relatedEntityId));
+            snapshot = digest.snapshot();
+        }
+        
+        int updated = notificationRepository.updateDigest(digest.notificationId, snapshot.title, snapshot.message,
+            snapshot.metadataJson, relatedEntityId != null ? relatedEntityType : null, relatedEntityId,
+            snapshot.mergedAt);
+        Notification merged = notificationRepository.findById(digest.notificationId).orElse(null);
+        if (merged == null || Boolean.TRUE.equals(merged.getIsRead())) {
+            synchronized (digest) {
+                digest.closed = true;
+            }
+            return null;
+        }
+        
+        // updated == 0 with the row still unread: a later snapshot, which includes this item, got there first
+        if (updated > 0) {
+            NotificationResponse pushed = NotificationResponse.fromEntity(merged);
+            afterCommit(() -> notificationStreamService.publish(user.getId(), pushed));
+        }
+        return merged;
+    }
+    
+    private String digestKey(User user, String title) {
+        return user.getId() + "|" + title;
+    }
+    
+    /**
+     * Applies a delta to the user's cached unread counter and pushes the new value to open streams.
+     * Users without a cached counter are skipped; their count is loaded on the next read. A counter
+     * another node has invalidated is reloaded instead, so the pushed count includes its changes.
+     */
+    private void adjustUnreadCount(User user, long delta) {
+        UnreadCounter counter = unreadCounters.get(user.getId());
+        if (counter == null) {
+            return;
+        }
+        
+        long count;
+        if (counter.isStale()) {
+            count = reloadUnreadCounter(user).count.get();
+        } else {
+            count = counter.count.updateAndGet(current -> Math.max(0, current + delta));
+        }
+        notificationStreamService.publishUnreadCount(user.getId(), count);
+    }
+    
+    /**
+     * Runs the action once the surrounding transaction commits, or straight away outside one,
+     * so a rollback never leaves a pushed notification or a counter change behind
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private UnreadCounter reloadUnreadCounter(User user) {
+        UnreadCounter counter = new UnreadCounter(notificationRepository.countUnreadByUser(user));
+        unreadCounters.put(user.getId(), counter);
+        return counter;
+    }
+    
+    private static final class UnreadCounter {
+        private final AtomicLong count;
+        private final long loadedAt = System.currentTimeMillis();
+        private volatile boolean invalidated;
+        
+        private UnreadCounter(long initial) {
+            this.count = new AtomicLong(initial);
+        }
+        
+        private void invalidate() {
+            invalidated = true;
+        }
+        
+        private boolean isStale() {
+            return invalidated || System.currentTimeMillis() - loadedAt > UNREAD_COUNT_RECONCILE_MILLIS;
+        }
+    }
+    
+    private static final class DigestItem {
+        private final String message;
+        private final String relatedEntityType;
+        private final Long relatedEntityId;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        
+        private DigestItem(String message, String relatedEntityType, Long relatedEntityId) {
+            this.message = message;
+            this.relatedEntityType = relatedEntityType;
+            this.relatedEntityId = relatedEntityId;
+        }
+    }
+    
+    private static final class DigestSnapshot {
+        private final String title;
+        private final String message;
+        private final String metadataJson;
+        private final LocalDateTime mergedAt;
+        
+        private DigestSnapshot(String title, String message, String metadataJson, LocalDateTime mergedAt) {
+            this.title = title;
+            this.message = message;
+            this.metadataJson = metadataJson;
+            this.mergedAt = mergedAt;
+        }
+    }
+    
+    private final class OpenDigest {
+        private final Long notificationId;
+        private final String baseTitle;
+        private final long windowEnd;
+        private final List<DigestItem> items = new ArrayList<>();
+        private int count;
+        private boolean closed;
+        private LocalDateTime lastMergedAt;
+        
+        private OpenDigest(Long notificationId, String baseTitle, DigestItem first, long windowEnd) {
+            this.notificationId = notificationId;
+            this.baseTitle = baseTitle;
+            this.windowEnd = windowEnd;
+            add(first);
+        }
+        
+        private void add(DigestItem item) {
+            count++;
+            items.add(item);
+            if (items.size() > MAX_DIGEST_ITEMS) {
+                items.remove(0);
+            }
+        }
+        
+        private boolean isExpired() {
+            return System.currentTimeMillis() > windowEnd;
+        }
+        
+        /**
+         * Current title, message and metadata, stamped with a merge time never earlier than the last one
+         */
+        private DigestSnapshot snapshot() {
+            LocalDateTime now = LocalDateTime.now();
+            lastMergedAt = lastMergedAt != null && !now.isAfter(lastMergedAt) ? lastMergedAt.plusNanos(1000) : now;
+            return new DigestSnapshot(title(), message(), metadataJson(), lastMergedAt);
+        }
+        
+        private String title() {
+            String title = baseTitle + " (" + count + ")";
+            return title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title;
+        }
+        
+        private String message() {
+            StringBuilder message = new StringBuilder()
+                .append(count).append(" updates:");
+            int from = Math.max(0, items.size() - MAX_DIGEST_LINES);
+            for (int i = items.size() - 1; i >= from; i--) {
+                message.append("\n• ").append(items.get(i).message);
+            }
+            int hidden = count - (items.size() - from);
+            if (hidden > 0) {
+                message.append("\n…and ").append(hidden).append(" more");
+            }
+            return message.toString();
+        }
+        
+        private String metadataJson() {
+            List<Map<String, Object>> entries = new ArrayList<>();
+            for (DigestItem item : items) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("message", item.message);
+                entry.put("relatedEntityType", item.relatedEntityType);
+                entry.put("relatedEntityId", item.relatedEntityId);
+                entry.put("createdAt", item.createdAt.toString());
+                entries.add(entry);
+            }
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("digestCount", count);
+            metadata.put("items", entries);
+            try {
+                return objectMapper.writeValueAsString(metadata);
+            } catch (Exception e) {
+                logger.warn("Failed to serialize notification digest metadata: {}", e.getMessage());
+                return null;
+            }
+        }
+    }
 }
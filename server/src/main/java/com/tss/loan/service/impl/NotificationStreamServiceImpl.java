@@ -1,28 +1,139 @@
 package com.tss.loan.service.impl;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tss.loan.dto.response.NotificationResponse;
+import com.tss.loan.service.NotificationBroadcastBus;
+import com.tss.loan.service.NotificationBroadcastBus.StreamMessage;
 import com.tss.loan.service.NotificationStreamService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * SSE fan-out for in-app notifications.
+ *
+ * Publishing only serializes the payload and enqueues it on each connection's bounded
+ * outbound queue; a dedicated sender pool drains the queues, so a slow client never
+ * blocks the transaction that raised the notification. When a queue is full the oldest
+ * notification is dropped, and unread-count updates are coalesced to the latest value.
+ * Heartbeats keep proxies from closing idle streams and reap connections that stopped draining.
+ *
+ * A send that blocks past the write deadline, on a client that stopped reading, closes its
+ * stream, and the sender pool gets a replacement thread until the blocked one returns on the
+ * container's own write timeout. A few stalled clients therefore cannot hold every sender.
+ *
+ * Messages go through the {@link NotificationBroadcastBus}, so with a multi-node bus a
+ * publish on one node reaches the user's streams on whichever node holds them.
+ */
 @Service
 public class NotificationStreamServiceImpl implements NotificationStreamService {
-    private final Map<UUID, Set<SseEmitter>> userEmitters = new ConcurrentHashMap<>();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamServiceImpl.class);
+
+    private static final String NOTIFICATION_EVENT = "notification";
+    private static final String UNREAD_COUNT_EVENT = "unread-count";
+
+    // sendStartedAt value of a send the watchdog gave up on
+    private static final long SEND_ABANDONED = -1;
+
+    private final Map<UUID, Map<SseEmitter, StreamConnection>> userConnections = new ConcurrentHashMap<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NotificationBroadcastBus broadcastBus;
+
+    @Value("${notification.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${notification.stream.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${notification.stream.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${notification.stream.heartbeat-ms:20000}")
+    private long heartbeatMs;
+
+    @Value("${notification.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // Replacement threads added for sends stuck past the deadline
+    @Value("${notification.stream.max-stalled-senders:64}")
+    private int maxStalledSenders;
+
+    private ThreadPoolExecutor senderPool;
+    private int stalledSenders;
+    private Counter droppedEvents;
+    private Counter stalledSends;
+
+    @PostConstruct
+    public void init() {
+        senderPool = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new SenderThreadFactory());
+
+        Gauge.builder("notification.stream.connections", openConnections, AtomicInteger::get)
+            .description("Open SSE notification streams")
+            .register(meterRegistry);
+        Gauge.builder("notification.stream.queue.depth", this, NotificationStreamServiceImpl::totalQueueDepth)
+            .description("Events waiting in SSE outbound queues")
+            .register(meterRegistry);
+        droppedEvents = Counter.builder("notification.stream.dropped")
+            .description("Notification events dropped for slow SSE consumers")
+            .register(meterRegistry);
+        stalledSends = Counter.builder("notification.stream.send.timeouts")
+            .description("SSE streams closed because a send blocked past the write deadline")
+            .register(meterRegistry);
+
+        broadcastBus.subscribe(this::deliverLocally);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senderPool.shutdownNow();
+    }
 
     @Override
     public SseEmitter register(UUID userId) {
-        SseEmitter emitter = new SseEmitter(0L);
-        userEmitters.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        StreamConnection connection = new StreamConnection(userId, emitter, queueCapacity);
+        userConnections.computeIfAbsent(userId, k -> new ConcurrentHashMap<>()).put(emitter, connection);
+        openConnections.incrementAndGet();
 
         emitter.onCompletion(() -> remove(userId, emitter));
         emitter.onTimeout(() -> remove(userId, emitter));
@@ -37,11 +148,6 @@ public class NotificationStreamServiceImpl implements NotificationStreamService
 
     @Override
     public void publish(UUID userId, NotificationResponse notification) {
-        Set<SseEmitter> emitters = userEmitters.get(userId);
-        if (emitters == null || emitters.isEmpty()) {
-            return;
-        }
-
         String payload;
         try {
             payload = objectMapper.writeValueAsString(notification);
@@ -49,27 +155,240 @@ public class NotificationStreamServiceImpl implements NotificationStreamService
             return;
         }
 
-        emitters.removeIf(emitter -> {
-            try {
-                emitter.send(SseEmitter.event().name("notification").data(payload, MediaType.APPLICATION_JSON));
-                return false;
-            } catch (IOException e) {
-                emitter.complete();
-                return true;
+        broadcastBus.publish(new StreamMessage(userId, NOTIFICATION_EVENT, payload));
+    }
+
+    @Override
+    public void publishUnreadCount(UUID userId, long unreadCount) {
+        broadcastBus.publish(new StreamMessage(userId, UNREAD_COUNT_EVENT, "{\"count\":" + unreadCount + "}"));
+    }
+
+    /**
+     * Hands bus messages to the streams this node holds; users connected elsewhere are skipped.
+     */
+    private void deliverLocally(List<StreamMessage> messages) {
+        for (StreamMessage message : messages) {
+            Map<SseEmitter, StreamConnection> connections = userConnections.get(message.userId);
+            if (connections == null || connections.isEmpty()) {
+                continue;
+            }
+
+            for (StreamConnection connection : connections.values()) {
+                if (UNREAD_COUNT_EVENT.equals(message.eventName)) {
+                    connection.pendingUnreadCount.set(message.payload);
+                } else if (!connection.enqueue(message.payload)) {
+                    droppedEvents.increment();
+                }
+                schedule(connection);
             }
-        });
+        }
     }
 
     @Override
     public void remove(UUID userId, SseEmitter emitter) {
-        Set<SseEmitter> emitters = userEmitters.get(userId);
-        if (emitters != null) {
-            emitters.remove(emitter);
-            if (emitters.isEmpty()) {
-                userEmitters.remove(userId);
+        Map<SseEmitter, StreamConnection> connections = userConnections.get(userId);
+        if (connections != null) {
+            StreamConnection removed = connections.remove(emitter);
+            if (removed != null && removed.closed.compareAndSet(false, true)) {
+                openConnections.decrementAndGet();
+            }
+            if (connections.isEmpty()) {
+                userConnections.remove(userId, connections);
+            }
+        }
+    }
+
+    /**
+     * Queues a heartbeat on every stream and closes streams whose sender has made no
+     * progress for several heartbeat intervals while still holding undelivered events.
+     */
+    @Scheduled(fixedDelayString = "${notification.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        long stalledBefore = System.currentTimeMillis() - heartbeatMs * 3;
+        for (Map<SseEmitter, StreamConnection> connections : userConnections.values()) {
+            for (StreamConnection connection : connections.values()) {
+                if (connection.hasPendingEvents() && connection.lastProgressAt < stalledBefore) {
+                    logger.debug("Closing stalled notification stream for user {}", connection.userId);
+                    close(connection);
+                    continue;
+                }
+                connection.heartbeatPending.set(true);
+                schedule(connection);
             }
         }
     }
-}
 
+    /**
+     * Closes streams whose in-flight send has been blocked past the write deadline and lends
+     * the sender pool a thread until that send returns
+     */
+    @Scheduled(fixedDelayString = "${notification.stream.send-check-ms:1000}")
+    public void enforceSendDeadline() {
+        long deadline = System.currentTimeMillis() - sendTimeoutMs;
+        for (Map<SseEmitter, StreamConnection> connections : userConnections.values()) {
+            for (StreamConnection connection : connections.values()) {
+                long started = connection.sendStartedAt.get();
+                if (started > 0 && started < deadline
+                        && connection.sendStartedAt.compareAndSet(started, SEND_ABANDONED)) {
+                    logger.debug("Notification stream send for user {} exceeded {} ms, closing",
+                        connection.userId, sendTimeoutMs);
+                    stalledSends.increment();
+                    remove(connection.userId, connection.emitter);
+                    resizeSenderPool(1);
+                }
+            }
+        }
+    }
 
+    private synchronized void resizeSenderPool(int delta) {
+        int stalled = stalledSenders + delta;
+        int replacements = Math.min(Math.max(stalled, 0), maxStalledSenders);
+        int previous = Math.min(Math.max(stalledSenders, 0), maxStalledSenders);
+        stalledSenders = stalled;
+        if (replacements == previous) {
+            return;
+        }
+        int size = senderThreads + replacements;
+        // The core size may never exceed the maximum, so the order depends on the direction
+        if (replacements > previous) {
+            senderPool.setMaximumPoolSize(size);
+            senderPool.setCorePoolSize(size);
+        } else {
+            senderPool.setCorePoolSize(size);
+            senderPool.setMaximumPoolSize(size);
+        }
+    }
+
+    private void schedule(StreamConnection connection) {
+        if (connection.closed.get() || !connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senderPool.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            connection.draining.set(false);
+        }
+    }
+
+    private void drain(StreamConnection connection) {
+        try {
+            while (!connection.closed.get()) {
+                String notification = connection.queue.poll();
+                if (notification != null) {
+                    send(connection, SseEmitter.event().name(NOTIFICATION_EVENT)
+                        .data(notification, MediaType.APPLICATION_JSON));
+                } else {
+                    String unreadCount = connection.pendingUnreadCount.getAndSet(null);
+                    if (unreadCount != null) {
+                        send(connection, SseEmitter.event().name(UNREAD_COUNT_EVENT)
+                            .data(unreadCount, MediaType.APPLICATION_JSON));
+                    } else if (connection.heartbeatPending.getAndSet(false)) {
+                        send(connection, SseEmitter.event().comment("ping"));
+                    } else {
+                        break;
+                    }
+                }
+                connection.lastProgressAt = System.currentTimeMillis();
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(connection);
+        } finally {
+            connection.draining.set(false);
+        }
+
+        // Events enqueued after the last poll but before draining was released
+        if (connection.hasPendingEvents()) {
+            schedule(connection);
+        }
+    }
+
+    /**
+     * Sends one event under the write deadline. A send the watchdog abandoned closes the
+     * stream when it finally returns and hands back the replacement thread.
+     */
+    private void send(StreamConnection connection, SseEventBuilder event) throws IOException {
+        connection.sendStartedAt.set(System.currentTimeMillis());
+        boolean abandoned;
+        try {
+            connection.emitter.send(event);
+        } finally {
+            abandoned = connection.sendStartedAt.getAndSet(0) == SEND_ABANDONED;
+            if (abandoned) {
+                resizeSenderPool(-1);
+            }
+        }
+        if (abandoned) {
+            throw new IOException("Send exceeded the write deadline");
+        }
+    }
+
+    private void close(StreamConnection connection) {
+        remove(connection.userId, connection.emitter);
+        try {
+            connection.emitter.complete();
+        } catch (Exception ignored) { }
+    }
+
+    private double totalQueueDepth() {
+        int depth = 0;
+        for (Map<SseEmitter, StreamConnection> connections : userConnections.values()) {
+            for (StreamConnection connection : connections.values()) {
+                depth += connection.queue.size();
+            }
+        }
+        return depth;
+    }
+
+    private static final class StreamConnection {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<String> queue;
+        // Only the latest unread count matters, so it bypasses the queue
+        private final AtomicReference<String> pendingUnreadCount = new AtomicReference<>();
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Start of the send in progress, 0 when idle, SEND_ABANDONED once past the deadline
+        private final AtomicLong sendStartedAt = new AtomicLong();
+        private volatile long lastProgressAt = System.currentTimeMillis();
+
+        private StreamConnection(UUID userId, SseEmitter emitter, int capacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Adds a notification, evicting the oldest queued one when full.
+         * Returns false when an event had to be dropped.
+         *
+         * Producers are serialized so a slot freed by evicting cannot be taken by another
+         * producer; only the sender removes entries concurrently, which only makes room.
+         */
+        private boolean enqueue(String payload) {
+            synchronized (queue) {
+                if (queue.offer(payload)) {
+                    return true;
+                }
+                boolean dropped = queue.poll() != null;
+                queue.offer(payload);
+                return !dropped;
+            }
+        }
+
+        private boolean hasPendingEvents() {
+            return !queue.isEmpty() || pendingUnreadCount.get() != null || heartbeatPending.get();
+        }
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "sse-sender-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.tss.loan.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tss.loan.entity.enums.RoleType;
+import com.tss.loan.entity.enums.UserStatus;
+import com.tss.loan.entity.user.OfficerWorkload;
+import com.tss.loan.entity.user.User;
+import com.tss.loan.events.OfficerWorkloadChangedEvent;
+import com.tss.loan.repository.LoanApplicationRepository;
+import com.tss.loan.repository.OfficerWorkloadRepository;
+import com.tss.loan.repository.UserRepository;
+import com.tss.loan.service.OfficerWorkloadIndex;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Lock-free workload index backed by per-officer counter rows.
+ *
+ * Each officer has a slot holding an immutable (officer, count) entry; every role keeps
+ * its officers' entries in a skip list ordered by count, so the least-loaded officer is
+ * the first live entry. A change swaps the slot's entry with a CAS and then replaces it
+ * in the skip list. Entries left behind by racing updates are skipped by readers and
+ * cleared on reconciliation.
+ *
+ * Reserving capacity first claims the slot in memory, which moves concurrent callers on
+ * to the next officer without any lock, then confirms it with a conditional increment of
+ * the officer's officer_workloads row inside the caller's transaction. The row update is
+ * what guarantees capacity across nodes; a reservation that the row refuses, or whose
+ * transaction rolls back, is given back in memory.
+ */
+@Service
+public class OfficerWorkloadIndexImpl implements OfficerWorkloadIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfficerWorkloadIndexImpl.class);
+
+    private static final List<RoleType> OFFICER_ROLES = List.of(
+        RoleType.LOAN_OFFICER,
+        RoleType.SENIOR_LOAN_OFFICER,
+        RoleType.COMPLIANCE_OFFICER,
+        RoleType.SENIOR_COMPLIANCE_OFFICER);
+
+    private static final Comparator<Load> BY_LOAD = Comparator
+        .comparingInt((Load load) -> load.activeCases)
+        .thenComparing(load -> load.officerId)
+        .thenComparingLong(load -> load.sequence);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private OfficerWorkloadRepository officerWorkloadRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Counters changed more recently than this are not corrected by reconciliation
+    @Value("${workload.index.quiet-seconds:30}")
+    private long quietSeconds;
+
+    // Officers whose counter may refuse a reservation before giving up
+    @Value("${workload.index.reserve-attempts:5}")
+    private int reserveAttempts;
+
+    @Value("${workload.capacity.loan-officer:10}")
+    private int loanOfficerCapacity;
+
+    @Value("${workload.capacity.senior-loan-officer:10}")
+    private int seniorLoanOfficerCapacity;
+
+    @Value("${workload.capacity.compliance-officer:10}")
+    private int complianceOfficerCapacity;
+
+    @Value("${workload.capacity.senior-compliance-officer:15}")
+    private int seniorComplianceOfficerCapacity;
+
+    private final Map<RoleType, Integer> capacities = new EnumMap<>(RoleType.class);
+
+    // Counter writes made outside the caller's transaction, e.g. after it committed
+    private TransactionTemplate independentTransaction;
+
+    private final Map<RoleType, NavigableSet<Load>> loadsByRole = new EnumMap<>(RoleType.class);
+    private final Map<UUID, Slot> slots = new ConcurrentHashMap<>();
+    // Makes every entry distinct so racing updates never collapse into one skip-list node
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean initialized;
+
+    public OfficerWorkloadIndexImpl() {
+        for (RoleType role : OFFICER_ROLES) {
+            loadsByRole.put(role, new ConcurrentSkipListSet<>(BY_LOAD));
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        independentTransaction = new TransactionTemplate(transactionManager);
+        independentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        capacities.put(RoleType.LOAN_OFFICER, loanOfficerCapacity);
+        capacities.put(RoleType.SENIOR_LOAN_OFFICER, seniorLoanOfficerCapacity);
+        capacities.put(RoleType.COMPLIANCE_OFFICER, complianceOfficerCapacity);
+        capacities.put(RoleType.SENIOR_COMPLIANCE_OFFICER, seniorComplianceOfficerCapacity);
+    }
+
+    @Override
+    public int getCapacity(RoleType role) {
+        return capacities.getOrDefault(role, 0);
+    }
+
+    @Override
+    public Optional<UUID> findLeastLoaded(RoleType role) {
+        return findAvailable(role).keySet().stream().findFirst();
+    }
+
+    @Override
+    public Map<UUID, Integer> findAvailable(RoleType role) {
+        ensureInitialized();
+        NavigableSet<Load> loads = loadsByRole.get(role);
+        if (loads == null) {
+            return Collections.emptyMap();
+        }
+        int capacity = getCapacity(role);
+        Map<UUID, Integer> available = new LinkedHashMap<>();
+        for (Load load : loads) {
+            if (load.activeCases >= capacity) {
+                break;
+            }
+            if (isCurrent(load)) {
+                available.put(load.officerId, load.activeCases);
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public Optional<UUID> reserve(List<UUID> officerIds) {
+        ensureInitialized();
+        int refusals = 0;
+        // Officers filled by a concurrent caller are passed over freely; only counter refusals use up attempts
+        for (UUID officerId : officerIds) {
+            if (refusals >= reserveAttempts) {
+                break;
+            }
+            Slot slot = slots.get(officerId);
+            int capacity = slot != null ? getCapacity(slot.role) : 0;
+            if (slot == null || !claim(slot, capacity)) {
+                continue;
+            }
+            if (officerWorkloadRepository.reserve(officerId, capacity, LocalDateTime.now()) == 1) {
+                releaseOnRollback(officerId);
+                return Optional.of(officerId);
+            }
+
+            // Filled up on another node, or the counter row does not exist yet
+            adjustInMemory(officerId, -1);
+            refusals++;
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void release(UUID officerId) {
+        // The counter row is already locked by this transaction's reservation, so this cannot block on it
+        officerWorkloadRepository.adjust(officerId, -1, LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adjustInMemory(officerId, -1);
+            return;
+        }
+        // On rollback the reservation's own handler already gives the slot back in memory
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjustInMemory(officerId, -1);
+            }
+        });
+    }
+
+    @Override
+    public int getWorkload(UUID officerId) {
+        ensureInitialized();
+        Slot slot = slots.get(officerId);
+        return slot != null ? slot.current.get().activeCases : -1;
+    }
+
+    @Override
+    public void register(User officer, int activeCases) {
+        if (loadsByRole.containsKey(officer.getRole()) && !slots.containsKey(officer.getId())) {
+            addSlot(officer, ensureCounter(officer.getId(), activeCases));
+        }
+    }
+
+    private void addSlot(User officer, int activeCases) {
+        NavigableSet<Load> loads = loadsByRole.get(officer.getRole());
+        slots.computeIfAbsent(officer.getId(), id -> {
+            Slot slot = new Slot(officer.getRole(), newLoad(id, activeCases));
+            loads.add(slot.current.get());
+            return slot;
+        });
+    }
+
+    @Override
+    public void adjust(UUID officerId, int delta) {
+        adjustInMemory(officerId, delta);
+        try {
+            independentTransaction.executeWithoutResult(status ->
+                officerWorkloadRepository.adjust(officerId, delta, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            // Reconciliation corrects the counter once it is quiet
+            logger.warn("Failed to adjust workload counter for officer {}: {}", officerId, e.getMessage());
+        }
+    }
+
+    /**
+     * Applied after the application change commits, so rolled-back work never moves a count.
+     * Assignments made through reserve() are already counted and raise no event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkloadChanged(OfficerWorkloadChangedEvent event) {
+        adjust(event.getOfficerId(), event.getDelta());
+    }
+
+    /**
+     * Rebuilds memory from the counter rows after correcting counters that have drifted
+     * from the committed application counts. Counters touched within the quiet period
+     * are left alone, since their difference may be a reservation not yet committed.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${workload.index.reconcile-ms:60000}")
+    public synchronized void reconcile() {
+        Map<UUID, Integer> counts = new HashMap<>();
+        addCounts(counts, loanApplicationRepository.countByAssignedOfficerGrouped(LOAN_OFFICER_ACTIVE_STATUSES));
+        addCounts(counts, loanApplicationRepository.countByAssignedComplianceOfficerGrouped(
+            COMPLIANCE_OFFICER_ACTIVE_STATUSES));
+
+        Map<UUID, OfficerWorkload> counters = new HashMap<>();
+        for (OfficerWorkload counter : officerWorkloadRepository.findAll()) {
+            counters.put(counter.getOfficerId(), counter);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime quietSince = now.minusSeconds(quietSeconds);
+        Set<UUID> activeOfficers = new HashSet<>();
+        for (RoleType role : OFFICER_ROLES) {
+            for (User officer : userRepository.findByRoleAndStatus(role, UserStatus.ACTIVE)) {
+                activeOfficers.add(officer.getId());
+                int committed = counts.getOrDefault(officer.getId(), 0);
+                OfficerWorkload counter = counters.get(officer.getId());
+
+                int activeCases;
+                if (counter == null) {
+                    activeCases = ensureCounter(officer.getId(), committed);
+                } else if (counter.getActiveCases() != committed
+                        && officerWorkloadRepository.correct(officer.getId(), committed, now, quietSince) == 1) {
+                    logger.info("Corrected workload counter for officer {} from {} to {}",
+                        officer.getId(), counter.getActiveCases(), committed);
+                    activeCases = committed;
+                } else {
+                    activeCases = counter.getActiveCases();
+                }
+
+                Slot slot = slots.get(officer.getId());
+                if (slot != null && slot.role != role) {
+                    remove(officer.getId());
+                    slot = null;
+                }
+                if (slot == null) {
+                    addSlot(officer, activeCases);
+                } else {
+                    update(slot, count -> activeCases);
+                }
+            }
+        }
+
+        // Deactivated officers and officers whose role changed away from an officer role
+        for (UUID officerId : slots.keySet()) {
+            if (!activeOfficers.contains(officerId)) {
+                remove(officerId);
+            }
+        }
+        for (NavigableSet<Load> loads : loadsByRole.values()) {
+            loads.removeIf(load -> !isCurrent(load));
+        }
+
+        initialized = true;
+        logger.debug("Workload index reconciled for {} officers", slots.size());
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    reconcile();
+                }
+            }
+        }
+    }
+
+    private void adjustInMemory(UUID officerId, int delta) {
+        Slot slot = slots.get(officerId);
+        if (slot != null) {
+            update(slot, count -> Math.max(0, count + delta));
+        }
+    }
+
+    /**
+     * Takes one unit of the officer's capacity in memory; concurrent callers see it at once
+     */
+    private boolean claim(Slot slot, int capacity) {
+        Load current;
+        do {
+            current = slot.current.get();
+            if (current.activeCases >= capacity) {
+                return false;
+            }
+        } while (!swap(slot, current, current.activeCases + 1));
+        return true;
+    }
+
+    private void update(Slot slot, IntUnaryOperator change) {
+        Load current;
+        do {
+            current = slot.current.get();
+        } while (!swap(slot, current, change.applyAsInt(current.activeCases)));
+    }
+
+    private boolean swap(Slot slot, Load expected, int activeCases) {
+        Load next = newLoad(expected.officerId, activeCases);
+        if (!slot.current.compareAndSet(expected, next)) {
+            return false;
+        }
+        NavigableSet<Load> loads = loadsByRole.get(slot.role);
+        loads.add(next);
+        loads.remove(expected);
+        return true;
+    }
+
+    /**
+     * The counter update rolled back with the caller's transaction; only memory needs undoing
+     */
+    private void releaseOnRollback(UUID officerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    adjustInMemory(officerId, -1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Creates the officer's counter row if missing and returns its current value
+     */
+    private int ensureCounter(UUID officerId, int activeCases) {
+        try {
+            return independentTransaction.execute(status -> officerWorkloadRepository.findById(officerId)
+                .orElseGet(() -> officerWorkloadRepository.save(
+                    new OfficerWorkload(officerId, activeCases, LocalDateTime.now())))
+                .getActiveCases());
+        } catch (RuntimeException e) {
+            // Usually another node created it first; reconciliation picks up its value
+            logger.debug("Could not create workload counter for officer {}: {}", officerId, e.getMessage());
+            return activeCases;
+        }
+    }
+
+    private void remove(UUID officerId) {
+        Slot slot = slots.remove(officerId);
+        if (slot != null) {
+            loadsByRole.get(slot.role).remove(slot.current.get());
+        }
+    }
+
+    private boolean isCurrent(Load load) {
+        Slot slot = slots.get(load.officerId);
+        return slot != null && slot.current.get() == load;
+    }
+
+    private void addCounts(Map<UUID, Integer> counts, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            counts.merge((UUID) row[0], ((Number) row[1]).intValue(), Integer::sum);
+        }
+    }
+
+    private Load newLoad(UUID officerId, int activeCases) {
+        return new Load(officerId, activeCases, sequence.incrementAndGet());
+    }
+
+    private static final class Slot {
+        private final RoleType role;
+        private final AtomicReference<Load> current;
+
+        private Slot(RoleType role, Load load) {
+            this.role = role;
+            this.current = new AtomicReference<>(load);
+        }
+    }
+
+    private static final class Load {
+        private final UUID officerId;
+        private final int activeCases;
+        private final long sequence;
+
+        private Load(UUID officerId, int activeCases, long sequence) {
+            this.officerId = officerId;
+            this.activeCases = activeCases;
+            this.sequence = sequence;
+        }
+    }
+}
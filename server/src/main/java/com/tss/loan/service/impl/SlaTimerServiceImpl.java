@@ -0,0 +1,452 @@
+package com.tss.loan.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tss.loan.dto.response.SlaStageSummaryResponse;
+import com.tss.loan.entity.enums.ApplicationEventType;
+import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.enums.NotificationType;
+import com.tss.loan.entity.loan.LoanApplication;
+import com.tss.loan.entity.user.User;
+import com.tss.loan.entity.workflow.ApplicationEvent;
+import com.tss.loan.entity.workflow.SlaDeadline;
+import com.tss.loan.events.ApplicationTimelineEvent;
+import com.tss.loan.repository.LoanApplicationRepository;
+import com.tss.loan.repository.SlaDeadlineRepository;
+import com.tss.loan.scheduler.HierarchicalTimingWheel;
+import com.tss.loan.service.ComplianceOfficerService;
+import com.tss.loan.service.NotificationService;
+import com.tss.loan.service.SlaTimerService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * SLA timers on a hierarchical timing wheel, backed by one sla_deadlines row per tracked
+ * application.
+ *
+ * Status changes on the timeline open, move or close the deadline in the transaction that
+ * makes them; the wheel is updated after commit. Each tick advances the wheel and handles
+ * only the timers that fell due, so nothing scans for overdue applications. Handling
+ * re-reads the locked deadline and the application, which makes stale timers harmless:
+ * one left behind by a rollback, or a second instance firing the same timer, finds
+ * nothing to do. A timer whose handling fails goes back on the wheel with a doubling delay.
+ *
+ * After a restart the first tick rebuilds the wheel from the pending rows and opens
+ * deadlines for applications that were already in a tracked stage without one, counting
+ * from their last update.
+ */
+@Service
+public class SlaTimerServiceImpl implements SlaTimerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlaTimerServiceImpl.class);
+
+    private static final int RECOVERY_PAGE_SIZE = 500;
+
+    @Autowired
+    private SlaDeadlineRepository deadlineRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private ComplianceOfficerService complianceOfficerService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${sla.tick-ms:60000}")
+    private long tickMillis;
+
+    @Value("${sla.wheel-size:64}")
+    private int wheelSize;
+
+    @Value("${sla.retry-max-ms:3600000}")
+    private long retryMaxMillis;
+
+    @Value("${sla.under-review.escalate-hours:48}")
+    private long underReviewEscalateHours;
+
+    @Value("${sla.under-review.due-hours:72}")
+    private long underReviewDueHours;
+
+    @Value("${sla.document-incomplete.escalate-hours:168}")
+    private long documentIncompleteEscalateHours;
+
+    @Value("${sla.document-incomplete.due-hours:336}")
+    private long documentIncompleteDueHours;
+
+    @Value("${sla.pending-compliance-docs.escalate-hours:120}")
+    private long pendingComplianceDocsEscalateHours;
+
+    @Value("${sla.pending-compliance-docs.due-hours:168}")
+    private long pendingComplianceDocsDueHours;
+
+    private final Map<ApplicationStatus, Policy> policies = new EnumMap<>(ApplicationStatus.class);
+
+    // Timers found already due when armed; handled on the next tick
+    private final Queue<UUID> overdue = new ConcurrentLinkedQueue<>();
+
+    // application -> consecutive failed attempts to handle its timer
+    private final Map<UUID, Integer> failures = new ConcurrentHashMap<>();
+
+    private HierarchicalTimingWheel<UUID> wheel;
+    private TransactionTemplate independentTransaction;
+    private volatile boolean recovered;
+
+    @PostConstruct
+    public void init() {
+        addPolicy(ApplicationStatus.UNDER_REVIEW, underReviewEscalateHours, underReviewDueHours);
+        addPolicy(ApplicationStatus.DOCUMENT_INCOMPLETE, documentIncompleteEscalateHours, documentIncompleteDueHours);
+        addPolicy(ApplicationStatus.PENDING_COMPLIANCE_DOCS, pendingComplianceDocsEscalateHours,
+            pendingComplianceDocsDueHours);
+
+        wheel = new HierarchicalTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        independentTransaction = new TransactionTemplate(transactionManager);
+        independentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("sla.timers.pending", wheel, HierarchicalTimingWheel::size)
+            .description("SLA timers waiting on the timing wheel")
+            .register(meterRegistry);
+    }
+
+    private void addPolicy(ApplicationStatus stage, long escalateHours, long dueHours) {
+        Policy policy = new Policy(stage, escalateHours > 0 && escalateHours < dueHours ? escalateHours : null,
+            dueHours);
+        policy.escalations = Counter.builder("sla.escalations")
+            .description("Applications escalated for running long in a stage")
+            .tag("stage", stage.name())
+            .register(meterRegistry);
+        policy.breaches = Counter.builder("sla.breaches")
+            .description("Applications that stayed in a stage past its deadline")
+            .tag("stage", stage.name())
+            .register(meterRegistry);
+        policy.metDuration = Timer.builder("sla.stage.duration")
+            .description("Time applications spent in a stage with an SLA")
+            .tags("stage", stage.name(), "outcome", "met")
+            .register(meterRegistry);
+        policy.breachedDuration = Timer.builder("sla.stage.duration")
+            .description("Time applications spent in a stage with an SLA")
+            .tags("stage", stage.name(), "outcome", "breached")
+            .register(meterRegistry);
+        policies.put(stage, policy);
+    }
+
+    /**
+     * Runs inside the transaction that changes the status, so the deadline commits or rolls back with it
+     */
+    @EventListener
+    public void onTimelineEvent(ApplicationTimelineEvent timelineEvent) {
+        ApplicationEvent event = timelineEvent.getEvent();
+        if (event.getEventType() != ApplicationEventType.STATUS_CHANGED
+                || (!policies.containsKey(event.getFromStatus()) && !policies.containsKey(event.getToStatus()))) {
+            return;
+        }
+
+        UUID applicationId = event.getApplicationId();
+        SlaDeadline deadline = deadlineRepository.findById(applicationId).orElse(null);
+        if (deadline != null) {
+            recordStageDuration(deadline, event.getOccurredAt());
+        }
+
+        Policy policy = policies.get(event.getToStatus());
+        if (policy == null) {
+            if (deadline != null) {
+                deadlineRepository.delete(deadline);
+            }
+            afterCommit(() -> {
+                wheel.cancel(applicationId);
+                failures.remove(applicationId);
+            });
+            return;
+        }
+
+        if (deadline == null) {
+            deadline = new SlaDeadline();
+            deadline.setApplicationId(applicationId);
+        }
+        open(deadline, policy, event.getOccurredAt());
+        SlaDeadline saved = deadlineRepository.save(deadline);
+        afterCommit(() -> arm(saved));
+    }
+
+    @Scheduled(fixedDelayString = "${sla.tick-ms:60000}")
+    public void tick() {
+        if (!recovered) {
+            recover();
+        }
+
+        List<UUID> due = wheel.advance(System.currentTimeMillis());
+        for (UUID applicationId = overdue.poll(); applicationId != null; applicationId = overdue.poll()) {
+            due.add(applicationId);
+        }
+        for (UUID applicationId : due) {
+            try {
+                SlaDeadline rearm = independentTransaction.execute(status -> fire(applicationId));
+                failures.remove(applicationId);
+                if (rearm != null) {
+                    arm(rearm);
+                }
+            } catch (RuntimeException e) {
+                // The row is still pending; the timer is already off the wheel, so put it back
+                int attempts = failures.merge(applicationId, 1, Integer::sum);
+                long delay = retryDelay(attempts);
+                logger.error("Failed to handle SLA timer of application {} (attempt {}), retrying in {} ms: {}",
+                    applicationId, attempts, delay, e.getMessage());
+                retry(applicationId, delay);
+            }
+        }
+    }
+
+    @Override
+    public List<SlaStageSummaryResponse> getStageSummary() {
+        Map<ApplicationStatus, long[]> counts = new EnumMap<>(ApplicationStatus.class);
+        for (Object[] row : deadlineRepository.countOpenByStage()) {
+            counts.put((ApplicationStatus) row[0], new long[] {
+                ((Number) row[1]).longValue(), row[2] != null ? ((Number) row[2]).longValue() : 0 });
+        }
+
+        List<SlaStageSummaryResponse> summary = new ArrayList<>();
+        for (Policy policy : policies.values()) {
+            long[] stageCounts = counts.getOrDefault(policy.stage, new long[2]);
+            summary.add(SlaStageSummaryResponse.builder()
+                .stage(policy.stage)
+                .escalateAfterHours(policy.escalateHours)
+                .dueAfterHours(policy.dueHours)
+                .openCount(stageCounts[0])
+                .breachedCount(stageCounts[1])
+                .escalationsSinceStartup((long) policy.escalations.count())
+                .breachesSinceStartup((long) policy.breaches.count())
+                .build());
+        }
+        return summary;
+    }
+
+    /**
+     * Handles a timer that fell due
+     * @return the deadline when it has a later timer to arm, otherwise null
+     */
+    private SlaDeadline fire(UUID applicationId) {
+        SlaDeadline deadline = deadlineRepository.findByIdForUpdate(applicationId).orElse(null);
+        if (deadline == null || deadline.nextFireAt() == null) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isBefore(deadline.nextFireAt())) {
+            // Moved since this timer was set; arm it for the new time
+            return deadline;
+        }
+
+        LoanApplication application = loanApplicationRepository.findById(applicationId).orElse(null);
+        if (application == null || application.getStatus() != deadline.getStage()) {
+            // Left the stage without a status change on the timeline
+            deadlineRepository.delete(deadline);
+            return null;
+        }
+
+        Policy policy = policies.get(deadline.getStage());
+        if (policy == null) {
+            // Tracking for the stage was switched off
+            deadlineRepository.delete(deadline);
+            return null;
+        }
+
+        if (deadline.getEscalateAt() != null && deadline.getEscalatedAt() == null) {
+            deadline.setEscalatedAt(now);
+            policy.escalations.increment();
+            notifyResponsibleOfficer(application, deadline.getStage(), "SLA Escalation",
+                String.format("Application %s has been in %s since %s and is due by %s.",
+                    applicationId, deadline.getStage(), deadline.getEnteredAt(), deadline.getDueAt()));
+            logger.info("Application {} escalated in {}", applicationId, deadline.getStage());
+            if (now.isBefore(deadline.getDueAt())) {
+                return deadline;
+            }
+        }
+
+        deadline.setBreachedAt(now);
+        policy.breaches.increment();
+        logger.warn("Application {} breached the {} SLA, due {}", applicationId, deadline.getStage(), deadline.getDueAt());
+        if (deadline.getStage() == ApplicationStatus.PENDING_COMPLIANCE_DOCS
+                && application.getAssignedComplianceOfficer() != null) {
+            // Moves the application on, which closes the deadline through the timeline
+            complianceOfficerService.expireComplianceDocumentRequest(applicationId);
+        } else {
+            notifyResponsibleOfficer(application, deadline.getStage(), "SLA Breached",
+                String.format("Application %s has been in %s since %s and is past its deadline of %s.",
+                    applicationId, deadline.getStage(), deadline.getEnteredAt(), deadline.getDueAt()));
+        }
+        return null;
+    }
+
+    private void recover() {
+        synchronized (this) {
+            if (recovered) {
+                return;
+            }
+            int armed = 0;
+            UUID after = new UUID(0, 0);
+            List<SlaDeadline> page;
+            do {
+                page = deadlineRepository.findPendingAfter(after, PageRequest.of(0, RECOVERY_PAGE_SIZE));
+                for (SlaDeadline deadline : page) {
+                    arm(deadline);
+                    after = deadline.getApplicationId();
+                }
+                armed += page.size();
+            } while (page.size() == RECOVERY_PAGE_SIZE);
+
+            int opened = 0;
+            List<LoanApplication> untracked;
+            do {
+                untracked = loanApplicationRepository.findWithoutSlaDeadline(policies.keySet(),
+                    PageRequest.of(0, RECOVERY_PAGE_SIZE));
+                List<SlaDeadline> deadlines = new ArrayList<>();
+                for (LoanApplication application : untracked) {
+                    SlaDeadline deadline = new SlaDeadline();
+                    deadline.setApplicationId(application.getId());
+                    LocalDateTime enteredAt = application.getUpdatedAt() != null
+                        ? application.getUpdatedAt() : application.getCreatedAt();
+                    open(deadline, policies.get(application.getStatus()), enteredAt);
+                    deadlines.add(deadline);
+                }
+                for (SlaDeadline deadline : deadlineRepository.saveAll(deadlines)) {
+                    arm(deadline);
+                }
+                opened += untracked.size();
+            } while (untracked.size() == RECOVERY_PAGE_SIZE);
+
+            recovered = true;
+            logger.info("SLA timers recovered: {} pending, {} opened for untracked applications", armed, opened);
+        }
+    }
+
+    private void open(SlaDeadline deadline, Policy policy, LocalDateTime enteredAt) {
+        deadline.setStage(policy.stage);
+        deadline.setEnteredAt(enteredAt);
+        deadline.setEscalateAt(policy.escalateHours != null ? enteredAt.plusHours(policy.escalateHours) : null);
+        deadline.setDueAt(enteredAt.plusHours(policy.dueHours));
+        deadline.setEscalatedAt(null);
+        deadline.setBreachedAt(null);
+    }
+
+    private void arm(SlaDeadline deadline) {
+        LocalDateTime fireAt = deadline.nextFireAt();
+        if (fireAt == null) {
+            wheel.cancel(deadline.getApplicationId());
+            return;
+        }
+        if (!wheel.schedule(deadline.getApplicationId(), toMillis(fireAt))) {
+            overdue.add(deadline.getApplicationId());
+        }
+    }
+
+    /**
+     * One tick for the first retry, doubling with each further failure up to the cap
+     */
+    private long retryDelay(int attempts) {
+        long delay = tickMillis << Math.min(attempts - 1, 30);
+        return Math.max(tickMillis, Math.min(delay, retryMaxMillis));
+    }
+
+    private void retry(UUID applicationId, long delayMillis) {
+        // A status change in the meantime re-arms the timer itself, replacing this one
+        if (!wheel.isScheduled(applicationId)
+                && !wheel.schedule(applicationId, System.currentTimeMillis() + delayMillis)) {
+            overdue.add(applicationId);
+        }
+    }
+
+    private void recordStageDuration(SlaDeadline deadline, LocalDateTime leftAt) {
+        Policy policy = policies.get(deadline.getStage());
+        if (policy == null || leftAt == null) {
+            return;
+        }
+        long millis = Math.max(0, toMillis(leftAt) - toMillis(deadline.getEnteredAt()));
+        boolean breached = deadline.getBreachedAt() != null || leftAt.isAfter(deadline.getDueAt());
+        (breached ? policy.breachedDuration : policy.metDuration).record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The loan officer for loan officer stages, the compliance officer for compliance stages
+     */
+    private void notifyResponsibleOfficer(LoanApplication application, ApplicationStatus stage, String title,
+                                          String message) {
+        User officer = stage == ApplicationStatus.PENDING_COMPLIANCE_DOCS
+            ? application.getAssignedComplianceOfficer() : application.getAssignedOfficer();
+        if (officer == null) {
+            return;
+        }
+        try {
+            notificationService.createNotification(officer, NotificationType.IN_APP, title, message);
+        } catch (Exception e) {
+            logger.warn("Failed to notify officer {} about SLA of application {}: {}",
+                officer.getId(), application.getId(), e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Policy {
+        private final ApplicationStatus stage;
+        private final Long escalateHours;
+        private final long dueHours;
+        private Counter escalations;
+        private Counter breaches;
+        private Timer metDuration;
+        private Timer breachedDuration;
+
+        private Policy(ApplicationStatus stage, Long escalateHours, long dueHours) {
+            this.stage = stage;
+            this.escalateHours = escalateHours;
+            this.dueHours = dueHours;
+        }
+    }
+}
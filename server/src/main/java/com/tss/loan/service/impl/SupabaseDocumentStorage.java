@@ -0,0 +1,221 @@
+package com.tss.loan.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.tss.loan.service.DocumentStorage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Supabase Storage over its REST API. Uploads and downloads are streamed in chunks
+ * so a file is never held on the heap as a whole. The caller's InputStream is read
+ * on the bounded elastic scheduler, never on the WebClient event loop.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.provider", havingValue = "supabase", matchIfMissing = true)
+public class SupabaseDocumentStorage implements DocumentStorage {
+    
+    private static final int UPLOAD_CHUNK_SIZE = 64 * 1024;
+    private static final Duration STORAGE_TIMEOUT = Duration.ofSeconds(60);
+    // Downloaded buffers requested ahead of the reader
+    private static final int DOWNLOAD_DEMAND = 16;
+    
+    @Autowired
+    private WebClient webClient;
+    
+    @Value("${supabase.url}")
+    private String supabaseUrl;
+    
+    @Value("${supabase.service.key}")
+    private String serviceKey;
+    
+    @Value("${supabase.bucket.name}")
+    private String bucketName;
+    
+    @Override
+    public long store(String objectName, InputStream content, long contentLength, String contentType) throws IOException {
+        long[] bytesSent = {0};
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(
+                () -> content, DefaultDataBufferFactory.sharedInstance, UPLOAD_CHUNK_SIZE)
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnNext(buffer -> bytesSent[0] += buffer.readableByteCount());
+        
+        try {
+            webClient.post()
+                .uri(objectUrl(objectName))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
+                .header(HttpHeaders.CONTENT_TYPE, contentType)
+                .header("x-upsert", "true")
+                .contentLength(contentLength)
+                .body(BodyInserters.fromDataBuffers(body))
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(STORAGE_TIMEOUT);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to store " + objectName + ": " + e.getMessage(), e);
+        }
+        return bytesSent[0];
+    }
+    
+    /**
+     * Returns once the response headers arrive, so a missing object fails here rather than
+     * part way through the copy; the body is read as the caller consumes the stream
+     */
+    @Override
+    public InputStream open(String objectName) throws IOException {
+        ResponseEntity<Flux<DataBuffer>> response;
+        try {
+            response = webClient.get()
+                .uri(objectUrl(objectName))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .block(STORAGE_TIMEOUT);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read " + objectName + ": " + e.getMessage(), e);
+        }
+        return body(objectName, response);
+    }
+    
+    /**
+     * Fetches only the requested bytes with an HTTP Range request, streamed like open()
+     */
+    @Override
+    public InputStream open(String objectName, long offset, long length) throws IOException {
+        ResponseEntity<Flux<DataBuffer>> response;
+        try {
+            response = webClient.get()
+                .uri(objectUrl(objectName))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
+                .header(HttpHeaders.RANGE, "bytes=" + offset + "-" + (offset + length - 1))
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .block(STORAGE_TIMEOUT);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read " + objectName + ": " + e.getMessage(), e);
+        }
+        return body(objectName, response);
+    }
+    
+    @Override
+    public void delete(String objectName) throws IOException {
+        try {
+            webClient.delete()
+                .uri(objectUrl(objectName))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(STORAGE_TIMEOUT);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to delete " + objectName + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Storage rejects a move onto an existing key, so a client error is checked against
+     * the target before it is treated as a failure
+     */
+    @Override
+    public boolean moveIfAbsent(String source, String target) throws IOException {
+        try {
+            webClient.post()
+                .uri(supabaseUrl + "/storage/v1/object/move")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("bucketId", bucketName, "sourceKey", source, "destinationKey", target))
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(STORAGE_TIMEOUT);
+            return true;
+        } catch (WebClientResponseException e) {
+            if (!e.getStatusCode().is4xxClientError() || !exists(target)) {
+                throw new IOException("Failed to move " + source + " to " + target + ": " + e.getMessage(), e);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to move " + source + " to " + target + ": " + e.getMessage(), e);
+        }
+        delete(source);
+        return false;
+    }
+    
+    @Override
+    public String publicUrl(String objectName) {
+        return supabaseUrl + "/storage/v1/object/public/" + bucketName + "/" + objectName;
+    }
+    
+    @Override
+    public String signedUrl(String objectName, Duration expiresIn) throws IOException {
+        Map<?, ?> response;
+        try {
+            response = webClient.post()
+                .uri(supabaseUrl + "/storage/v1/object/sign/" + bucketName + "/" + objectName)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("expiresIn", expiresIn.toSeconds()))
+                .retrieve()
+                .bodyToMono(Map.class)
+                .block(STORAGE_TIMEOUT);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to sign " + objectName + ": " + e.getMessage(), e);
+        }
+        
+        // The signed path is relative to the storage API root
+        Object signedPath = response != null ? response.get("signedURL") : null;
+        if (signedPath == null) {
+            throw new IOException("No signed URL returned for " + objectName);
+        }
+        return supabaseUrl + "/storage/v1" + signedPath;
+    }
+    
+    /**
+     * A one-byte ranged read, so the check costs no transfer
+     */
+    @Override
+    public boolean exists(String objectName) throws IOException {
+        Boolean found;
+        try {
+            found = webClient.get()
+                .uri(objectUrl(objectName))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceKey)
+                .header(HttpHeaders.RANGE, "bytes=0-0")
+                .exchangeToMono(response -> Mono.just(response.statusCode().is2xxSuccessful()))
+                .block(STORAGE_TIMEOUT);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to check " + objectName + ": " + e.getMessage(), e);
+        }
+        return Boolean.TRUE.equals(found);
+    }
+    
+    /**
+     * Body of a download as a stream that requests a few buffers ahead of the reader
+     */
+    private InputStream body(String objectName, ResponseEntity<Flux<DataBuffer>> response) throws IOException {
+        if (response == null || response.getBody() == null) {
+            throw new IOException("Object not found: " + objectName);
+        }
+        return DataBufferUtils.subscriberInputStream(response.getBody().timeout(STORAGE_TIMEOUT), DOWNLOAD_DEMAND);
+    }
+    
+    private String objectUrl(String objectName) {
+        return supabaseUrl + "/storage/v1/object/" + bucketName + "/" + objectName;
+    }
+}
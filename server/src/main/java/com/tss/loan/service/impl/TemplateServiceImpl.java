@@ -1,37 +1,112 @@
 package com.tss.loan.service.impl;
 
+import java.io.IOException;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import com.tss.loan.service.TemplateService;
 
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Renders notification and email templates.
+ *
+ * All templates under templates/notifications are parsed once at startup so the
+ * Thymeleaf template cache is warm before the first notification goes out. Layout
+ * templates are not notifications and are left out of the warm-up.
+ */
 @Service
 public class TemplateServiceImpl implements TemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateServiceImpl.class);
+
+    private static final String BODY_PREFIX = "notifications/";
+    private static final String SUBJECT_PREFIX = "notifications/subject/";
+    private static final String BODY_PATTERN = "classpath*:templates/notifications/*.html";
+    private static final String SUBJECT_PATTERN = "classpath*:templates/notifications/subject/*.html";
+    private static final String TEMPLATE_SUFFIX = ".html";
+
+    // Shared layouts in the notifications folder that are not rendered on their own
+    private static final Set<String> LAYOUT_TEMPLATES = Set.of("base-template");
+
     @Autowired
     private TemplateEngine templateEngine;
 
+    // template code -> resolved template name
+    private final Map<String, String> bodyTemplates = new ConcurrentHashMap<>();
+    private final Map<String, String> subjectTemplates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void preloadTemplates() {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        int bodies = preload(resolver, BODY_PATTERN, BODY_PREFIX, bodyTemplates);
+        int subjects = preload(resolver, SUBJECT_PATTERN, SUBJECT_PREFIX, subjectTemplates);
+        logger.info("Preloaded {} notification templates and {} subject templates", bodies, subjects);
+    }
+
     @Override
     public String render(String templateCode, Map<String, Object> variables) {
-        Context ctx = new Context();
-        if (variables != null) {
-            variables.forEach(ctx::setVariable);
-        }
-        return templateEngine.process("notifications/" + templateCode, ctx);
+        String templateName = bodyTemplates.computeIfAbsent(templateCode, code -> BODY_PREFIX + code);
+        return process(templateName, variables);
     }
 
     @Override
     public String subject(String templateCode, Map<String, Object> variables) {
         // convention: subject templates under notifications/subject/{code}
-        Context ctx = new Context();
+        String templateName = subjectTemplates.computeIfAbsent(templateCode, code -> SUBJECT_PREFIX + code);
+        return process(templateName, variables).strip();
+    }
+
+    private String process(String templateName, Map<String, Object> variables) {
+        Context ctx = new Context(Locale.getDefault());
         if (variables != null) {
-            variables.forEach(ctx::setVariable);
+            ctx.setVariables(variables);
         }
-        return templateEngine.process("notifications/subject/" + templateCode, ctx);
+        return templateEngine.process(templateName, ctx);
     }
-}
 
+    private int preload(PathMatchingResourcePatternResolver resolver, String pattern, String prefix,
+                        Map<String, String> registry) {
+        Resource[] resources;
+        try {
+            resources = resolver.getResources(pattern);
+        } catch (IOException e) {
+            logger.warn("Could not scan templates for {}: {}", pattern, e.getMessage());
+            return 0;
+        }
 
+        int loaded = 0;
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (filename == null || !filename.endsWith(TEMPLATE_SUFFIX)) {
+                continue;
+            }
+            String code = filename.substring(0, filename.length() - TEMPLATE_SUFFIX.length());
+            if (LAYOUT_TEMPLATES.contains(code)) {
+                continue;
+            }
+            String templateName = prefix + code;
+            registry.put(code, templateName);
+
+            // Rendering once parses the template into the engine's cache
+            try {
+                process(templateName, null);
+                loaded++;
+            } catch (Exception e) {
+                logger.warn("Failed to precompile template {}: {}", templateName, e.getMessage());
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,182 @@
+package com.tss.loan.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tss.loan.entity.enums.LoanType;
+import com.tss.loan.entity.enums.Priority;
+import com.tss.loan.repository.ApplicationWorkflowRepository;
+import com.tss.loan.service.AssignmentStrategy;
+import com.tss.loan.service.OfficerWorkloadIndex;
+
+/**
+ * Scores each candidate on spare capacity, experience with the loan type and historical
+ * throughput, and orders them by score.
+ *
+ * How much throughput counts against spare capacity depends on the case's urgency, which
+ * grows with its priority and with how long it has been waiting: urgent cases go to the
+ * officers who clear cases fastest, routine ones mostly balance load. Officer history
+ * comes from workflow transitions out of the officer's stage, cached and refreshed on a
+ * schedule, so ranking issues no queries.
+ */
+@Service
+@ConditionalOnProperty(name = "assignment.strategy", havingValue = "weighted", matchIfMissing = true)
+public class WeightedAssignmentStrategy implements AssignmentStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeightedAssignmentStrategy.class);
+
+    private static final int HIGHEST_PRIORITY_LEVEL = Priority.CRITICAL.getLevel();
+
+    @Autowired
+    private ApplicationWorkflowRepository workflowRepository;
+
+    @Autowired
+    private OfficerWorkloadIndex workloadIndex;
+
+    @Value("${assignment.weights.load:1.0}")
+    private double loadWeight;
+
+    @Value("${assignment.weights.specialization:0.6}")
+    private double specializationWeight;
+
+    @Value("${assignment.weights.throughput:0.8}")
+    private double throughputWeight;
+
+    // Share of urgency that comes from Priority; the rest comes from time spent waiting
+    @Value("${assignment.urgency.priority-share:0.6}")
+    private double priorityShare;
+
+    // Waiting this long makes a case fully urgent on the age side
+    @Value("${assignment.urgency.full-after-hours:24}")
+    private long fullUrgencyAfterHours;
+
+    @Value("${assignment.stats.lookback-days:30}")
+    private long lookbackDays;
+
+    // officer -> completed cases in the lookback window; replaced whole on refresh
+    private volatile Map<UUID, OfficerHistory> histories;
+
+    @Override
+    public List<UUID> rank(Work work, Map<UUID, Integer> candidates) {
+        if (candidates.size() < 2) {
+            return new ArrayList<>(candidates.keySet());
+        }
+        Map<UUID, OfficerHistory> current = getHistories();
+
+        int mostCompleted = 0;
+        for (UUID officerId : candidates.keySet()) {
+            mostCompleted = Math.max(mostCompleted, current.getOrDefault(officerId, OfficerHistory.NONE).completed);
+        }
+
+        int capacity = Math.max(1, workloadIndex.getCapacity(work.getRole()));
+        double urgency = urgency(work);
+        Map<UUID, Double> scores = new HashMap<>();
+        for (Map.Entry<UUID, Integer> candidate : candidates.entrySet()) {
+            OfficerHistory history = current.getOrDefault(candidate.getKey(), OfficerHistory.NONE);
+            double spare = 1.0 - Math.min(1.0, (double) candidate.getValue() / capacity);
+            double throughput = mostCompleted > 0 ? (double) history.completed / mostCompleted : 0.0;
+
+            double score = loadWeight * spare * (1.0 - urgency / 2)
+                + specializationWeight * history.share(work.getLoanType())
+                + throughputWeight * throughput * (0.5 + urgency);
+            scores.put(candidate.getKey(), score);
+        }
+
+        // Ties keep the index's least-loaded order
+        List<UUID> ranked = new ArrayList<>(candidates.keySet());
+        ranked.sort(Comparator.comparingDouble((UUID officerId) -> scores.get(officerId)).reversed());
+        return ranked;
+    }
+
+    /**
+     * 0 for a fresh low-priority case, 1 for a critical case that has waited the full period
+     */
+    private double urgency(Work work) {
+        double priority = (double) (work.getPriority().getLevel() - 1) / (HIGHEST_PRIORITY_LEVEL - 1);
+        long waitedMinutes = Math.max(0, Duration.between(work.getWaitingSince(), LocalDateTime.now()).toMinutes());
+        double age = Math.min(1.0, waitedMinutes / (fullUrgencyAfterHours * 60.0));
+        return priorityShare * priority + (1.0 - priorityShare) * age;
+    }
+
+    private Map<UUID, OfficerHistory> getHistories() {
+        Map<UUID, OfficerHistory> current = histories;
+        if (current == null) {
+            synchronized (this) {
+                if (histories == null) {
+                    refresh();
+                }
+                current = histories;
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${assignment.stats.refresh-ms:600000}")
+    public void refresh() {
+        LocalDateTime since = LocalDateTime.now().minusDays(lookbackDays);
+        Map<UUID, OfficerHistory> loaded = new HashMap<>();
+        try {
+            addCompleted(loaded, workflowRepository.countCompletedByOfficerAndLoanType(
+                OfficerWorkloadIndex.LOAN_OFFICER_ACTIVE_STATUSES, since));
+            addCompleted(loaded, workflowRepository.countCompletedByOfficerAndLoanType(
+                OfficerWorkloadIndex.COMPLIANCE_OFFICER_ACTIVE_STATUSES, since));
+        } catch (RuntimeException e) {
+            // Keep ranking on the previous stats, or on load alone when there are none yet
+            logger.warn("Failed to refresh officer assignment stats: {}", e.getMessage());
+            if (histories == null) {
+                histories = Collections.emptyMap();
+            }
+            return;
+        }
+        histories = loaded;
+        logger.debug("Assignment stats refreshed for {} officers", loaded.size());
+    }
+
+    private void addCompleted(Map<UUID, OfficerHistory> histories, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            if (row[1] == null) {
+                continue;
+            }
+            histories.computeIfAbsent((UUID) row[0], id -> new OfficerHistory())
+                .add((LoanType) row[1], ((Number) row[2]).intValue());
+        }
+    }
+
+    private static final class OfficerHistory {
+        private static final OfficerHistory NONE = new OfficerHistory();
+
+        private final Map<LoanType, Integer> completedByType = new EnumMap<>(LoanType.class);
+        private int completed;
+
+        private void add(LoanType loanType, int count) {
+            completedByType.merge(loanType, count, Integer::sum);
+            completed += count;
+        }
+
+        /**
+         * Fraction of the officer's completed cases that were of this loan type
+         */
+        private double share(LoanType loanType) {
+            if (completed == 0 || loanType == null) {
+                return 0.0;
+            }
+            return (double) completedByType.getOrDefault(loanType, 0) / completed;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.tss.loan.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int WHEEL_SIZE = 4;
+    private static final long START = 1_000;
+
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+
+    @Test
+    void firesOnTheTickItFallsDueAndNotBefore() {
+        assertTrue(wheel.schedule("a", START + 35));
+
+        assertEquals(List.of(), wheel.advance(START + 29));
+        assertTrue(wheel.isScheduled("a"));
+        assertEquals(List.of("a"), wheel.advance(START + 30));
+        assertFalse(wheel.isScheduled("a"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void refusesTimesAlreadyPast() {
+        assertFalse(wheel.schedule("a", START));
+        assertFalse(wheel.schedule("b", START - 100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void reschedulingReplacesTheTimer() {
+        wheel.schedule("a", START + 20);
+        wheel.schedule("a", START + 80);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(START + 50));
+        assertEquals(List.of("a"), wheel.advance(START + 80));
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        wheel.schedule("a", START + 20);
+
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        assertEquals(List.of(), wheel.advance(START + 1_000));
+    }
+
+    @Test
+    void firesInDueOrderAcrossOneAdvance() {
+        wheel.schedule("late", START + 70);
+        wheel.schedule("early", START + 20);
+        wheel.schedule("middle", START + 40);
+
+        assertEquals(List.of("early", "middle", "late"), wheel.advance(START + 100));
+    }
+
+    @Test
+    void farOffTimersCascadeDownAndFireOnTime() {
+        // Several levels above the first with four buckets each
+        long[] offsets = { 50, 170, 640, 1_290, 6_410, 25_600, 102_390 };
+        for (long offset : offsets) {
+            wheel.schedule("t" + offset, START + offset);
+        }
+
+        List<String> fired = new ArrayList<>();
+        for (long now = START; now <= START + 110_000; now += TICK) {
+            for (String key : wheel.advance(now)) {
+                long offset = Long.parseLong(key.substring(1));
+                assertEquals((START + offset) / TICK, now / TICK, key + " fired on the wrong tick");
+                fired.add(key);
+            }
+        }
+        assertEquals(offsets.length, fired.size());
+    }
+
+    @Test
+    void largeJumpFiresEverythingDue() {
+        wheel.schedule("a", START + 30);
+        wheel.schedule("b", START + 5_000);
+        wheel.schedule("c", START + 500_000);
+
+        assertEquals(List.of("a", "b"), wheel.advance(START + 10_000));
+        assertTrue(wheel.isScheduled("c"));
+        assertEquals(List.of("c"), wheel.advance(START + 600_000));
+    }
+
+    @Test
+    void timerCanBeArmedAgainAfterFiring() {
+        wheel.schedule("a", START + 20);
+        assertEquals(List.of("a"), wheel.advance(START + 20));
+
+        // What the SLA service does after a failed handling: back on the wheel a few ticks later
+        assertTrue(wheel.schedule("a", START + 20 + 4 * TICK));
+        assertEquals(List.of(), wheel.advance(START + 50));
+        assertEquals(List.of("a"), wheel.advance(START + 60));
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<String>(0, 4, START));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<String>(10, 1, START));
+    }
+}
@@ -0,0 +1,134 @@
+package com.tss.loan.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.tss.loan.entity.enums.ApplicationStatus;
+
+/**
+ * Invariants of the transition table: no status is a dead end short of a terminal one,
+ * terminal statuses stay closed, and every transition a service performs is declared.
+ */
+class ApplicationStatusTransitionsTest {
+
+    private static final Set<ApplicationStatus> TERMINAL = EnumSet.of(
+        ApplicationStatus.REJECTED, ApplicationStatus.DISBURSED,
+        ApplicationStatus.CANCELLED, ApplicationStatus.EXPIRED);
+
+    /**
+     * Transitions performed through ApplicationWorkflowService.transition, by the service that performs them
+     */
+    private static final List<Path> SERVICE_PATHS = List.of(
+        // LoanApplicationServiceImpl
+        new Path("submit", ApplicationStatus.DRAFT, ApplicationStatus.SUBMITTED),
+        new Path("mark documents resubmitted", ApplicationStatus.DOCUMENT_INCOMPLETE, ApplicationStatus.DOCUMENT_REVERIFICATION),
+        // ApplicationAssignmentServiceImpl and AssignmentQueueServiceImpl
+        new Path("assign loan officer", ApplicationStatus.SUBMITTED, ApplicationStatus.UNDER_REVIEW),
+        // LoanOfficerServiceImpl
+        new Path("start verification", ApplicationStatus.UNDER_REVIEW, ApplicationStatus.DOCUMENT_VERIFICATION),
+        new Path("start reverification", ApplicationStatus.DOCUMENT_REVERIFICATION, ApplicationStatus.DOCUMENT_VERIFICATION),
+        new Path("documents verified", ApplicationStatus.DOCUMENT_VERIFICATION, ApplicationStatus.PENDING_EXTERNAL_VERIFICATION),
+        new Path("documents incomplete", ApplicationStatus.DOCUMENT_VERIFICATION, ApplicationStatus.DOCUMENT_INCOMPLETE),
+        new Path("trigger external verification", ApplicationStatus.PENDING_EXTERNAL_VERIFICATION, ApplicationStatus.FRAUD_CHECK),
+        new Path("external verification done", ApplicationStatus.FRAUD_CHECK, ApplicationStatus.READY_FOR_DECISION),
+        new Path("external verification skipped", ApplicationStatus.PENDING_EXTERNAL_VERIFICATION, ApplicationStatus.READY_FOR_DECISION),
+        new Path("request resubmission", ApplicationStatus.READY_FOR_DECISION, ApplicationStatus.DOCUMENT_INCOMPLETE),
+        // DecisionManagementServiceImpl
+        new Path("approve", ApplicationStatus.READY_FOR_DECISION, ApplicationStatus.APPROVED),
+        new Path("approve after review", ApplicationStatus.UNDER_REVIEW, ApplicationStatus.APPROVED),
+        new Path("reject", ApplicationStatus.READY_FOR_DECISION, ApplicationStatus.REJECTED),
+        new Path("reject after review", ApplicationStatus.UNDER_REVIEW, ApplicationStatus.REJECTED),
+        new Path("flag for compliance", ApplicationStatus.READY_FOR_DECISION, ApplicationStatus.FLAGGED_FOR_COMPLIANCE),
+        new Path("flag during review", ApplicationStatus.UNDER_REVIEW, ApplicationStatus.FLAGGED_FOR_COMPLIANCE),
+        new Path("flag during external checks", ApplicationStatus.FRAUD_CHECK, ApplicationStatus.FLAGGED_FOR_COMPLIANCE),
+        // ComplianceOfficerServiceImpl
+        new Path("start compliance review", ApplicationStatus.FLAGGED_FOR_COMPLIANCE, ApplicationStatus.COMPLIANCE_REVIEW),
+        new Path("request compliance documents", ApplicationStatus.COMPLIANCE_REVIEW, ApplicationStatus.PENDING_COMPLIANCE_DOCS),
+        new Path("request more compliance documents", ApplicationStatus.UNDER_INVESTIGATION, ApplicationStatus.PENDING_COMPLIANCE_DOCS),
+        new Path("start investigation", ApplicationStatus.COMPLIANCE_REVIEW, ApplicationStatus.UNDER_INVESTIGATION),
+        new Path("investigate flagged case", ApplicationStatus.FLAGGED_FOR_COMPLIANCE, ApplicationStatus.UNDER_INVESTIGATION),
+        new Path("compliance documents received", ApplicationStatus.PENDING_COMPLIANCE_DOCS, ApplicationStatus.UNDER_INVESTIGATION),
+        new Path("compliance documents expired", ApplicationStatus.PENDING_COMPLIANCE_DOCS, ApplicationStatus.COMPLIANCE_TIMEOUT),
+        new Path("trigger compliance decision", ApplicationStatus.UNDER_INVESTIGATION, ApplicationStatus.AWAITING_COMPLIANCE_DECISION),
+        new Path("submit compliance decision", ApplicationStatus.AWAITING_COMPLIANCE_DECISION, ApplicationStatus.READY_FOR_DECISION),
+        new Path("clear compliance", ApplicationStatus.UNDER_INVESTIGATION, ApplicationStatus.READY_FOR_DECISION),
+        new Path("quick clear", ApplicationStatus.FLAGGED_FOR_COMPLIANCE, ApplicationStatus.READY_FOR_DECISION),
+        new Path("reject for compliance", ApplicationStatus.UNDER_INVESTIGATION, ApplicationStatus.REJECTED),
+        new Path("quick reject", ApplicationStatus.FLAGGED_FOR_COMPLIANCE, ApplicationStatus.REJECTED),
+        new Path("reject after timeout", ApplicationStatus.COMPLIANCE_TIMEOUT, ApplicationStatus.REJECTED));
+
+    @Test
+    void terminalStatusesAreExactlyTheClosedOnes() {
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            assertEquals(TERMINAL.contains(status), ApplicationStatusTransitions.isTerminal(status),
+                status + " terminal flag");
+        }
+    }
+
+    @Test
+    void terminalStatusesHaveNoExits() {
+        for (ApplicationStatus from : TERMINAL) {
+            assertTrue(ApplicationStatusTransitions.next(from).isEmpty(), from + " has exits");
+            for (ApplicationStatus to : ApplicationStatus.values()) {
+                assertFalse(ApplicationStatusTransitions.isAllowed(from, to), from + " -> " + to + " is allowed");
+            }
+        }
+    }
+
+    @Test
+    void everyNonTerminalStatusReachesATerminalOne() {
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            if (!TERMINAL.contains(status)) {
+                assertTrue(reachableFrom(status).stream().anyMatch(TERMINAL::contains),
+                    status + " cannot reach a terminal status");
+            }
+        }
+    }
+
+    @Test
+    void everyServicePathIsAllowed() {
+        for (Path path : SERVICE_PATHS) {
+            assertTrue(ApplicationStatusTransitions.isAllowed(path.from, path.to),
+                path.name + ": " + path.from + " -> " + path.to + " is not declared");
+        }
+    }
+
+    @Test
+    void nullStatusesAreNeverAllowed() {
+        assertFalse(ApplicationStatusTransitions.isAllowed(null, ApplicationStatus.SUBMITTED));
+        assertFalse(ApplicationStatusTransitions.isAllowed(ApplicationStatus.DRAFT, null));
+    }
+
+    private static Set<ApplicationStatus> reachableFrom(ApplicationStatus start) {
+        Set<ApplicationStatus> seen = EnumSet.noneOf(ApplicationStatus.class);
+        Deque<ApplicationStatus> pending = new ArrayDeque<>(ApplicationStatusTransitions.next(start));
+        while (!pending.isEmpty()) {
+            ApplicationStatus status = pending.poll();
+            if (seen.add(status)) {
+                pending.addAll(ApplicationStatusTransitions.next(status));
+            }
+        }
+        return seen;
+    }
+
+    private static final class Path {
+        private final String name;
+        private final ApplicationStatus from;
+        private final ApplicationStatus to;
+
+        private Path(String name, ApplicationStatus from, ApplicationStatus to) {
+            this.name = name;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.tss.loan.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tss.loan.entity.system.StreamBroadcast;
+import com.tss.loan.repository.StreamBroadcastRepository;
+import com.tss.loan.service.NotificationBroadcastBus.StreamMessage;
+
+/**
+ * Polling against a mocked stream_broadcasts table, with rows committing out of id order.
+ */
+class DatabaseNotificationBroadcastBusTest {
+
+    private static final String NODE = "node-a";
+    private static final String OTHER_NODE = "node-b";
+    private static final long GAP_TIMEOUT_SECONDS = 60;
+    private static final long START = 1_000_000;
+
+    private final StreamBroadcastRepository repository = mock(StreamBroadcastRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DatabaseNotificationBroadcastBus bus = new DatabaseNotificationBroadcastBus();
+
+    private final List<String> delivered = new ArrayList<>();
+    private final List<String> deliveredRemote = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bus, "streamBroadcastRepository", repository);
+        ReflectionTestUtils.setField(bus, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(bus, "configuredNodeId", NODE);
+        ReflectionTestUtils.setField(bus, "gapTimeoutSeconds", GAP_TIMEOUT_SECONDS);
+        when(repository.findMaxId()).thenReturn(0L);
+        when(repository.findAfter(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        when(repository.findByIds(anyCollection())).thenReturn(List.of());
+        bus.init();
+
+        bus.subscribe(messages -> messages.forEach(message -> delivered.add(message.eventName)));
+        bus.subscribeRemote(messages -> messages.forEach(message -> deliveredRemote.add(message.eventName)));
+    }
+
+    @Test
+    void deliversRowsFromOtherNodesOnce() throws Exception {
+        rowsAfter(0, row(1, OTHER_NODE, "first"), row(2, NODE, "own"), row(3, OTHER_NODE, "second"));
+
+        bus.poll(START);
+        bus.poll(START + 500);
+
+        assertEquals(List.of("first", "second"), delivered);
+        assertEquals(List.of("first", "second"), deliveredRemote);
+        verify(repository).findAfter(eq(3L), any(Pageable.class));
+    }
+
+    @Test
+    void deliversARowThatCommitsFarBehindTheHighWaterMark() throws Exception {
+        // Id 2 is taken first but commits after 300 later ids
+        rowsAfter(0, row(1, OTHER_NODE, "early"), row(302, OTHER_NODE, "later"));
+        bus.poll(START);
+        when(repository.findByIds(argThat(ids -> ids != null && ids.contains(2L))))
+            .thenReturn(List.of(row(2, OTHER_NODE, "late")));
+
+        bus.poll(START + 30_000);
+        bus.poll(START + 31_000);
+
+        assertEquals(List.of("early", "later", "late"), delivered);
+    }
+
+    @Test
+    void ownRowsCloseGapsWithoutBeingDelivered() throws Exception {
+        rowsAfter(0, row(1, OTHER_NODE, "first"), row(3, OTHER_NODE, "third"));
+        bus.poll(START);
+        when(repository.findByIds(List.of(2L))).thenReturn(List.of(row(2, NODE, "own")));
+
+        bus.poll(START + 500);
+        bus.poll(START + 1_000);
+
+        assertEquals(List.of("first", "third"), delivered);
+        // The gap closed on the second poll, so the third does not look for it
+        verify(repository, times(1)).findByIds(List.of(2L));
+    }
+
+    @Test
+    void stopsLookingForAGapAfterTheTimeout() throws Exception {
+        rowsAfter(0, row(1, OTHER_NODE, "first"), row(3, OTHER_NODE, "third"));
+        bus.poll(START);
+
+        bus.poll(START + GAP_TIMEOUT_SECONDS * 1000);
+        verify(repository).findByIds(List.of(2L));
+
+        bus.poll(START + GAP_TIMEOUT_SECONDS * 1000 + 1);
+        when(repository.findByIds(List.of(2L))).thenReturn(List.of(row(2, OTHER_NODE, "too late")));
+        bus.poll(START + GAP_TIMEOUT_SECONDS * 1000 + 2);
+
+        assertEquals(List.of("first", "third"), delivered);
+        verify(repository, times(2)).findByIds(List.of(2L));
+    }
+
+    @Test
+    void skipsAnUnreadableRowAndDeliversTheRest() throws Exception {
+        StreamBroadcast broken = row(2, OTHER_NODE, "broken");
+        broken.setMessagesJson("{not json");
+        rowsAfter(0, row(1, OTHER_NODE, "first"), broken, row(3, OTHER_NODE, "third"));
+
+        bus.poll(START);
+
+        assertEquals(List.of("first", "third"), delivered);
+    }
+
+    @Test
+    void publishDeliversLocallyAndFlushesOneRow() throws Exception {
+        bus.publish(message("a"));
+        bus.publish(message("b"));
+
+        assertEquals(List.of("a", "b"), delivered);
+        assertEquals(List.of(), deliveredRemote);
+
+        bus.flush();
+        ArgumentCaptor<StreamBroadcast> saved = ArgumentCaptor.forClass(StreamBroadcast.class);
+        verify(repository).save(saved.capture());
+        assertEquals(NODE, saved.getValue().getOriginNode());
+        assertEquals(2, saved.getValue().getMessageCount());
+
+        // Nothing left to send
+        bus.flush();
+        verify(repository, times(1)).save(any(StreamBroadcast.class));
+    }
+
+    private void rowsAfter(long afterId, StreamBroadcast... rows) {
+        when(repository.findAfter(eq(afterId), any(Pageable.class))).thenReturn(List.of(rows));
+    }
+
+    private StreamBroadcast row(long id, String node, String eventName) throws Exception {
+        StreamBroadcast broadcast = new StreamBroadcast();
+        broadcast.setId(id);
+        broadcast.setOriginNode(node);
+        broadcast.setMessageCount(1);
+        broadcast.setMessagesJson(objectMapper.writeValueAsString(List.of(message(eventName))));
+        return broadcast;
+    }
+
+    private static StreamMessage message(String eventName) {
+        return new StreamMessage(UUID.randomUUID(), eventName, "{}");
+    }
+}
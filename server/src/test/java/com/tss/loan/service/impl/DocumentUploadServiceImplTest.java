@@ -0,0 +1,238 @@
+package com.tss.loan.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.tss.loan.dto.response.DocumentUploadResponse;
+import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.enums.DocumentType;
+import com.tss.loan.entity.loan.LoanDocument;
+import com.tss.loan.entity.user.User;
+import com.tss.loan.mapper.LoanDocumentMapper;
+import com.tss.loan.repository.DocumentBlobRepository;
+import com.tss.loan.repository.LoanApplicationRepository;
+import com.tss.loan.repository.LoanDocumentRepository;
+import com.tss.loan.service.AuditLogService;
+import com.tss.loan.service.DocumentAccessService;
+import com.tss.loan.service.DocumentExtractionService;
+import com.tss.loan.service.DocumentRenditionService;
+import com.tss.loan.service.DocumentStorage;
+import com.tss.loan.service.NotificationService;
+
+class DocumentUploadServiceImplTest {
+
+    private static final int FILE_SIZE = 4 * 1024 * 1024;
+
+    private final DocumentStorage documentStorage = mock(DocumentStorage.class);
+    private final LoanApplicationRepository loanApplicationRepository = mock(LoanApplicationRepository.class);
+    private final LoanDocumentRepository documentRepository = mock(LoanDocumentRepository.class);
+    private final DocumentBlobRepository documentBlobRepository = mock(DocumentBlobRepository.class);
+
+    private final AtomicReference<String> storingThread = new AtomicReference<>();
+    private final AtomicLong documentIds = new AtomicLong();
+
+    private User applicant;
+    private UUID applicationId;
+    private DocumentUploadServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        applicant = new User();
+        applicant.setId(UUID.randomUUID());
+        applicationId = UUID.randomUUID();
+
+        LoanApplicationRepository.DocumentUploadRow row = mock(LoanApplicationRepository.DocumentUploadRow.class);
+        when(row.getApplicantId()).thenReturn(applicant.getId());
+        when(row.getStatus()).thenReturn(ApplicationStatus.DRAFT);
+        when(loanApplicationRepository.findDocumentUploadRows(applicationId)).thenReturn(List.of(row));
+
+        // Storage drains the stream into a sink, as a network transfer would
+        when(documentStorage.store(anyString(), any(InputStream.class), anyLong(), any())).thenAnswer(invocation -> {
+            storingThread.set(Thread.currentThread().getName());
+            try (InputStream content = invocation.getArgument(1)) {
+                return content.transferTo(OutputStream.nullOutputStream());
+            }
+        });
+        when(documentStorage.moveIfAbsent(anyString(), anyString())).thenReturn(true);
+        when(documentRepository.save(any(LoanDocument.class))).thenAnswer(invocation -> {
+            LoanDocument document = invocation.getArgument(0);
+            document.setId(documentIds.incrementAndGet());
+            return document;
+        });
+
+        service = new DocumentUploadServiceImpl(documentStorage, loanApplicationRepository, documentRepository,
+            documentBlobRepository, mock(AuditLogService.class), mock(NotificationService.class),
+            mock(DocumentExtractionService.class), mock(DocumentRenditionService.class),
+            mock(DocumentAccessService.class), mock(LoanDocumentMapper.class),
+            mock(PlatformTransactionManager.class), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void uploadStreamsContentWithoutBufferingTheFile() throws IOException {
+        // Warm up class loading and proxies so only the upload itself is measured
+        service.uploadDocumentWithResponse(new GeneratedFile(FILE_SIZE, 1), DocumentType.PAN_CARD, applicationId, applicant);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        DocumentUploadResponse response = service.uploadDocumentWithResponse(
+            new GeneratedFile(FILE_SIZE, 2), DocumentType.AADHAAR_CARD, applicationId, applicant);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(2L, response.getDocumentId());
+        assertTrue(allocated < FILE_SIZE / 4,
+            "Uploading " + FILE_SIZE + " bytes allocated " + allocated + " bytes on the heap");
+    }
+
+    @Test
+    void newContentIsHashedThenStoredOnce() throws IOException {
+        CountingFile file = new CountingFile(64 * 1024);
+        service.uploadDocumentWithResponse(file, DocumentType.PAN_CARD, applicationId, applicant);
+
+        assertEquals(2, file.opened);
+        verify(documentStorage).store(anyString(), any(InputStream.class), anyLong(), any());
+    }
+
+    @Test
+    void storedContentSkipsTheTransfer() throws IOException {
+        when(documentStorage.exists(anyString())).thenReturn(true);
+        CountingFile file = new CountingFile(64 * 1024);
+
+        service.uploadDocumentWithResponse(file, DocumentType.PAN_CARD, applicationId, applicant);
+
+        assertEquals(1, file.opened);
+        verify(documentStorage, never()).store(anyString(), any(InputStream.class), anyLong(), any());
+        verify(documentStorage, never()).moveIfAbsent(anyString(), anyString());
+        verify(documentBlobRepository).addReference(anyString(), anyString(), eq("application/pdf"),
+            eq(64L * 1024), any());
+    }
+
+    @Test
+    void asyncUploadTransfersOffTheCallingThread() throws Exception {
+        DocumentUploadResponse response = service.uploadDocumentAsync(
+            new GeneratedFile(64 * 1024, 3), DocumentType.PAN_CARD, applicationId, applicant).get();
+
+        assertEquals(1L, response.getDocumentId());
+        assertTrue(storingThread.get().startsWith("document-upload-"), "Stored on " + storingThread.get());
+    }
+
+    private static final class CountingFile extends GeneratedFile {
+        private int opened;
+
+        private CountingFile(long size) {
+            super(size, 4);
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            opened++;
+            return super.getInputStream();
+        }
+    }
+
+    /**
+     * Content produced on demand, so the test file itself puts nothing on the heap.
+     * Reading the whole file into memory fails the test.
+     */
+    private static class GeneratedFile implements MultipartFile {
+        private final long size;
+        private final byte fill;
+
+        private GeneratedFile(long size, int fill) {
+            this.size = size;
+            this.fill = (byte) fill;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "document.pdf";
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/pdf";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("Upload read the whole file into memory");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long remaining = size;
+
+                @Override
+                public int read() {
+                    if (remaining == 0) {
+                        return -1;
+                    }
+                    remaining--;
+                    return fill & 0xff;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    if (remaining == 0) {
+                        return -1;
+                    }
+                    int count = (int) Math.min(length, remaining);
+                    Arrays.fill(buffer, offset, offset + count, fill);
+                    remaining -= count;
+                    return count;
+                }
+            };
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new AssertionError("Upload copied the file");
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.tss.loan.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tss.loan.dto.response.DocumentUploadResponse;
+import com.tss.loan.entity.enums.ApplicationStatus;
+import com.tss.loan.entity.enums.DocumentType;
+import com.tss.loan.entity.enums.LoanType;
+import com.tss.loan.entity.enums.RoleType;
+import com.tss.loan.entity.loan.LoanApplication;
+import com.tss.loan.entity.user.User;
+import com.tss.loan.mapper.LoanDocumentMapper;
+import com.tss.loan.repository.AuditLogRepository;
+import com.tss.loan.repository.DocumentBlobRepository;
+import com.tss.loan.repository.LoanApplicationRepository;
+import com.tss.loan.repository.LoanDocumentRepository;
+import com.tss.loan.repository.NotificationRepository;
+import com.tss.loan.service.AuditLogService;
+import com.tss.loan.service.DocumentAccessService;
+import com.tss.loan.service.DocumentExtractionService;
+import com.tss.loan.service.DocumentRenditionService;
+import com.tss.loan.service.DocumentStorage;
+import com.tss.loan.service.NotificationBroadcastBus;
+import com.tss.loan.service.NotificationStreamService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the JDBC statements of one document upload with Hibernate statistics. The upload
+ * path is the context projection, the blob upsert and the document insert, then the audit
+ * entry and the notification with its own audit entry, written in the same transaction.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DocumentUploadStatementCountTest {
+
+    // Projection, blob upsert, document, audit entry, notification, notification audit entry
+    private static final long MAX_UPLOAD_STATEMENTS = 6;
+
+    @Configuration
+    @EntityScan("com.tss.loan.entity")
+    @EnableJpaRepositories(basePackages = "com.tss.loan.repository", includeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE,
+        classes = { LoanApplicationRepository.class, LoanDocumentRepository.class, DocumentBlobRepository.class,
+            AuditLogRepository.class, NotificationRepository.class }))
+    @Import({ DocumentUploadServiceImpl.class, LoanDocumentMapper.class, AuditLogService.class,
+        NotificationServiceImpl.class })
+    static class Config {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        // MySQL mode for the blob upsert (INSERT ... ON DUPLICATE KEY UPDATE)
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:uploads;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        }
+    }
+
+    @MockitoBean
+    private DocumentStorage documentStorage;
+
+    @MockitoBean
+    private NotificationStreamService notificationStreamService;
+
+    @MockitoBean
+    private NotificationBroadcastBus notificationBroadcastBus;
+
+    @MockitoBean
+    private DocumentExtractionService documentExtractionService;
+
+    @MockitoBean
+    private DocumentRenditionService documentRenditionService;
+
+    @MockitoBean
+    private DocumentAccessService documentAccessService;
+
+    @Autowired
+    private DocumentUploadServiceImpl documentUploadService;
+
+    @Autowired
+    private DocumentBlobRepository documentBlobRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User applicant;
+    private LoanApplication application;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(documentStorage.store(anyString(), any(InputStream.class), anyLong(), any())).thenAnswer(invocation -> {
+            try (InputStream content = invocation.getArgument(1)) {
+                return content.transferTo(OutputStream.nullOutputStream());
+            }
+        });
+        when(documentStorage.moveIfAbsent(anyString(), anyString())).thenReturn(true);
+        when(documentStorage.publicUrl(anyString())).thenAnswer(invocation -> "/storage/" + invocation.getArgument(0));
+
+        applicant = new User();
+        applicant.setEmail("applicant@example.com");
+        applicant.setPhone("9876543210");
+        applicant.setPasswordHash("hash");
+        applicant.setRole(RoleType.APPLICANT);
+        entityManager.persist(applicant);
+
+        application = new LoanApplication();
+        application.setApplicant(applicant);
+        application.setApplicantName("Test Applicant");
+        application.setApplicantEmail(applicant.getEmail());
+        application.setApplicantPhone(applicant.getPhone());
+        application.setLoanType(LoanType.PERSONAL_LOAN);
+        application.setRequestedAmount(new BigDecimal("250000.00"));
+        application.setTenureMonths(24);
+        application.setStatus(ApplicationStatus.DRAFT);
+        entityManager.persist(application);
+
+        // Nothing from the setup may be served from the persistence context
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void uploadWritesItsAuditEntryAndNotificationWithinTheLimit() throws IOException {
+        long statements = countStatements(() -> documentUploadService.uploadDocumentWithResponse(
+            pdf("pan.pdf", "PAN card scan"), DocumentType.PAN_CARD, application.getId(), applicant));
+
+        assertTrue(statements <= MAX_UPLOAD_STATEMENTS,
+            "Upload issued " + statements + " statements, expected at most " + MAX_UPLOAD_STATEMENTS);
+        assertEquals(1, auditLogRepository.findByActionOrderByTimestampDesc("DOCUMENT_UPLOADED",
+            PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, notificationRepository.count());
+    }
+
+    @Test
+    void reuploadOfStoredContentStaysWithinTheLimit() throws IOException {
+        documentUploadService.uploadDocumentWithResponse(
+            pdf("salary.pdf", "Salary slip"), DocumentType.SALARY_SLIP, application.getId(), applicant);
+        entityManager.flush();
+        entityManager.clear();
+
+        long[] documentId = new long[1];
+        long statements = countStatements(() -> {
+            DocumentUploadResponse response = documentUploadService.uploadDocumentWithResponse(
+                pdf("salary-copy.pdf", "Salary slip"), DocumentType.BANK_STATEMENT, application.getId(), applicant);
+            documentId[0] = response.getDocumentId();
+        });
+
+        assertTrue(statements <= MAX_UPLOAD_STATEMENTS,
+            "Re-upload issued " + statements + " statements, expected at most " + MAX_UPLOAD_STATEMENTS);
+        assertTrue(documentId[0] > 0);
+        entityManager.clear();
+        assertEquals(2, documentBlobRepository.findAll().get(0).getReferenceCount());
+        // One audit entry per upload, not one merged entry
+        assertEquals(2, auditLogRepository.findByActionOrderByTimestampDesc("DOCUMENT_UPLOADED",
+            PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    private long countStatements(Upload upload) throws IOException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled());
+        statistics.clear();
+        upload.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static MockMultipartFile pdf(String name, String content) {
+        return new MockMultipartFile("file", name, "application/pdf", content.getBytes());
+    }
+
+    @FunctionalInterface
+    private interface Upload {
+        void run() throws IOException;
+    }
+}
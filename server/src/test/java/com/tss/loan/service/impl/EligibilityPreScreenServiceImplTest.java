@@ -0,0 +1,187 @@
+package com.tss.loan.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tss.loan.dto.response.PreScreenResultResponse;
+
+/**
+ * Bulk pre-screening end to end through the JSON and CSV readers and writers, with a chunk
+ * size small enough that every input spans several chunks.
+ */
+class EligibilityPreScreenServiceImplTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EligibilityPreScreenServiceImpl service = new EligibilityPreScreenServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "eligibilityService", new LoanEligibilityServiceImpl());
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "chunkSize", CHUNK_SIZE);
+        ReflectionTestUtils.setField(service, "annualInterestRate", 12.0);
+        ReflectionTestUtils.setField(service, "defaultTenureMonths", 60);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void jsonArrayReportsAMappingErrorAndKeepsReading() throws IOException {
+        List<PreScreenResultResponse> results = preScreenJson("["
+            + prospect("r1") + ","
+            + prospect("r2") + ","
+            + "{\"reference\":\"r3\",\"loanType\":\"NOT_A_LOAN\",\"employmentType\":\"SALARIED\",\"monthlyIncome\":50000},"
+            + prospect("r4") + ","
+            + prospect("r5") + "]");
+
+        assertLines(results, 5);
+        assertTrue(results.get(2).getError().startsWith("Invalid prospect"), results.get(2).getError());
+        for (int i : new int[] { 0, 1, 3, 4 }) {
+            assertNull(results.get(i).getError(), "line " + (i + 1));
+            assertEquals("r" + (i + 1), results.get(i).getReference());
+        }
+    }
+
+    @Test
+    void ndjsonReportsAMappingErrorMidStreamAndKeepsReading() throws IOException {
+        List<PreScreenResultResponse> results = preScreenJson(
+            prospect("r1") + "\n"
+            + prospect("r2") + "\n"
+            + "{\"reference\":\"r3\",\"loanType\":\"PERSONAL_LOAN\",\"monthlyIncome\":\"lots\",\"nested\":{\"a\":[1,2]}}\n"
+            + prospect("r4") + "\n");
+
+        assertLines(results, 4);
+        assertTrue(results.get(2).getError().startsWith("Invalid prospect"), results.get(2).getError());
+        assertEquals("r4", results.get(3).getReference());
+        assertNull(results.get(3).getError());
+    }
+
+    @Test
+    void malformedJsonIsReportedAndEndsTheRun() throws IOException {
+        List<PreScreenResultResponse> results = preScreenJson(
+            prospect("r1") + "\n"
+            + prospect("r2") + "\n"
+            + "{\"reference\":\"r3\",\n"
+            + prospect("r4") + "\n");
+
+        assertLines(results, 3);
+        assertEquals("r2", results.get(1).getReference());
+        assertTrue(results.get(2).getError().startsWith("Malformed JSON"), results.get(2).getError());
+    }
+
+    @Test
+    void jsonOutputKeepsInputOrderAcrossChunks() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 25; i++) {
+            input.append(prospect("r" + i)).append('\n');
+        }
+
+        List<PreScreenResultResponse> results = preScreenJson(input.toString());
+
+        assertLines(results, 25);
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("r" + (i + 1), results.get(i).getReference());
+        }
+    }
+
+    @Test
+    void affordabilityUsesTheFoirHeadroom() throws IOException {
+        PreScreenResultResponse result = preScreenJson(
+            "{\"reference\":\"r1\",\"loanType\":\"PERSONAL_LOAN\",\"employmentType\":\"SALARIED\","
+            + "\"monthlyIncome\":100000,\"existingEmi\":20000}").get(0);
+
+        // 70% of income less the existing EMI
+        assertEquals(50000.0, result.getMaxEmi());
+        assertEquals(20.0, result.getFoirPercentage());
+        assertTrue(result.isEligible(), String.valueOf(result.getReasons()));
+    }
+
+    @Test
+    void csvHandlesQuotedCommasAndReportsBadCells() throws IOException {
+        List<List<String>> rows = preScreenCsv(
+            "reference,loanType,employmentType,monthlyIncome,requestedAmount\n"
+            + "\"Doe, Jane\",personal_loan,salaried,80000,500000\n"
+            + "r2,NOT_A_LOAN,SALARIED,50000,\n"
+            + "\n"
+            + "r3,HOME_LOAN,SALARIED,lots,\n"
+            + "\"say \"\"hi\"\"\",PERSONAL_LOAN,SALARIED,60000,\n"
+            + "r5,PERSONAL_LOAN,SALARIED,60000,\n");
+
+        assertEquals(List.of("line", "reference", "eligible", "foirPercentage", "foirAcceptable", "requestedEmi",
+            "maxEmi", "maxAffordableAmount", "reasons", "error"), rows.get(0));
+        assertEquals(6, rows.size());
+        List<String> references = new ArrayList<>();
+        for (int i = 1; i < rows.size(); i++) {
+            assertEquals(String.valueOf(i), rows.get(i).get(0), "line column");
+            references.add(rows.get(i).get(1));
+        }
+        assertEquals(List.of("Doe, Jane", "r2", "r3", "say \"hi\"", "r5"), references);
+
+        assertEquals("", rows.get(1).get(9));
+        assertTrue(rows.get(2).get(9).startsWith("Invalid prospect"), rows.get(2).get(9));
+        assertTrue(rows.get(3).get(9).startsWith("Invalid prospect"), rows.get(3).get(9));
+        assertEquals("", rows.get(4).get(9));
+    }
+
+    @Test
+    void csvWithOnlyAHeaderWritesOnlyTheResultHeader() throws IOException {
+        assertEquals(1, preScreenCsv("reference,loanType,employmentType,monthlyIncome\n").size());
+        assertEquals(1, preScreenCsv("").size());
+    }
+
+    private List<PreScreenResultResponse> preScreenJson(String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.preScreenJson(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        try (MappingIterator<PreScreenResultResponse> results =
+                 objectMapper.readerFor(PreScreenResultResponse.class).readValues(out.toByteArray())) {
+            return results.readAll();
+        }
+    }
+
+    private List<List<String>> preScreenCsv(String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.preScreenCsv(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        List<List<String>> rows = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                rows.add(ReflectionTestUtils.invokeMethod(EligibilityPreScreenServiceImpl.class, "parseCsvLine", line));
+            }
+        }
+        return rows;
+    }
+
+    private static void assertLines(List<PreScreenResultResponse> results, int expected) {
+        assertEquals(expected, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertNotNull(results.get(i));
+            assertEquals(i + 1, results.get(i).getLine());
+        }
+    }
+
+    private static String prospect(String reference) {
+        return "{\"reference\":\"" + reference + "\",\"loanType\":\"PERSONAL_LOAN\","
+            + "\"employmentType\":\"SALARIED\",\"monthlyIncome\":60000,\"requestedAmount\":300000}";
+    }
+}
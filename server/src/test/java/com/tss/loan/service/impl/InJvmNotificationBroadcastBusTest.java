@@ -0,0 +1,44 @@
+package com.tss.loan.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.tss.loan.service.NotificationBroadcastBus.StreamMessage;
+
+class InJvmNotificationBroadcastBusTest {
+
+    private final InJvmNotificationBroadcastBus bus = new InJvmNotificationBroadcastBus();
+
+    @Test
+    void deliversEachMessageToEverySubscriberInPublishOrder() {
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        bus.subscribe(messages -> messages.forEach(message -> first.add(message.eventName)));
+        bus.subscribe(messages -> messages.forEach(message -> second.add(message.eventName)));
+
+        bus.publish(message("a"));
+        bus.publish(message("b"));
+
+        assertEquals(List.of("a", "b"), first);
+        assertEquals(List.of("a", "b"), second);
+    }
+
+    @Test
+    void neverCallsRemoteSubscribers() {
+        List<String> remote = new ArrayList<>();
+        bus.subscribeRemote(messages -> messages.forEach(message -> remote.add(message.eventName)));
+
+        bus.publish(message("a"));
+
+        assertEquals(List.of(), remote);
+    }
+
+    private static StreamMessage message(String eventName) {
+        return new StreamMessage(UUID.randomUUID(), eventName, "{}");
+    }
+}
@@ -0,0 +1,96 @@
+package com.tss.loan.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.tss.loan.entity.enums.EmploymentType;
+import com.tss.loan.entity.enums.LoanType;
+
+/**
+ * Eligibility lookups over every loan type and employment type pair, through the compiled
+ * decision table and, as the baseline, straight from the rule declarations. Runs with the
+ * GC profiler: compiledLookup and compiledReasons are expected to report
+ * {@code gc.alloc.rate.norm} of about 0 B/op, since they only index into the compiled
+ * table and its reason strings; anything above a few bytes means a lookup allocates again.
+ * Not part of the test run; start it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.tss.loan.service.impl.LoanEligibilityBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanEligibilityBenchmark {
+
+    private static final LoanType[] LOAN_TYPES = LoanType.values();
+    private static final EmploymentType[] EMPLOYMENT_TYPES = EmploymentType.values();
+
+    private final LoanEligibilityServiceImpl service = new LoanEligibilityServiceImpl();
+
+    private final Map<LoanType, List<EmploymentType>> declaredEligibility =
+        LoanEligibilityServiceImplTest.declared("ELIGIBILITY_MATRIX");
+    private final Map<LoanType, Map<EmploymentType, Integer>> declaredDuration =
+        LoanEligibilityServiceImplTest.declared("MIN_EMPLOYMENT_DURATION");
+
+    @Benchmark
+    public void compiledLookup(Blackhole blackhole) {
+        for (LoanType loanType : LOAN_TYPES) {
+            for (EmploymentType employmentType : EMPLOYMENT_TYPES) {
+                blackhole.consume(service.isEmploymentTypeEligible(loanType, employmentType));
+                blackhole.consume(service.getMinimumEmploymentDuration(loanType, employmentType));
+            }
+        }
+    }
+
+    @Benchmark
+    public void declaredLookup(Blackhole blackhole) {
+        for (LoanType loanType : LOAN_TYPES) {
+            List<EmploymentType> eligible = declaredEligibility.get(loanType);
+            Map<EmploymentType, Integer> durations = declaredDuration.get(loanType);
+            for (EmploymentType employmentType : EMPLOYMENT_TYPES) {
+                blackhole.consume(eligible == null || eligible.contains(employmentType));
+                blackhole.consume(durations != null ? durations.getOrDefault(employmentType, 0) : 0);
+            }
+        }
+    }
+
+    @Benchmark
+    public void compiledReasons(Blackhole blackhole) {
+        for (LoanType loanType : LOAN_TYPES) {
+            for (EmploymentType employmentType : EMPLOYMENT_TYPES) {
+                blackhole.consume(service.getEligibilityReason(loanType, employmentType));
+            }
+        }
+    }
+
+    @Benchmark
+    public void criteria(Blackhole blackhole) {
+        for (LoanType loanType : LOAN_TYPES) {
+            blackhole.consume(service.getLoanEligibilityCriteria(loanType));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(LoanEligibilityBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.tss.loan.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.tss.loan.entity.enums.EmploymentType;
+import com.tss.loan.entity.enums.LoanType;
+
+/**
+ * Compares the compiled decision table with the rule declarations it is built from, for
+ * every loan type and employment type.
+ */
+class LoanEligibilityServiceImplTest {
+
+    private static final double DEFAULT_MIN_INCOME = 25000.0;
+
+    private final LoanEligibilityServiceImpl service = new LoanEligibilityServiceImpl();
+
+    private final Map<LoanType, List<EmploymentType>> declaredEligibility = declared("ELIGIBILITY_MATRIX");
+    private final Map<LoanType, Double> declaredIncome = declared("MIN_INCOME_REQUIREMENTS");
+    private final Map<LoanType, Map<EmploymentType, Integer>> declaredDuration = declared("MIN_EMPLOYMENT_DURATION");
+
+    @Test
+    void eligibilityMatchesTheDeclaredMatrix() {
+        for (LoanType loanType : LoanType.values()) {
+            List<EmploymentType> eligible = declaredEligibility.getOrDefault(loanType,
+                Arrays.asList(EmploymentType.values()));
+            assertEquals(eligible, service.getEligibleEmploymentTypes(loanType), loanType + " eligible types");
+            for (EmploymentType employmentType : EmploymentType.values()) {
+                assertEquals(eligible.contains(employmentType),
+                    service.isEmploymentTypeEligible(loanType, employmentType), loanType + " / " + employmentType);
+            }
+        }
+    }
+
+    @Test
+    void incomeAndDurationMatchTheDeclaredRequirements() {
+        for (LoanType loanType : LoanType.values()) {
+            assertEquals(declaredIncome.getOrDefault(loanType, DEFAULT_MIN_INCOME),
+                service.getMinimumIncomeRequirement(loanType), loanType + " minimum income");
+            Map<EmploymentType, Integer> durations = declaredDuration.getOrDefault(loanType, Map.of());
+            for (EmploymentType employmentType : EmploymentType.values()) {
+                assertEquals(durations.getOrDefault(employmentType, 0),
+                    service.getMinimumEmploymentDuration(loanType, employmentType), loanType + " / " + employmentType);
+            }
+        }
+    }
+
+    @Test
+    void reasonsAgreeWithEligibility() {
+        for (LoanType loanType : LoanType.values()) {
+            for (EmploymentType employmentType : EmploymentType.values()) {
+                String reason = service.getEligibilityReason(loanType, employmentType);
+                assertEquals(service.isEmploymentTypeEligible(loanType, employmentType), reason.startsWith("Eligible"),
+                    loanType + " / " + employmentType + ": " + reason);
+            }
+        }
+    }
+
+    @Test
+    void criteriaMatchTheDeclaredRules() {
+        for (LoanType loanType : LoanType.values()) {
+            Map<String, Object> criteria = service.getLoanEligibilityCriteria(loanType);
+            assertEquals(loanType, criteria.get("loanType"));
+            assertEquals(service.getEligibleEmploymentTypes(loanType), criteria.get("eligibleEmploymentTypes"));
+            assertEquals(service.getMinimumIncomeRequirement(loanType), criteria.get("minimumIncome"));
+            assertEquals(70.0, criteria.get("maxFOIR"));
+
+            @SuppressWarnings("unchecked")
+            Map<EmploymentType, Integer> durations =
+                (Map<EmploymentType, Integer>) criteria.getOrDefault("minimumEmploymentDuration", Map.of());
+            for (EmploymentType employmentType : service.getEligibleEmploymentTypes(loanType)) {
+                int minimum = service.getMinimumEmploymentDuration(loanType, employmentType);
+                assertEquals(minimum > 0 ? minimum : null, durations.get(employmentType),
+                    loanType + " / " + employmentType + " duration");
+            }
+        }
+    }
+
+    @Test
+    void criteriaAreSharedAndUnmodifiable() {
+        Map<String, Object> criteria = service.getLoanEligibilityCriteria(LoanType.HOME_LOAN);
+
+        assertSame(criteria, service.getLoanEligibilityCriteria(LoanType.HOME_LOAN));
+        assertThrows(UnsupportedOperationException.class, () -> criteria.put("extra", 1));
+        assertThrows(UnsupportedOperationException.class,
+            () -> service.getEligibleEmploymentTypes(LoanType.HOME_LOAN).add(EmploymentType.STUDENT));
+    }
+
+    @Test
+    void nullArgumentsFallBackToDefaults() {
+        assertEquals(Arrays.asList(EmploymentType.values()), service.getEligibleEmploymentTypes(null));
+        assertEquals(DEFAULT_MIN_INCOME, service.getMinimumIncomeRequirement(null));
+        assertFalse(service.isEmploymentTypeEligible(LoanType.GOLD_LOAN, null));
+        assertEquals(0, service.getMinimumEmploymentDuration(LoanType.HOME_LOAN, null));
+        assertEquals("Not eligible for this loan type", service.getEligibilityReason(LoanType.HOME_LOAN, null));
+        assertTrue(service.isEmploymentTypeEligible(null, EmploymentType.UNEMPLOYED));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T declared(String name) {
+        try {
+            Field field = LoanEligibilityServiceImpl.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return (T) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Rule declaration " + name + " not found", e);
+        }
+    }
+}
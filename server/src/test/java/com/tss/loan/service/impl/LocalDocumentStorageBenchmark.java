@@ -0,0 +1,111 @@
+package com.tss.loan.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Ranged reads from the local storage backend, as the document proxy serves HTTP Range
+ * requests: through the memory-mapped region, and through a FileChannel stream positioned
+ * at the offset as the baseline. The Supabase backend needs a live project and is not
+ * measured here. Not part of the test run; start it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.tss.loan.service.impl.LocalDocumentStorageBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LocalDocumentStorageBenchmark {
+
+    private static final String OBJECT_NAME = "blobs/benchmark";
+    private static final int OBJECT_SIZE = 16 * 1024 * 1024;
+
+    @Param({ "65536", "4194304" })
+    private int rangeLength;
+
+    private final LocalFileSystemDocumentStorage storage = new LocalFileSystemDocumentStorage();
+
+    private Path root;
+    private long offset;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("storage-benchmark");
+        ReflectionTestUtils.setField(storage, "rootDirectory", root.toString());
+        storage.init();
+
+        byte[] content = new byte[OBJECT_SIZE];
+        new Random(42).nextBytes(content);
+        storage.store(OBJECT_NAME, new ByteArrayInputStream(content), content.length, "application/pdf");
+        // Last range of the object
+        offset = OBJECT_SIZE - rangeLength;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mappedRange(Blackhole blackhole) throws IOException {
+        try (InputStream content = storage.open(OBJECT_NAME, offset, rangeLength)) {
+            consume(content, rangeLength, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void channelRange(Blackhole blackhole) throws IOException {
+        try (InputStream content = storage.open(OBJECT_NAME)) {
+            content.skipNBytes(offset);
+            consume(content, rangeLength, blackhole);
+        }
+    }
+
+    private static void consume(InputStream content, long length, Blackhole blackhole) throws IOException {
+        byte[] buffer = new byte[8192];
+        long remaining = length;
+        int read;
+        while (remaining > 0 && (read = content.read(buffer, 0, (int) Math.min(buffer.length, remaining))) > 0) {
+            remaining -= read;
+            blackhole.consume(buffer[read - 1]);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(LocalDocumentStorageBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
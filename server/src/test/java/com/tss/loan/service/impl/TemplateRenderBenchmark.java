@@ -0,0 +1,96 @@
+package com.tss.loan.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+/**
+ * Render throughput of notification templates through TemplateServiceImpl, with the engine
+ * configured as Spring Boot configures it (classpath templates/, cached). Covers a plain
+ * status email, the larger submission email and a digest that iterates over its items.
+ * Not part of the test run; start it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.tss.loan.service.impl.TemplateRenderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TemplateRenderBenchmark {
+
+    private static final Map<String, Object> STATUS = Map.of(
+        "applicationId", "8f14e45f-ceea-467f-a0e6-1b1c2d3e4f50",
+        "status", "READY_FOR_DECISION");
+
+    private static final Map<String, Object> SUBMITTED = Map.of(
+        "applicationId", "8f14e45f-ceea-467f-a0e6-1b1c2d3e4f50",
+        "loanType", "PERSONAL_LOAN",
+        "amount", "250000.00",
+        "submittedDate", "18 Oct 2026",
+        "userEmail", "applicant@example.com",
+        "dashboardUrl", "http://localhost:4200/applicant/dashboard");
+
+    private static final Map<String, Object> DIGEST = Map.of(
+        "status", "NEW_ASSIGNMENT",
+        "applicationIds", List.of("app-1", "app-2", "app-3", "app-4", "app-5", "app-6", "app-7", "app-8"),
+        "count", 8);
+
+    private final TemplateServiceImpl service = new TemplateServiceImpl();
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        ReflectionTestUtils.setField(service, "templateEngine", engine);
+        service.preloadTemplates();
+    }
+
+    @Benchmark
+    public String statusEmail() {
+        return service.subject("STATUS_EMAIL_SENT", STATUS) + service.render("STATUS_EMAIL_SENT", STATUS);
+    }
+
+    @Benchmark
+    public String submittedEmail() {
+        return service.render("APPLICATION_SUBMITTED_APPLICANT", SUBMITTED);
+    }
+
+    @Benchmark
+    public String digestEmail() {
+        return service.subject("STATUS_EMAIL_DIGEST_SENT", DIGEST) + service.render("STATUS_EMAIL_DIGEST_SENT", DIGEST);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TemplateRenderBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}